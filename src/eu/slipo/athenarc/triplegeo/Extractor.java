@@ -18,21 +18,25 @@
  */
 package eu.slipo.athenarc.triplegeo;
 
+import java.io.File;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
 import org.apache.commons.io.FilenameUtils;
 
+import eu.slipo.athenarc.triplegeo.tools.RdbToRdf;
 import eu.slipo.athenarc.triplegeo.utils.Assistant;
 import eu.slipo.athenarc.triplegeo.utils.Classification;
 import eu.slipo.athenarc.triplegeo.utils.Configuration;
 import eu.slipo.athenarc.triplegeo.utils.Constants;
 import eu.slipo.athenarc.triplegeo.utils.ExceptionHandler;
+import eu.slipo.athenarc.triplegeo.utils.TaskScheduler;
+import eu.slipo.athenarc.triplegeo.utils.TransformCache;
 
 
 /**
@@ -48,7 +52,12 @@ import eu.slipo.athenarc.triplegeo.utils.ExceptionHandler;
  * Modified: 21/11/2017; handling missing specifications for classification and RML mapping files
  * Modified: 12/2/2018; handling missing specifications on georeferencing (CRS: Coordinate Reference Systems) 
  * Modified: 13/7/2018; advanced handling of interrupted or aborted tasks
- * Last modified: 10/10/2018
+ * Modified: 18/10/2026; added support for splitting a single input into chunks transformed by concurrent threads
+ * Modified: 18/10/2026; concurrent tasks are executed by a bounded scheduler (largest input first) under a heap budget
+ * Modified: 18/10/2026; transformations between reference systems prepared at startup in TransformCache
+ * Modified: 18/10/2026; watermark of incremental extraction from a DBMS committed once all tasks have completed successfully
+ * Modified: 18/10/2026; snapshot of a DBMS table (range of key values, bounds of incremental extraction) taken once before its tasks are submitted and committed as is
+ * Last modified: 18/10/2026
  */
 public class Extractor {
 
@@ -57,6 +66,7 @@ public class Extractor {
 	static Classification classification = null;        //Classification hierarchy for assigning categories to features
 	static String[] inputFiles;
 	static List<String> outputFiles;
+	static Map<String, List<String>> chunkFiles;        //Output files created for the chunks of each input, in case that inputs are split into chunks
 	static int sourceSRID;                              //Source CRS according to EPSG 
 	static int targetSRID;                              //Target CRS according to EPSG
 
@@ -143,6 +153,9 @@ public class Extractor {
 					ExceptionHandler.abort(e, "Please check SRID specifications in the configuration.");      //Execution terminated abnormally
 			 }
 			 
+			//Prepare transformations into WGS84 for the specified reference systems before any records are handled
+			TransformCache.prewarm(currentConfig);
+			 
 			//Check whether a classification hierarchy is specified in a separate file and apply transformation accordingly
 	        try { 			  
 				if ((currentConfig.classificationSpec != null) && (!currentConfig.inputFormat.contains("OSM")))    //Classification for OSM XML data is handled by the OSM converter
@@ -163,36 +176,62 @@ public class Extractor {
 	        		System.out.println("No classification hierarchy specified for features to be extracted.");
 	        }
 	        
-		    //Possible executors with different behaviour
-		    ExecutorService exec = Executors.newCachedThreadPool();        //Create new threads dynamically as needed at runtime
-		    //ExecutorService exec = Executors.newFixedThreadPool(3);      //NOT USED: Predetermined number of threads to be used at runtime
-		    //ExecutorService exec = Executors.newSingleThreadExecutor();  //NOT USED: Single-thread execution, i.e., one task after the other
+		    //Bounded number of threads executing the tasks in descending order of input size, without exceeding the specified heap budget
+		    TaskScheduler<Task> scheduler = new TaskScheduler<Task>(currentConfig.scheduling);
 	    
 		    //Create a list of all tasks to be executed with their respective input and output files, but with the same transformation settings
-		    //The number of tasks is equal to the number of input files specified in the configuration file
-		    List<Callable<Task>> tasks = new ArrayList<Callable<Task>>();
+		    //The number of tasks is equal to the number of input files specified in the configuration file (or the number of their chunks)
+		    int numTasks = 0;
+		    chunkFiles = new LinkedHashMap<String, List<String>>();
+		    
+		    //All chunks of a DBMS table must agree on the range of key values and the bounds of incremental extraction, even if the table is modified meanwhile
+		    final RdbToRdf.Snapshot snapshot = (currentConfig.inputFormat.toUpperCase().contains("DBMS") && (isChunkable() || (currentConfig.attrWatermark != null))) ? RdbToRdf.takeSnapshot(currentConfig, isChunkable() ? currentConfig.numChunks : 1) : null;
+		    
 		    for (final String inFile: inputFiles) {
 		    	//CAUTION! An output file will be named as its corresponding input file, but with a different extension (auto-specified by the RDF serialization format)
-		    	outputFiles.add(currentConfig.outputDir + FilenameUtils.getBaseName(inFile) + myAssistant.getOutputExtension(currentConfig.serialization));
+		    	String outFileName = currentConfig.outputDir + FilenameUtils.getBaseName(inFile) + myAssistant.getOutputExtension(currentConfig.serialization);
+		    	
+		    	//Split this input into chunks, each one transformed by a separate task and written into its own output file (with the chunk index as suffix)
+		    	if (isChunkable())
+		    	{
+		    		List<String> chunkOutputs = new ArrayList<String>();
+		    		for (int i = 0; i < currentConfig.numChunks; i++) {
+		    			final int chunkIndex = i;
+		    			final String outFile = currentConfig.outputDir + FilenameUtils.getBaseName(inFile) + "_" + i + myAssistant.getOutputExtension(currentConfig.serialization);
+		    			chunkOutputs.add(outFile);
+		    			scheduler.submit(new Callable<Task>() {
+		    				@Override
+		    				public Task call() throws Exception {
+		    					return new Task(currentConfig, classification, inFile, outFile, sourceSRID, targetSRID, chunkIndex, currentConfig.numChunks, snapshot);
+		    				}
+		    			}, new File(inFile).length() / currentConfig.numChunks, estimateMemory(inFile));
+		    			numTasks++;
+		    		}
+		    		chunkFiles.put(outFileName, chunkOutputs);
+		    		continue;
+		    	}
+		    	
+		    	outputFiles.add(outFileName);
 	        	Callable<Task> c = new Callable<Task>() {
 	        		final String outFile = outputFiles.get(outputFiles.size()-1); 
 	        		@Override
 		        	public Task call() throws Exception {
-		            	return new Task(currentConfig, classification, inFile, outFile, sourceSRID, targetSRID);
+		            	return new Task(currentConfig, classification, inFile, outFile, sourceSRID, targetSRID, 0, 1, snapshot);
 		            }
 		        };
-		        tasks.add(c);
+		        scheduler.submit(c, new File(inFile).length(), estimateMemory(inFile));
+		        numTasks++;
 		    }
 
 		    long start = System.currentTimeMillis();
 		    //Invoke all the tasks concurrently
 		    try {
 		    	System.out.print(myAssistant.getGMTime() + " Started processing features ");
-		    	if (tasks.size() > 1)
-		    		System.out.println("using " + tasks.size() + " concurrent threads...");
+		    	if (numTasks > 1)
+		    		System.out.println("in " + numTasks + " tasks using " + scheduler.getNumThreads() + " concurrent threads...");
 		    	else
 		    		System.out.println("in a single thread...");
-		        runnables = exec.invokeAll(tasks);	
+		        runnables = scheduler.invokeAll();	
 		        
 		        //Inspect each task on possible failure
 		        for (Future<Task> r : runnables) {
@@ -213,13 +252,15 @@ public class Extractor {
 		    	ExceptionHandler.abort(e, "A transformation task failed.");      //Execution terminated abnormally
 		    }
 		    finally {
-		        exec.shutdown();
 		        long elapsed = System.currentTimeMillis() - start;
 		        if (failure) {
 		        	System.out.println(myAssistant.getGMTime() + String.format(" Transformation process failed. Elapsed time: %d ms.", elapsed));
 		        	System.exit(1);          //Execution failed in at least one task
 		        }
 		        else {
+		        	collectChunkFiles();
+		        	//In case of incremental extraction from a DBMS, the next run will only extract records beyond the watermark of the snapshot taken by this one
+		        	RdbToRdf.commitWatermark(currentConfig, snapshot);
 			        System.out.println(myAssistant.getGMTime() + String.format(" Transformation process concluded successfully in %d ms.", elapsed));
 			        System.out.println("RDF results written into the following output files:" + outputFiles.toString());
 			        //Assistant.mergeFiles(outputFiles, "C:/Development/Java/workspace/TripleGeo/test/output/merged_output.rdf");
@@ -233,5 +274,57 @@ public class Extractor {
 			System.exit(1);          //Execution terminated abnormally
 	    }		    	 			    
 	  }
+	
+	
+	/**
+	 * Estimates the heap memory that will be consumed by a transformation task over the given input file.
+	 * Apart from a fixed amount of memory per task, OSM data sources also require in-memory indices roughly proportional to the input size. 
+	 * @param inFile  Path to input data source file.
+	 * @return  The estimated memory (in bytes).
+	 */
+	private static long estimateMemory(String inFile) {
+		
+		long estimate = currentConfig.scheduling.taskMemory * 1024L * 1024L;
+		if (currentConfig.inputFormat.toUpperCase().contains("OSM"))
+			estimate += new File(inFile).length();
+		
+		return estimate;
+	}
+	
+	
+	/**
+	 * Checks whether each input will be split into chunks to be transformed by concurrent threads.
+	 * Splitting is supported for SHAPEFILE, CSV, and DBMS data sources only.
+	 * @return  True if inputs will be split into chunks; otherwise, False.
+	 */
+	private static boolean isChunkable() {
+		
+		if (currentConfig.numChunks <= 1)
+			return false;
+		
+		String format = currentConfig.inputFormat.toUpperCase();
+		return (format.contains("SHAPEFILE") || format.contains("CSV") || format.contains("DBMS"));
+	}
+	
+	
+	/**
+	 * Collects the output files created for the chunks of each input. 
+	 * If specified in the configuration, output files of all chunks are merged into a single file per input, and the chunk files are removed.
+	 */
+	private static void collectChunkFiles() {
+		
+		for (Map.Entry<String, List<String>> entry: chunkFiles.entrySet()) {
+			//Only N-TRIPLES can be merged by concatenating the chunk files
+			if ((currentConfig.mergeChunks) && (currentConfig.serialization.equalsIgnoreCase("N-TRIPLES")))
+			{
+				myAssistant.mergeFiles(entry.getValue(), entry.getKey());
+				for (String chunkFile: entry.getValue())
+					new File(chunkFile).delete();
+				outputFiles.add(entry.getKey());
+			}
+			else
+				outputFiles.addAll(entry.getValue());
+		}
+	}
 
 }
\ No newline at end of file
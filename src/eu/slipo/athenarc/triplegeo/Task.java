@@ -44,7 +44,9 @@ import eu.slipo.athenarc.triplegeo.utils.ExceptionHandler;
  * Modified: 8/11/2017, added support for system exit codes on abnormal termination
  * Modified: 21/11/2017, added support for user-specified classification schemes for shapefiles, CSV, and DBMS data sources 
  * Modified: 19/7/2018, added support for JSON and OSM PBF data sources 
- * Last modified by: Kostas Patroumpas, 25/10/2018
+ * Modified: 18/10/2026, added support for tasks over chunks of a single input (SHAPEFILE, CSV, DBMS)
+ * Modified: 18/10/2026, added support for a snapshot of the DBMS table shared by all its chunks
+ * Last modified by: agent, 18/10/2026
  */
 public class Task {
 
@@ -61,6 +63,41 @@ public class Task {
 	 * @param targetSRID  Spatial reference system (EPSG code) of geometries in the output RDF triples.
 	 */
 	public Task(Configuration config, Classification classific, String inFile, String outFile, int sourceSRID, int targetSRID) 
+	{
+		this(config, classific, inFile, outFile, sourceSRID, targetSRID, 0, 1);
+	}
+
+	/**
+	 * Constructor for a transformation task that will be executed at a separate thread over a chunk of the given input.
+	 * Splitting into chunks is supported for SHAPEFILE, CSV, and DBMS data sources; for any other format, the entire input is handled by the first chunk. 
+	 * @param config  Parameters to configure the transformation.
+	 * @param classific  Instantiation of the classification scheme that assigns categories to input features.
+	 * @param inFile  Path to input data source file.
+	 * @param outFile  Path to the output file that collects RDF triples.
+	 * @param sourceSRID  Spatial reference system (EPSG code) of the input shapefile.
+	 * @param targetSRID  Spatial reference system (EPSG code) of geometries in the output RDF triples.
+	 * @param chunkIndex  The index (starting from 0) of the chunk of the input to be handled by this task.
+	 * @param numChunks  The total number of chunks that the input has been split into.
+	 */
+	public Task(Configuration config, Classification classific, String inFile, String outFile, int sourceSRID, int targetSRID, int chunkIndex, int numChunks) 
+	{
+		this(config, classific, inFile, outFile, sourceSRID, targetSRID, chunkIndex, numChunks, null);
+	}
+
+	/**
+	 * Constructor for a transformation task that will be executed at a separate thread over a chunk of the given input.
+	 * For DBMS data sources, all chunks of a table must be given the same snapshot taken before they are transformed.
+	 * @param config  Parameters to configure the transformation.
+	 * @param classific  Instantiation of the classification scheme that assigns categories to input features.
+	 * @param inFile  Path to input data source file.
+	 * @param outFile  Path to the output file that collects RDF triples.
+	 * @param sourceSRID  Spatial reference system (EPSG code) of the input shapefile.
+	 * @param targetSRID  Spatial reference system (EPSG code) of geometries in the output RDF triples.
+	 * @param chunkIndex  The index (starting from 0) of the chunk of the input to be handled by this task.
+	 * @param numChunks  The total number of chunks that the input has been split into.
+	 * @param snapshot  The snapshot of the DBMS table shared by all its chunks; null for any other data source.
+	 */
+	public Task(Configuration config, Classification classific, String inFile, String outFile, int sourceSRID, int targetSRID, int chunkIndex, int numChunks, RdbToRdf.Snapshot snapshot) 
 	{
     	currentFormat = config.inputFormat.toUpperCase();           //Possible values: SHAPEFILE, DBMS, CSV, GPX, GEOJSON, JSON, OSM_XML, OSM_PBF, XML
     	//System.out.println("Transforming " + inFile + " from " + currentFormat + " into " + outFile);
@@ -68,15 +105,15 @@ public class Task {
         try {		
 			//Apply data transformation according to the given input format
 			if (currentFormat.trim().contains("SHAPEFILE")) {
-				ShpToRdf conv = new ShpToRdf(config, classific, inFile, outFile, sourceSRID, targetSRID);
+				ShpToRdf conv = new ShpToRdf(config, classific, inFile, outFile, sourceSRID, targetSRID, chunkIndex, numChunks);
 				conv.apply();
 			}
 			else if (currentFormat.trim().contains("DBMS")) {
-				RdbToRdf conv = new RdbToRdf(config, classific, outFile, sourceSRID, targetSRID);
+				RdbToRdf conv = new RdbToRdf(config, classific, outFile, sourceSRID, targetSRID, chunkIndex, numChunks, snapshot);
 				conv.apply();
 			}
 			else if (currentFormat.trim().contains("CSV")) {			
-				CsvToRdf conv = new CsvToRdf(config, classific, inFile, outFile, sourceSRID, targetSRID);
+				CsvToRdf conv = new CsvToRdf(config, classific, inFile, outFile, sourceSRID, targetSRID, chunkIndex, numChunks);
 				conv.apply();
 			}
 			else if (currentFormat.trim().contains("GPX")) {
@@ -29,7 +29,8 @@ import java.sql.ResultSet;
 /* DEVELOPMENT HISTORY
  * initially implemented for geometry2rdf utility (source: https://github.com/boricles/geometry2rdf/tree/master/Geometry2RDF)
  * Modified by: Kostas Patroumpas, 12/6/2013; adjusted to TripleGeo functionality
- * Last modified: 24/2/2018
+ * Modified: 18/10/2026; added support for parameterized queries
+ * Last modified: 18/10/2026
  */
 public interface DbConnector {
 
@@ -50,6 +51,16 @@ public interface DbConnector {
   public ResultSet executeQuery(String query);
 
   
+  /**
+   * Returns the result of the parameterized SQL query executed against the database.
+   *
+   * @param query  A SQL command for the SELECT query, with a ? placeholder for each parameter.
+   * @param params  Values of the parameters, in the order of their placeholders; timestamps are bound in UTC.
+   * @return resultset with all results of the query.
+   */
+  public ResultSet executeQuery(String query, Object... params);
+
+  
   /**
    * Closes the connection to the database.
    */
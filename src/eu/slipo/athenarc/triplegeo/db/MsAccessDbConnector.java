@@ -20,9 +20,13 @@ package eu.slipo.athenarc.triplegeo.db;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Calendar;
+import java.util.TimeZone;
 
 import eu.slipo.athenarc.triplegeo.utils.Constants;
 import eu.slipo.athenarc.triplegeo.utils.ExceptionHandler;
@@ -38,7 +42,8 @@ import eu.slipo.athenarc.triplegeo.utils.ExceptionHandler;
  * Modified by: Kostas Patroumpas, 23/3/2017
  * Modified: 3/11/2017; added support for system exit codes on abnormal termination
  * Modified: 14/12/2017; using uCanAccess library for connections
- * Last modified: 24/2/2018
+ * Modified: 18/10/2026; added support for parameterized queries, with timestamps bound in UTC
+ * Last modified: 18/10/2026
  */
 public class MsAccessDbConnector implements DbConnector {
 
@@ -95,6 +100,34 @@ public class MsAccessDbConnector implements DbConnector {
     return resultSet;
   }
 
+  /**
+   * Returns the result of the parameterized SQL query executed against the MSAccess database.
+   *
+   * @param query  A SQL command for the SELECT query, with a ? placeholder for each parameter.
+   * @param params  Values of the parameters, in the order of their placeholders.
+   * @return Resultset with all results of the query.
+   */
+  @Override
+  public ResultSet executeQuery(String query, Object... params) 
+  {
+    ResultSet resultSet = null;
+    try {
+      PreparedStatement stmt = connection.prepareStatement(query);
+
+      //Timestamps are bound in UTC, so that they do not depend on the time zone of the JVM
+      for (int i = 0; i < params.length; i++)
+        if (params[i] instanceof Timestamp)
+          stmt.setTimestamp(i + 1, (Timestamp) params[i], Calendar.getInstance(TimeZone.getTimeZone("UTC")));
+        else
+          stmt.setObject(i + 1, params[i]);
+      resultSet = stmt.executeQuery();
+
+    } catch (SQLException e) {
+    	ExceptionHandler.abort(e, "SQL query for data retrieval cannot be executed.");
+    }
+    return resultSet;
+  }
+
   /**
    * Closes the connection to the MSAccess database.
    */
@@ -20,9 +20,13 @@ package eu.slipo.athenarc.triplegeo.db;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Calendar;
+import java.util.TimeZone;
 
 import eu.slipo.athenarc.triplegeo.utils.Constants;
 import eu.slipo.athenarc.triplegeo.utils.ExceptionHandler;
@@ -38,7 +42,9 @@ import eu.slipo.athenarc.triplegeo.utils.ExceptionHandler;
  * Created by: Kostas Patroumpas, 5/6/2013
  * Modified: 23/3/2017
  * Modified: 3/11/2017; added support for system exit codes on abnormal termination
- * Last modified: 24/2/2018
+ * Modified: 18/10/2026; retrieval of results in streaming mode with a forward-only, read-only cursor
+ * Modified: 18/10/2026; added support for parameterized queries, with timestamps bound in UTC
+ * Last modified: 18/10/2026
  */
 public class MySqlDbConnector implements DbConnector {
 
@@ -48,6 +54,7 @@ public class MySqlDbConnector implements DbConnector {
   private String username;
   private String password;
   private Connection connection;
+  private int fetchSize;
 
   /** 
    * Constructor of DbConnector implementation class for establishing a connection to a MySQL database.
@@ -56,8 +63,9 @@ public class MySqlDbConnector implements DbConnector {
    * @param dbName  The name of the database to connect to.
    * @param username  The user name credential to access the database.
    * @param password  The password credential to access the database.
+   * @param fetchSize  Number of rows to be fetched from the database in each round trip; if 0, results are fetched as determined by the JDBC driver.
    */
-  public MySqlDbConnector(String host, int port, String dbName, String username, String password) 
+  public MySqlDbConnector(String host, int port, String dbName, String username, String password, int fetchSize) 
   {
     super();
     this.host = host;
@@ -65,6 +73,7 @@ public class MySqlDbConnector implements DbConnector {
     this.dbName = dbName;
     this.username = username;
     this.password = password;
+    this.fetchSize = fetchSize;
     this.connection = openConnection();
   }
 
@@ -91,7 +100,11 @@ public class MySqlDbConnector implements DbConnector {
   {
     ResultSet resultSet = null;
     try {
-      Statement stmt = connection.createStatement();
+      //Use a forward-only, read-only statement in streaming mode, so that rows are read from the server one at a time instead of holding all of them in memory
+      //CAUTION! No other query can be issued over the same connection until all rows of a streamed resultset have been read or the resultset has been closed
+      Statement stmt = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+      if (fetchSize > 0)
+        stmt.setFetchSize(Integer.MIN_VALUE);
 
       resultSet = stmt.executeQuery(query);
 
@@ -101,6 +114,38 @@ public class MySqlDbConnector implements DbConnector {
     return resultSet;
   }
 
+  /**
+   * Returns the result of the parameterized SQL query executed against the MySQL database.
+   *
+   * @param query  A SQL command for the SELECT query, with a ? placeholder for each parameter.
+   * @param params  Values of the parameters, in the order of their placeholders.
+   * @return Resultset with all results of the query.
+   */
+  @Override
+  public ResultSet executeQuery(String query, Object... params) 
+  {
+    ResultSet resultSet = null;
+    try {
+      //Use a forward-only, read-only statement in streaming mode, so that rows are read from the server one at a time instead of holding all of them in memory
+      //CAUTION! No other query can be issued over the same connection until all rows of a streamed resultset have been read or the resultset has been closed
+      PreparedStatement stmt = connection.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+      if (fetchSize > 0)
+        stmt.setFetchSize(Integer.MIN_VALUE);
+
+      //Timestamps are bound in UTC, so that they do not depend on the time zone of the JVM
+      for (int i = 0; i < params.length; i++)
+        if (params[i] instanceof Timestamp)
+          stmt.setTimestamp(i + 1, (Timestamp) params[i], Calendar.getInstance(TimeZone.getTimeZone("UTC")));
+        else
+          stmt.setObject(i + 1, params[i]);
+      resultSet = stmt.executeQuery();
+
+    } catch (SQLException e) {
+    	ExceptionHandler.abort(e, "SQL query for data retrieval cannot be executed.");
+    }
+    return resultSet;
+  }
+
   /**
    * Closes the connection to the MySQL database.
    */
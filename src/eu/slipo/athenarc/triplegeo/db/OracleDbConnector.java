@@ -20,10 +20,14 @@ package eu.slipo.athenarc.triplegeo.db;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Calendar;
 import java.util.Properties;
+import java.util.TimeZone;
 
 import eu.slipo.athenarc.triplegeo.utils.Constants;
 import eu.slipo.athenarc.triplegeo.utils.ExceptionHandler;
@@ -39,7 +43,9 @@ import eu.slipo.athenarc.triplegeo.utils.ExceptionHandler;
  * Modified by: Kostas Patroumpas, 24/5/2013; adjusted to TripleGeo functionality
  * Modified: 3/11/2017; added support for system exit codes on abnormal termination
  * Modified: 13/12/2017; fixed issue with character encodings; verified that UTF characters read and written correctly
- * Last modified: 24/2/2018
+ * Modified: 18/10/2026; retrieval of results with a forward-only, read-only cursor and a configurable fetch size
+ * Modified: 18/10/2026; added support for parameterized queries, with timestamps bound in UTC
+ * Last modified: 18/10/2026
  */
 public class OracleDbConnector implements DbConnector {
 
@@ -50,6 +56,7 @@ public class OracleDbConnector implements DbConnector {
   private String password;
   private String encoding;
   private Connection connection;
+  private int fetchSize;
 
   /**
    * Constructor of DbConnector implementation class for establishing a connection to an Oracle Spatial database.
@@ -59,8 +66,9 @@ public class OracleDbConnector implements DbConnector {
    * @param username  The user name credential to access the database.
    * @param password  The password credential to access the database.
    * @param encoding  The character encoding used in the database.
+   * @param fetchSize  Number of rows to be fetched from the database in each round trip; if 0, results are fetched as determined by the JDBC driver.
    */
-  public OracleDbConnector(String host, int port, String dbName, String username, String password, String encoding) 
+  public OracleDbConnector(String host, int port, String dbName, String username, String password, String encoding, int fetchSize) 
   {
     super();
     this.host = host;
@@ -69,6 +77,7 @@ public class OracleDbConnector implements DbConnector {
     this.username = username;
     this.password = password;
     this.encoding = encoding.toLowerCase();     //Values like "UTF-8", "ISO-8859-1", "ISO-8859-7"
+    this.fetchSize = fetchSize;
     this.connection = openConnection();
   }
 
@@ -97,7 +106,9 @@ public class OracleDbConnector implements DbConnector {
   {
     ResultSet resultSet = null;
     try {
-      Statement stmt = connection.createStatement();
+      //Use a forward-only, read-only cursor that fetches results in batches, instead of holding all of them in memory
+      Statement stmt = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+      stmt.setFetchSize(fetchSize);
       resultSet = stmt.executeQuery(query);
 
     } catch (SQLException e) {
@@ -106,6 +117,35 @@ public class OracleDbConnector implements DbConnector {
     return resultSet;
   }
 
+  /**
+   * Returns the result of the parameterized SQL query executed against the Oracle Spatial database.
+   *
+   * @param query  A SQL command for the SELECT query, with a ? placeholder for each parameter.
+   * @param params  Values of the parameters, in the order of their placeholders.
+   * @return Resultset with all results of the query.
+   */
+  @Override
+  public ResultSet executeQuery(String query, Object... params) 
+  {
+    ResultSet resultSet = null;
+    try {
+      //Use a forward-only, read-only cursor that fetches results in batches, instead of holding all of them in memory
+      PreparedStatement stmt = connection.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+      stmt.setFetchSize(fetchSize);
+      //Timestamps are bound in UTC, so that they do not depend on the time zone of the JVM
+      for (int i = 0; i < params.length; i++)
+        if (params[i] instanceof Timestamp)
+          stmt.setTimestamp(i + 1, (Timestamp) params[i], Calendar.getInstance(TimeZone.getTimeZone("UTC")));
+        else
+          stmt.setObject(i + 1, params[i]);
+      resultSet = stmt.executeQuery();
+
+    } catch (SQLException e) {
+    	ExceptionHandler.abort(e, "SQL query for data retrieval cannot be executed.");
+    }
+    return resultSet;
+  }
+
   /**
    * Closes the connection to an Oracle Spatial database.
    */
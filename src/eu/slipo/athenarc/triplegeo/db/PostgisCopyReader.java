@@ -0,0 +1,214 @@
+/*
+ * @(#) PostgisCopyReader.java 	 version 1.6   18/10/2026
+ *
+ * Copyright (C) 2013-2018 Information Systems Management Institute, Athena R.C., Greece.
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.slipo.athenarc.triplegeo.db;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.vividsolutions.jts.geom.Geometry;
+import com.vividsolutions.jts.io.WKBReader;
+
+/**
+ * Reads records from a PostgreSQL/PostGIS database as they are streamed by a COPY ... TO STDOUT WITH (FORMAT binary) command, bypassing any ResultSet.
+ * All thematic attributes must be retrieved as text, in the order of the given column names; the geometry (if any) must be the last field, encoded in Extended Well-Known Binary (EWKB).
+ * Not thread-safe; each transformation process should use its own reader.
+ * @author agent
+ * @version 1.6
+ */
+
+/* DEVELOPMENT HISTORY
+ * Created by: agent, 18/10/2026
+ * Modified: 18/10/2026; records provided as a RowSource, like those of a ResultSet
+ * Last modified: 18/10/2026
+ */
+public class PostgisCopyReader implements RowSource {
+
+  private static final byte[] SIGNATURE = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0};
+
+  private final DataInputStream in;
+  private final String[] columns;
+  private final boolean hasGeometry;
+  private final WKBReader wkbReader;
+  private byte[] buffer = new byte[8192];      //Reused for the contents of each field
+
+  private Map<String, String> row;
+  private Geometry geometry;
+  private boolean finished = false;
+
+  /**
+   * Constructor of this class.
+   * @param in  Stream of data in the binary format of the PostgreSQL COPY command.
+   * @param columns  Names of the thematic attributes, in the order their values are copied.
+   * @param hasGeometry  Indicates whether a geometry in EWKB follows the thematic attributes in each record.
+   * @throws IOException
+   */
+  PostgisCopyReader(InputStream in, List<String> columns, boolean hasGeometry) throws IOException
+  {
+    this.in = new DataInputStream(new BufferedInputStream(in, 65536));
+    this.columns = columns.toArray(new String[columns.size()]);
+    this.hasGeometry = hasGeometry;
+    this.wkbReader = hasGeometry ? new WKBReader() : null;
+    readHeader();
+  }
+
+  /**
+   * Checks the header of the binary COPY format and skips its extension area.
+   * @throws IOException
+   */
+  private void readHeader() throws IOException
+  {
+    byte[] signature = new byte[SIGNATURE.length];
+    in.readFully(signature);
+    for (int i = 0; i < SIGNATURE.length; i++)
+      if (signature[i] != SIGNATURE[i])
+        throw new IOException("Data is not in the binary format of the PostgreSQL COPY command.");
+
+    if ((in.readInt() & 0x10000) != 0)                    //Flags: only the bit for OIDs is critical
+      throw new IOException("OIDs are not supported in data copied from the database.");
+    int extension = in.readInt();                         //Length of the header extension area
+    while (extension > 0)
+      extension -= in.skipBytes(extension);
+  }
+
+  /**
+   * Advances to the next record.
+   * @return  True, if a record was read; False, if no more records are available.
+   * @throws IOException
+   */
+  public boolean next() throws IOException
+  {
+    if (finished)
+      return false;
+
+    short numFields;
+    try {
+      numFields = in.readShort();
+    } catch (EOFException e) {
+      numFields = -1;
+    }
+    //The trailer of the data marks the end of records
+    if (numFields == -1)
+    {
+      finished = true;
+      row = null;
+      geometry = null;
+      return false;
+    }
+    if (numFields != columns.length + (hasGeometry ? 1 : 0))
+      throw new IOException("Expected " + (columns.length + (hasGeometry ? 1 : 0)) + " fields per record, but " + numFields + " were copied.");
+
+    //Thematic attributes are decoded as strings; a length of -1 stands for NULL values
+    row = new HashMap<String, String>(columns.length + columns.length / 2);
+    for (String col: columns)
+    {
+      int len = readField();
+      row.put(col, (len < 0) ? null : new String(buffer, 0, len, StandardCharsets.UTF_8));
+    }
+
+    //Geometry is decoded directly from its EWKB, also respecting its dimensionality and SRID (if specified)
+    geometry = null;
+    if (hasGeometry)
+    {
+      int len = readField();
+      if (len >= 0)
+      {
+        try {
+          geometry = wkbReader.read(Arrays.copyOf(buffer, len));
+        } catch (Exception e) {
+          e.printStackTrace();
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Reads the contents of a field into the buffer, expanding it if needed.
+   * @return  The length of the field in bytes; -1 for NULL values.
+   * @throws IOException
+   */
+  private int readField() throws IOException
+  {
+    int len = in.readInt();
+    if (len < 0)
+      return -1;
+    if (len > buffer.length)
+      buffer = new byte[Math.max(len, 2 * buffer.length)];
+    in.readFully(buffer, 0, len);
+    return len;
+  }
+
+  /**
+   * Provides the values of the thematic attributes in the current record.
+   * @return  A map with the name of each attribute and its (possibly null) value as a string; a new map is created for each record.
+   */
+  public Map<String, String> getRow()
+  {
+    return row;
+  }
+
+  /**
+   * Provides the value of a thematic attribute in the current record.
+   * @param column  The name of the attribute, as given to the constructor.
+   * @return  The value as a string; null, if the value is NULL or no such attribute is copied.
+   */
+  public String getString(String column)
+  {
+    return (row == null) ? null : row.get(column);
+  }
+
+  /**
+   * Provides the geometry of the current record.
+   * @return  A geometry object; null, if no geometry is copied or its value is NULL.
+   */
+  public Geometry getGeometry()
+  {
+    return geometry;
+  }
+
+  /**
+   * Geometries are always copied in EWKB and decoded, so no WKT is available.
+   * @return  null.
+   */
+  public String getWKT()
+  {
+    return null;
+  }
+
+  /**
+   * Stops copying of data, in case not all records have been read.
+   */
+  public void close()
+  {
+    try {
+      in.close();
+    } catch (IOException e) {
+      e.printStackTrace();
+    }
+  }
+
+}
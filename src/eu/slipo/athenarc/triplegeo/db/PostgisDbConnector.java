@@ -20,10 +20,18 @@ package eu.slipo.athenarc.triplegeo.db;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Calendar;
+import java.util.List;
 import java.util.Properties;
+import java.util.TimeZone;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyInputStream;
 
 import eu.slipo.athenarc.triplegeo.utils.Constants;
 import eu.slipo.athenarc.triplegeo.utils.ExceptionHandler;
@@ -39,7 +47,10 @@ import eu.slipo.athenarc.triplegeo.utils.ExceptionHandler;
  * Modified by: Kostas Patroumpas, 24/5/2013; adjusted to TripleGeo functionality
  * Modified: 3/11/2017; added support for system exit codes on abnormal termination
  * Modified: 13/12/2017; fixed issue with character encodings; verified that UTF characters are read and written correctly
- * Last modified: 24/2/2018
+ * Modified: 18/10/2026; retrieval of results with a forward-only, read-only cursor and a configurable fetch size
+ * Modified: 18/10/2026; optional retrieval of results in the binary format of the COPY command, decoded without any ResultSet
+ * Modified: 18/10/2026; added support for parameterized queries, with timestamps bound in UTC
+ * Last modified: 18/10/2026
  */
 public class PostgisDbConnector implements DbConnector {
 
@@ -50,6 +61,7 @@ public class PostgisDbConnector implements DbConnector {
   private String password;
   private String encoding;
   private Connection connection;
+  private int fetchSize;
 
   /**
    * Constructor of DbConnector implementation class for establishing a connection to a PostgreSQL database with the PostGIS spatial extension.
@@ -59,8 +71,9 @@ public class PostgisDbConnector implements DbConnector {
    * @param username  The user name credential to access the database.
    * @param password  The password credential to access the database.
    * @param encoding  The character encoding used in the database.
+   * @param fetchSize  Number of rows to be fetched from the database in each round trip; if 0, results are fetched as determined by the JDBC driver.
    */
-  public PostgisDbConnector(String host, int port, String dbName, String username, String password, String encoding) 
+  public PostgisDbConnector(String host, int port, String dbName, String username, String password, String encoding, int fetchSize) 
   {
     super();
     this.host = host;
@@ -69,6 +82,7 @@ public class PostgisDbConnector implements DbConnector {
     this.username = username;
     this.password = password;
     this.encoding = encoding.toLowerCase();     //Values like "UTF-8", "ISO-8859-1", "ISO-8859-7"
+    this.fetchSize = fetchSize;
     this.connection = openConnection();
   }
 
@@ -95,7 +109,9 @@ public class PostgisDbConnector implements DbConnector {
   {
     ResultSet resultSet = null;
     try {
-      Statement stmt = connection.createStatement();
+      //Use a forward-only, read-only cursor that fetches results in batches, instead of holding all of them in memory
+      Statement stmt = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+      stmt.setFetchSize(fetchSize);
 
       resultSet = stmt.executeQuery(query);
 
@@ -105,6 +121,59 @@ public class PostgisDbConnector implements DbConnector {
     return resultSet;
   }
 
+  /**
+   * Returns the result of the parameterized SQL query executed against the PostgreSQL/PostGIS database.
+   *
+   * @param query  A SQL command for the SELECT query, with a ? placeholder for each parameter.
+   * @param params  Values of the parameters, in the order of their placeholders.
+   * @return Resultset with all results of the query.
+   */
+  @Override
+  public ResultSet executeQuery(String query, Object... params) 
+  {
+    ResultSet resultSet = null;
+    try {
+      //Use a forward-only, read-only cursor that fetches results in batches, instead of holding all of them in memory
+      PreparedStatement stmt = connection.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+      stmt.setFetchSize(fetchSize);
+
+      //Timestamps are bound in UTC, so that they do not depend on the time zone of the JVM
+      for (int i = 0; i < params.length; i++)
+        if (params[i] instanceof Timestamp)
+          stmt.setTimestamp(i + 1, (Timestamp) params[i], Calendar.getInstance(TimeZone.getTimeZone("UTC")));
+        else
+          stmt.setObject(i + 1, params[i]);
+      resultSet = stmt.executeQuery();
+
+    } catch (SQLException e) {
+    	ExceptionHandler.abort(e, "SQL query for data retrieval cannot be executed.");
+    }
+    return resultSet;
+  }
+
+  /**
+   * Returns the results of the SQL query executed against the PostgreSQL/PostGIS database, as copied by the server in binary format.
+   * CAUTION! All thematic attributes must be cast to text in the query and the geometry (if any) must be the last attribute, given in EWKB.
+   *
+   * @param query  A SQL command for the SELECT query.
+   * @param columns  Names of the thematic attributes, in the order specified in the query.
+   * @param hasGeometry  Indicates whether the last attribute in the query is a geometry.
+   * @return Reader over all results of the query.
+   */
+  public PostgisCopyReader copyOut(String query, List<String> columns, boolean hasGeometry) 
+  {
+    PostgisCopyReader reader = null;
+    try {
+      //Records are streamed by the server through the COPY protocol, so no cursor is involved
+      PGConnection pgConnection = (PGConnection) connection;
+      reader = new PostgisCopyReader(new PGCopyInputStream(pgConnection.getCopyAPI().copyOut("COPY (" + query + ") TO STDOUT WITH (FORMAT binary)")), columns, hasGeometry);
+
+    } catch (Exception e) {
+    	ExceptionHandler.abort(e, "SQL query for data retrieval cannot be executed.");
+    }
+    return reader;
+  }
+
   /**
    * Closes the connection to the PostgreSQL/PostGIS database.
    */
@@ -135,6 +204,9 @@ public class PostgisDbConnector implements DbConnector {
       props.put("password", password);
       
       connectionResult = DriverManager.getConnection(getDatabaseUrl(), props);
+      //CAUTION! PostgreSQL only fetches results in batches through a cursor when auto-commit is off
+      if (fetchSize > 0)
+        connectionResult.setAutoCommit(false);
       System.out.println("Connected to PostgreSQL/PostGIS database!");
     } catch (Exception ex) {
     	ExceptionHandler.abort(ex, "Cannot connect to the database.");
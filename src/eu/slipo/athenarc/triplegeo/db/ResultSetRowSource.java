@@ -0,0 +1,149 @@
+/*
+ * @(#) ResultSetRowSource.java 	 version 1.6   18/10/2026
+ *
+ * Copyright (C) 2013-2018 Information Systems Management Institute, Athena R.C., Greece.
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.slipo.athenarc.triplegeo.db;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.opengis.referencing.operation.MathTransform;
+
+import com.vividsolutions.jts.geom.Geometry;
+
+import eu.slipo.athenarc.triplegeo.utils.Assistant;
+
+/**
+ * Reads records from a JDBC ResultSet. The geometry attribute is retrieved according to the way it was selected from the DBMS:
+ * decoded from the custom binary representation of a personal geodatabase (MS Access) into WKT, decoded from WKB (column WkbGeometry), or taken as WKT (column WktGeometry).
+ * @author agent
+ * @version 1.6
+ */
+
+/* DEVELOPMENT HISTORY
+ * Created by: agent, 18/10/2026
+ * Last modified: 18/10/2026
+ */
+public class ResultSetRowSource implements RowSource {
+
+  private final ResultSet rs;
+  private final String attrGeometry;
+  private final Assistant myAssistant;
+  private final MathTransform reproject;
+
+  private List<String> columns = null;      //Names of thematic attributes, identified on the first record
+  private Geometry geometry;
+  private String wkt;
+
+  /**
+   * Constructor of this class.
+   * @param rs  ResultSet containing spatial features retrieved from a DBMS.
+   * @param attrGeometry  Name of the geometry attribute; null, if no geometry is retrieved (e.g., in case of a pair of coordinates).
+   * @param myAssistant  Instantiation of Assistant class, holding the decoder of geometries (if any).
+   * @param reproject  CRS transformation parameters, applied on geometries from a personal geodatabase; geometries from other DBMS have already been reprojected.
+   */
+  public ResultSetRowSource(ResultSet rs, String attrGeometry, Assistant myAssistant, MathTransform reproject)
+  {
+    this.rs = rs;
+    this.attrGeometry = attrGeometry;
+    this.myAssistant = myAssistant;
+    this.reproject = reproject;
+  }
+
+  /**
+   * Advances to the next record and retrieves its geometry.
+   * @return  True, if a record was read; False, if no more records are available.
+   * @throws SQLException
+   */
+  public boolean next() throws SQLException
+  {
+    geometry = null;
+    wkt = null;
+    if (!rs.next())
+      return false;
+
+    //Handle geometry attribute, if specified
+    if (attrGeometry != null)
+    {
+      if (myAssistant.pgdbDecoder != null)                //Geometry blob is read from a personal geodatabase, so its WKT must be created
+        wkt = myAssistant.blob2WKT(rs.getBlob(attrGeometry), reproject);    //Also reprojected, if necessary
+      else if (myAssistant.wkbReader != null)             //Geometry is retrieved as WKB, so it is decoded without any WKT
+        geometry = myAssistant.WKB2Geometry(rs.getBytes("WkbGeometry"));
+      else
+        wkt = rs.getString("WktGeometry");
+    }
+    return true;
+  }
+
+  /**
+   * Provides the values of the thematic attributes in the current record, i.e., all columns except those containing spatial information.
+   * @return  A map with the label of each column and its (possibly null) value as a string; a new map is created for each record.
+   * @throws SQLException
+   */
+  public Map<String, String> getRow() throws SQLException
+  {
+    if (columns == null)
+    {
+      ResultSetMetaData meta = rs.getMetaData();
+      columns = new ArrayList<String>(meta.getColumnCount());
+      for (int i = 1; i <= meta.getColumnCount(); i++)
+      {
+        String col = meta.getColumnLabel(i);
+        if (!col.equalsIgnoreCase(attrGeometry) && !col.equalsIgnoreCase("WktGeometry") && !col.equalsIgnoreCase("WkbGeometry"))
+          columns.add(col);
+      }
+    }
+
+    Map<String, String> row = new HashMap<String, String>(columns.size() + columns.size() / 2);
+    for (String col: columns)
+      row.put(col, rs.getString(col));
+    return row;
+  }
+
+  public String getString(String column) throws SQLException
+  {
+    return rs.getString(column);
+  }
+
+  public Geometry getGeometry()
+  {
+    return geometry;
+  }
+
+  public String getWKT()
+  {
+    return wkt;
+  }
+
+  /**
+   * Closes the ResultSet, in case not all records have been read.
+   */
+  public void close()
+  {
+    try {
+      rs.close();
+    } catch (SQLException e) {
+      e.printStackTrace();
+    }
+  }
+
+}
@@ -0,0 +1,84 @@
+/*
+ * @(#) RowSource.java 	 version 1.6   18/10/2026
+ *
+ * Copyright (C) 2013-2018 Information Systems Management Institute, Athena R.C., Greece.
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.slipo.athenarc.triplegeo.db;
+
+import java.util.Map;
+
+import com.vividsolutions.jts.geom.Geometry;
+
+/**
+ * Interface that defines a cursor over the records retrieved from a DBMS, regardless of how they are transferred (e.g., via a JDBC ResultSet, or copied in binary format from PostGIS).
+ * Converters iterate over such a source with a single loop for all DBMS.
+ * @author agent
+ * @version 1.6
+ */
+
+/* DEVELOPMENT HISTORY
+ * Created by: agent, 18/10/2026
+ * Last modified: 18/10/2026
+ */
+public interface RowSource {
+
+  /**
+   * Advances to the next record.
+   * @return  True, if a record was read; False, if no more records are available.
+   * @throws Exception
+   */
+  public boolean next() throws Exception;
+
+
+  /**
+   * Provides the values of the thematic (non-spatial) attributes in the current record.
+   * @return  A map with the name of each attribute and its (possibly null) value as a string; a new map is created for each record.
+   * @throws Exception
+   */
+  public Map<String, String> getRow() throws Exception;
+
+
+  /**
+   * Provides the value of a thematic attribute in the current record.
+   * @param column  The name of the attribute.
+   * @return  The value as a string; null, if the value is NULL.
+   * @throws Exception
+   */
+  public String getString(String column) throws Exception;
+
+
+  /**
+   * Provides the geometry of the current record, if it has been decoded from a binary representation (and reprojected, if necessary).
+   * @return  A geometry object; null, if no such geometry is available.
+   * @throws Exception
+   */
+  public Geometry getGeometry() throws Exception;
+
+
+  /**
+   * Provides the Well-Known Text of the geometry of the current record, if it has been retrieved as text (or decoded from a custom representation).
+   * @return  The WKT of the geometry; null, if not available as text.
+   * @throws Exception
+   */
+  public String getWKT() throws Exception;
+
+
+  /**
+   * Releases the source, in case not all records have been read.
+   */
+  public void close();
+
+}
@@ -20,9 +20,13 @@ package eu.slipo.athenarc.triplegeo.db;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Calendar;
+import java.util.TimeZone;
 
 import org.sqlite.SQLiteConfig;
 
@@ -40,24 +44,29 @@ import eu.slipo.athenarc.triplegeo.utils.ExceptionHandler;
  * Created by: Kostas Patroumpas, 25/8/2017
  * Modified: 3/11/2017; added support for system exit codes on abnormal termination
  * Modified: 13/12/2017; fixed issue with character encodings
- * Last modified: 24/2/2018
+ * Modified: 18/10/2026; retrieval of results with a forward-only, read-only cursor and a configurable fetch size
+ * Modified: 18/10/2026; added support for parameterized queries, with timestamps bound in UTC
+ * Last modified: 18/10/2026
  */
 public class SpatiaLiteDbConnector implements DbConnector {
 
   private String dbName;
   private Connection connection;
+  private int fetchSize;
   private String encoding;
 
   /**
    * Constructor of DbConnector implementation class for establishing connection to a SpatiaLite database.
    * @param dbName  The name of the database.
    * @param encoding  The character encoding used in the database.
+   * @param fetchSize  Number of rows to be fetched from the database in each round trip; if 0, results are fetched as determined by the JDBC driver.
    */
-  public SpatiaLiteDbConnector(String dbName, String encoding) 
+  public SpatiaLiteDbConnector(String dbName, String encoding, int fetchSize) 
   {
     super();
     this.dbName = dbName;
     this.encoding = encoding;
+    this.fetchSize = fetchSize;
     this.connection = openConnection();
   }
 
@@ -83,7 +92,9 @@ public class SpatiaLiteDbConnector implements DbConnector {
   {
     ResultSet resultSet = null;
     try {
-      Statement stmt = connection.createStatement();
+      //Use a forward-only, read-only cursor that fetches results in batches, instead of holding all of them in memory
+      Statement stmt = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+      stmt.setFetchSize(fetchSize);
 
       resultSet = stmt.executeQuery(query);
 
@@ -93,6 +104,36 @@ public class SpatiaLiteDbConnector implements DbConnector {
     return resultSet;
   }
 
+  /**
+   * Returns the result of the parameterized SQL query executed against the SpatiaLite database.
+   *
+   * @param query  A SQL command for the SELECT query, with a ? placeholder for each parameter.
+   * @param params  Values of the parameters, in the order of their placeholders.
+   * @return Resultset with all results of the query.
+   */
+  @Override
+  public ResultSet executeQuery(String query, Object... params)
+  {
+    ResultSet resultSet = null;
+    try {
+      //Use a forward-only, read-only cursor that fetches results in batches, instead of holding all of them in memory
+      PreparedStatement stmt = connection.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+      stmt.setFetchSize(fetchSize);
+
+      //Timestamps are bound in UTC, so that they do not depend on the time zone of the JVM
+      for (int i = 0; i < params.length; i++)
+        if (params[i] instanceof Timestamp)
+          stmt.setTimestamp(i + 1, (Timestamp) params[i], Calendar.getInstance(TimeZone.getTimeZone("UTC")));
+        else
+          stmt.setObject(i + 1, params[i]);
+      resultSet = stmt.executeQuery();
+
+    } catch (SQLException e) {
+    	ExceptionHandler.abort(e, "SQL query for data retrieval cannot be executed.");
+    }
+    return resultSet;
+  }
+
   /**
    * Closes the connection to the database.
    */
@@ -20,9 +20,14 @@ package eu.slipo.athenarc.triplegeo.db;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Calendar;
+import java.util.Properties;
+import java.util.TimeZone;
 
 import eu.slipo.athenarc.triplegeo.utils.Constants;
 import eu.slipo.athenarc.triplegeo.utils.ExceptionHandler;
@@ -38,7 +43,9 @@ import eu.slipo.athenarc.triplegeo.utils.ExceptionHandler;
  * Created by: Kostas Patroumpas, 9/4/2017
  * Modified by: Kostas Patroumpas, 10/4/2017
  * Modified: 3/11/2017; added support for system exit codes on abnormal termination
- * Last modified: 24/2/2018
+ * Modified: 18/10/2026; retrieval of results with adaptive response buffering and a forward-only, read-only cursor with a configurable fetch size
+ * Modified: 18/10/2026; added support for parameterized queries, with timestamps bound in UTC
+ * Last modified: 18/10/2026
  */
 public class SqlServerDbConnector implements DbConnector {
 
@@ -48,6 +55,7 @@ public class SqlServerDbConnector implements DbConnector {
   private String username;
   private String password;
   private Connection connection;
+  private int fetchSize;
 
   /**
    * Constructor of DbConnector implementation class for establishing a connection to a SQLServer database.
@@ -56,8 +64,9 @@ public class SqlServerDbConnector implements DbConnector {
    * @param dbName  The name of the database to connect to.
    * @param username  The user name credential to access the database.
    * @param password  The password credential to access the database.
+   * @param fetchSize  Number of rows to be fetched from the database in each round trip; if 0, results are fetched as determined by the JDBC driver.
    */
-  public SqlServerDbConnector(String host, int port, String dbName, String username, String password) 
+  public SqlServerDbConnector(String host, int port, String dbName, String username, String password, int fetchSize) 
   {
     super();
     this.host = host;
@@ -65,6 +74,7 @@ public class SqlServerDbConnector implements DbConnector {
     this.dbName = dbName;
     this.username = username;
     this.password = password;
+    this.fetchSize = fetchSize;
     this.connection = openConnection();
   }
 
@@ -91,7 +101,9 @@ public class SqlServerDbConnector implements DbConnector {
   {
     ResultSet resultSet = null;
     try {
-      Statement stmt = connection.createStatement();
+      //Use a forward-only, read-only cursor that fetches results in batches, instead of holding all of them in memory
+      Statement stmt = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+      stmt.setFetchSize(fetchSize);
 
       resultSet = stmt.executeQuery(query);
 
@@ -101,6 +113,36 @@ public class SqlServerDbConnector implements DbConnector {
     return resultSet;
   }
 
+  /**
+   * Returns the result of the parameterized SQL query executed against the SQLServer database.
+   *
+   * @param query  A SQL command for the SELECT query, with a ? placeholder for each parameter.
+   * @param params  Values of the parameters, in the order of their placeholders.
+   * @return Resultset with all results of the query.
+   */
+  @Override
+  public ResultSet executeQuery(String query, Object... params) 
+  {
+    ResultSet resultSet = null;
+    try {
+      //Use a forward-only, read-only cursor that fetches results in batches, instead of holding all of them in memory
+      PreparedStatement stmt = connection.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+      stmt.setFetchSize(fetchSize);
+
+      //Timestamps are bound in UTC, so that they do not depend on the time zone of the JVM
+      for (int i = 0; i < params.length; i++)
+        if (params[i] instanceof Timestamp)
+          stmt.setTimestamp(i + 1, (Timestamp) params[i], Calendar.getInstance(TimeZone.getTimeZone("UTC")));
+        else
+          stmt.setObject(i + 1, params[i]);
+      resultSet = stmt.executeQuery();
+
+    } catch (SQLException e) {
+    	ExceptionHandler.abort(e, "SQL query for data retrieval cannot be executed.");
+    }
+    return resultSet;
+  }
+
   /**
    * Closes the connection to the database.
    */
@@ -125,7 +167,12 @@ public class SqlServerDbConnector implements DbConnector {
     Connection connectionResult = null;
     try {
       Class.forName(Constants.DBMS_DRIVERS[Constants.SQLSERVER]);
-      connectionResult = DriverManager.getConnection(getDatabaseUrl(), username, password);
+      Properties props = new Properties();
+      props.put("user", username);
+      props.put("password", password);
+      props.put("responseBuffering", "adaptive");        //Read results from the server as needed, instead of buffering all of them in memory
+      
+      connectionResult = DriverManager.getConnection(getDatabaseUrl(), props);
       System.out.println("Connected to SQL Server database!");
     } catch (Exception ex) {
     	ExceptionHandler.abort(ex, "Cannot connect to the database.");
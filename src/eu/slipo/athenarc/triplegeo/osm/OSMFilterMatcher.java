@@ -0,0 +1,265 @@
+/*
+ * @(#) OSMFilterMatcher.java 	 version 1.6   18/10/2026
+ *
+ * Copyright (C) 2013-2018 Information Systems Management Institute, Athena R.C., Greece.
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.slipo.athenarc.triplegeo.osm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiled form of the filters over OSM tags, used in assigning categories to OSM elements.
+ * Sibling filters at each level of the hierarchy are dispatched by tag key and then by tag value with hash lookups, so only those matching a tag of the element are examined.
+ * Matching filters are examined in their original order, and those having children are resolved recursively; hence, the first category found is the same as when the hierarchy of filters is searched exhaustively.
+ * Immutable once constructed, so it may be used concurrently by several threads.
+ * @author agent
+ * @version 1.6
+ */
+
+/* DEVELOPMENT HISTORY
+ * Created by: agent, 18/10/2026
+ * Last modified: 18/10/2026
+ */
+
+public class OSMFilterMatcher {
+
+	private static final int MAX_LINEAR_SCAN = 4;         //Levels with so few filters are simply scanned in order
+	private static final Rule[] NO_RULES = new Rule[0];
+
+	private final Level root;
+
+	/**
+	 * A filter with its key resolved from its ancestors (if not specified) and its children compiled into a nested level.
+	 */
+	private static final class Rule {
+		final int order;                 //Position among its sibling filters
+		final String key;
+		final String value;              //Null, if any value of the key is acceptable
+		final String category;
+		final Level children;            //Null, if this filter has no children
+
+		Rule(int order, String key, String value, String category, Level children) {
+			this.order = order;
+			this.key = key;
+			this.value = value;
+			this.category = category;
+			this.children = children;
+		}
+	}
+
+	/**
+	 * Filters specified for a given tag key at a given level, grouped by their value.
+	 */
+	private static final class KeyRules {
+		final Map<String, Rule[]> byValue = new HashMap<String, Rule[]>();
+		Rule[] anyValue = NO_RULES;
+	}
+
+	/**
+	 * Sibling filters at a level of the hierarchy.
+	 */
+	private static final class Level {
+		final Rule[] rules;                      //In their original order
+		final Map<String, KeyRules> byKey;       //Null, if the level is small enough for a linear scan
+
+		Level(Rule[] rules) {
+			this.rules = rules;
+			if (rules.length <= MAX_LINEAR_SCAN)
+			{
+				byKey = null;
+				return;
+			}
+			byKey = new HashMap<String, KeyRules>();
+			for (Rule r: rules)
+			{
+				KeyRules k = byKey.get(r.key);
+				if (k == null)
+				{
+					k = new KeyRules();
+					byKey.put(r.key, k);
+				}
+				if (r.value == null)
+					k.anyValue = append(k.anyValue, r);
+				else
+					k.byValue.put(r.value, append(k.byValue.get(r.value), r));
+			}
+		}
+	}
+
+	/**
+	 * Constructor of this class.
+	 * @param filters  The filters over OSM tags, as specified in the classification scheme.
+	 */
+	public OSMFilterMatcher(List<OSMFilter> filters) {
+		root = compile(filters, null);
+	}
+
+	/**
+	 * Compiles a list of sibling filters into a level of the decision structure.
+	 * @param filters  Sibling filters.
+	 * @param parentKey  The key of their parent filter (or inherited by their parent); null at the top level.
+	 * @return  The compiled level.
+	 */
+	private static Level compile(List<OSMFilter> filters, String parentKey) {
+
+		List<Rule> rules = new ArrayList<Rule>(filters.size());
+		for (OSMFilter f: filters)
+		{
+			//Use key of parent filter, unless specified in this one
+			String key = f.hasKey() ? f.getKey() : parentKey;
+			Level children = f.childs.isEmpty() ? null : compile(f.childs, key);
+			rules.add(new Rule(rules.size(), key, f.getValue(), f.getCategory(), children));
+		}
+		return new Level(rules.toArray(new Rule[rules.size()]));
+	}
+
+	private static Rule[] append(Rule[] rules, Rule r) {
+		if (rules == null)
+			return new Rule[] {r};
+		Rule[] res = Arrays.copyOf(rules, rules.length + 1);
+		res[rules.length] = r;
+		return res;
+	}
+
+	/**
+	 * Assign a category to a OSM feature (node, way, or relation) based on its tags.
+	 * @param tags  Key-value pairs for OSM tags and their respective values for a given feature.
+	 * @return  The category of the first filter in the classification scheme that matches these tags; null, if none matches.
+	 */
+	public String getCategory(Map<String, String> tags) {
+		return match(root, tags);
+	}
+
+	/**
+	 * Provides the category of the first filter at a given level that matches the tags, after searching recursively among the children of each matching filter.
+	 */
+	private static String match(Level level, Map<String, String> tags) {
+
+		if (level.byKey == null)
+		{
+			for (Rule r: level.rules)
+			{
+				if (matches(r, tags))
+				{
+					String cat = resolve(r, tags);
+					if (cat != null)
+						return cat;
+				}
+			}
+			return null;
+		}
+
+		//Collect filters matching any tag, iterating over the tags or the keys of this level, whichever are fewer
+		Rule[] candidates = NO_RULES;
+		int n = 0;
+		if (tags.size() <= level.byKey.size())
+		{
+			for (Map.Entry<String, String> tag: tags.entrySet())
+			{
+				KeyRules k = level.byKey.get(tag.getKey());
+				if (k == null)
+					continue;
+				Rule[] byValue = k.byValue.get(tag.getValue());
+				if (byValue != null)
+				{
+					candidates = addAll(candidates, n, byValue);
+					n += byValue.length;
+				}
+				candidates = addAll(candidates, n, k.anyValue);
+				n += k.anyValue.length;
+			}
+		}
+		else
+		{
+			for (Map.Entry<String, KeyRules> e: level.byKey.entrySet())
+			{
+				if (!tags.containsKey(e.getKey()))
+					continue;
+				KeyRules k = e.getValue();
+				Rule[] byValue = k.byValue.get(tags.get(e.getKey()));
+				if (byValue != null)
+				{
+					candidates = addAll(candidates, n, byValue);
+					n += byValue.length;
+				}
+				candidates = addAll(candidates, n, k.anyValue);
+				n += k.anyValue.length;
+			}
+		}
+
+		//Restore the original order of matching filters (usually very few), so that the first match prevails
+		for (int i = 1; i < n; i++)
+		{
+			Rule r = candidates[i];
+			int j = i - 1;
+			while ((j >= 0) && (candidates[j].order > r.order))
+			{
+				candidates[j + 1] = candidates[j];
+				j--;
+			}
+			candidates[j + 1] = r;
+		}
+
+		for (int i = 0; i < n; i++)
+		{
+			String cat = resolve(candidates[i], tags);
+			if (cat != null)
+				return cat;
+		}
+		return null;
+	}
+
+	/**
+	 * Appends matching filters after the first n candidates, expanding the array if needed.
+	 */
+	private static Rule[] addAll(Rule[] candidates, int n, Rule[] rules) {
+
+		if (rules.length == 0)
+			return candidates;
+		if (n + rules.length > candidates.length)
+			candidates = Arrays.copyOf(candidates, Math.max(n + rules.length, 2 * candidates.length));
+		System.arraycopy(rules, 0, candidates, n, rules.length);
+		return candidates;
+	}
+
+	/**
+	 * Checks whether the key (and value, if specified) of a filter matches a tag.
+	 */
+	private static boolean matches(Rule r, Map<String, String> tags) {
+
+		if (!tags.containsKey(r.key))
+			return false;
+		return (r.value == null) || r.value.equals(tags.get(r.key));
+	}
+
+	/**
+	 * Provides the category of a matching filter; if its children have categories, those will be used.
+	 */
+	private static String resolve(Rule r, Map<String, String> tags) {
+
+		if (r.children != null)
+		{
+			String cat = match(r.children, tags);
+			if (cat != null)
+				return cat;
+		}
+		return r.category;
+	}
+}
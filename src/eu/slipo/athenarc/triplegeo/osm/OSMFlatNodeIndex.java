@@ -0,0 +1,216 @@
+/*
+ * @(#) OSMFlatNodeIndex.java 	 version 1.6   18/10/2026
+ *
+ * Copyright (C) 2013-2018 Information Systems Management Institute, Athena R.C., Greece.
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.slipo.athenarc.triplegeo.osm;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * Disk-based index of OSM nodes in a dense, memory-mapped file addressed directly by node identifier, suitable for very large (e.g., planet-scale) OSM files.
+ * Each node occupies 8 bytes at position 8*id in the file: its longitude and latitude as fixed-point integers. Hence, each lookup is a single read from the mapped file without any hashing or deserialization.
+ * The file is mapped in chunks of 128MB (16M nodes) created only once a node within their range is inserted; since the file is sparse, unused ranges of identifiers take no disk space on most file systems.
+ * Nodes with negative identifiers (e.g., in edited OSM files) are kept in a small off-heap hash table instead.
+ * The file is deleted once the index is cleared. Not thread-safe.
+ * @author agent
+ * @version 1.6
+ */
+
+/* DEVELOPMENT HISTORY
+ * Created by: agent, 18/10/2026
+ * Last modified: 18/10/2026
+ */
+
+public class OSMFlatNodeIndex extends OSMNodeIndex {
+
+	private static final int CHUNK_BITS = 24;                  //16M nodes (128MB) per mapped chunk of the file
+	private static final long CHUNK_MASK = (1L << CHUNK_BITS) - 1;
+	private static final int LAT_BIAS = 1000000000;            //Added to stored latitudes, so that 0 denotes an empty position in the file
+	private static final int RESERVED = 1;                     //Stored latitude of a reserved entry without coordinates
+
+	private final File file;
+	private RandomAccessFile raf;
+	private FileChannel channel;
+	private MappedByteBuffer[] chunks = new MappedByteBuffer[64];
+	private long count = 0;                                    //Number of entries with non-negative identifiers
+	private OSMOffHeapNodeIndex negatives = new OSMOffHeapNodeIndex();    //Entries with negative identifiers
+
+	/**
+	 * Constructor of this class.
+	 * @param tmpDir  Directory that will hold the file of the index; once transformation is complete, this file will be erased.
+	 * @param fileName  Name of the file that will hold the created index.
+	 */
+	public OSMFlatNodeIndex(String tmpDir, String fileName) {
+
+		file = new File(tmpDir, fileName + ".bin");
+		try {
+			file.getParentFile().mkdirs();
+			raf = new RandomAccessFile(file, "rw");
+			raf.setLength(0);
+			channel = raf.getChannel();
+		} catch (IOException e) {
+			throw new UncheckedIOException("Cannot create file " + file + " for indexing OSM nodes.", e);
+		}
+		file.deleteOnExit();
+	}
+
+	/**
+	 * Provides the mapped chunk of the file covering the given identifier.
+	 * @param id  A non-negative identifier of a node.
+	 * @param create  Indicates whether the chunk should be mapped, if not already.
+	 * @return  The mapped chunk; null, if not mapped and not requested to create.
+	 */
+	private MappedByteBuffer chunk(long id, boolean create) {
+
+		long c = id >>> CHUNK_BITS;
+		if (c < chunks.length)
+		{
+			MappedByteBuffer b = chunks[(int) c];
+			if ((b != null) || !create)
+				return b;
+		}
+		else if (!create)
+			return null;
+		else
+			chunks = Arrays.copyOf(chunks, (int) Math.max(c + 1, 2L * chunks.length));
+
+		try {
+			MappedByteBuffer b = channel.map(FileChannel.MapMode.READ_WRITE, c << (CHUNK_BITS + 3), 8L << CHUNK_BITS);
+			b.order(ByteOrder.LITTLE_ENDIAN);         //Longitude in the lower and latitude in the upper half of each 8-byte value
+			chunks[(int) c] = b;
+			return b;
+		} catch (IOException e) {
+			throw new UncheckedIOException("Cannot map file " + file + " for indexing OSM nodes.", e);
+		}
+	}
+
+	private static int offset(long id) {
+		return (int) (id & CHUNK_MASK) << 3;
+	}
+
+	/**
+	 * Writes an entry into the file, increasing the count if its position was empty.
+	 */
+	private void write(MappedByteBuffer b, int off, int lon, int lat) {
+		if (b.getInt(off + 4) == 0)
+			count++;
+		b.putInt(off, lon);
+		b.putInt(off + 4, lat);
+	}
+
+	@Override
+	public void reserve(long id) {
+		if (id < 0)
+		{
+			negatives.reserve(id);
+			return;
+		}
+		MappedByteBuffer b = chunk(id, true);
+		int off = offset(id);
+		if (b.getInt(off + 4) == 0)
+			write(b, off, 0, RESERVED);
+	}
+
+	@Override
+	public void put(long id, double lon, double lat) {
+		if (id < 0)
+			negatives.put(id, lon, lat);
+		else
+			write(chunk(id, true), offset(id), toFixed(lon), toFixed(lat) + LAT_BIAS);
+	}
+
+	@Override
+	public boolean update(long id, double lon, double lat) {
+		if (id < 0)
+			return negatives.update(id, lon, lat);
+		MappedByteBuffer b = chunk(id, false);
+		int off = offset(id);
+		if ((b == null) || (b.getInt(off + 4) == 0))
+			return false;
+		write(b, off, toFixed(lon), toFixed(lat) + LAT_BIAS);
+		return true;
+	}
+
+	@Override
+	public boolean containsKey(long id) {
+		if (id < 0)
+			return negatives.containsKey(id);
+		MappedByteBuffer b = chunk(id, false);
+		return (b != null) && (b.getInt(offset(id) + 4) != 0);
+	}
+
+	@Override
+	public boolean getCoordinates(long id, double[] buf, int offset) {
+		if (id < 0)
+			return negatives.getCoordinates(id, buf, offset);
+		MappedByteBuffer b = chunk(id, false);
+		if (b == null)
+			return false;
+		long v = b.getLong(offset(id));            //Both coordinates in a single read
+		int lat = (int) (v >>> 32);
+		if ((lat == 0) || (lat == RESERVED))
+			return false;
+		buf[offset] = fromFixed((int) v);
+		buf[offset + 1] = fromFixed(lat - LAT_BIAS);
+		return true;
+	}
+
+	@Override
+	public long count() {
+		return count + negatives.count();
+	}
+
+    /**
+     * Erases all contents of the index and deletes the respective file on disk.
+     */
+	public void clear() {
+		Arrays.fill(chunks, null);            //Mapped chunks are released once garbage collected
+		count = 0;
+		negatives.clear();
+		try {
+			channel.close();
+			raf.close();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		file.delete();
+	}
+
+	/**
+	 * Print the identifiers of all nodes in the index to standard output.
+	 */
+	public void print() {
+		negatives.print();
+		for (int c = 0; c < chunks.length; c++)
+		{
+			if (chunks[c] == null)
+				continue;
+			for (int i = 0; i <= CHUNK_MASK; i++)
+			{
+				if (chunks[c].getInt((i << 3) + 4) != 0)
+					System.out.println(((long) c << CHUNK_BITS) + i);
+			}
+		}
+	}
+}
@@ -0,0 +1,358 @@
+/*
+ * @(#) OSMHybridIndex.java 	 version 1.6   18/10/2026
+ *
+ * Copyright (C) 2013-2018 Information Systems Management Institute, Athena R.C., Greece.
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.slipo.athenarc.triplegeo.osm;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.vividsolutions.jts.geom.Geometry;
+
+/**
+ * Indexing of OSM elements that starts in memory and moves parts of its contents to disk once a memory budget is exceeded.
+ * Entries are grouped into partitions by ranges of their (numeric) identifiers. The memory footprint of each partition is estimated as entries are inserted;
+ * when the total footprint of all indices sharing the same budget exceeds it, the least recently accessed partitions among all these indices are moved into their disk-based indices.
+ * Lookups remain transparent: entries of partitions moved to disk are retrieved from there. Not thread-safe.
+ * @author agent
+ * @version 1.6
+ */
+
+/* DEVELOPMENT HISTORY
+ * Created by: agent, 18/10/2026
+ * Modified: 18/10/2026; partitions of all indices sharing a budget are evicted in a single order of access; empty geometries kept in memory are charged to the budget
+ * Last modified: 18/10/2026
+ */
+
+public class OSMHybridIndex implements OSMIndex {
+
+	private static final int PARTITION_BITS = 16;              //64K consecutive identifiers per partition
+	private static final long ENTRY_BYTES = 80;                //Rough footprint of an entry in a hash table with a string key, ...
+	private static final long GEOMETRY_BYTES = 120;            //... of a geometry object, ...
+	private static final long POINT_BYTES = 40;                //... and of each of its points
+	private static final long WKB_BYTES = 32;                  //Rough footprint of an entry on disk, apart from 16 bytes per point
+
+	/**
+	 * Memory budget (in bytes) shared by several indices.
+	 * Partitions of all these indices held in memory are kept in the order of their last access, so the least recently accessed one is always found first.
+	 */
+	public static class Budget {
+		private final long limit;
+		private long used = 0;
+		private final LinkedHashMap<Partition, OSMHybridIndex> resident = new LinkedHashMap<Partition, OSMHybridIndex>(16, 0.75f, true);   //Partitions in memory with the index they belong to, from the least to the most recently accessed
+
+		/**
+		 * Constructor of this class.
+		 * @param limit  Maximum memory (in bytes) to be occupied by the indices.
+		 */
+		public Budget(long limit) {
+			this.limit = limit;
+		}
+
+		/**
+		 * Moves the least recently accessed partitions of any index to disk, until the budget is respected.
+		 * Only empty geometries of entries on disk may still exceed the budget once all partitions have been moved.
+		 */
+		private void release() {
+
+			if (used <= limit)
+				return;
+			long target = limit - limit / 8;                       //Free some more memory, so that partitions are not moved one at a time
+			Iterator<Map.Entry<Partition, OSMHybridIndex>> iter = resident.entrySet().iterator();
+			while ((used > target) && (iter.hasNext()))
+			{
+				Map.Entry<Partition, OSMHybridIndex> e = iter.next();
+				iter.remove();
+				e.getValue().spill(e.getKey());
+			}
+		}
+	}
+
+	/**
+	 * Entries with identifiers in a given range; null once moved to disk.
+	 */
+	private static class Partition {
+		Map<String, Geometry> entries = new HashMap<String, Geometry>();
+		long bytes = 0;                        //Estimated memory footprint of its entries
+	}
+
+	private final String tmpDir;
+	private final String dbName;
+	private final Budget budget;
+	private Map<Long, Partition> partitions = new HashMap<Long, Partition>();
+	private OSMDiskIndex diskIndex;                                                  //Created once the first partition is moved to disk
+	private Map<String, Geometry> emptyGeometries = new HashMap<String, Geometry>();  //Empty geometries of entries on disk, as these cannot be encoded in WKB
+	private long emptyBytes = 0;                                                     //Estimated memory footprint of empty geometries of entries on disk
+	private int size = 0;
+	private int numSpilled = 0;
+	private long diskBytes = 0;
+
+	/**
+	 * Constructor of this class.
+	 * @param tmpDir  Directory that will hold the disk-based index, if needed; once transformation is complete, its files will be erased.
+	 * @param dbName  Name of the file that will hold the disk-based index.
+	 * @param budget  Memory budget shared with other indices.
+	 */
+	public OSMHybridIndex(String tmpDir, String dbName, Budget budget) {
+
+		this.tmpDir = tmpDir;
+		this.dbName = dbName;
+		this.budget = budget;
+	}
+
+	/**
+	 * Identifies the partition of an entry from its identifier.
+	 * @param k  The key value of the entry, normally a numeric OSM identifier.
+	 * @return  The identifier of the partition.
+	 */
+	private static long partitionOf(String k) {
+
+		int len = k.length();
+		int i = ((len > 0) && (k.charAt(0) == '-')) ? 1 : 0;
+		if ((len == i) || (len > 18))
+			return Long.MIN_VALUE + (k.hashCode() & 0xFF);             //Keys that are not numeric (or too long) are partitioned by hashing
+		long id = 0;
+		for (; i < len; i++)
+		{
+			char c = k.charAt(i);
+			if ((c < '0') || (c > '9'))
+				return Long.MIN_VALUE + (k.hashCode() & 0xFF);
+			id = 10 * id + (c - '0');
+		}
+		return ((k.charAt(0) == '-') ? -id : id) >> PARTITION_BITS;
+	}
+
+	/**
+	 * Provides the partition of an entry, marking it as recently accessed.
+	 * @param k  The key value of the entry.
+	 * @param create  Indicates whether the partition should be created, if not already.
+	 * @return  The partition; null, if it does not exist and not requested to create.
+	 */
+	private Partition partition(String k, boolean create) {
+
+		Long p = partitionOf(k);
+		Partition part = partitions.get(p);
+		if ((part == null) && (create))
+		{
+			part = new Partition();
+			partitions.put(p, part);
+			budget.resident.put(part, this);
+		}
+		else if ((part != null) && (part.entries != null))
+			budget.resident.get(part);                        //Marks the partition as the most recently accessed one among all indices sharing the budget
+		return part;
+	}
+
+	private static long memoryBytes(String k, Geometry g) {
+		return ENTRY_BYTES + 2 * k.length() + ((g != null) ? GEOMETRY_BYTES + POINT_BYTES * g.getNumPoints() : 0);
+	}
+
+	private static long diskBytes(String k, Geometry g) {
+		return WKB_BYTES + k.length() + ((g != null) ? 16L * g.getNumPoints() : 0);
+	}
+
+	/**
+	 * Inserts (or updates) an entry into the index with the given key value and geometry.
+	 * @param k  The key value of the entry.
+	 * @param g  The geometry of the entry.
+	 */
+	public void put(String k, Geometry g) {
+
+		Partition part = partition(k, true);
+		if (part.entries == null)
+		{
+			if (!diskIndex.containsKey(k))
+				size++;
+			putOnDisk(k, g);
+			budget.release();
+			return;
+		}
+
+		if (part.entries.containsKey(k))
+		{
+			long old = memoryBytes(k, part.entries.get(k));
+			part.bytes -= old;
+			budget.used -= old;
+		}
+		else
+			size++;
+		part.entries.put(k, g);
+		long bytes = memoryBytes(k, g);
+		part.bytes += bytes;
+		budget.used += bytes;
+
+		//Move the least recently accessed partitions (of this or any other index) to disk, until the budget is respected
+		budget.release();
+	}
+
+	/**
+	 * Writes an entry into the disk-based index.
+	 */
+	private void putOnDisk(String k, Geometry g) {
+
+		Geometry old = ((g != null) && (g.isEmpty())) ? emptyGeometries.put(k, g) : emptyGeometries.remove(k);
+		if (old != null)
+			charge(-memoryBytes(k, old));
+		if ((g != null) && (g.isEmpty()))
+			charge(memoryBytes(k, g));
+		diskIndex.put(k, g);
+		diskBytes += diskBytes(k, g);
+	}
+
+	/**
+	 * Accounts for memory occupied (or released) by empty geometries of entries on disk.
+	 * @param bytes  The estimated memory (in bytes); negative, if released.
+	 */
+	private void charge(long bytes) {
+
+		emptyBytes += bytes;
+		budget.used += bytes;
+	}
+
+	/**
+	 * Moves a partition of this index held in memory to disk; it must have been already removed from the partitions resident in memory.
+	 * @param part  The partition to be moved.
+	 */
+	private void spill(Partition part) {
+
+		if (diskIndex == null)
+			diskIndex = new OSMDiskIndex(tmpDir, dbName);
+		for (Map.Entry<String, Geometry> e: part.entries.entrySet())
+			putOnDisk(e.getKey(), e.getValue());
+		budget.used -= part.bytes;
+		part.bytes = 0;
+		part.entries = null;
+		numSpilled++;
+	}
+
+	/**
+	 * Provides the geometry indexed under the given (unique) key value.
+	 * @param k  The key value to find.
+	 * @return  The geometry of the indexed entry with the specified key.
+	 */
+	public Geometry get(String k) {
+
+		Partition part = partition(k, false);
+		if (part == null)
+			return null;
+		if (part.entries != null)
+			return part.entries.get(k);
+		Geometry g = emptyGeometries.get(k);
+		return (g != null) ? g : diskIndex.get(k);
+	}
+
+	/**
+	 * Erases all contents of the index and closes the respective file on disk, if any.
+	 */
+	public void clear() {
+
+		for (Partition part: partitions.values())
+		{
+			budget.used -= part.bytes;
+			budget.resident.remove(part);
+		}
+		partitions.clear();
+		budget.used -= emptyBytes;
+		emptyBytes = 0;
+		emptyGeometries.clear();
+		if (diskIndex != null)
+			diskIndex.clear();
+		diskIndex = null;
+		size = 0;
+		numSpilled = 0;
+		diskBytes = 0;
+	}
+
+	/**
+	 * Checks whether the index contains an entry with the given key value.
+	 * @param k  A key value to check with the index contents.
+	 * @return True if there is an entry with that key; otherwise, False.
+	 */
+	public boolean containsKey(String k) {
+
+		Partition part = partition(k, false);
+		if (part == null)
+			return false;
+		if (part.entries != null)
+			return part.entries.containsKey(k);
+		return diskIndex.containsKey(k);
+	}
+
+	/**
+	 * Inserts a collection of geometries into the index.
+	 * @param m  Collection of geometries with their keys (string values).
+	 */
+	public void putAll(Map<String, Geometry> m) {
+		//Iterate over all entries in the given map
+		for (Map.Entry<String, Geometry> item: m.entrySet())
+			this.put(item.getKey(), item.getValue());
+	}
+
+	/**
+	 * Provides the count of entries in the index.
+	 * @return  An integer value representing the total count.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Provides the estimated memory occupied by the entries of this index held in memory, including empty geometries of entries on disk.
+	 * @return  The estimated size (in bytes).
+	 */
+	public long getMemorySize() {
+
+		long bytes = emptyBytes;
+		for (Partition part: partitions.values())
+			bytes += part.bytes;
+		return bytes;
+	}
+
+	/**
+	 * Provides the estimated size of the entries of this index written to disk.
+	 * @return  The estimated size (in bytes); updated entries are counted once for each time they were written.
+	 */
+	public long getDiskSize() {
+		return diskBytes;
+	}
+
+	/**
+	 * Reports the count of entries and the estimated size of this index in memory and on disk to standard output.
+	 * @param name  The type of OSM elements in the index.
+	 */
+	public void printStatistics(String name) {
+		System.out.println("Index over OSM " + name + ": " + size + " entries, " + String.format("%.1f", getMemorySize() / 1048576.0) + " MB in memory, " + String.format("%.1f", diskBytes / 1048576.0) + " MB on disk (" + numSpilled + " out of " + partitions.size() + " partitions moved to disk).");
+	}
+
+	/**
+	 * Print the contents of the index to standard output.
+	 */
+	public void print() {
+		for (Partition part: partitions.values())
+		{
+			if (part.entries != null)
+			{
+				for (Object key: part.entries.keySet())
+					System.out.println(key.toString());
+			}
+		}
+		if (diskIndex != null)
+			diskIndex.print();
+	}
+}
@@ -0,0 +1,187 @@
+/*
+ * @(#) OSMNodeIndex.java 	 version 1.6   18/10/2026
+ *
+ * Copyright (C) 2013-2018 Information Systems Management Institute, Athena R.C., Greece.
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.slipo.athenarc.triplegeo.osm;
+
+import java.util.Map;
+
+import eu.slipo.athenarc.triplegeo.utils.Configuration;
+
+import com.vividsolutions.jts.geom.Coordinate;
+import com.vividsolutions.jts.geom.Geometry;
+import com.vividsolutions.jts.geom.GeometryFactory;
+
+/**
+ * Index specialized for OSM nodes, keyed by their numeric identifiers and holding their lon/lat coordinates as fixed-point integers (7 decimal digits, the precision of OSM).
+ * Besides the generic OSMIndex methods (with String keys and point geometries), it offers primitive methods so that no objects are created when looking up coordinates of nodes.
+ * An entry may be reserved without coordinates, as a placeholder for a node referenced by a way or relation, whose coordinates will be filled in once the node is parsed.
+ * @author agent
+ * @version 1.6
+ */
+
+/* DEVELOPMENT HISTORY
+ * Created by: agent, 18/10/2026
+ * Modified: 18/10/2026; choice of index according to the configuration shared by the OSM XML and PBF converters
+ * Last modified: 18/10/2026
+ */
+
+public abstract class OSMNodeIndex implements OSMIndex {
+
+	/**
+	 * Scale factor of fixed-point coordinates.
+	 */
+	public static final double SCALE = 1e7;
+
+	/**
+	 * Special fixed-point value denoting a reserved entry without coordinates; never a valid latitude.
+	 */
+	protected static final int NONE = Integer.MIN_VALUE;
+
+	private final GeometryFactory geometryFactory = new GeometryFactory();
+
+	/**
+	 * Creates the index for coordinates of OSM nodes according to the configuration settings.
+	 * @param config  Parameters to configure the transformation (type of index, size threshold for a flat file, folder for temporary files).
+	 * @param inputSize  Size (in bytes) of the input OSM PBF or (uncompressed) XML file.
+	 * @return  Either a memory-mapped flat file addressed by node identifiers or an off-heap hash table.
+	 */
+	public static OSMNodeIndex create(Configuration config, long inputSize) {
+
+		if (config.osmNodeIndex.equals("FLAT") || (config.osmNodeIndex.equals("AUTO") && (inputSize > config.osmFlatNodeThreshold * 1024 * 1024))) {
+			System.out.println("Indexing coordinates of OSM nodes in a memory-mapped flat file...");
+			return new OSMFlatNodeIndex(config.tmpDir, "nodeIndex");
+		}
+		return new OSMOffHeapNodeIndex();
+	}
+
+	/**
+	 * Reserves an entry for the given node, unless already in the index. Coordinates of an existing entry are retained.
+	 * @param id  The identifier of the node.
+	 */
+	public abstract void reserve(long id);
+
+	/**
+	 * Inserts (or updates) the coordinates of the given node.
+	 * @param id  The identifier of the node.
+	 * @param lon  The longitude of the node.
+	 * @param lat  The latitude of the node.
+	 */
+	public abstract void put(long id, double lon, double lat);
+
+	/**
+	 * Updates the coordinates of the given node, only if an entry for this node already exists in the index.
+	 * @param id  The identifier of the node.
+	 * @param lon  The longitude of the node.
+	 * @param lat  The latitude of the node.
+	 * @return  True, if the node was found in the index; otherwise, False.
+	 */
+	public abstract boolean update(long id, double lon, double lat);
+
+	/**
+	 * Checks whether the index contains an entry (possibly without coordinates) for the given node.
+	 * @param id  The identifier of the node.
+	 * @return  True if there is an entry for this node; otherwise, False.
+	 */
+	public abstract boolean containsKey(long id);
+
+	/**
+	 * Copies the coordinates of the given node into a buffer.
+	 * @param id  The identifier of the node.
+	 * @param buf  The buffer that will receive the longitude and latitude of the node at consecutive positions.
+	 * @param offset  The position of the longitude in the buffer.
+	 * @return  True, if the coordinates of the node are known; otherwise, False (and the buffer is not modified).
+	 */
+	public abstract boolean getCoordinates(long id, double[] buf, int offset);
+
+	/**
+	 * Provides the count of entries (including reserved ones) in the index.
+	 * @return  A long value representing the total count.
+	 */
+	public abstract long count();
+
+	/**
+	 * Converts a coordinate into its fixed-point representation.
+	 * @param v  A longitude or latitude value.
+	 * @return  The fixed-point value, rounded to 7 decimal digits.
+	 */
+	public static int toFixed(double v) {
+		return (int) Math.round(v * SCALE);
+	}
+
+	/**
+	 * Converts a fixed-point value back into a coordinate.
+	 * @param v  A fixed-point value.
+	 * @return  The closest double to the decimal value with 7 digits, i.e., as if parsed from the OSM representation.
+	 */
+	public static double fromFixed(int v) {
+		return v / SCALE;
+	}
+
+    /**
+     * Inserts (or updates) an entry into the index with the given key value and geometry.
+     * @param k  The identifier of the node.
+     * @param g  The point geometry of the node; if null or empty, only a reserved entry is created.
+     */
+	public void put(String k, Geometry g) {
+		if ((g == null) || (g.isEmpty()))
+			reserve(Long.parseLong(k));
+		else
+		{
+			Coordinate c = g.getCoordinate();
+			put(Long.parseLong(k), c.x, c.y);
+		}
+	}
+
+    /**
+     * Provides the geometry indexed under the given (unique) key value.
+     * @param k  The identifier of the node.
+     * @return  A point geometry with the coordinates of the node; null, if these are not known.
+     */
+	public Geometry get(String k) {
+		double[] c = new double[2];
+		if (getCoordinates(Long.parseLong(k), c, 0))
+			return geometryFactory.createPoint(new Coordinate(c[0], c[1]));
+		return null;
+	}
+
+	/**
+	 * Checks whether the index contains an entry with the given key value.
+	 * @param k  The identifier of the node.
+	 * @return True if there is an entry with that key; otherwise, False.
+	 */
+	public boolean containsKey(String k) {
+		return containsKey(Long.parseLong(k));
+	}
+
+	/**
+	 * Inserts a collection of geometries into the index.
+	 * @param m  Collection of point geometries with the identifiers of their nodes.
+	 */
+	public void putAll(Map<String, Geometry> m) {
+		for (Map.Entry<String, Geometry> item: m.entrySet())
+			put(item.getKey(), item.getValue());
+	}
+
+    /**
+     * Provides the count of entries in the index.
+     * @return  An integer value representing the total count.
+     */
+	public int size() {
+		return (int) Math.min(count(), Integer.MAX_VALUE);
+	}
+}
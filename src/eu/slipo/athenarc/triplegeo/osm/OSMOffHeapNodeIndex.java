@@ -0,0 +1,250 @@
+/*
+ * @(#) OSMOffHeapNodeIndex.java 	 version 1.6   18/10/2026
+ *
+ * Copyright (C) 2013-2018 Information Systems Management Institute, Athena R.C., Greece.
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.slipo.athenarc.triplegeo.osm;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * In-memory index of OSM nodes held outside the Java heap, as an open-addressing hash table with linear probing.
+ * Each slot occupies 16 bytes: the node identifier (8 bytes), followed by its longitude and latitude as fixed-point integers (4 bytes each).
+ * Slots are allocated in direct buffers of up to 4M slots each, so the table may grow beyond the 2GB limit of a single buffer.
+ * Its size is not bounded by the JVM heap, but by the maximum direct memory (JVM option -XX:MaxDirectMemorySize, by default equal to the maximum heap size).
+ * CAUTION! While the table is doubled, the buffers of the previous table remain allocated until all its slots have been rehashed, so direct memory peaks at 1.5 times the size of the enlarged table.
+ * Not thread-safe.
+ * @author agent
+ * @version 1.6
+ */
+
+/* DEVELOPMENT HISTORY
+ * Created by: agent, 18/10/2026
+ * Last modified: 18/10/2026
+ */
+
+public class OSMOffHeapNodeIndex extends OSMNodeIndex {
+
+	private static final int SLOT_BYTES = 16;              //Bytes per slot: identifier, longitude, latitude
+	private static final int SEGMENT_BITS = 22;            //Up to 4M slots (64MB) per direct buffer
+	private static final int INITIAL_CAPACITY = 1 << 16;   //Initial number of slots
+	private static final double MAX_LOAD = 0.6;            //Maximum ratio of occupied slots before the table is doubled
+
+	private ByteBuffer[] segments;      //Direct buffers holding the slots
+	private int segmentBits;            //Number of bits for slot positions within a buffer
+	private long mask;                  //Capacity of the table minus one (capacity is always a power of 2)
+	private long count;                 //Number of occupied slots
+	private long threshold;             //Number of occupied slots that triggers doubling of the table
+
+	private boolean hasZero = false;    //Identifier 0 marks empty slots, so a node with this identifier is kept separately
+	private int zeroLon;
+	private int zeroLat;
+
+	/**
+	 * Constructor
+	 */
+	public OSMOffHeapNodeIndex() {
+		allocate(INITIAL_CAPACITY);
+	}
+
+	/**
+	 * Allocates an empty table with the given number of slots.
+	 * @param capacity  The number of slots (a power of 2).
+	 */
+	private void allocate(long capacity) {
+		segmentBits = Math.min(SEGMENT_BITS, Long.numberOfTrailingZeros(capacity));
+		int numSegments = (int) (capacity >>> segmentBits);
+		segments = new ByteBuffer[numSegments];
+		for (int i = 0; i < numSegments; i++)
+			segments[i] = ByteBuffer.allocateDirect(SLOT_BYTES << segmentBits).order(ByteOrder.nativeOrder());   //Direct buffers are zero-filled, i.e., all slots empty
+		mask = capacity - 1;
+		count = 0;
+		threshold = (long) (capacity * MAX_LOAD);
+	}
+
+	/**
+	 * Provides the position in the table of the slot either holding the given identifier or the empty slot where it should be inserted.
+	 * @param id  A non-zero identifier of a node.
+	 * @return  The position of the slot.
+	 */
+	private long slot(long id) {
+		//Mix the bits of the identifier, as consecutive identifiers are very common in OSM
+		long h = id * 0x9E3779B97F4A7C15L;
+		long s = (h ^ (h >>> 29)) & mask;
+		long k;
+		while (((k = key(s)) != id) && (k != 0))
+			s = (s + 1) & mask;
+		return s;
+	}
+
+	private ByteBuffer segment(long s) {
+		return segments[(int) (s >>> segmentBits)];
+	}
+
+	private int offset(long s) {
+		return (int) (s & ((1L << segmentBits) - 1)) * SLOT_BYTES;
+	}
+
+	private long key(long s) {
+		return segment(s).getLong(offset(s));
+	}
+
+	/**
+	 * Writes an entry into the given slot, increasing the count if the slot was empty.
+	 */
+	private void write(long s, long id, int lon, int lat) {
+		ByteBuffer b = segment(s);
+		int off = offset(s);
+		if (b.getLong(off) == 0)
+		{
+			b.putLong(off, id);
+			count++;
+		}
+		b.putInt(off + 8, lon);
+		b.putInt(off + 12, lat);
+	}
+
+	/**
+	 * Doubles the capacity of the table, if it is loaded beyond the threshold.
+	 * Buffers of the previous table are only released once all their slots have been rehashed into the new one.
+	 */
+	private void ensureCapacity() {
+		if (count < threshold)
+			return;
+		ByteBuffer[] old = segments;
+		int oldBits = segmentBits;
+		allocate((mask + 1) << 1);
+		for (ByteBuffer b: old)
+		{
+			for (int off = 0; off < (SLOT_BYTES << oldBits); off += SLOT_BYTES)
+			{
+				long id = b.getLong(off);
+				if (id != 0)
+					write(slot(id), id, b.getInt(off + 8), b.getInt(off + 12));
+			}
+		}
+	}
+
+	@Override
+	public void reserve(long id) {
+		if (id == 0)
+		{
+			if (!hasZero)
+			{
+				hasZero = true;
+				zeroLon = 0;
+				zeroLat = NONE;
+			}
+			return;
+		}
+		ensureCapacity();
+		long s = slot(id);
+		if (key(s) == 0)
+			write(s, id, 0, NONE);
+	}
+
+	@Override
+	public void put(long id, double lon, double lat) {
+		if (id == 0)
+		{
+			hasZero = true;
+			zeroLon = toFixed(lon);
+			zeroLat = toFixed(lat);
+			return;
+		}
+		ensureCapacity();
+		write(slot(id), id, toFixed(lon), toFixed(lat));
+	}
+
+	@Override
+	public boolean update(long id, double lon, double lat) {
+		if (id == 0)
+		{
+			if (hasZero)
+				put(id, lon, lat);
+			return hasZero;
+		}
+		long s = slot(id);
+		if (key(s) == 0)
+			return false;
+		write(s, id, toFixed(lon), toFixed(lat));
+		return true;
+	}
+
+	@Override
+	public boolean containsKey(long id) {
+		if (id == 0)
+			return hasZero;
+		return key(slot(id)) != 0;
+	}
+
+	@Override
+	public boolean getCoordinates(long id, double[] buf, int offset) {
+		int lon, lat;
+		if (id == 0)
+		{
+			if (!hasZero)
+				return false;
+			lon = zeroLon;
+			lat = zeroLat;
+		}
+		else
+		{
+			long s = slot(id);
+			ByteBuffer b = segment(s);
+			int off = offset(s);
+			if (b.getLong(off) == 0)
+				return false;
+			lon = b.getInt(off + 8);
+			lat = b.getInt(off + 12);
+		}
+		if (lat == NONE)                  //Reserved entry without coordinates
+			return false;
+		buf[offset] = fromFixed(lon);
+		buf[offset + 1] = fromFixed(lat);
+		return true;
+	}
+
+	@Override
+	public long count() {
+		return hasZero ? count + 1 : count;
+	}
+
+    /**
+     * Erases all contents of the index and releases its memory.
+     */
+	public void clear() {
+		allocate(INITIAL_CAPACITY);
+		hasZero = false;
+	}
+
+	/**
+	 * Print the identifiers of all nodes in the index to standard output.
+	 */
+	public void print() {
+		if (hasZero)
+			System.out.println("0");
+		for (ByteBuffer b: segments)
+		{
+			for (int off = 0; off < b.capacity(); off += SLOT_BYTES)
+			{
+				if (b.getLong(off) != 0)
+					System.out.println(b.getLong(off));
+			}
+		}
+	}
+}
@@ -0,0 +1,266 @@
+/*
+ * @(#) OSMPbfReader.java 	 version 1.6   18/10/2026
+ *
+ * Copyright (C) 2013-2018 Information Systems Management Institute, Athena R.C., Greece.
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.slipo.athenarc.triplegeo.osm;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import org.openstreetmap.osmosis.core.OsmosisRuntimeException;
+import org.openstreetmap.osmosis.core.container.v0_6.EntityContainer;
+import org.openstreetmap.osmosis.core.task.v0_6.RunnableSource;
+import org.openstreetmap.osmosis.core.task.v0_6.Sink;
+import org.openstreetmap.osmosis.osmbinary.Fileformat;
+import org.openstreetmap.osmosis.osmbinary.Osmformat;
+
+import crosby.binary.osmosis.OsmosisBinaryParser;
+
+/**
+ * Reader of OSM PBF files that decodes their blocks concurrently, as a replacement of the Osmosis reader (which inflates and decodes each block in the calling thread).
+ * Headers of blocks are read sequentially from the input, whereas inflation and decoding of each block into Osmosis entities is handed over to a pool of worker threads.
+ * Decoded entities are delivered to the sink by the calling thread, either in their original order or in the order their blocks get decoded (if order does not matter to the sink).
+ * The number of blocks pending at any time is bounded, so memory consumption does not depend on the size of the input.
+ * @author agent
+ * @version 1.6
+ */
+
+/* DEVELOPMENT HISTORY
+ * Created by: agent, 18/10/2026
+ * Last modified: 18/10/2026
+ */
+
+public class OSMPbfReader implements RunnableSource {
+
+	private static final int MAX_HEADER_SIZE = 64 * 1024;             //Limits specified by the PBF format
+	private static final int MAX_BLOB_SIZE = 32 * 1024 * 1024;
+
+	private final InputStream input;
+	private final int numThreads;
+	private final boolean ordered;
+	private Sink sink;
+
+	/**
+	 * Constructor of this class.
+	 * @param input  Stream over the OSM PBF file.
+	 * @param numThreads  Number of worker threads that will decode blocks.
+	 * @param ordered  True, if entities must be delivered in their original order; False, if they may be delivered in any order.
+	 */
+	public OSMPbfReader(InputStream input, int numThreads, boolean ordered) {
+
+		this.input = input;
+		this.numThreads = Math.max(1, numThreads);
+		this.ordered = ordered;
+	}
+
+	/**
+	 * Specifies the sink that will process the decoded OSM entities.
+	 * @param sink  The sink (e.g., a converter of OSM elements).
+	 */
+	@Override
+	public void setSink(Sink sink) {
+		this.sink = sink;
+	}
+
+	/**
+	 * Reads the entire input and delivers all decoded entities to the sink; the sink is notified once the input is exhausted.
+	 */
+	@Override
+	public void run() {
+
+		ExecutorService workers = Executors.newFixedThreadPool(numThreads);
+		CompletionService<List<EntityContainer>> decoded = new ExecutorCompletionService<List<EntityContainer>>(workers);
+		//CAUTION! Bounded number of pending blocks: reading blocks if the sink falls behind, so memory consumption remains bounded
+		Deque<Future<List<EntityContainer>>> pending = new ArrayDeque<Future<List<EntityContainer>>>();
+		int maxPending = 2 * numThreads;
+
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(input, 1 << 16))) {
+			Fileformat.BlobHeader header;
+			while ((header = readHeader(in)) != null)
+			{
+				final String type = header.getType();
+				final byte[] blob = new byte[checkSize(header.getDatasize(), MAX_BLOB_SIZE)];
+				in.readFully(blob);
+				if (!type.equals("OSMHeader") && !type.equals("OSMData"))
+					continue;                                       //Unknown blocks are skipped, as in Osmosis
+
+				if (pending.size() >= maxPending)
+					deliver(ordered ? pending.removeFirst() : take(decoded, pending));
+				Callable<List<EntityContainer>> task = new Callable<List<EntityContainer>>() {
+					@Override
+					public List<EntityContainer> call() throws Exception {
+						return decode(type, blob);
+					}
+				};
+				//Only blocks that may be delivered in any order are tracked upon completion
+				pending.addLast(ordered ? workers.submit(task) : decoded.submit(task));
+			}
+
+			//Deliver remaining blocks
+			while (!pending.isEmpty())
+				deliver(ordered ? pending.removeFirst() : take(decoded, pending));
+		} catch (IOException e) {
+			throw new OsmosisRuntimeException("Unable to process PBF stream", e);
+		} finally {
+			workers.shutdownNow();
+		}
+
+		sink.complete();
+	}
+
+	/**
+	 * Reads the header of the next block from the input.
+	 * @param in  The input stream.
+	 * @return  The header of the block; null, if the input is exhausted.
+	 * @throws IOException
+	 */
+	private Fileformat.BlobHeader readHeader(DataInputStream in) throws IOException {
+
+		int len;
+		try {
+			len = in.readInt();
+		} catch (EOFException e) {
+			return null;
+		}
+		byte[] buf = new byte[checkSize(len, MAX_HEADER_SIZE)];
+		in.readFully(buf);
+		return Fileformat.BlobHeader.parseFrom(buf);
+	}
+
+	private static int checkSize(int size, int max) throws IOException {
+		if ((size < 0) || (size > max))
+			throw new IOException("Invalid size of block in PBF stream: " + size);
+		return size;
+	}
+
+	/**
+	 * Provides the next decoded block, whichever completes first, and removes it from the pending ones.
+	 */
+	private static Future<List<EntityContainer>> take(CompletionService<List<EntityContainer>> decoded, Deque<Future<List<EntityContainer>>> pending) {
+
+		try {
+			Future<List<EntityContainer>> f = decoded.take();
+			pending.remove(f);
+			return f;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new OsmosisRuntimeException("Interrupted while decoding PBF stream", e);
+		}
+	}
+
+	/**
+	 * Hands over the entities of a block to the sink, once the block has been decoded.
+	 * @param f  The result of decoding a block.
+	 */
+	private void deliver(Future<List<EntityContainer>> f) {
+
+		List<EntityContainer> entities;
+		try {
+			entities = f.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new OsmosisRuntimeException("Interrupted while decoding PBF stream", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			throw new OsmosisRuntimeException("Unable to decode block of PBF stream", e.getCause());
+		}
+		for (EntityContainer c: entities)
+			sink.process(c);
+	}
+
+	/**
+	 * Inflates and decodes a block into Osmosis entities. Executed by a worker thread.
+	 * @param type  The type of the block (OSMHeader or OSMData).
+	 * @param blob  The raw contents of the block.
+	 * @return  The decoded entities (including the bounding box for a header block), in their original order.
+	 * @throws IOException
+	 * @throws DataFormatException
+	 */
+	private static List<EntityContainer> decode(String type, byte[] blob) throws IOException, DataFormatException {
+
+		byte[] data = inflate(Fileformat.Blob.parseFrom(blob));
+		final List<EntityContainer> entities = new ArrayList<EntityContainer>(8000);
+
+		//A new parser per block, as parsers keep the string table and granularity of the current block
+		OsmosisBinaryParser parser = new OsmosisBinaryParser();
+		parser.setSink(new Sink() {
+			@Override
+			public void initialize(Map<String, Object> metaData) {
+			}
+			@Override
+			public void process(EntityContainer entityContainer) {
+				entities.add(entityContainer);
+			}
+			@Override
+			public void complete() {
+			}
+			@Override
+			public void close() {
+			}
+		});
+
+		if (type.equals("OSMHeader"))
+			parser.parse(Osmformat.HeaderBlock.parseFrom(data));        //Also checks that all features required by the file are supported
+		else
+			parser.parse(Osmformat.PrimitiveBlock.parseFrom(data));
+		return entities;
+	}
+
+	/**
+	 * Provides the uncompressed contents of a block.
+	 * @param blob  A block of the PBF file.
+	 * @return  The uncompressed contents.
+	 * @throws DataFormatException
+	 */
+	private static byte[] inflate(Fileformat.Blob blob) throws DataFormatException {
+
+		if (blob.hasRaw())
+			return blob.getRaw().toByteArray();
+		if (!blob.hasZlibData())
+			throw new OsmosisRuntimeException("PBF block uses unsupported compression");
+
+		byte[] data = new byte[blob.getRawSize()];
+		Inflater inflater = new Inflater();
+		try {
+			inflater.setInput(blob.getZlibData().toByteArray());
+			inflater.inflate(data);
+			if (!inflater.finished())
+				throw new DataFormatException("PBF block is larger than its declared size");
+		} finally {
+			inflater.end();
+		}
+		return data;
+	}
+}
@@ -43,12 +43,14 @@ import com.vividsolutions.jts.operation.linemerge.LineMerger;
  * Created by: Kostas Patroumpas, 19/4/2017
  * Modified: 7/9/2017; reorganized methods in order to be applicable to both XML and PBF input files from OpenStreetMap.
  * Modified: 24/10/2018; allowing transformation even in case that no filters (using OSM tags) have been specified over OSM features
- * Last modified by: Kostas Patroumpas, 24/10/2018
+ * Modified: 18/10/2026; categories assigned using a compiled form of the filters, dispatched by tag key and value
+ * Last modified by: agent, 18/10/2026
  */
 
 public class OSMRecordBuilder {
 
 	public static List<OSMFilter> filters;              //Parser for a file with filters for assigning categories to OSM features
+	private static OSMFilterMatcher filterMatcher;      //Compiled form of these filters, looked up by tag key and value
 
 	private GeometryFactory geometryFactory = new GeometryFactory();
 	
@@ -60,6 +62,7 @@ public class OSMRecordBuilder {
 	
 	public OSMRecordBuilder(List<OSMFilter> tagFilters) {
 		filters = tagFilters;
+		filterMatcher = (tagFilters != null) ? new OSMFilterMatcher(tagFilters) : null;
 	}
 	
 	  /**
@@ -68,49 +71,7 @@ public class OSMRecordBuilder {
 	   * @return  A category according to the classification scheme based on OSM tags.
 	   */
 	  private static String getCategory(Map<String, String> tags) {
-		//Iterate over filters
-		String cat = null;
-		for (OSMFilter filter : filters) {
-			cat = getCategoryRecursive(filter, tags, null);
-			if (cat != null) {
-				return cat;
-			}
-		}
-		return null;
-	  }
-
-
-
-	  /**
-	   * Recursively search in the classification hierarchy to match the given tag (key).
-	   * @param filter  Correspondence of OSM tags into categories.
-	   * @param tags  Key-value pairs for OSM tags and their respective values for a given feature.
-	   * @param key  Tag at any level in the classification hierarchy.
-	   * @return
-	   */
-	  private static String getCategoryRecursive(OSMFilter filter, Map<String, String> tags, String key) {
-			//Use key of parent rule or current
-			if (filter.hasKey()) {
-				key = filter.getKey();
-			}
-
-			//Check for key/value
-			if (tags.containsKey(key))
-				if (filter.hasValue() && !filter.getValue().equals(tags.get(key)))
-					return null;
-				else
-					;             //Important in order to search recursively across the hierarchy of categories (tags)
-			else
-				return null;
-
-			//If children have categories, those will be used
-			for (OSMFilter child : filter.childs)
-			{
-				String cat = getCategoryRecursive(child, tags, key);
-				if (cat != null) 
-					return cat;
-			}
-			return filter.getCategory();
+		return filterMatcher.getCategory(tags);
 	  }
 
 	
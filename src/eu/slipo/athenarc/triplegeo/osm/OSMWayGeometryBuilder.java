@@ -0,0 +1,118 @@
+/*
+ * @(#) OSMWayGeometryBuilder.java 	 version 1.6   18/10/2026
+ *
+ * Copyright (C) 2013-2018 Information Systems Management Institute, Athena R.C., Greece.
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.slipo.athenarc.triplegeo.osm;
+
+import java.util.Arrays;
+
+import com.vividsolutions.jts.geom.Coordinate;
+import com.vividsolutions.jts.geom.Geometry;
+import com.vividsolutions.jts.geom.GeometryFactory;
+import com.vividsolutions.jts.geom.LinearRing;
+import com.vividsolutions.jts.geom.Polygon;
+import com.vividsolutions.jts.geom.impl.PackedCoordinateSequence;
+
+/**
+ * Constructs the geometry of an OSM way from the coordinates of its nodes, as these are looked up in the index of nodes.
+ * Coordinates are collected in a reusable buffer and the resulting geometry holds them in a packed coordinate sequence, so no objects are created per node of the way.
+ * A polygon is constructed for a closed way with more than 3 nodes, a linestring for any other way with more than one node, and a point otherwise.
+ * Not thread-safe; each converter should use its own instance.
+ * @author agent
+ * @version 1.6
+ */
+
+/* DEVELOPMENT HISTORY
+ * Created by: agent, 18/10/2026
+ * Last modified: 18/10/2026
+ */
+
+public class OSMWayGeometryBuilder {
+
+	private final OSMNodeIndex nodeIndex;
+	private final GeometryFactory geometryFactory;
+	private double[] coords = new double[512];     //Longitude and latitude of each node of the current way at consecutive positions
+	private int numNodes = 0;
+
+	/**
+	 * Constructor of this class.
+	 * @param nodeIndex  Index holding the coordinates of OSM nodes.
+	 * @param geometryFactory  Factory for the constructed geometries.
+	 */
+	public OSMWayGeometryBuilder(OSMNodeIndex nodeIndex, GeometryFactory geometryFactory) {
+
+		this.nodeIndex = nodeIndex;
+		this.geometryFactory = geometryFactory;
+	}
+
+	/**
+	 * Starts the construction of a new way.
+	 */
+	public void reset() {
+		numNodes = 0;
+	}
+
+	/**
+	 * Appends the coordinates of the given node to the current way.
+	 * @param id  The identifier of the node.
+	 * @return  True, if the coordinates of this node were found in the index; otherwise, False (and the node is skipped).
+	 */
+	public boolean addNode(long id) {
+
+		if (2 * numNodes + 2 > coords.length)
+			coords = Arrays.copyOf(coords, 2 * coords.length);
+		if (!nodeIndex.getCoordinates(id, coords, 2 * numNodes))
+			return false;
+		numNodes++;
+		return true;
+	}
+
+	/**
+	 * Provides the number of nodes appended so far to the current way.
+	 * @return  The number of nodes with known coordinates.
+	 */
+	public int getNumNodes() {
+		return numNodes;
+	}
+
+	/**
+	 * Constructs the geometry of the current way.
+	 * @return  A polygon if the way is closed and has more than 3 nodes; a linestring if it has more than one node; otherwise, a (possibly empty) point.
+	 */
+	public Geometry build() {
+
+		int n = numNodes;
+		if (n == 0)
+			return geometryFactory.createPoint((Coordinate) null);
+		if (n == 1)
+			return geometryFactory.createPoint(new Coordinate(coords[0], coords[1]));
+
+		PackedCoordinateSequence seq = new PackedCoordinateSequence.Double(Arrays.copyOf(coords, 2 * n), 2);
+
+		//Check if the beginning and ending node are the same and the number of nodes are more than 3.
+		//These nodes must be more than 3, because JTS does not allow construction of a linear ring with less than 3 points
+		if ((n > 3) && (coords[0] == coords[2 * n - 2]) && (coords[1] == coords[2 * n - 1]))
+		{
+			//Always construct a polygon when a linear ring is detected
+			LinearRing linear = geometryFactory.createLinearRing(seq);
+			return new Polygon(linear, null, geometryFactory);
+		}
+
+		//It is an open geometry with more than one nodes, make it linestring
+		return geometryFactory.createLineString(seq);
+	}
+}
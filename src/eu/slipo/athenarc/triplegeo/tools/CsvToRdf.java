@@ -20,9 +20,14 @@ package eu.slipo.athenarc.triplegeo.tools;
 
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
 import java.io.Reader;
+import java.nio.channels.Channels;
 import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.Map;
 
@@ -31,6 +36,7 @@ import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
 import org.apache.commons.io.ByteOrderMark;
 import org.apache.commons.io.input.BOMInputStream;
+import org.apache.commons.io.input.BoundedInputStream;
 
 import org.geotools.factory.Hints;
 import org.geotools.referencing.CRS;
@@ -58,6 +64,7 @@ import eu.slipo.athenarc.triplegeo.utils.StreamConverter;
  * Instead of just lon/lat attributes for points, this utility also supports more complex geometry types, provided that input CSV includes an attribute with the WKT representation of such geometries.
  * LIMITATIONS: Currently, only supporting CSV files with header (i.e., named attributes).
  *              Apart from a delimiter, configuration files for CSV records must also specify whether there is a quote character in string values.
+ *              When splitting a CSV file into chunks, quoted values must not span multiple lines, since chunk boundaries are aligned to line breaks.
  * @author Kostas Patroumpas
  * @version 1.6
  */
@@ -72,7 +79,8 @@ import eu.slipo.athenarc.triplegeo.utils.StreamConverter;
  * Modified: 7/11/2017, fixed issue with multiple instances of CRS factory
  * Modified: 24/11/2017, added support for recognizing character encoding for strings
  * Modified: 12/12/2017, fixed issue with string encodings; verified that UTF characters read and written correctly
- * Last modified by: Kostas Patroumpas, 5/10/2018
+ * Modified: 18/10/2026, added support for transforming a chunk (i.e., a byte range aligned to line breaks) of the input CSV file
+ * Last modified by: agent, 18/10/2026
  */
 public class CsvToRdf {
 
@@ -86,6 +94,8 @@ public class CsvToRdf {
 	  private String inputFile;               //Input CSV file
 	  private String outputFile;              //Output RDF file
 	  private String encoding;                //Encoding of the data records
+	  private int chunkIndex = 0;             //Index of the chunk of the input file to be transformed
+	  private int numChunks = 1;              //Number of chunks that the input file has been split into
 	  
 	  //Initialize a CRS factory for possible reprojections
 	  private static final CRSAuthorityFactory crsFactory = ReferencingFactoryFinder
@@ -104,7 +114,25 @@ public class CsvToRdf {
 	   * @param targetSRID  Spatial reference system (EPSG code) of geometries in the output RDF triples.
 	   */
 	  public CsvToRdf(Configuration config, Classification classific, String inFile, String outFile, int sourceSRID, int targetSRID) {
+
+		  this(config, classific, inFile, outFile, sourceSRID, targetSRID, 0, 1);
+	  }
+
+	  /**
+	   * Constructor for the transformation process from a chunk of a CSV file to RDF.
+	   * @param config  Parameters to configure the transformation.
+	   * @param classific  Instantiation of the classification scheme that assigns categories to input features.
+	   * @param inFile   Path to input CSV file.
+	   * @param outFile  Path to the output file that collects RDF triples.
+	   * @param sourceSRID  Spatial reference system (EPSG code) of the input geometries.
+	   * @param targetSRID  Spatial reference system (EPSG code) of geometries in the output RDF triples.
+	   * @param chunkIndex  The index (starting from 0) of the chunk of the input file to be transformed.
+	   * @param numChunks  The total number of chunks that the input file has been split into.
+	   */
+	  public CsvToRdf(Configuration config, Classification classific, String inFile, String outFile, int sourceSRID, int targetSRID, int chunkIndex, int numChunks) {
        
+		  this.chunkIndex = chunkIndex;
+		  this.numChunks = numChunks;
 		  myAssistant = new Assistant();
 		  currentConfig = config;
 		  classification = classific;
@@ -175,6 +203,29 @@ public class CsvToRdf {
 			Map<String, Integer> headerMap = dataCSVParser.getHeaderMap();     
 			csvHeader = headerMap.keySet().toArray(new String[headerMap.size()]);  //Array of all column names
 			
+			//In case of splitting into chunks, only consume the records within the byte range of this chunk
+			if (numChunks > 1)
+			{
+				if (!encoding.startsWith("UTF-16"))
+				{
+					dataCSVParser.close();
+					RandomAccessFile raf = new RandomAccessFile(file, "r");
+					//Chunk boundaries are aligned to line breaks; the first chunk starts right after the header
+					long start = alignToLine(raf, Math.max((file.length() / numChunks) * chunkIndex, 1));
+					long end = (chunkIndex == numChunks - 1) ? file.length() : alignToLine(raf, (file.length() / numChunks) * (chunkIndex + 1));
+					raf.seek(Math.min(start, end));
+					InputStream chunk = new BoundedInputStream(Channels.newInputStream(raf.getChannel()), Math.max(end - start, 0));
+					format = CSVFormat.RFC4180.withDelimiter(currentConfig.delimiter).withQuote(currentConfig.quote).withHeader(csvHeader);
+					dataCSVParser = new CSVParser(new InputStreamReader(chunk, encoding), format);
+					records = dataCSVParser.iterator();                          //Only records in this chunk
+				}
+				else if (chunkIndex > 0)   //Multi-byte encodings cannot be split at byte level, so the entire file is handled by the first chunk
+				{
+					dataCSVParser.close();
+					records = Collections.<CSVRecord>emptyIterator();
+				}
+			}
+			
 		} catch (Exception e) {
   			ExceptionHandler.abort(e, "Cannot access input file.");      //Execution terminated abnormally
   		}
@@ -182,6 +233,26 @@ public class CsvToRdf {
 		return records;
 	}
 	 
+	/**
+	 * Determines the byte position of the first line that starts at or after the given position in the CSV file.
+	 * @param raf  The CSV file opened for random access.
+	 * @param pos  A byte position in the CSV file.
+	 * @return  The byte position immediately after the first line break found from (pos - 1) onwards; the file length if no such line break exists.
+	 * @throws IOException
+	 */
+	private long alignToLine(RandomAccessFile raf, long pos) throws IOException {
+		
+		if (pos <= 0)
+			return 0;
+		raf.seek(pos - 1);                       //Check whether the previous byte is already a line break
+		int b;
+		while ((b = raf.read()) != -1) {
+			if (b == '\n')
+				break;
+		}
+		return raf.getFilePointer();
+	}
+	
 	
   /**
     * Applies transformation according to the configuration settings.
@@ -18,15 +18,20 @@
  */
 package eu.slipo.athenarc.triplegeo.tools;
 
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.zip.Inflater;
 
 import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.geotools.factory.Hints;
 import org.geotools.referencing.CRS;
 import org.geotools.referencing.ReferencingFactoryFinder;
@@ -43,27 +48,28 @@ import org.openstreetmap.osmosis.core.domain.v0_6.RelationMember;
 import org.openstreetmap.osmosis.core.domain.v0_6.Tag;
 import org.openstreetmap.osmosis.core.domain.v0_6.Way;
 import org.openstreetmap.osmosis.core.domain.v0_6.WayNode;
+import org.openstreetmap.osmosis.core.task.v0_6.RunnableSource;
 import org.openstreetmap.osmosis.core.task.v0_6.Sink;
+import org.openstreetmap.osmosis.osmbinary.Fileformat;
+import org.openstreetmap.osmosis.osmbinary.Osmformat;
 
 import com.vividsolutions.jts.geom.Coordinate;
 import com.vividsolutions.jts.geom.Geometry;
 import com.vividsolutions.jts.geom.GeometryFactory;
-import com.vividsolutions.jts.geom.LineString;
-import com.vividsolutions.jts.geom.LinearRing;
-import com.vividsolutions.jts.geom.Point;
-import com.vividsolutions.jts.geom.Polygon;
 import com.vividsolutions.jts.geom.PrecisionModel;
 import com.vividsolutions.jts.io.WKTReader;
 
 import crosby.binary.osmosis.OsmosisReader;
 import eu.slipo.athenarc.triplegeo.osm.OSMClassification;
-import eu.slipo.athenarc.triplegeo.osm.OSMDiskIndex;
-import eu.slipo.athenarc.triplegeo.osm.OSMMemoryIndex;
+import eu.slipo.athenarc.triplegeo.osm.OSMHybridIndex;
 import eu.slipo.athenarc.triplegeo.osm.OSMNode;
+import eu.slipo.athenarc.triplegeo.osm.OSMNodeIndex;
+import eu.slipo.athenarc.triplegeo.osm.OSMPbfReader;
 import eu.slipo.athenarc.triplegeo.osm.OSMRecord;
 import eu.slipo.athenarc.triplegeo.osm.OSMRecordBuilder;
 import eu.slipo.athenarc.triplegeo.osm.OSMRelation;
 import eu.slipo.athenarc.triplegeo.osm.OSMWay;
+import eu.slipo.athenarc.triplegeo.osm.OSMWayGeometryBuilder;
 import eu.slipo.athenarc.triplegeo.utils.Assistant;
 import eu.slipo.athenarc.triplegeo.utils.Classification;
 import eu.slipo.athenarc.triplegeo.utils.Configuration;
@@ -88,7 +94,15 @@ import eu.slipo.athenarc.triplegeo.utils.ValueChecker;
  * Modified: 4/7/2018; reorganized identification of categories based on OSM tags
  * Modified: 27/9/2018; excluded creation of linear ring geometries for roads and barriers; polygons are created instead
  * Modified; 24/10/2018; allowing transformation to proceed even in case that no filters (using OSM tags) have been specified; no classification scheme will be used in this case.
- * Last modified by: Kostas Patroumpas, 24/10/2018
+ * Modified: 18/10/2026; coordinates of referenced nodes kept in an off-heap index keyed by their numeric identifiers, without creating strings or geometries
+ * Modified: 18/10/2026; added option for indexing coordinates of nodes in a memory-mapped flat file for very large OSM files
+ * Modified: 18/10/2026; files sorted by type and identifier are parsed in a single pass, if so specified; multiple passes retained by default and for unsorted files
+ * Modified: 18/10/2026; blocks of the PBF file inflated and decoded concurrently by several threads
+ * Modified: 18/10/2026; geometries of ways constructed directly from the coordinates of their nodes, without intermediate point geometries
+ * Modified: 18/10/2026; indices over OSM ways and relations start in memory and move their least recently accessed parts to disk once a configurable memory budget is exceeded
+ * Modified: 18/10/2026; single pass aborted at the first OSM element found out of order
+ * Modified: 18/10/2026; index of OSM nodes created by a factory shared with the OSM XML converter
+ * Last modified by: agent, 18/10/2026
  */
 public class OsmPbfToRdf implements Sink {
 
@@ -102,7 +116,7 @@ public class OsmPbfToRdf implements Sink {
 	  private String inputFile;             //Input OSM XML file
 	  private String outputFile;            //Output RDF file
 	
-	  OsmosisReader reader;                 //Osmosis reader for parsing the OSM PBF file
+	  RunnableSource reader;                //Reader for parsing the OSM PBF file
 	  
 	  Classification classification = null;        //Classification hierarchy for assigning categories to features
 	  
@@ -118,6 +132,8 @@ public class OsmPbfToRdf implements Sink {
 	  private GeometryFactory geometryFactory = new GeometryFactory();
 	    
 	  private OSMRecordBuilder recBuilder;
+	  private OSMNodeIndex nodeIndex;                      //Coordinates of OSM nodes referenced by ways or relations
+	  private OSMWayGeometryBuilder wayBuilder;           //Constructs geometries of ways from the coordinates of their nodes
 
 	  private OSMNode nodeTmp;                             //the current OSM node object
 	  private OSMWay wayTmp;                               //the current OSM way object
@@ -133,6 +149,10 @@ public class OsmPbfToRdf implements Sink {
 	  private boolean scanRelations = true;                //Activates preliminary scanning of OSM relations in order to create index structures required during parsing
 	  private boolean rescanRelations = false;             //Activates an auxiliary scan of OSM relations that may be referenced by other relations
 	  private boolean keepIndexed = false;                 //Determines whether to index references of a given OSM element based on its tags; discarded if none of its tags matches with the user-specified OSM filters 
+	  private boolean singlePass = false;                  //Activates parsing in a single pass, applicable to OSM files sorted by type (nodes, ways, relations) and identifier
+	  private int lastType = 0;                            //Type of the last parsed OSM element in a single pass: 0 for nodes, 1 for ways, 2 for relations
+	  private static final String[] ELEMENT_TYPES = {"node", "way", "relation"};
+	  private Map<String, OSMRelation> deferredRelations;  //OSM relations not parsed in a single pass, kept in case they are referenced by subsequent relations
 
 	  /**
 	   * Constructor for the transformation process from OpenStreetMap PBF file to RDF.
@@ -206,53 +226,61 @@ public class OsmPbfToRdf implements Sink {
 		  
 		    //Depending of input file size, determine if indices will be kept in-memory of will be disk-based
 	    	File inFile = new File(inputFile);
-	    	if (inFile.length() < 0.02 * Runtime.getRuntime().maxMemory() ) {          //CAUTION! Rule of thumb: Input PBF file size is less than 5% of the JVM heap size, so memory is expected to be sufficient for indexing OSM elements    
-	    		//OPTION #1: Memory-based native Java structures for indexing
-	    		recBuilder.nodeIndex = new OSMMemoryIndex(); 
-	    		recBuilder.wayIndex = new OSMMemoryIndex();
-	    		recBuilder.relationIndex = new OSMMemoryIndex();
-		        System.out.println("Buidling in-memory indices over OSM elements...");
-	    	}
-	    	else {                                               //For larger OSM files, resort to disk-based indexing of their referenced elements
-	    		//OPTION #2: Disk-based structures for indexing
-	    		recBuilder.nodeIndex = new OSMDiskIndex(currentConfig.tmpDir, "nodeIndex");
-	    		recBuilder.wayIndex = new OSMDiskIndex(currentConfig.tmpDir, "wayIndex");
-	    		recBuilder.relationIndex = new OSMDiskIndex(currentConfig.tmpDir, "relationIndex");
-		        System.out.println("Buidling disk-based indices over OSM elements...");
-	    	}
+	    	nodeIndex = OSMNodeIndex.create(currentConfig, inFile.length());     //Coordinates of nodes are kept outside the JVM heap in either case
+	    	recBuilder.nodeIndex = nodeIndex;
+	    	wayBuilder = new OSMWayGeometryBuilder(nodeIndex, geometryFactory);
+	    	//Indices over OSM ways and relations are held in memory; once they exceed the memory budget, their least recently accessed parts are moved to disk
+	    	OSMHybridIndex.Budget indexBudget = new OSMHybridIndex.Budget((currentConfig.osmIndexMemory > 0) ? currentConfig.osmIndexMemory * 1024L * 1024L : Runtime.getRuntime().maxMemory() / 4);
+	    	OSMHybridIndex wayIndex = new OSMHybridIndex(currentConfig.tmpDir, "wayIndex", indexBudget);
+	    	OSMHybridIndex relationIndex = new OSMHybridIndex(currentConfig.tmpDir, "relationIndex", indexBudget);
+	    	recBuilder.wayIndex = wayIndex;
+	    	recBuilder.relationIndex = relationIndex;
+	        System.out.println("Building indices over OSM elements...");
 	    	
 	    	//This list will hold OSM relations that depend on other relations, so these must be checked once the entire OSM file is exhausted.
 	    	recBuilder.incompleteRelations = new ArrayList<>();
  
 	    	try { 
-	        	//Preliminary INDEXING phase: first scan of OSM relations to build the required index structures
-	        	scanRelations = true;
-	        	scanWays = false;
-	        	System.out.println("Scanning OSM relations to identify indexed OSM elements...");
-	        	parse();    //Call Osmosis parser to identify OSM elements
-	        	System.out.println("Indexed " + recBuilder.nodeIndex.size() + " nodes, " + recBuilder.wayIndex.size() + " ways, and " + recBuilder.relationIndex.size() + " relations.");
-	            
-	        	if (rescanRelations) {
-		            //Preliminary INDEXING phase: second scan of OSM relations to build the required index structures, since relations may refer to other relations
+	    		if (currentConfig.osmSinglePass && isSortedByTypeThenID()) {
+	    			//Nodes precede ways, which precede relations, so any element may only be referenced after it has been indexed
+	    			singlePass = true;
+	    			scanRelations = false;
+	    			scanWays = false;
+	    			deferredRelations = new HashMap<>();
+	    			System.out.println("OSM file is sorted by type and identifier. Starting parsing of all OSM elements in a single pass...");
+	    			parse();    //Call Osmosis parser to identify OSM elements
+	    			deferredRelations = null;
+	    		}
+	    		else {
+		        	//Preliminary INDEXING phase: first scan of OSM relations to build the required index structures
 		        	scanRelations = true;
 		        	scanWays = false;
-		        	System.out.println("Second scan of OSM relations to identify other referenced OSM relations...");
+		        	System.out.println("Scanning OSM relations to identify indexed OSM elements...");
 		        	parse();    //Call Osmosis parser to identify OSM elements
 		        	System.out.println("Indexed " + recBuilder.nodeIndex.size() + " nodes, " + recBuilder.wayIndex.size() + " ways, and " + recBuilder.relationIndex.size() + " relations.");
-	        	}
-	        	
-	            //Preliminary INDEXING phase: only scan OSM ways to build the required index structures
-	        	scanWays = true;
-	        	scanRelations = false;
-	        	System.out.println("Scanning OSM ways to identify indexed OSM elements...");
-	        	parse();    //Call Osmosis parser to identify OSM elements
-	        	System.out.println("Indexed " + recBuilder.nodeIndex.size() + " nodes, " + recBuilder.wayIndex.size() + " ways, and " + recBuilder.relationIndex.size() + " relations.");
-	            
-	            //PARSING phase: Take advantage of precomputed indices when parsing
-	            scanRelations = false;
-	            scanWays = false;
-	            System.out.println("Starting parsing of all OSM elements...");	  
-	            parse();    //Call Osmosis parser to identify OSM elements
+		            
+		        	if (rescanRelations) {
+			            //Preliminary INDEXING phase: second scan of OSM relations to build the required index structures, since relations may refer to other relations
+			        	scanRelations = true;
+			        	scanWays = false;
+			        	System.out.println("Second scan of OSM relations to identify other referenced OSM relations...");
+			        	parse();    //Call Osmosis parser to identify OSM elements
+			        	System.out.println("Indexed " + recBuilder.nodeIndex.size() + " nodes, " + recBuilder.wayIndex.size() + " ways, and " + recBuilder.relationIndex.size() + " relations.");
+		        	}
+		        	
+		            //Preliminary INDEXING phase: only scan OSM ways to build the required index structures
+		        	scanWays = true;
+		        	scanRelations = false;
+		        	System.out.println("Scanning OSM ways to identify indexed OSM elements...");
+		        	parse();    //Call Osmosis parser to identify OSM elements
+		        	System.out.println("Indexed " + recBuilder.nodeIndex.size() + " nodes, " + recBuilder.wayIndex.size() + " ways, and " + recBuilder.relationIndex.size() + " relations.");
+		            
+		            //PARSING phase: Take advantage of precomputed indices when parsing
+		            scanRelations = false;
+		            scanWays = false;
+		            System.out.println("Starting parsing of all OSM elements...");	  
+		            parse();    //Call Osmosis parser to identify OSM elements
+	    		}
 		        
 	            //Second pass over incomplete OSM relations, once the entire XML file has been parsed
 	            for (Iterator<OSMRelation> iterator = recBuilder.incompleteRelations.iterator(); iterator.hasNext(); )
@@ -280,6 +308,8 @@ public class OsmPbfToRdf implements Sink {
 	            
 	            if (inRelation)
 	            	System.out.println("\nFinished parsing OSM relations.");
+	            wayIndex.printStatistics("ways");
+	            relationIndex.printStatistics("relations");
 	            recBuilder.nodeIndex.clear();											//Discard index over OSM nodes			
 	            recBuilder.wayIndex.clear();                                      		//Discard index over OSM ways
 	            recBuilder.relationIndex.clear();                                       //Discard index over OSM relations	
@@ -290,13 +320,84 @@ public class OsmPbfToRdf implements Sink {
 	  }
 	
 	  /**
-	   * Instantiates and calls an Osmosis parser to identify OSM elements.
+	   * Checks whether the header of the input PBF file declares that its elements are sorted by type (nodes, ways, relations) and then by identifier.
+	   * @return  True, if the file is declared as sorted; otherwise, False.
+	   */
+	  private boolean isSortedByTypeThenID() {
+		  
+		  //The header is the first block of a PBF file, preceded by the length of its own header
+		  try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(inputFile)))) {
+			  byte[] buf = new byte[in.readInt()];
+			  in.readFully(buf);
+			  Fileformat.BlobHeader blobHeader = Fileformat.BlobHeader.parseFrom(buf);
+			  if (!blobHeader.getType().equals("OSMHeader"))
+				  return false;
+			  buf = new byte[blobHeader.getDatasize()];
+			  in.readFully(buf);
+			  Fileformat.Blob blob = Fileformat.Blob.parseFrom(buf);
+			  byte[] data;
+			  if (blob.hasRaw())
+				  data = blob.getRaw().toByteArray();
+			  else {
+				  Inflater inflater = new Inflater();
+				  inflater.setInput(blob.getZlibData().toByteArray());
+				  data = new byte[blob.getRawSize()];
+				  inflater.inflate(data);
+				  inflater.end();
+			  }
+			  return Osmformat.HeaderBlock.parseFrom(data).getOptionalFeaturesList().contains("Sort.Type_then_ID");
+		  } catch (Exception e) {
+			  ExceptionHandler.warn(e, "Cannot read header of the OSM PBF file.");
+			  return false;
+		  }
+	  }
+	  
+	  /**
+	   * Checks the order of OSM elements in a single pass, and aborts the transformation as soon as an element of a preceding type is found.
+	   * Otherwise, elements referencing this one would have already been transformed incomplete or omitted.
+	   * @param type  Type of the current OSM element: 0 for nodes, 1 for ways, 2 for relations.
+	   */
+	  private void checkOrder(int type) {
+		  
+		  if (type < lastType)
+			  ExceptionHandler.abort(new IllegalStateException("OSM " + ELEMENT_TYPES[type] + " found after OSM " + ELEMENT_TYPES[lastType] + "s."), "OSM file is not sorted by type as declared in its header, so it cannot be parsed in a single pass. Please set osmSinglePass = false in the configuration.");
+		  else
+			  lastType = type;
+	  }
+	  
+	  /**
+	   * Prepares the relations referenced as members by the given relation during a single pass.
+	   * Relations already encountered are parsed at once so that their geometries are indexed; relations not yet encountered are marked as indexed, so that their geometries will be kept once parsed.
+	   * @param r  An OSM relation to be parsed.
+	   */
+	  private void resolveReferencedRelations(OSMRelation r) {
+		  
+		  for (Map.Entry<String, ImmutablePair<String, String>> m: r.getMemberReferences().entrySet()) {
+			  if (!m.getValue().getKey().equalsIgnoreCase("relation") || recBuilder.relationIndex.containsKey(m.getKey()))
+				  continue;
+			  recBuilder.relationIndex.put(m.getKey(), null);                   //Will be filled in with the geometry once the relation is parsed
+			  OSMRelation referenced = deferredRelations.remove(m.getKey());
+			  if (referenced != null) {
+				  resolveReferencedRelations(referenced);
+				  OSMRecord rec = recBuilder.createOSMRecord(referenced);
+				  if (rec != null)                                              //Otherwise, left for the second pass over incomplete relations
+					  recBuilder.relationIndex.put(m.getKey(), rec.getGeometry());
+			  }
+		  }
+	  }
+	  
+	  /**
+	   * Instantiates and calls a parser to identify OSM elements, with blocks of the PBF file decoded either concurrently or by the Osmosis parser.
 	   */
 	  private void parse() {
-		    //Initialize Osmosis parser for the input OSM PBF file
+		    //Initialize parser for the input OSM PBF file
 	        try {			 
 	    	    InputStream inputStream = new FileInputStream(inputFile);   
-	    	    reader = new OsmosisReader(inputStream);
+	    	    int numDecoders = (currentConfig.osmDecoders > 0) ? currentConfig.osmDecoders : Runtime.getRuntime().availableProcessors();
+	    	    if (numDecoders > 1)
+	    	    	reader = new OSMPbfReader(inputStream, numDecoders, !scanWays);      //Indexing of nodes referenced by ways does not depend on the order of ways
+	    	    else
+	    	    	reader = new OsmosisReader(inputStream);
 			    reader.setSink(this);
 	        } catch (Exception e) {
 	    	    ExceptionHandler.abort(e, "Cannot intitialize Osmosis parser for the OSM PBF file.");
@@ -334,6 +435,8 @@ public class OsmPbfToRdf implements Sink {
 	            numNodes++;
 
 	        	Node myNode = ((NodeContainer) entityContainer).getEntity();
+	        	if (singlePass)
+	        		checkOrder(0);
 	        	
 	            nodeTmp = new OSMNode();
 	            nodeTmp.setID("" + myNode.getId());
@@ -346,8 +449,10 @@ public class OsmPbfToRdf implements Sink {
 	        		}
 	            }
 	            
-	            //Create geometry object with original WGS84 coordinates
-	            Geometry geom = geometryFactory.createPoint(new Coordinate(myNode.getLongitude(), myNode.getLatitude()));
+	            //Create geometry object with original WGS84 coordinates, rounded to 7 decimal digits as stored in OSM and in the index
+	            double lon = OSMNodeIndex.fromFixed(OSMNodeIndex.toFixed(myNode.getLongitude()));
+	            double lat = OSMNodeIndex.fromFixed(OSMNodeIndex.toFixed(myNode.getLatitude()));
+	            Geometry geom = geometryFactory.createPoint(new Coordinate(lon, lat));
 	            nodeTmp.setGeometry(geom);
 
 	            if ((keepIndexed) && (nodeTmp.getTagKeyValue().containsKey("name")))
@@ -356,14 +461,18 @@ public class OsmPbfToRdf implements Sink {
 	            	numNamedEntities++;
 	            }
 	            
-	            if (recBuilder.nodeIndex.containsKey(nodeTmp.getID()))
-	            	recBuilder.nodeIndex.put(nodeTmp.getID(), nodeTmp.getGeometry());         //Keep a dictionary of node geometries, only if referenced by OSM ways
+	            if (singlePass)
+	            	nodeIndex.put(myNode.getId(), lon, lat);        //In a single pass, any node may be referenced by subsequent OSM ways or relations
+	            else
+	            	nodeIndex.update(myNode.getId(), lon, lat);     //Keep a dictionary of node coordinates, only if referenced by OSM ways or relations
 
 	            nodeTmp = null;
 	            
 	        } else if ((!scanRelations) && (entityContainer instanceof WayContainer)) {       //Create a new OSM way object and populate it with the appropriate values
 
 	        	Way myWay = ((WayContainer) entityContainer).getEntity();    
+	        	if (singlePass)
+	        		checkOrder(1);
 	              		 
 	        	for (Tag myTag : myWay.getTags()) {
 	        		if ((tags == null) || (tags.contains(myTag.getKey())))  {     		//CAUTION! Filter out any OSM elements not related to tags specified by the user
@@ -376,7 +485,7 @@ public class OsmPbfToRdf implements Sink {
 	        		//Either this OSM way is filtered or referenced by a relation, so its nodes should be kept in the index
 	        		if ((keepIndexed) || (recBuilder.wayIndex.containsKey("" + myWay.getId()))) {                                 
 		        		for (WayNode entry: myWay.getWayNodes()) {
-		        			recBuilder.nodeIndex.put("" + entry.getNodeId(), null);          //...initially with NULL geometry, to be replaced once nodes will be parsed
+		        			nodeIndex.reserve(entry.getNodeId());          //...initially without coordinates, to be filled in once nodes will be parsed
 		        		}
 	        		}
 	        	}
@@ -392,7 +501,8 @@ public class OsmPbfToRdf implements Sink {
 		            numWays++;
 		        	
 	        		//Skip parsing if this way is filtered out or not referenced by other relations
-	        		if ((!keepIndexed) && (!recBuilder.wayIndex.containsKey("" + myWay.getId())))
+	        		//In a single pass, any way may be referenced by subsequent relations, so its geometry is always constructed
+	        		if ((!singlePass) && (!keepIndexed) && (!recBuilder.wayIndex.containsKey("" + myWay.getId())))
 	        			 return;
 
 		            wayTmp = new OSMWay();
@@ -403,52 +513,13 @@ public class OsmPbfToRdf implements Sink {
 		            	wayTmp.setTagKeyValue( myTag.getKey(), myChecker.removeIllegalChars(myTag.getValue()));
 		            }
 		            
+		            //construct the way geometry from the coordinates of its referenced nodes
+		            wayBuilder.reset();
 		            for (WayNode entry: myWay.getWayNodes()) {
-		            	if (recBuilder.nodeIndex.containsKey("" + entry.getNodeId()))
-		            	{
-		            		Geometry geometry = recBuilder.nodeIndex.get("" + entry.getNodeId());     //get the geometry of the node with ID=entry
-		            		wayTmp.addNodeGeometry(geometry);                                         //add the node geometry in this way  
-		            	}
-		            	else
+		            	if (!wayBuilder.addNode(entry.getNodeId()))                  //append the coordinates of the node with ID=entry to this way
 		            		System.out.println("Missing node " + entry.getNodeId() + " in referencing way " + wayTmp.getID());
 		            }
-		            Geometry geom = geometryFactory.buildGeometry(wayTmp.getNodeGeometries());
-		            
-		            //Check if the beginning and ending node are the same and the number of nodes are more than 3. 
-		            //These nodes must be more than 3, because JTS does not allow construction of a linear ring with less than 3 points
-		            if((wayTmp.getNodeGeometries().size() > 3) && wayTmp.getNodeGeometries().get(0).equals(wayTmp.getNodeGeometries().get(wayTmp.getNodeGeometries().size()-1)))
-		            {
-		               //Always construct a polygon when a linear ring is detected
-		               LinearRing linear = geometryFactory.createLinearRing(geom.getCoordinates());
-		               Polygon poly = new Polygon(linear, null, geometryFactory);
-		               wayTmp.setGeometry(poly);  
-		            	
-		               /*************************************************
-		               //OPTION NOT USED: Construct a linear ring geometry when this feature is either a barrier or a road
-		               if (!((wayTmp.getTagKeyValue().containsKey("barrier")) || wayTmp.getTagKeyValue().containsKey("highway"))){
-		            	   //this is not a barrier nor a road, so construct a polygon geometry
-		               
-		            	   LinearRing linear = geometryFactory.createLinearRing(geom.getCoordinates());
-		            	   Polygon poly = new Polygon(linear, null, geometryFactory);
-		            	   wayTmp.setGeometry(poly);               
-		               }
-		               else {    //it is either a barrier or a road, so construct a linear ring geometry 
-		                  LinearRing linear = geometryFactory.createLinearRing(geom.getCoordinates());
-		                  wayTmp.setGeometry(linear);  
-		               }
-		               **************************************************/
-		            }
-		            else if (wayTmp.getNodeGeometries().size() > 1) {
-		            //it is an open geometry with more than one nodes, make it linestring 
-		                
-		                LineString lineString =  geometryFactory.createLineString(geom.getCoordinates());
-		                wayTmp.setGeometry(lineString);               
-		            }
-		            else {      //we assume that any other geometries are points
-		                        //some ways happen to have only one point. Construct a Point.
-		                Point point = geometryFactory.createPoint(geom.getCoordinate());
-		                wayTmp.setGeometry(point);
-		            }
+		            wayTmp.setGeometry(wayBuilder.build());
 		            
 		            //CAUTION! Only named entities will be transformed
 		            if ((keepIndexed) && (wayTmp.getTagKeyValue().containsKey("name")))  
@@ -457,14 +528,16 @@ public class OsmPbfToRdf implements Sink {
 		            	numNamedEntities++;
 		            }
 		            
-		            if (recBuilder.wayIndex.containsKey(wayTmp.getID()))
-		            	recBuilder.wayIndex.put(wayTmp.getID(), wayTmp.getGeometry());          //Keep a dictionary of way geometries, only for those referenced by OSM relations
+		            if ((singlePass) || (recBuilder.wayIndex.containsKey(wayTmp.getID())))
+		            	recBuilder.wayIndex.put(wayTmp.getID(), wayTmp.getGeometry());          //Keep a dictionary of way geometries, only for those referenced by OSM relations (or possibly referenced in a single pass)
 
 		            wayTmp = null;
 	        	}
 	        } else if ((!scanWays) && (entityContainer instanceof RelationContainer)) {               //Create a new OSM relation object and populate it with the appropriate values
 	        	
 	        	 Relation myRelation = ((RelationContainer) entityContainer).getEntity();    
+	        	 if (singlePass)
+	        		 checkOrder(2);
 	        	 
         		 for (Tag myTag : myRelation.getTags()) {
         			 if ((tags == null) || (tags.contains(myTag.getKey())))  {     		//CAUTION! Filter out any OSM elements not related to tags specified by the user
@@ -478,7 +551,7 @@ public class OsmPbfToRdf implements Sink {
 	        		 if ((keepIndexed) || (recBuilder.relationIndex.containsKey("" + myRelation.getId()))) {    
 		        		 for (RelationMember m: myRelation.getMembers()) {
 		        			 if (m.getMemberType().name().equalsIgnoreCase("node"))
-		        				 recBuilder.nodeIndex.put("" + m.getMemberId(), null);          //This node is referenced by a relation; keep it in the index, and its geometry will be filled in when parsing the nodes
+		        				 nodeIndex.reserve(m.getMemberId());          //This node is referenced by a relation; keep it in the index, and its coordinates will be filled in when parsing the nodes
 		        			 else if (m.getMemberType().name().equalsIgnoreCase("way"))
 		        				 recBuilder.wayIndex.put("" + m.getMemberId(), null);                    //This way is referenced by a relation; keep it in the index, and its geometry will be filled in when parsing the ways	
 		        			 else if (m.getMemberType().name().equalsIgnoreCase("relation")) {
@@ -500,7 +573,7 @@ public class OsmPbfToRdf implements Sink {
 	        		 numRelations++;
 	 	        	
 	        		 //Skip parsing if this relation is filtered out or not referenced by others
-	        		 if ((!keepIndexed) && (!recBuilder.relationIndex.containsKey("" + myRelation.getId())))
+	        		 if ((!singlePass) && (!keepIndexed) && (!recBuilder.relationIndex.containsKey("" + myRelation.getId())))
 	        			 return;
 	        		 
 		        	 relationTmp = new OSMRelation();
@@ -516,6 +589,15 @@ public class OsmPbfToRdf implements Sink {
 			         for (RelationMember m: myRelation.getMembers())
 			        	 relationTmp.addMemberReference("" + m.getMemberId(), m.getMemberType().name(), m.getMemberRole());
 			         
+			         if (singlePass) {
+			        	 if ((!keepIndexed) && (!recBuilder.relationIndex.containsKey(relationTmp.getID()))) {
+			        		 deferredRelations.put(relationTmp.getID(), relationTmp);       //Parsed only if referenced by a subsequent relation
+			        		 relationTmp = null;
+			        		 return;
+			        	 }
+			        	 resolveReferencedRelations(relationTmp);
+			         }
+			         
 		 	         OSMRecord rec = recBuilder.createOSMRecord(relationTmp);
 	 	        	 if (rec!= null)                  //No records created for incomplete relations during the first pass
 		          	 {
@@ -526,8 +608,8 @@ public class OsmPbfToRdf implements Sink {
 		        			 numNamedEntities++;
 		        		 }
 		        		
-		         		 if (recBuilder.relationIndex.containsKey(relationTmp.getID()))
-		         			recBuilder.relationIndex.put(relationTmp.getID(), rec.getGeometry());    //Keep a dictionary of relation geometries, only for those referenced by other OSM relations
+		         		 if ((singlePass) || (recBuilder.relationIndex.containsKey(relationTmp.getID())))
+		         			recBuilder.relationIndex.put(relationTmp.getID(), rec.getGeometry());    //Keep a dictionary of relation geometries, only for those referenced by other OSM relations (or possibly referenced in a single pass)
 		        	 }
 	
 			         relationTmp = null;  	
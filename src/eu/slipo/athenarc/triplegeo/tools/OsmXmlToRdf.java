@@ -18,48 +18,51 @@
  */
 package eu.slipo.athenarc.triplegeo.tools;
 
+import java.io.BufferedInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.zip.GZIPInputStream;
 
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.parsers.SAXParser;
-import javax.xml.parsers.SAXParserFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
 
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
 import org.apache.commons.io.FilenameUtils;
+import org.codehaus.stax2.XMLInputFactory2;
+import org.codehaus.stax2.XMLStreamReader2;
 import org.geotools.factory.Hints;
 import org.geotools.referencing.CRS;
 import org.geotools.referencing.ReferencingFactoryFinder;
 import org.opengis.referencing.crs.CRSAuthorityFactory;
 import org.opengis.referencing.crs.CoordinateReferenceSystem;
 import org.opengis.referencing.operation.MathTransform;
-import org.xml.sax.Attributes;
-import org.xml.sax.SAXException;
-import org.xml.sax.helpers.DefaultHandler;
 
 import com.vividsolutions.jts.geom.Coordinate;
 import com.vividsolutions.jts.geom.Geometry;
 import com.vividsolutions.jts.geom.GeometryFactory;
-import com.vividsolutions.jts.geom.LineString;
-import com.vividsolutions.jts.geom.LinearRing;
-import com.vividsolutions.jts.geom.Point;
-import com.vividsolutions.jts.geom.Polygon;
 import com.vividsolutions.jts.geom.PrecisionModel;
 import com.vividsolutions.jts.io.WKTReader;
 
+import com.ctc.wstx.stax.WstxInputFactory;
+
 import eu.slipo.athenarc.triplegeo.osm.OSMClassification;
-import eu.slipo.athenarc.triplegeo.osm.OSMDiskIndex;
-import eu.slipo.athenarc.triplegeo.osm.OSMMemoryIndex;
+import eu.slipo.athenarc.triplegeo.osm.OSMHybridIndex;
 import eu.slipo.athenarc.triplegeo.osm.OSMNode;
+import eu.slipo.athenarc.triplegeo.osm.OSMNodeIndex;
 import eu.slipo.athenarc.triplegeo.osm.OSMRecord;
 import eu.slipo.athenarc.triplegeo.osm.OSMRecordBuilder;
 import eu.slipo.athenarc.triplegeo.osm.OSMRelation;
 import eu.slipo.athenarc.triplegeo.osm.OSMWay;
+import eu.slipo.athenarc.triplegeo.osm.OSMWayGeometryBuilder;
 
 import eu.slipo.athenarc.triplegeo.utils.Assistant;
 import eu.slipo.athenarc.triplegeo.utils.Classification;
@@ -68,12 +71,13 @@ import eu.slipo.athenarc.triplegeo.utils.Constants;
 import eu.slipo.athenarc.triplegeo.utils.Converter;
 import eu.slipo.athenarc.triplegeo.utils.ExceptionHandler;
 import eu.slipo.athenarc.triplegeo.utils.GraphConverter;
+import eu.slipo.athenarc.triplegeo.utils.ParallelBZip2InputStream;
 import eu.slipo.athenarc.triplegeo.utils.StreamConverter;
 import eu.slipo.athenarc.triplegeo.utils.ValueChecker;
 
 
 /**
- * Entry point to convert OpenStreetMap (OSM) XML files into RDF triples using Saxon XSLT.
+ * Entry point to convert OpenStreetMap (OSM) XML files (possibly compressed with gzip or bzip2) into RDF triples using a StAX parser.
  * LIMITATIONS: - Depending on system and JVM resources, transformation can handle only a moderate amount of OSM features.
  *              - RML transformation mode not currently supported. 
  * @author Kostas Patroumpas
@@ -95,9 +99,14 @@ import eu.slipo.athenarc.triplegeo.utils.ValueChecker;
  * Modified: 4/7/2018; reorganized identification of categories based on OSM tags
  * Modified: 27/9/2018; excluded creation of linear ring geometries for roads and barriers; polygons are created instead
  * Modified; 24/10/2018; allowing transformation to proceed even in case that no filters (using OSM tags) have been specified; no classification scheme will be used in this case.
- * Last modified by: Kostas Patroumpas, 24/10/2018
+ * Modified: 18/10/2026; in-memory index of nodes keeps their coordinates off-heap, keyed by their numeric identifiers
+ * Modified: 18/10/2026; replaced SAX with a StAX parser; sorted files parsed in a single pass, if so specified (aborting on unsorted files); support for input compressed with gzip or bzip2
+ * Modified: 18/10/2026; geometries of ways constructed directly from the coordinates of their nodes, without intermediate point geometries
+ * Modified: 18/10/2026; indices over OSM ways and relations start in memory and move their least recently accessed parts to disk once a configurable memory budget is exceeded
+ * Modified: 18/10/2026; index of OSM nodes created by a factory shared with the OSM PBF converter
+ * Last modified by: agent, 18/10/2026
  */
-public class OsmXmlToRdf extends DefaultHandler {
+public class OsmXmlToRdf {
 
 	  Converter myConverter;
 	  Assistant myAssistant;
@@ -124,11 +133,17 @@ public class OsmXmlToRdf extends DefaultHandler {
 	    
 	  private OSMRecordBuilder recBuilder;				   //Creates OSM records with all spatial and thematic information extracted from OSM elements
 	 
-	  private Map<String, Geometry> tmpNodeIndex;     	   //Temporary dictionary for OSM node elements
+	  private OSMNodeIndex nodeIndex;                      //Index over coordinates of OSM nodes
+	  private long[] nodeRefs = new long[2000];            //Temporary buffer for identifiers of OSM nodes referenced by the current element
+	  private int numNodeRefs = 0;
+	  private OSMWayGeometryBuilder wayBuilder;           //Constructs geometries of ways from the coordinates of their nodes
 	  private Map<String, Geometry> tmpWayIndex;      	   //Temporary dictionary for OSM way elements
 	  private Map<String, Geometry> tmpRelationIndex; 	   //Temporary dictionary for OSM relation elements
 	    
-	  private OSMNode nodeTmp;                             //the current OSM node object
+	  private OSMNode nodeTmp;                             //the current OSM node object (only for nodes with tags)
+	  private long nodeID;                                 //identifier and coordinates of the current OSM node
+	  private double nodeLon;
+	  private double nodeLat;
 	  private OSMWay wayTmp;                               //the current OSM way object
 	  private OSMRelation relationTmp;                     //the current OSM relation object
 	    
@@ -142,6 +157,11 @@ public class OsmXmlToRdf extends DefaultHandler {
 	  private boolean scanRelations = true;                //Activates preliminary scanning of OSM relations in order to create index structures required during parsing
 	  private boolean rescanRelations = false;             //Activates an auxiliary scan of OSM relations that may be referenced by other relations
 	  private boolean keepIndexed = false;                 //Determines whether to index references of a given OSM element based on its tags; discarded if none of its tags matches with the user-specified OSM filters 
+	  private boolean singlePass = false;                  //Activates parsing of all OSM elements in a single pass, assuming that nodes precede ways, which precede relations
+	  private int lastType = 0;                            //Type of the last parsed OSM element in a single pass: 0 for nodes, 1 for ways, 2 for relations
+	  private static final String[] ELEMENT_TYPES = {"node", "way", "relation"};
+
+	  private final XMLInputFactory2 xmlInputFactory;      //Factory of StAX parsers
 
 	  /**
 	   * Constructor for the transformation process from OpenStreetMap XML file to RDF.
@@ -161,6 +181,12 @@ public class OsmXmlToRdf extends DefaultHandler {
 	      myAssistant = new Assistant();
 	      myChecker = new ValueChecker();
 	      
+	      //StAX parser without namespaces or DTDs, as these are not used in OSM XML
+	      xmlInputFactory = new WstxInputFactory();
+	      xmlInputFactory.configureForSpeed();
+	      xmlInputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.FALSE);
+	      xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+	      
 	      //Get filter definitions over combinations of OSM tags in order to determine POI categories
 	      try {
 	    	  OSMClassification osmClassific = new OSMClassification(config.classificationSpec, currentConfig.outputDir);
@@ -211,88 +237,83 @@ public class OsmXmlToRdf extends DefaultHandler {
 		
 
 	  /**
-	   * Calls Saxon transformation to parse the input XML file.
+	   * Calls a StAX parser to parse the input XML file, possibly compressed.
 	   */
 	  public void parseDocument() {
 		    //Depending of input file size, determine if indices will be kept in-memory of will be disk-based
 	    	File inFile = new File(inputFile);
-	    	if (inFile.length() < 0.5 * Runtime.getRuntime().maxMemory() ) {          //CAUTION! Rule of thumb: Input XML file size is less than half of the JVM heap size, so memory is expected to be sufficient for indexing OSM elements    
-		    	//OPTION #1: Memory-based native Java structures for indexing
-	    		recBuilder.nodeIndex = new OSMMemoryIndex(); 
-	    		recBuilder.wayIndex = new OSMMemoryIndex();
-	    		recBuilder.relationIndex = new OSMMemoryIndex();
-		        System.out.println("Buidling in-memory indices over OSM elements...");
-	    	}
-	    	else {                                               //For larger OSM files, resort to disk-based indexing of their referenced elements
-		    	//OPTION #2: Disk-based structures for indexing
-	    		recBuilder.nodeIndex = new OSMDiskIndex(currentConfig.tmpDir, "nodeIndex");
-	    		recBuilder.wayIndex = new OSMDiskIndex(currentConfig.tmpDir, "wayIndex");
-	    		recBuilder.relationIndex = new OSMDiskIndex(currentConfig.tmpDir, "relationIndex");
-		        System.out.println("Buidling disk-based indices over OSM elements...");
-	    	}
+	    	long inputSize = isCompressed() ? 10 * inFile.length() : inFile.length();    //CAUTION! Rule of thumb: OSM XML files are compressed by a ratio of at least 1:10
+	    	nodeIndex = OSMNodeIndex.create(currentConfig, inputSize);     //Coordinates of nodes are kept outside the JVM heap in either case
+	    	recBuilder.nodeIndex = nodeIndex;
+	    	wayBuilder = new OSMWayGeometryBuilder(nodeIndex, geometryFactory);
+	    	//Indices over OSM ways and relations are held in memory; once they exceed the memory budget, their least recently accessed parts are moved to disk
+	    	OSMHybridIndex.Budget indexBudget = new OSMHybridIndex.Budget((currentConfig.osmIndexMemory > 0) ? currentConfig.osmIndexMemory * 1024L * 1024L : Runtime.getRuntime().maxMemory() / 4);
+	    	OSMHybridIndex wayIndex = new OSMHybridIndex(currentConfig.tmpDir, "wayIndex", indexBudget);
+	    	OSMHybridIndex relationIndex = new OSMHybridIndex(currentConfig.tmpDir, "relationIndex", indexBudget);
+	    	recBuilder.wayIndex = wayIndex;
+	    	recBuilder.relationIndex = relationIndex;
+	        System.out.println("Building indices over OSM elements...");
 	    	
 	    	//This list will hold OSM relations that depend on other relations, so these must be checked once the entire OSM file is exhausted.
 	    	recBuilder.incompleteRelations = new ArrayList<>();
 	        
-	        //Invoke XSL transformation against input OSM XML file
+	        //Invoke StAX parser against input OSM XML file
 	        System.out.println("Calling parser for OSM XML file...");
-	        SAXParserFactory factory = SAXParserFactory.newInstance();
 	        try {
-	        	//Preliminary INDEXING phase: first scan of OSM relations to build the required index structures
-	        	scanRelations = true;
-	        	scanWays = false;
-	        	keepIndexed = false;
-		    	tmpNodeIndex = new HashMap<>();          //These temporary containers are used to hold references for each OSM element examined; they MUST be purged before the next element is examined
-		        tmpWayIndex = new HashMap<>();
-		        tmpRelationIndex = new HashMap<>();
-	        	System.out.println("Scanning OSM relations to identify indexed OSM elements...");
-	            SAXParser parser = factory.newSAXParser();
-	            parser.parse(inputFile, this);
-	            parser.reset();
-	            System.out.println("Indexed " + recBuilder.nodeIndex.size() + " nodes, " + recBuilder.wayIndex.size() + " ways, and " + recBuilder.relationIndex.size() + " relations.");
-	            
-	            if (rescanRelations) {
-		            //Preliminary INDEXING phase: second scan of OSM relations to build the required index structures, since relations may refer to other relations
+	        	if (currentConfig.osmSinglePass) {
+	        		//Nodes precede ways, which precede relations, so any element may only be referenced after it has been indexed
+	        		singlePass = true;
+	        		scanRelations = false;
+	        		scanWays = false;
+	        		System.out.println("Starting parsing of all OSM elements in a single pass...");
+	        		parse();
+	        	}
+	        	else {
+		        	//Preliminary INDEXING phase: first scan of OSM relations to build the required index structures
 		        	scanRelations = true;
 		        	scanWays = false;
 		        	keepIndexed = false;
-			    	tmpNodeIndex = new HashMap<>();          //These temporary containers are used to hold references for each OSM element examined; they MUST be purged before the next element is examined
-			        tmpWayIndex = new HashMap<>();
+			        tmpWayIndex = new HashMap<>();          //These temporary containers are used to hold references for each OSM element examined; they MUST be purged before the next element is examined
 			        tmpRelationIndex = new HashMap<>();
-		        	System.out.println("Second scan of OSM relations to identify other referenced OSM relations...");
-		            parser = factory.newSAXParser();
-		            parser.parse(inputFile, this);
-		            parser.reset();
+		        	System.out.println("Scanning OSM relations to identify indexed OSM elements...");
+		            parse();
 		            System.out.println("Indexed " + recBuilder.nodeIndex.size() + " nodes, " + recBuilder.wayIndex.size() + " ways, and " + recBuilder.relationIndex.size() + " relations.");
-	            }
 	            
-	            //Preliminary INDEXING phase: only scan OSM ways to build the required index structures
-	        	scanWays = true;
-	        	scanRelations = false;
-	        	keepIndexed = false;
-		    	tmpNodeIndex = new HashMap<>();          //These temporary containers are used to hold references for each OSM element examined; they MUST be purged before the next element is examined
-		        tmpWayIndex = new HashMap<>();
-		        tmpRelationIndex = new HashMap<>();
-	        	System.out.println("Scanning OSM ways to identify indexed OSM elements...");
-	            parser = factory.newSAXParser();
-	            parser.parse(inputFile, this);
-	            parser.reset();
-	            System.out.println("Indexed " + recBuilder.nodeIndex.size() + " nodes, " + recBuilder.wayIndex.size() + " ways, and " + recBuilder.relationIndex.size() + " relations.");
+		            if (rescanRelations) {
+			            //Preliminary INDEXING phase: second scan of OSM relations to build the required index structures, since relations may refer to other relations
+			        	scanRelations = true;
+			        	scanWays = false;
+			        	keepIndexed = false;
+				        tmpWayIndex = new HashMap<>();          //These temporary containers are used to hold references for each OSM element examined; they MUST be purged before the next element is examined
+				        tmpRelationIndex = new HashMap<>();
+			        	System.out.println("Second scan of OSM relations to identify other referenced OSM relations...");
+			            parse();
+			            System.out.println("Indexed " + recBuilder.nodeIndex.size() + " nodes, " + recBuilder.wayIndex.size() + " ways, and " + recBuilder.relationIndex.size() + " relations.");
+		            }
             
-//	            System.out.println("NODES:");
-//	            nodeIndex.print();
-//	            System.out.println("WAYS:");
-//	            wayIndex.print();
-//	            System.out.println("RELATIONS:");
-//	            relationIndex.print();
+		            //Preliminary INDEXING phase: only scan OSM ways to build the required index structures
+		        	scanWays = true;
+		        	scanRelations = false;
+		        	keepIndexed = false;
+			        tmpWayIndex = new HashMap<>();          //These temporary containers are used to hold references for each OSM element examined; they MUST be purged before the next element is examined
+			        tmpRelationIndex = new HashMap<>();
+		        	System.out.println("Scanning OSM ways to identify indexed OSM elements...");
+		            parse();
+		            System.out.println("Indexed " + recBuilder.nodeIndex.size() + " nodes, " + recBuilder.wayIndex.size() + " ways, and " + recBuilder.relationIndex.size() + " relations.");
 	            
-	            //PARSING phase: Take advantage of precomputed indices when parsing
-	            scanRelations = false;
-	            scanWays = false;
-	            System.out.println("Starting parsing of all OSM elements...");
-	            parser = factory.newSAXParser();
-	            parser.parse(inputFile, this);
-	            parser.reset();
+//		            System.out.println("NODES:");
+//		            nodeIndex.print();
+//		            System.out.println("WAYS:");
+//		            wayIndex.print();
+//		            System.out.println("RELATIONS:");
+//		            relationIndex.print();
+
+		            //PARSING phase: Take advantage of precomputed indices when parsing
+		            scanRelations = false;
+		            scanWays = false;
+		            System.out.println("Starting parsing of all OSM elements...");
+		            parse();
+	        	}
 	            
 	            //Second pass over incomplete OSM relations, once the entire XML file has been parsed
 	            for (Iterator<OSMRelation> iterator = recBuilder.incompleteRelations.iterator(); iterator.hasNext(); )
@@ -319,50 +340,134 @@ public class OsmXmlToRdf extends DefaultHandler {
 	            }
 	            
 	            System.out.println("\nFinished parsing OSM relations.");
+	            wayIndex.printStatistics("ways");
+	            relationIndex.printStatistics("relations");
 	            recBuilder.nodeIndex.clear();											//Discard index over OSM nodes			
 	            recBuilder.wayIndex.clear();                                      		//Discard index over OSM ways
 	            recBuilder.relationIndex.clear();                                       //Discard index over OSM relations
 	            
-	        } catch (ParserConfigurationException e) {
-	        	ExceptionHandler.abort(e, "Parser Configuration error.");
-	        } catch (SAXException e) {
-	        	ExceptionHandler.abort(e, "SAXException : OSM xml not well formed." );
+	        } catch (XMLStreamException e) {
+	        	ExceptionHandler.abort(e, "XMLStreamException : OSM xml not well formed." );
 	        } catch (IOException e) {
 	        	ExceptionHandler.abort(e, "Cannot access input file.");
 	        }
 	        
 	    }
 
+	  /**
+	   * Checks whether the input file is compressed, according to its extension.
+	   * @return  True, if this is a gzip (.gz) or bzip2 (.bz2) file; otherwise, False.
+	   */
+	  private boolean isCompressed() {
+
+		  String ext = FilenameUtils.getExtension(inputFile).toLowerCase();
+		  return ext.equals("gz") || ext.equals("bz2");
+	  }
+
+	  /**
+	   * Opens the input file for reading, decompressing its contents if it is a gzip (.gz) or bzip2 (.bz2) file.
+	   * @return  A stream over the (decompressed) contents of the input XML file.
+	   * @throws IOException
+	   */
+	  private InputStream openInput() throws IOException {
+
+		  InputStream in = new FileInputStream(inputFile);
+		  String ext = FilenameUtils.getExtension(inputFile).toLowerCase();
+		  if (ext.equals("gz"))
+			  return new GZIPInputStream(in, 1 << 16);
+		  if (ext.equals("bz2")) {
+			  //Blocks of bzip2 files can be decompressed concurrently
+			  int numDecoders = (currentConfig.osmDecoders > 0) ? currentConfig.osmDecoders : Runtime.getRuntime().availableProcessors();
+			  if (numDecoders > 1)
+				  return new ParallelBZip2InputStream(in, numDecoders);
+			  return new BZip2CompressorInputStream(new BufferedInputStream(in, 1 << 16), true);
+		  }
+		  return new BufferedInputStream(in, 1 << 16);
+	  }
+
+	  /**
+	   * Parses the entire input XML file with a StAX parser, handing over each OSM element to the appropriate method.
+	   * @throws IOException
+	   * @throws XMLStreamException
+	   */
+	  private void parse() throws IOException, XMLStreamException {
+
+		  try (InputStream in = openInput()) {
+			  XMLStreamReader2 reader = (XMLStreamReader2) xmlInputFactory.createXMLStreamReader(in);
+			  try {
+				  while (reader.hasNext()) {
+					  int event = reader.next();
+					  if (event == XMLStreamConstants.START_ELEMENT)
+						  startElement(reader.getLocalName(), reader);
+					  else if (event == XMLStreamConstants.END_ELEMENT)
+						  endElement(reader.getLocalName());
+				  }
+			  }
+			  finally {
+				  reader.close();
+			  }
+		  }
+	  }
+
+	  /**
+	   * Checks the order of OSM elements in a single pass, and aborts the transformation as soon as an element of a preceding type is found.
+	   * Otherwise, elements referencing this one would have already been transformed incomplete or omitted.
+	   * @param type  Type of the current OSM element: 0 for nodes, 1 for ways, 2 for relations.
+	   */
+	  private void checkOrder(int type) {
+
+		  if (type < lastType)
+			  ExceptionHandler.abort(new IllegalStateException("OSM " + ELEMENT_TYPES[type] + " found after OSM " + ELEMENT_TYPES[lastType] + "s."), "OSM file is not sorted by type, so it cannot be parsed in a single pass. Please set osmSinglePass = false in the configuration.");
+		  else
+			  lastType = type;
+	  }
+
+	  /**
+	   * Appends an identifier to the buffer of node references of the current OSM element.
+	   * @param ref  Identifier of the referenced OSM node.
+	   */
+	  private void addNodeRef(long ref) {
+
+		  if (numNodeRefs == nodeRefs.length)
+			  nodeRefs = Arrays.copyOf(nodeRefs, 2 * nodeRefs.length);
+		  nodeRefs[numNodeRefs++] = ref;
+	  }
+
+	  /**
+	   * Keeps all nodes referenced by the current OSM element in the index; their coordinates will be filled in when parsing the nodes.
+	   */
+	  private void reserveNodeRefs() {
+
+		  for (int i = 0; i < numNodeRefs; i++)
+			  nodeIndex.reserve(nodeRefs[i]);
+	  }
+
 	    /**
-	     * Starts parsing of a new OSM element (node, way, or relation). Overrides method in parent Saxon class to initialize variables at the start of parsing of each OSM element.
-	     * @param s  The Namespace URI, or the empty string if the element has no Namespace URI or if Namespace processing is not being performed.
-	     * @param s1  The local name (without prefix), or the empty string if Namespace processing is not being performed.
-	     * @param elementName  The qualified name (with prefix), or the empty string if qualified names are not available.
-	     * @param attributes   The attributes attached to the element. If there are no attributes, it shall be an empty Attributes object.
+	     * Starts parsing of a new OSM element (node, way, or relation), initializing variables at the start of parsing of each OSM element.
+	     * @param elementName  The name of the element.
+	     * @param reader  The StAX parser, positioned at the start of this element in order to access its attributes.
 	     */
-	    @Override
-	    public void startElement(String s, String s1, String elementName, Attributes attributes) throws SAXException {
+	    private void startElement(String elementName, XMLStreamReader2 reader) {
 	    
 	    	try {
 		        //Depending on the name of the current OSM element,... 
-		        if ((!scanWays) && (!scanRelations) && (elementName.equalsIgnoreCase("node"))) {           //Create a new OSM node object and populate it with the appropriate values
-		            nodeTmp = new OSMNode();
-		            nodeTmp.setID(attributes.getValue("id"));
-	
-		            //Parse geometry
-		            double longitude = Double.parseDouble(attributes.getValue("lon"));
-		            double latitude = Double.parseDouble(attributes.getValue("lat"));
-		           
-		            //Create geometry object with original WGS84 coordinates
-		            Geometry geom = geometryFactory.createPoint(new Coordinate(longitude, latitude));
-		            nodeTmp.setGeometry(geom);
+		        if ((!scanWays) && (!scanRelations) && (elementName.equals("node"))) {           //Keep identifier and coordinates of this OSM node; an OSM node object is only created if it has tags
+		        	if (singlePass)
+		        		checkOrder(0);
+		            nodeTmp = null;
+		            nodeID = reader.getAttributeAsLong(reader.getAttributeIndex(null, "id"));
+		            nodeLon = reader.getAttributeAsDouble(reader.getAttributeIndex(null, "lon"));
+		            nodeLat = reader.getAttributeAsDouble(reader.getAttributeIndex(null, "lat"));
 		            inNode = true;
 		            inWay = false;
 		            inRelation = false;
 		        } 
-		        else if ((!scanRelations) && (elementName.equalsIgnoreCase("way"))) {       //Create a new OSM way object and populate it with the appropriate values
+		        else if ((!scanRelations) && (elementName.equals("way"))) {       //Create a new OSM way object and populate it with the appropriate values
+		        	if (singlePass)
+		        		checkOrder(1);
 		            wayTmp = new OSMWay();
-		            wayTmp.setID(attributes.getValue("id"));
+		            wayTmp.setID(reader.getAttributeValue(null, "id"));
+		            numNodeRefs = 0;
 		            
         			if ((scanWays) && (recBuilder.wayIndex.containsKey(wayTmp.getID())))    //This OSM way is referenced by a relation, so its nodes should be kept in the index
         				keepIndexed = true;	        			
@@ -376,9 +481,11 @@ public class OsmXmlToRdf extends DefaultHandler {
 			            inRelation = false;
 		            }
 		        } 
-		        else if ((!scanWays) && (elementName.equalsIgnoreCase("relation"))) {   //Create a new OSM relation and populate it with the appropriate values
+		        else if ((!scanWays) && (elementName.equals("relation"))) {   //Create a new OSM relation and populate it with the appropriate values
+		        	if (singlePass)
+		        		checkOrder(2);
 		            relationTmp = new OSMRelation();
-		            relationTmp.setID(attributes.getValue("id"));
+		            relationTmp.setID(reader.getAttributeValue(null, "id"));
 		            
         			if (recBuilder.relationIndex.containsKey(relationTmp.getID()))
 	        			keepIndexed = true;
@@ -392,131 +499,91 @@ public class OsmXmlToRdf extends DefaultHandler {
 			            inNode = false;
         			}
 		        } 
-		        else if (elementName.equalsIgnoreCase("nd")) {
-		        	if ((scanWays) || (scanRelations)) {
-		        		tmpNodeIndex.put(attributes.getValue("ref"), null);                 //This node is referenced by a way; keep it in the index, and its geometry will be filled in when parsing the nodes 
-		        	} else
-		        		wayTmp.addNodeReference(attributes.getValue("ref"));
+		        else if (elementName.equals("nd")) {
+		        	addNodeRef(reader.getAttributeAsLong(reader.getAttributeIndex(null, "ref")));     //In the preliminary phase, this node is referenced by a way; keep it in the index, and its coordinates will be filled in when parsing the nodes
 		        } 
-		        else if (elementName.equalsIgnoreCase("tag")) {
+		        else if (elementName.equals("tag")) {
 		        	if ((scanWays) || (scanRelations))	{                     	//In preliminary phase, if no tag of this OSM element is included in the OSM filters, no references need be indexed
-	        			if ((tags == null) || (tags.contains(attributes.getValue("k"))))       		//CAUTION! Filter out any OSM elements not related to tags specified by the user
+	        			if ((tags == null) || (tags.contains(reader.getAttributeValue(null, "k"))))       		//CAUTION! Filter out any OSM elements not related to tags specified by the user
 	        				keepIndexed = true;                                                     //In case of no tags specified for filtering, index all OSM elements
 		        	}
 		        	else {                                                                  //In the parsing phase, keep all tags for that OSM element
 			            if (inNode) {
 			                //If the path is in an OSM node, then set tagKey and value to the corresponding node     
-			                nodeTmp.setTagKeyValue(attributes.getValue("k"), myChecker.removeIllegalChars(attributes.getValue("v")));
+			            	if (nodeTmp == null)
+			            		nodeTmp = new OSMNode();
+			                nodeTmp.setTagKeyValue(reader.getAttributeValue(null, "k"), myChecker.removeIllegalChars(reader.getAttributeValue(null, "v")));
 			            } 
 			            else if (inWay) {
 			                //Otherwise, if the path is in an OSM way, then set tagKey and value to the corresponding way
-			                wayTmp.setTagKeyValue(attributes.getValue("k"), myChecker.removeIllegalChars(attributes.getValue("v")));
+			                wayTmp.setTagKeyValue(reader.getAttributeValue(null, "k"), myChecker.removeIllegalChars(reader.getAttributeValue(null, "v")));
 			            } 
 			            else if(inRelation){
 			                //Set the key-value pairs of OSM relation tags
-			                relationTmp.setTagKeyValue(attributes.getValue("k"), myChecker.removeIllegalChars(attributes.getValue("v")));
+			                relationTmp.setTagKeyValue(reader.getAttributeValue(null, "k"), myChecker.removeIllegalChars(reader.getAttributeValue(null, "v")));
 			            }
 		        	}
 		        } 
-		        else if (elementName.equalsIgnoreCase("member")) {
+		        else if (elementName.equals("member")) {
+		        	String type = reader.getAttributeValue(null, "type");
 		        	if ((scanRelations) || (scanWays)) {
-		        		if (attributes.getValue("type").equalsIgnoreCase("node"))
-		        			tmpNodeIndex.put(attributes.getValue("ref"), null);                //This node is referenced by a relation; keep it in the index, and its geometry will be filled in when parsing the nodes
-		        		else if (attributes.getValue("type").equalsIgnoreCase("way"))
-		        			tmpWayIndex.put(attributes.getValue("ref"), null);                 //This way is referenced by a relation; keep it in the index, and its geometry will be filled in when parsing the ways
-		        		else if (attributes.getValue("type").equalsIgnoreCase("relation"))
-		        			tmpRelationIndex.put(attributes.getValue("ref"), null);            //This relation is referenced by another relation; keep it in the index, and its geometry will be filled in when parsing the relations
+		        		if (type.equalsIgnoreCase("node"))
+		        			addNodeRef(reader.getAttributeAsLong(reader.getAttributeIndex(null, "ref")));   //This node is referenced by a relation; keep it in the index, and its coordinates will be filled in when parsing the nodes
+		        		else if (type.equalsIgnoreCase("way"))
+		        			tmpWayIndex.put(reader.getAttributeValue(null, "ref"), null);                 //This way is referenced by a relation; keep it in the index, and its geometry will be filled in when parsing the ways
+		        		else if (type.equalsIgnoreCase("relation"))
+		        			tmpRelationIndex.put(reader.getAttributeValue(null, "ref"), null);            //This relation is referenced by another relation; keep it in the index, and its geometry will be filled in when parsing the relations
 		        	}
 		        	else
-		        		relationTmp.addMemberReference(attributes.getValue("ref"), attributes.getValue("type"), attributes.getValue("role"));
+		        		relationTmp.addMemberReference(reader.getAttributeValue(null, "ref"), type, reader.getAttributeValue(null, "role"));
 		        }  
 	    	}
 	    	catch (Exception e) {
-//	    		System.out.println(attributes.toString());
 	        	ExceptionHandler.warn(e, "(START) Cannot process OSM element.");	        	
 	        }    	
 	    }
 
 	    /**
-	     * Concludes processing of an OSM element (node, way, or relation) once it has been parsed completely. Overrides method in the parent Saxon class to finalize variables and indices at the end of parsing of each OSM element.
-	     * @param s  The Namespace URI, or the empty string if the element has no Namespace URI or if Namespace processing is not being performed.
-	     * @param sl  The local name (without prefix), or the empty string if Namespace processing is not being performed.
-	     * @param element   The qualified name (with prefix), or the empty string if qualified names are not available.
+	     * Concludes processing of an OSM element (node, way, or relation) once it has been parsed completely, finalizing variables and indices at the end of parsing of each OSM element.
+	     * @param element   The name of the element.
 	     */
-	    @Override
-	    public void endElement(String s, String s1, String element) {
+	    private void endElement(String element) {
 	    	
 	    	try
 	    	{
 		        //If end of node element, add to appropriate list
-		        if ((!scanWays) && (!scanRelations) && (element.equalsIgnoreCase("node"))) {    //OSM node need not be parsed during the INDEXING phase
-		            if (nodeTmp.getTagKeyValue().containsKey("name"))
+		        if ((!scanWays) && (!scanRelations) && (element.equals("node"))) {    //OSM node need not be parsed during the INDEXING phase
+		            if ((nodeTmp != null) && (nodeTmp.getTagKeyValue().containsKey("name")))
 		            {
+		            	//Create geometry object with original WGS84 coordinates
+		            	nodeTmp.setID(Long.toString(nodeID));
+		            	nodeTmp.setGeometry(geometryFactory.createPoint(new Coordinate(nodeLon, nodeLat)));
 		            	myConverter.parse(myAssistant, recBuilder.createOSMRecord(nodeTmp), classification, reproject, targetSRID);
 		            	numNamedEntities++;
 		            }
-		            if (recBuilder.nodeIndex.containsKey(nodeTmp.getID()))
-		            	recBuilder.nodeIndex.put(nodeTmp.getID(), nodeTmp.getGeometry());         //Keep a dictionary of node geometries, only if referenced by OSM ways
+		            if (singlePass)
+		            	nodeIndex.put(nodeID, nodeLon, nodeLat);          //In a single pass, any node may be referenced by subsequent OSM ways or relations
+		            else
+		            	nodeIndex.update(nodeID, nodeLon, nodeLat);       //Keep a dictionary of node coordinates, only if referenced by OSM ways
 		            numNodes++;
 		            nodeTmp = null;
 		        } 
-		        else if ((!scanRelations) && (element.equalsIgnoreCase("way"))) {                  //OSM way      
+		        else if ((!scanRelations) && (element.equals("way"))) {                  //OSM way
 		        	if (scanWays) {
 		        		if ((keepIndexed) || (recBuilder.wayIndex.containsKey(wayTmp.getID())))    //Keep those nodes in the global index 
-		        			recBuilder.nodeIndex.putAll(tmpNodeIndex);
-		        		tmpNodeIndex.clear();                       //Clear temporary buffer and ...
+		        			reserveNodeRefs();
+		        		numNodeRefs = 0;                            //Clear temporary buffer and ...
 		        		keepIndexed = false;                        //... reset flag for the next element
 		        	}
 		        	else {
-			            //construct the Way geometry from each node of the node references
-			            List<String> references = wayTmp.getNodeReferences();
-		
-			            for (String entry: references) {
-			            	if (recBuilder.nodeIndex.containsKey(entry))
-			            	{
-			            		Geometry geometry = recBuilder.nodeIndex.get(entry);     //get the geometry of the node with ID=entry
-			            		wayTmp.addNodeGeometry(geometry);             //add the node geometry in this way  
-			            	}
-			            	else
-			            		System.out.println("Missing node " + entry + " in referencing way " + wayTmp.getID());
-			            }
-			            Geometry geom = geometryFactory.buildGeometry(wayTmp.getNodeGeometries());
-
-			            //Check if the beginning and ending node are the same and the number of nodes are more than 3. 
-			            //These nodes must be more than 3, because JTS does not allow construction of a linear ring with less than 3 points
-			            if((wayTmp.getNodeGeometries().size() > 3) && wayTmp.getNodeGeometries().get(0).equals(wayTmp.getNodeGeometries().get(wayTmp.getNodeGeometries().size()-1)))
-			            { 
-				               //Always construct a polygon when a linear ring is detected
-				               LinearRing linear = geometryFactory.createLinearRing(geom.getCoordinates());
-				               Polygon poly = new Polygon(linear, null, geometryFactory);
-				               wayTmp.setGeometry(poly);  
-				            	
-				               /*************************************************
-				               //OPTION NOT USED: Construct a linear ring geometry when this feature is either a barrier or a road
-				               if (!((wayTmp.getTagKeyValue().containsKey("barrier")) || wayTmp.getTagKeyValue().containsKey("highway"))){
-				            	   //this is not a barrier nor a road, so construct a polygon geometry
-				               
-				            	   LinearRing linear = geometryFactory.createLinearRing(geom.getCoordinates());
-				            	   Polygon poly = new Polygon(linear, null, geometryFactory);
-				            	   wayTmp.setGeometry(poly);               
-				               }
-				               else {    //it is either a barrier or a road, so construct a linear ring geometry 
-				                  LinearRing linear = geometryFactory.createLinearRing(geom.getCoordinates());
-				                  wayTmp.setGeometry(linear);  
-				               }
-				               **************************************************/
-			            }
-			            else if (wayTmp.getNodeGeometries().size() > 1) {
-			            //it is an open geometry with more than one nodes, make it linestring 
-			                
-			                LineString lineString =  geometryFactory.createLineString(geom.getCoordinates());
-			                wayTmp.setGeometry(lineString);               
-			            }
-			            else {     //we assume that any other geometries are points
-			                       //some ways happen to have only one point. Construct a Point.
-			                Point point = geometryFactory.createPoint(geom.getCoordinate());
-			                wayTmp.setGeometry(point);
+			            //construct the way geometry from the coordinates of its referenced nodes
+			            wayBuilder.reset();
+			            for (int i = 0; i < numNodeRefs; i++) {
+			            	if (!wayBuilder.addNode(nodeRefs[i]))                  //append the coordinates of the node with ID=entry to this way
+			            		System.out.println("Missing node " + nodeRefs[i] + " in referencing way " + wayTmp.getID());
 			            }
+			            numNodeRefs = 0;
+			            wayTmp.setGeometry(wayBuilder.build());
 			            
 			            //CAUTION! Only named entities will be transformed
 			            if (wayTmp.getTagKeyValue().containsKey("name"))  
@@ -525,22 +592,22 @@ public class OsmXmlToRdf extends DefaultHandler {
 			            	numNamedEntities++;
 			            }
 			            
-			            if (recBuilder.wayIndex.containsKey(wayTmp.getID()))
-			            	recBuilder.wayIndex.put(wayTmp.getID(), wayTmp.getGeometry());          //Keep a dictionary of way geometries, only for those referenced by OSM relations
+			            if ((singlePass) || (recBuilder.wayIndex.containsKey(wayTmp.getID())))
+			            	recBuilder.wayIndex.put(wayTmp.getID(), wayTmp.getGeometry());          //Keep a dictionary of way geometries, only for those referenced by OSM relations (or possibly referenced in a single pass)
 			            numWays++;
 			            wayTmp = null;
 			        }
 		        } 	   
-		        else if ((!scanWays) && (element.equalsIgnoreCase("relation"))) {                 //OSM relation
+		        else if ((!scanWays) && (element.equals("relation"))) {                 //OSM relation
 		        	if (scanRelations) {
 		        		if (keepIndexed) {
-		        			recBuilder.nodeIndex.putAll(tmpNodeIndex);             //Keep those nodes in the respective global index    
+		        			reserveNodeRefs();                                     //Keep those nodes in the respective global index
 		        			recBuilder.wayIndex.putAll(tmpWayIndex);               //Keep those ways in the respective global index    
 		        			recBuilder.relationIndex.putAll(tmpRelationIndex);     //Keep those relations in the respective global index 
 		        			if (!tmpRelationIndex.isEmpty())
 		        				rescanRelations = true;                            //Relations need to be scanned once more, as they may reference other relations
 		        		}
-		        		tmpNodeIndex.clear();                    //Clear all temporary buffers ...
+		        		numNodeRefs = 0;                         //Clear all temporary buffers ...
 		        		tmpWayIndex.clear();	        		              
 		        		tmpRelationIndex.clear();
 		        		keepIndexed = false;                     //... and reset flag for the next element
@@ -555,8 +622,8 @@ public class OsmXmlToRdf extends DefaultHandler {
 			        			numNamedEntities++;
 			        		}
 			        		
-			        		if (recBuilder.relationIndex.containsKey(relationTmp.getID()))
-			        			recBuilder.relationIndex.put(relationTmp.getID(), rec.getGeometry());    //Keep a dictionary of relation geometries, only for those referenced by other OSM relations
+			        		if ((singlePass) || (recBuilder.relationIndex.containsKey(relationTmp.getID())))
+			        			recBuilder.relationIndex.put(relationTmp.getID(), rec.getGeometry());    //Keep a dictionary of relation geometries, only for those referenced by other OSM relations (or possibly referenced in a single pass)
 
 			        		numRelations++;
 			        	}
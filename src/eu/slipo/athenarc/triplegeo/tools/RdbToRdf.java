@@ -18,7 +18,20 @@
  */
 package eu.slipo.athenarc.triplegeo.tools;
 
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.math.BigDecimal;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Properties;
+import java.util.TimeZone;
 
 import org.geotools.factory.Hints;
 import org.geotools.referencing.CRS;
@@ -32,7 +45,9 @@ import eu.slipo.athenarc.triplegeo.db.DbConnector;
 import eu.slipo.athenarc.triplegeo.db.MsAccessDbConnector;
 import eu.slipo.athenarc.triplegeo.db.MySqlDbConnector;
 import eu.slipo.athenarc.triplegeo.db.OracleDbConnector;
+import eu.slipo.athenarc.triplegeo.db.PostgisCopyReader;
 import eu.slipo.athenarc.triplegeo.db.PostgisDbConnector;
+import eu.slipo.athenarc.triplegeo.db.ResultSetRowSource;
 import eu.slipo.athenarc.triplegeo.db.SqlServerDbConnector;
 import eu.slipo.athenarc.triplegeo.db.SpatiaLiteDbConnector;
 
@@ -69,7 +84,16 @@ import eu.slipo.athenarc.triplegeo.utils.Constants;
  * Modified: 24/11/2017, added support for recognizing character encoding for strings
  * Modified: 11/12/2017, added support on UTF-8 encoding in the result of RML conversion.
  * Modified: 14/12/2017, added support for ESRI personal geodatabases (Microsoft Access .mdb format). CAUTION: Include -Dfile.encoding=UTF-8 when applying against geodatabases with UTF-8 encoding.
- * Last modified by: Kostas Patroumpas, 27/2/3018
+ * Modified: 18/10/2026, added support for transforming a chunk (i.e., a range of values of the key attribute) of the database table
+ * Modified: 18/10/2026, added support for retrieving records with forward-only, read-only cursors and a configurable fetch size
+ * Modified: 18/10/2026, added support for splitting the database table into chunks by hashing of key values; connection to the DBMS is closed once transformation is complete
+ * Modified: 18/10/2026, added support for retrieving geometries as WKB, which are decoded directly into geometry objects
+ * Modified: 18/10/2026, added support for incremental extraction of records beyond a watermark persisted after each successful run
+ * Modified: 18/10/2026, added support for copying records from PostGIS in binary format, decoded directly without any ResultSet
+ * Modified: 18/10/2026, range of key values is taken once before splitting into chunks and shared by all of them
+ * Modified: 18/10/2026, bounds of incremental extraction are taken once for all chunks; watermark values are bound as parameters, with timestamps in UTC
+ * Modified: 18/10/2026, records passed to the converter as a RowSource, either over a ResultSet or copied in binary format
+ * Last modified by: agent, 18/10/2026
  */
 public class RdbToRdf {
 
@@ -79,9 +103,13 @@ public class RdbToRdf {
   int sourceSRID;                         //Source CRS according to EPSG 
   int targetSRID;                         //Target CRS according to EPSG
   DbConnector databaseConnector = null;   //Instantiation of Connector class to a DBMS
-  static Configuration currentConfig;     //User-specified configuration settings
-  static Classification classification;   //Classification hierarchy for assigning categories to features
-  static String outputFile;               //Output RDF file
+  Configuration currentConfig;            //User-specified configuration settings
+  Classification classification;          //Classification hierarchy for assigning categories to features
+  String outputFile;                      //Output RDF file
+  private int chunkIndex = 0;             //Index of the chunk of the database table to be transformed
+  private int numChunks = 1;              //Number of chunks that the database table has been split into
+  private Snapshot snapshot = null;       //Range of key values and bounds of the watermark taken before the table was split into chunks
+  private PostgisCopyReader copyReader = null;   //Reader over records copied in binary format (PostGIS only, if so specified)
   
   //Initialize a CRS factory for possible reprojections
   private static final CRSAuthorityFactory crsFactory = ReferencingFactoryFinder
@@ -98,6 +126,27 @@ public class RdbToRdf {
    */
   public RdbToRdf(Configuration config, Classification classific, String outFile, int sourceSRID, int targetSRID) {
 	  
+	  this(config, classific, outFile, sourceSRID, targetSRID, 0, 1, null);
+  }
+  
+  /**
+   * Constructor for the transformation process from a chunk of a database table to RDF.
+   * Each chunk concerns a distinct range of values of the (numeric) key attribute and is retrieved over a separate connection to the DBMS.
+   * All chunks of the same table must be given the same snapshot, so that their ranges neither overlap nor leave gaps in case the table is modified meanwhile.
+   * @param config  Parameters to configure the transformation.
+   * @param classific  Instantiation of the classification scheme that assigns categories to input features.
+   * @param outFile  Path to the output file that collects RDF triples.
+   * @param sourceSRID  Spatial reference system (EPSG code) of the input geometries.
+   * @param targetSRID  Spatial reference system (EPSG code) of geometries in the output RDF triples.
+   * @param chunkIndex  The index (starting from 0) of the chunk of the table to be transformed.
+   * @param numChunks  The total number of chunks that the table has been split into.
+   * @param snapshot  The snapshot taken over the table before it was split into chunks; if null, it will be taken over the connection of this process.
+   */
+  public RdbToRdf(Configuration config, Classification classific, String outFile, int sourceSRID, int targetSRID, int chunkIndex, int numChunks, Snapshot snapshot) {
+	  
+	  this.chunkIndex = chunkIndex;
+	  this.numChunks = numChunks;
+	  this.snapshot = snapshot;
 	  currentConfig = config;
 	  classification = classific;
 	  outputFile = outFile;
@@ -105,36 +154,67 @@ public class RdbToRdf {
       this.targetSRID = targetSRID;
       myAssistant = new Assistant();
 	  
+      //Determine connection type to the specified DBMS
+      databaseConnector = connect(currentConfig);
+
+      //Check if a coordinate transform is required for geometries
+      if (currentConfig.targetCRS != null)
+  	    try {
+  	        boolean lenient = true; // allow for some error due to different datums
+  	        CoordinateReferenceSystem sourceCRS = crsFactory.createCoordinateReferenceSystem(currentConfig.sourceCRS);
+  	        CoordinateReferenceSystem targetCRS = crsFactory.createCoordinateReferenceSystem(currentConfig.targetCRS);    
+  	        reproject = CRS.findMathTransform(sourceCRS, targetCRS, lenient);
+  	        
+  		} catch (Exception e) {
+  			ExceptionHandler.abort(e, "Error in CRS transformation (reprojection) of geometries.");      //Execution terminated abnormally
+  		}
+      
+      // Other parameters
+      if (myAssistant.isNullOrEmpty(currentConfig.defaultLang)) {
+    	  currentConfig.defaultLang = "en";
+      }
+	  
+  }
+
+
+  /**
+   * Opens a connection to the DBMS specified in the configuration.
+   * @param config  Parameters to configure the transformation.
+   * @return  Database connector object to the DBMS.
+   */
+  private static DbConnector connect(Configuration config) {
+	  
+	  DbConnector dbConn = null;
       try
       {
 	      //Determine connection type to the specified DBMS
-	      switch(currentConfig.dbType.toUpperCase()) {
+	      switch(config.dbType.toUpperCase()) {
 	        case "MSACCESS":
-	          databaseConnector = new MsAccessDbConnector(
-	        		  currentConfig.dbName, currentConfig.dbUserName, currentConfig.dbPassword);
+	          dbConn = new MsAccessDbConnector(
+	        		  config.dbName, config.dbUserName, config.dbPassword);
 	          break;
 	        case "MYSQL":
-	          databaseConnector = new MySqlDbConnector(
-	        		  currentConfig.dbHost, currentConfig.dbPort, currentConfig.dbName, currentConfig.dbUserName, currentConfig.dbPassword);
+	          dbConn = new MySqlDbConnector(
+	        		  config.dbHost, config.dbPort, config.dbName, config.dbUserName, config.dbPassword, config.dbFetchSize);
 	          break;
 	        case "ORACLE":
-	          databaseConnector = new OracleDbConnector(
-	        		  currentConfig.dbHost, currentConfig.dbPort, currentConfig.dbName, currentConfig.dbUserName, currentConfig.dbPassword, currentConfig.encoding);
+	          dbConn = new OracleDbConnector(
+	        		  config.dbHost, config.dbPort, config.dbName, config.dbUserName, config.dbPassword, config.encoding, config.dbFetchSize);
 	          break;
 	        case "POSTGIS":
-	          databaseConnector = new PostgisDbConnector(
-	        		  currentConfig.dbHost, currentConfig.dbPort, currentConfig.dbName, currentConfig.dbUserName, currentConfig.dbPassword, currentConfig.encoding);
+	          dbConn = new PostgisDbConnector(
+	        		  config.dbHost, config.dbPort, config.dbName, config.dbUserName, config.dbPassword, config.encoding, config.dbFetchSize);
 	          break;
 	        case "DB2":
-	           databaseConnector = new DB2DbConnector(
-	        		   currentConfig.dbHost, currentConfig.dbPort, currentConfig.dbName, currentConfig.dbUserName, currentConfig.dbPassword, currentConfig.encoding);
+	           dbConn = new DB2DbConnector(
+	        		   config.dbHost, config.dbPort, config.dbName, config.dbUserName, config.dbPassword, config.encoding, config.dbFetchSize);
 	          break;
 	        case "SQLSERVER":
-	            databaseConnector = new SqlServerDbConnector(
-	         		   currentConfig.dbHost, currentConfig.dbPort, currentConfig.dbName, currentConfig.dbUserName, currentConfig.dbPassword);
+	            dbConn = new SqlServerDbConnector(
+	         		   config.dbHost, config.dbPort, config.dbName, config.dbUserName, config.dbPassword, config.dbFetchSize);
 	           break;  
 	        case "SPATIALITE":
-	            databaseConnector = new SpatiaLiteDbConnector(currentConfig.dbName, currentConfig.encoding);
+	            dbConn = new SpatiaLiteDbConnector(config.dbName, config.encoding, config.dbFetchSize);
 	           break; 
 	        default:
 	        	throw new IllegalArgumentException(Constants.INCORRECT_DBMS);
@@ -142,27 +222,9 @@ public class RdbToRdf {
       } catch (Exception e) {
     	  ExceptionHandler.abort(e, Constants.INCORRECT_DBMS);      //Execution terminated abnormally
       }
-
-      //Check if a coordinate transform is required for geometries
-      if (currentConfig.targetCRS != null)
-  	    try {
-  	        boolean lenient = true; // allow for some error due to different datums
-  	        CoordinateReferenceSystem sourceCRS = crsFactory.createCoordinateReferenceSystem(currentConfig.sourceCRS);
-  	        CoordinateReferenceSystem targetCRS = crsFactory.createCoordinateReferenceSystem(currentConfig.targetCRS);    
-  	        reproject = CRS.findMathTransform(sourceCRS, targetCRS, lenient);
-  	        
-  		} catch (Exception e) {
-  			ExceptionHandler.abort(e, "Error in CRS transformation (reprojection) of geometries.");      //Execution terminated abnormally
-  		}
-      
-      // Other parameters
-      if (myAssistant.isNullOrEmpty(currentConfig.defaultLang)) {
-    	  currentConfig.defaultLang = "en";
-      }
-	  
+	  return dbConn;
   }
 
-  
    /**
 	* Applies transformation according to the configuration settings.
 	*/
@@ -178,7 +240,7 @@ public class RdbToRdf {
 				  myConverter = new GraphConverter(currentConfig, outputFile);
 			  
 				  //Export data after constructing a model on disk
-				  myConverter.parse(myAssistant, rs, classification, reproject, targetSRID, outputFile);
+				  parse(rs);
 			  
 				  //Remove all temporary files as soon as processing is finished
 				  myAssistant.removeDirectory(myConverter.getTDBDir());
@@ -189,7 +251,7 @@ public class RdbToRdf {
 				  myConverter =  new StreamConverter(currentConfig, outputFile);
 				  
 				  //Export data in a streaming fashion
-				  myConverter.parse(myAssistant, rs, classification, reproject, targetSRID, outputFile);
+				  parse(rs);
 				}
 			  else if (currentConfig.mode.contains("RML"))
 				{
@@ -197,8 +259,11 @@ public class RdbToRdf {
 				  myConverter =  new RMLConverter(currentConfig);
 				  
 				  //Export data in a streaming fashion according to RML mappings
-				  myConverter.parse(myAssistant, rs, classification, reproject, targetSRID, outputFile);
+				  parse(rs);
 				}
+			  
+			  //Release the connection, as chunks of the same table are retrieved over several concurrent connections
+			  databaseConnector.closeConnection();
 			} catch (Exception e) {
 				ExceptionHandler.abort(e, "");
 	  		}
@@ -206,10 +271,23 @@ public class RdbToRdf {
 	}
 
 
+	/**
+	 * Passes the records retrieved from the database to the converter, either as copied in binary format or via a ResultSet.
+	 * @param rs  A resultset with all results to the SQL query; not used if records are copied in binary format.
+	 */
+	private void parse(ResultSet rs) {
+		
+		if (copyReader != null)
+			myConverter.parse(myAssistant, copyReader, classification, reproject, targetSRID, outputFile);
+		else
+			myConverter.parse(myAssistant, new ResultSetRowSource(rs, currentConfig.attrGeometry, myAssistant, reproject), classification, reproject, targetSRID, outputFile);
+	}
+
+
 	/**
 	 * Connects to a database and retrieves records from a table (including geometric and non-spatial attributes) according to an SQL query.
 	 * @param dbConn  Database connector object to a DBMS.
-	 * @return A resultset with all results to the SQL query.
+	 * @return A resultset with all results to the SQL query; null, if records are copied in binary format.
 	 * @throws Exception
 	 */
      private ResultSet collectData(DbConnector dbConn) throws Exception {
@@ -218,20 +296,20 @@ public class RdbToRdf {
 
 	    //System.out.println(myAssistant.getGMTime() + " Started retrieving features from the database...");
 
-	    String condition = "";
+	    //In case of incremental extraction or splitting into chunks, records are selected according to a snapshot taken once for the entire table
+	    if ((snapshot == null) && ((currentConfig.attrWatermark != null) || (numChunks > 1)))
+	    	snapshot = takeSnapshot(dbConn, currentConfig, numChunks);
 	    
-	    //Check if criteria have been specified for selection of qualifying records
-	    if (currentConfig.filterSQLCondition == null)
-	    	condition = "";       //All table contents will be exported
-	    else
-	    	condition = " WHERE ( " + currentConfig.filterSQLCondition + " )";
+	    List<Object> params = new ArrayList<Object>();       //Values bound to the parameters of the condition
+	    String condition = getCondition(dbConn, params);
 	    
 	    //Count records
 	    String sql = "SELECT count(*) AS total FROM " +  currentConfig.tableName + condition;
 	    	    
-	    ResultSet rs = dbConn.executeQuery(sql);
+	    ResultSet rs = dbConn.executeQuery(sql, params.toArray());
 	    rs.next();
 	    totalRows = rs.getInt("total");    //total records to be exported
+	    rs.close();                        //Release the cursor, so that the connection can be used for data retrieval (required with streaming in MySQL)
 	    System.out.println(myAssistant.getGMTime() + " Number of database records to be processed: " + totalRows);
 	  
 	    //In case no CRS transformation has been specified, assume georeferencing in WGS84
@@ -244,60 +322,78 @@ public class RdbToRdf {
     	}
     	//System.out.println("sourceSRID=" + sourceSRID + " targetSRID=" + targetSRID);
     	
+    	//In case of PostGIS, records may be copied in binary format instead of being retrieved through a cursor
+    	if ((currentConfig.dbBinaryCopy) && (dbConn instanceof PostgisDbConnector))
+    	{
+    		copyReader = copyData((PostgisDbConnector) dbConn, getCondition(dbConn, null));
+    		return null;
+    	}
+    	
 	    //Initialize SQL statement to be used for retrieval
 	    sql = " SELECT " + currentConfig.tableName + ".*";    //Retrieve all attributes
 	    
 	    //Formulate geometry retrieval according to the spatial syntax of each DBMS, also checking whether spatial transformation is needed
-	    //Geometry is returned as a WKT string (after reprojection, if specified)
+	    //Geometry is returned as a WKT string or as a WKB binary, if so specified (after reprojection, if specified)
 	    if (currentConfig.attrGeometry != null)
 	    {
+	      boolean binary = currentConfig.dbGeometryEncoding.equals("WKB");
+	      String alias = binary ? " WkbGeometry" : " WktGeometry";
 	      if (dbConn.getClass().getSimpleName().contains("Access"))
 	      {  
 	    	  //MS Access (Personal ESRI geodatabase)
 	    	  myAssistant.initPGDBDecoder();                 //Initialize decoder for geometries in a personal geodatabase
+	    	  binary = false;                                //Geometry blobs are always decoded from their custom binary representation
 	      }
 	      else if (dbConn.getClass().getSimpleName().contains("Oracle"))
 	      {
 	    	  //ORACLE
+	    	  String fn = binary ? "SDO_UTIL.TO_WKBGEOMETRY(" : "SDO_UTIL.TO_WKTGEOMETRY(";
 	    	  if (sourceSRID != targetSRID)
-	    		  sql += ", SDO_UTIL.TO_WKTGEOMETRY(SDO_CS.TRANSFORM(" + currentConfig.attrGeometry + ", " + targetSRID + ")) WktGeometry";   
+	    		  sql += ", " + fn + "SDO_CS.TRANSFORM(" + currentConfig.attrGeometry + ", " + targetSRID + "))" + alias;   
 	    	  else
-	    		  sql += ", SDO_UTIL.TO_WKTGEOMETRY(" + currentConfig.attrGeometry + ") WktGeometry";
+	    		  sql += ", " + fn + currentConfig.attrGeometry + ")" + alias;
 	      }
 	      else if (dbConn.getClass().getSimpleName().contains("Postgis"))
 	      {    
 	    	  //PostGIS
+	    	  String fn = binary ? "ST_AsBinary(" : "ST_AsText(";
 	    	  if (sourceSRID != targetSRID)
-	    		  sql += ", ST_AsText(ST_Transform(" + currentConfig.attrGeometry + ", " + targetSRID + ")) WktGeometry"; 
+	    		  sql += ", " + fn + "ST_Transform(" + currentConfig.attrGeometry + ", " + targetSRID + "))" + alias; 
 	    	  else
-	    		  sql += ", ST_AsText(" + currentConfig.attrGeometry + ") WktGeometry"; 
+	    		  sql += ", " + fn + currentConfig.attrGeometry + ")" + alias; 
 	      }
 	      else if (dbConn.getClass().getSimpleName().contains("MySql"))
 	      {    
 	    	  //MySQL --  As of version 5.7, no CRS transformation is possible for geometries.
-	    	  sql += ", AsText(" + currentConfig.attrGeometry + ") WktGeometry";
+	    	  sql += ", " + (binary ? "AsBinary(" : "AsText(") + currentConfig.attrGeometry + ")" + alias;
 	      }
 	      else if (dbConn.getClass().getSimpleName().contains("DB2"))
 	      {    
 	    	  //IBM DB2
+	    	  String fn = binary ? "db2gse.ST_AsBinary(" : "db2gse.ST_AsText(";
 	    	  if (sourceSRID != targetSRID)
-	    		  sql += ", db2gse.ST_AsText(db2gse.ST_Transform(" + currentConfig.attrGeometry + ", " + targetSRID + ")) WktGeometry";
+	    		  sql += ", " + fn + "db2gse.ST_Transform(" + currentConfig.attrGeometry + ", " + targetSRID + "))" + alias;
 	    	  else
-	    		  sql += ", db2gse.ST_AsText(" + currentConfig.attrGeometry + ") WktGeometry";
+	    		  sql += ", " + fn + currentConfig.attrGeometry + ")" + alias;
 	      }
 	      else if (dbConn.getClass().getSimpleName().contains("SqlServer"))
 	      {    
 	    	  //Microsoft SQL Server --  As of version 13 (SQL Server 2016), no CRS transformation is possible for geography attributes.
-	    	  sql += ", " + currentConfig.attrGeometry + ".STAsText() WktGeometry";
+	    	  sql += ", " + currentConfig.attrGeometry + (binary ? ".STAsBinary()" : ".STAsText()") + alias;
 	      }
 	      else if (dbConn.getClass().getSimpleName().contains("SpatiaLite"))
 	      {    
 	    	  //SpatiaLite
+	    	  String fn = binary ? "ST_AsBinary(" : "ST_AsText(";
 	    	  if (sourceSRID != targetSRID)
-	    		  sql += ", ST_AsText(ST_Transform(" + currentConfig.attrGeometry + ", " + targetSRID + ")) WktGeometry";
+	    		  sql += ", " + fn + "ST_Transform(" + currentConfig.attrGeometry + ", " + targetSRID + "))" + alias;
 	    	  else
-	    		  sql += ", ST_AsText(" + currentConfig.attrGeometry + ") WktGeometry";
+	    		  sql += ", " + fn + currentConfig.attrGeometry + ")" + alias;
 	      }
+	      
+	      //Binary geometries will be decoded directly into geometry objects
+	      if (binary)
+	    	  myAssistant.initWKBReader();
 	  }
 	    
       //Append the rest of the SQL statement
@@ -305,9 +401,389 @@ public class RdbToRdf {
       //System.out.println(sql);
       
       //Execute SQL query in the DBMS and fetch all results
-      rs = dbConn.executeQuery(sql);
+      rs = dbConn.executeQuery(sql, params.toArray());
       
       return rs;                      //Report records retrieved from the database       
    }
 
+
+	/**
+	 * Specifies the criteria for selection of the records to be transformed by this process.
+	 * @param dbConn  Database connector object to a DBMS.
+	 * @param params  List to be extended with values bound to the parameters of the condition; if null, all values are specified as literals.
+	 * @return  The WHERE clause (possibly empty) with criteria for selection of qualifying records.
+	 */
+	private String getCondition(DbConnector dbConn, List<Object> params) {
+		
+	    String condition = "";
+	    
+	    //Check if criteria have been specified for selection of qualifying records
+	    if (currentConfig.filterSQLCondition == null)
+	    	condition = "";       //All table contents will be exported
+	    else
+	    	condition = " WHERE ( " + currentConfig.filterSQLCondition + " )";
+	    
+	    //In case of incremental extraction, only retrieve records beyond the watermark of the previous successful run
+	    if (currentConfig.attrWatermark != null)
+	    {
+	    	String mark = getWatermarkCondition(currentConfig, snapshot, params);
+	    	if (mark != null)
+	    		condition += (condition.isEmpty() ? " WHERE " : " AND ") + mark;
+	    }
+	    
+	    //In case of splitting into chunks, only retrieve records within the range of key values of this chunk
+	    if (numChunks > 1)
+	    	condition += (condition.isEmpty() ? " WHERE " : " AND ") + getChunkCondition(dbConn);
+	    
+	    return condition;
+	}
+     
+     
+	/**
+	 * Copies records from a PostGIS table in the binary format of the COPY command, so that they can be decoded without any ResultSet.
+	 * Values of all thematic attributes are cast to text by the server, except for booleans which are copied as 't'/'f' exactly as retrieved through a ResultSet; geometries are copied in EWKB (after reprojection, if specified).
+	 * @param dbConn  Database connector object to a PostGIS database.
+	 * @param condition  The WHERE clause (possibly empty) with criteria for selection of qualifying records, specified with literals only.
+	 * @return  A reader over all qualifying records.
+	 * @throws Exception
+	 */
+	private PostgisCopyReader copyData(PostgisDbConnector dbConn, String condition) throws Exception {
+		
+		//Identify the names of all columns, excluding the geometry
+		List<String> columns = new ArrayList<String>();
+		String sql = "";
+		ResultSet rs = dbConn.executeQuery("SELECT * FROM " + currentConfig.tableName + " LIMIT 0");
+		ResultSetMetaData meta = rs.getMetaData();
+		for (int i = 1; i <= meta.getColumnCount(); i++)
+			if (!meta.getColumnName(i).equalsIgnoreCase(currentConfig.attrGeometry))
+			{
+				columns.add(meta.getColumnName(i));
+				String col = "\"" + meta.getColumnName(i).replace("\"", "\"\"") + "\"";
+				//Booleans would be cast to 'true'/'false', so only their first letter is kept (NULL values remain NULL)
+				if (meta.getColumnTypeName(i).equalsIgnoreCase("bool"))
+					sql += (sql.isEmpty() ? " SELECT " : ", ") + "left(" + col + "::text, 1)";
+				else
+					sql += (sql.isEmpty() ? " SELECT " : ", ") + col + "::text";
+			}
+		rs.close();
+		
+		//Geometry is always copied as the last attribute
+		boolean hasGeometry = (currentConfig.attrGeometry != null);
+		if ((columns.isEmpty()) && (!hasGeometry))
+			ExceptionHandler.abort(new IllegalArgumentException("No attributes to copy from table " + currentConfig.tableName + "."), "Please check the table name and the geometry attribute in the configuration.");
+		if (hasGeometry)
+		{
+			String geom = (sourceSRID != targetSRID) ? "ST_Transform(" + currentConfig.attrGeometry + ", " + targetSRID + ")" : currentConfig.attrGeometry;
+			sql += (sql.isEmpty() ? " SELECT " : ", ") + "ST_AsEWKB(" + geom + ")";
+		}
+		sql += " FROM " + currentConfig.tableName + condition;
+		//System.out.println(sql);
+		
+		return dbConn.copyOut(sql, columns, hasGeometry);
+	}
+
+
+	/**
+	 * Snapshot of a database table taken once before it is split into chunks, so that all chunks agree on how its records are assigned to them.
+	 */
+	public static class Snapshot {
+		
+		private long minKey = 0;                        //Minimum value of the key attribute among qualifying records
+		private long maxKey = 0;                        //Maximum value of the key attribute among qualifying records
+		private Properties previousWatermark = null;    //Watermark persisted by the previous successful run, i.e., lower bound of the records to be extracted incrementally
+		private Properties newWatermark = null;         //Latest value of the watermark attribute, i.e., upper bound of the records to be extracted; persisted once all chunks have been transformed successfully
+	}
+	
+	
+	/**
+	 * Takes a snapshot of the database table specified in the configuration over a separate connection, before the table is split into chunks.
+	 * @param config  Parameters to configure the transformation.
+	 * @param numChunks  The total number of chunks that the table will be split into.
+	 * @return  The snapshot to be given to the transformation process of every chunk.
+	 */
+	public static Snapshot takeSnapshot(Configuration config, int numChunks) {
+		
+		DbConnector dbConn = connect(config);
+		Snapshot snapshot = null;
+		try {
+			snapshot = takeSnapshot(dbConn, config, numChunks);
+		} catch (Exception e) {
+			ExceptionHandler.abort(e, "Cannot take a snapshot of table " + config.tableName + ".");
+		} finally {
+			dbConn.closeConnection();
+		}
+		return snapshot;
+	}
+	
+	
+	/**
+	 * Takes a snapshot of the database table specified in the configuration over the given connection.
+	 * The bounds of incremental extraction and, in case of splitting into ranges, the minimum and maximum key values among qualifying records are only calculated here and never by the chunks themselves.
+	 * @param dbConn  Database connector object to a DBMS.
+	 * @param config  Parameters to configure the transformation.
+	 * @param numChunks  The total number of chunks that the table will be split into.
+	 * @return  The snapshot of the table.
+	 * @throws Exception
+	 */
+	private static Snapshot takeSnapshot(DbConnector dbConn, Configuration config, int numChunks) throws Exception {
+		
+		Snapshot snapshot = new Snapshot();
+		String condition = (config.filterSQLCondition == null) ? "" : " WHERE ( " + config.filterSQLCondition + " )";
+		List<Object> params = new ArrayList<Object>();
+		
+		//In case of incremental extraction, ranges of key values are only determined over records within the bounds of the watermark
+		if (config.attrWatermark != null)
+		{
+			takeWatermark(dbConn, config, condition, snapshot);
+			String mark = getWatermarkCondition(config, snapshot, params);
+			if (mark != null)
+				condition += (condition.isEmpty() ? " WHERE " : " AND ") + mark;
+		}
+		
+		if ((numChunks > 1) && (!config.dbChunkMethod.equals("HASH")))
+		{
+			ResultSet rs = dbConn.executeQuery("SELECT MIN(" + config.attrKey + ") AS minKey, MAX(" + config.attrKey + ") AS maxKey FROM " + config.tableName + condition, params.toArray());
+			rs.next();
+			snapshot.minKey = rs.getLong("minKey");
+			snapshot.maxKey = rs.getLong("maxKey");
+			rs.close();
+		}
+		return snapshot;
+	}
+	
+	
+	/**
+	 * Determines the values of the key attribute that qualify for the chunk handled by this transformation process.
+	 * By default, the range between the minimum and maximum key values in the snapshot is split into equi-width subranges, one per chunk.
+	 * The first and the last ranges are left open, so that records with key values outside those of the snapshot are also assigned to exactly one chunk.
+	 * Alternatively, if so specified in the configuration, each chunk concerns the key values with the same remainder when divided by the number of chunks.
+	 * CAUTION! Splitting is only supported on numeric key attributes.
+	 * @param dbConn  Database connector object to a DBMS.
+	 * @return  An SQL predicate over the key attribute for records in this chunk.
+	 */
+	private String getChunkCondition(DbConnector dbConn) {
+		
+		if (currentConfig.dbChunkMethod.equals("HASH"))
+			return getHashChunkCondition(dbConn);
+		
+		//Width of each range; the last chunk also includes the maximum key value
+		long width = (snapshot.maxKey - snapshot.minKey) / numChunks + 1;
+		long lower = snapshot.minKey + width * chunkIndex;
+		if (chunkIndex == 0)
+			return "( " + currentConfig.attrKey + " < " + (lower + width) + " )";
+		else if (chunkIndex == numChunks - 1)
+			return "( " + currentConfig.attrKey + " >= " + lower + " )";
+		else
+			return "( " + currentConfig.attrKey + " >= " + lower + " AND " + currentConfig.attrKey + " < " + (lower + width) + " )";
+	}
+
+
+	/**
+	 * Determines the records that qualify for the chunk handled by this transformation process according to the remainder of their key value when divided by the number of chunks.
+	 * Chunks are balanced even if key values are skewed, but each chunk has to scan the entire table.
+	 * @param dbConn  Database connector object to a DBMS.
+	 * @return  An SQL predicate over the key attribute for records in this chunk, according to the syntax of the DBMS.
+	 */
+	private String getHashChunkCondition(DbConnector dbConn) {
+		
+		String remainder;
+		if (dbConn.getClass().getSimpleName().contains("Access"))
+			remainder = currentConfig.attrKey + " MOD " + numChunks;                        //MS Access
+		else if ((dbConn.getClass().getSimpleName().contains("SqlServer")) || (dbConn.getClass().getSimpleName().contains("SpatiaLite")))
+			remainder = currentConfig.attrKey + " % " + numChunks;                          //Microsoft SQL Server, SpatiaLite
+		else
+			remainder = "MOD(" + currentConfig.attrKey + ", " + numChunks + ")";           //Oracle, PostGIS, MySQL, DB2
+		
+		//Negative key values yield negative remainders
+		return "( ABS(" + remainder + ") = " + chunkIndex + " )";
+	}
+
+
+	/**
+	 * Determines the bounds of the watermark attribute for records to be extracted incrementally, once for the entire table.
+	 * The lower bound is the watermark persisted by the previous successful run; the upper bound is the latest value of the watermark attribute among qualifying records, which becomes the new watermark.
+	 * Timestamps are kept in UTC, so that they do not depend on the time zone of the JVM.
+	 * @param dbConn  Database connector object to a DBMS.
+	 * @param config  Parameters to configure the transformation.
+	 * @param condition  The WHERE clause (possibly empty) with criteria for selection of qualifying records.
+	 * @param snapshot  The snapshot of the table to be updated with the bounds of the watermark.
+	 * @throws Exception
+	 */
+	private static void takeWatermark(DbConnector dbConn, Configuration config, String condition, Snapshot snapshot) throws Exception {
+		
+		//Watermark persisted by the previous successful run, if any
+		Properties previous = readWatermark(getWatermarkFile(config));
+		if ((previous != null) && (!config.attrWatermark.equalsIgnoreCase(previous.getProperty("attribute"))))
+		{
+			System.out.println("Watermark concerns another attribute than " + config.attrWatermark + ". All qualifying records will be extracted.");
+			previous = null;
+		}
+		
+		//Latest value of the watermark attribute among qualifying records
+		ResultSet rs = dbConn.executeQuery("SELECT MAX(" + config.attrWatermark + ") AS maxMark FROM " + config.tableName + condition);
+		rs.next();
+		String type = getWatermarkType(rs.getMetaData().getColumnType(1));
+		String latest;
+		if (type.equals("TIMESTAMP"))
+		{
+			Timestamp ts = rs.getTimestamp(1, Calendar.getInstance(TimeZone.getTimeZone("UTC")));
+			latest = (ts != null) ? ts.toInstant().toString() : null;
+		}
+		else
+			latest = rs.getString(1);
+		rs.close();
+		
+		snapshot.previousWatermark = previous;
+		
+		//No qualifying records at all, so the watermark remains as is
+		if (latest == null)
+		{
+			snapshot.newWatermark = previous;
+			return;
+		}
+		
+		snapshot.newWatermark = new Properties();
+		snapshot.newWatermark.setProperty("attribute", config.attrWatermark);
+		snapshot.newWatermark.setProperty("type", type);
+		snapshot.newWatermark.setProperty("value", latest);
+		
+		Assistant assistant = new Assistant();
+		if (previous != null)
+			System.out.println(assistant.getGMTime() + " Incremental extraction of records with " + config.attrWatermark + " after " + previous.getProperty("value") + " and up to " + latest + ".");
+		else
+			System.out.println(assistant.getGMTime() + " No watermark found. Extracting all records with " + config.attrWatermark + " up to " + latest + ".");
+	}
+	
+	
+	/**
+	 * Determines the records to be extracted incrementally, i.e., those with values of the watermark attribute beyond the lower and up to the upper bound in the snapshot.
+	 * Records modified while extraction is in progress are left for the next run.
+	 * @param config  Parameters to configure the transformation.
+	 * @param snapshot  The snapshot of the table, including the bounds of the watermark.
+	 * @param params  List to be extended with the values of the bounds, each one specified by a ? placeholder in the predicate; if null, values are specified as literals instead.
+	 * @return  An SQL predicate over the watermark attribute for records to be extracted; null, if all qualifying records must be extracted.
+	 */
+	private static String getWatermarkCondition(Configuration config, Snapshot snapshot, List<Object> params) {
+		
+		if (snapshot.newWatermark == null)
+			return null;
+		
+		String predicate = config.attrWatermark + " <= " + toValue(snapshot.newWatermark, params);
+		if (snapshot.previousWatermark != null)
+			predicate = config.attrWatermark + " > " + toValue(snapshot.previousWatermark, params) + " AND " + predicate;
+		
+		return "( " + predicate + " )";
+	}
+	
+	
+	/**
+	 * Identifies how values of the watermark attribute should be specified in SQL predicates according to its data type.
+	 * @param sqlType  The SQL type of the watermark attribute, as defined in java.sql.Types.
+	 * @return  NUMERIC, TIMESTAMP, or STRING.
+	 */
+	private static String getWatermarkType(int sqlType) {
+		
+		switch (sqlType) {
+			case Types.TINYINT: case Types.SMALLINT: case Types.INTEGER: case Types.BIGINT:
+			case Types.DECIMAL: case Types.NUMERIC: case Types.FLOAT: case Types.REAL: case Types.DOUBLE:
+				return "NUMERIC";
+			case Types.DATE: case Types.TIMESTAMP: case Types.TIMESTAMP_WITH_TIMEZONE:
+				return "TIMESTAMP";
+			default:
+				return "STRING";
+		}
+	}
+	
+	
+	/**
+	 * Specifies the value of a watermark in an SQL predicate, preferably as a parameter to be bound in the query.
+	 * Literals are only used for copying from PostGIS, since the COPY command accepts no parameters; timestamps are then given in ISO 8601 format in UTC, which PostgreSQL interprets exactly as the bound parameter.
+	 * @param watermark  The watermark, including its type and value.
+	 * @param params  List to be extended with the value of the parameter; if null, the value is specified as a literal.
+	 * @return  A ? placeholder for the parameter, or the SQL literal.
+	 */
+	private static String toValue(Properties watermark, List<Object> params) {
+		
+		String value = watermark.getProperty("value");
+		if (params != null)
+		{
+			if (watermark.getProperty("type").equals("NUMERIC"))
+				params.add(new BigDecimal(value));
+			else if (watermark.getProperty("type").equals("TIMESTAMP"))
+				params.add(Timestamp.from(Instant.parse(value)));
+			else
+				params.add(value);
+			return "?";
+		}
+		
+		if (watermark.getProperty("type").equals("NUMERIC"))
+			return value;
+		else
+			return "'" + value.replace("'", "''") + "'";
+	}
+	
+	
+	/**
+	 * Provides the path to the file that keeps the watermark of incremental extraction.
+	 * @param config  Parameters to configure the transformation.
+	 * @return  The path to the watermark file.
+	 */
+	private static String getWatermarkFile(Configuration config) {
+		
+		if (config.watermarkFile != null)
+			return config.watermarkFile;
+		return config.outputDir + config.tableName + ".watermark";
+	}
+	
+	
+	/**
+	 * Reads a watermark from a file.
+	 * @param path  Path to the watermark file.
+	 * @return  The watermark, including the attribute it concerns, its type and value; null, if the file does not exist.
+	 */
+	private static Properties readWatermark(String path) {
+		
+		if (!new File(path).exists())
+			return null;
+		
+		Properties watermark = new Properties();
+		try (FileInputStream in = new FileInputStream(path)) {
+			watermark.load(in);
+		} catch (Exception e) {
+			ExceptionHandler.abort(e, "Cannot read watermark file " + path + ".");
+		}
+		return ((watermark.getProperty("value") != null) && (watermark.getProperty("type") != null)) ? watermark : null;
+	}
+	
+	
+	/**
+	 * Writes a watermark into a file, replacing any previous contents.
+	 * @param path  Path to the watermark file.
+	 * @param watermark  The watermark, including the attribute it concerns, its type and value.
+	 */
+	private static void writeWatermark(String path, Properties watermark) {
+		
+		try (FileOutputStream out = new FileOutputStream(path)) {
+			watermark.store(out, "Watermark of incremental extraction");
+		} catch (Exception e) {
+			ExceptionHandler.abort(e, "Cannot write watermark file " + path + ".");
+		}
+	}
+	
+	
+	/**
+	 * Commits the watermark of the snapshot taken before the table was transformed, once all its chunks have been transformed successfully.
+	 * The upper bound of the snapshot is persisted as is, so that the next run only extracts records beyond it.
+	 * @param config  Parameters to configure the transformation.
+	 * @param snapshot  The snapshot shared by all chunks of the table.
+	 */
+	public static void commitWatermark(Configuration config, Snapshot snapshot) {
+		
+		if ((config.attrWatermark == null) || (snapshot == null) || (snapshot.newWatermark == null))
+			return;              //No records have ever qualified, so there is no watermark yet
+		
+		writeWatermark(getWatermarkFile(config), snapshot.newWatermark);
+		System.out.println("Watermark of incremental extraction updated to " + snapshot.newWatermark.getProperty("value") + ".");
+	}
+
 }
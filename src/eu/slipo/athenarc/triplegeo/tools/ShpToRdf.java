@@ -23,6 +23,7 @@ import java.io.IOException;
 import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.NoSuchElementException;
 
 import org.geotools.data.DataStore;
 import org.geotools.data.DataStoreFinder;
@@ -31,6 +32,7 @@ import org.geotools.factory.Hints;
 import org.geotools.feature.FeatureIterator;
 import org.geotools.referencing.CRS;
 import org.geotools.referencing.ReferencingFactoryFinder;
+import org.opengis.feature.Feature;
 import org.opengis.referencing.crs.CRSAuthorityFactory;
 import org.opengis.referencing.crs.CoordinateReferenceSystem;
 import org.opengis.referencing.operation.MathTransform;
@@ -59,7 +61,8 @@ import eu.slipo.athenarc.triplegeo.utils.StreamConverter;
  * Modified: 12/12/2017, fixed issue with string encodings; verified that UTF characters read and written correctly
  * Modified: 13/12/2017, utilizing a streaming iterator in order to avoid loading the entire feature collection into memory
  * Modified: 12/7/2018, checking availability of basic shapefile components before starting any processing
- * Last modified by: Kostas Patroumpas, 5/10/2018
+ * Modified: 18/10/2026, added support for transforming a chunk (i.e., a contiguous range of records according to the .shx index) of the input shapefile
+ * Last modified by: agent, 18/10/2026
  */
 public class ShpToRdf {
 	
@@ -73,6 +76,8 @@ public class ShpToRdf {
 	  String inputFile;                          //Input shapefile
 	  String outputFile;                         //Output RDF file
 	  DataStore dataStore = null;                //Data store used for accessing the shapefile
+	  private int chunkIndex = 0;                //Index of the chunk of the input shapefile to be transformed
+	  private int numChunks = 1;                 //Number of chunks that the input shapefile has been split into
 	  
 	  //Initialize a CRS factory for possible reprojections
 	  private static final CRSAuthorityFactory crsFactory = ReferencingFactoryFinder
@@ -89,7 +94,26 @@ public class ShpToRdf {
 	   * @throws ClassNotFoundException
 	   */
 	  public ShpToRdf(Configuration config, Classification classific, String inFile, String outFile, int sourceSRID, int targetSRID) throws ClassNotFoundException {
+		  
+		  this(config, classific, inFile, outFile, sourceSRID, targetSRID, 0, 1);
+	  }
+	  
+	  /**
+	   * Constructor for the transformation process from a chunk of an ESRI shapefile to RDF.
+	   * @param config  Parameters to configure the transformation.
+	   * @param classific  Instantiation of the classification scheme that assigns categories to input features.
+	   * @param inFile   Path to input shapefile.
+	   * @param outFile  Path to the output file that collects RDF triples.
+	   * @param sourceSRID  Spatial reference system (EPSG code) of the input shapefile.
+	   * @param targetSRID Spatial reference system (EPSG code) of geometries in the output RDF triples.
+	   * @param chunkIndex  The index (starting from 0) of the chunk of the input shapefile to be transformed.
+	   * @param numChunks  The total number of chunks that the input shapefile has been split into.
+	   * @throws ClassNotFoundException
+	   */
+	  public ShpToRdf(Configuration config, Classification classific, String inFile, String outFile, int sourceSRID, int targetSRID, int chunkIndex, int numChunks) throws ClassNotFoundException {
   
+		  this.chunkIndex = chunkIndex;
+		  this.numChunks = numChunks;
 		  this.currentConfig = config;
 		  this.classification = classific;
 		  this.inputFile = inFile;
@@ -130,9 +154,10 @@ public class ShpToRdf {
 	*/
    public void apply() 
    {  
+	  FeatureIterator<?> rs = null;
 	  try { 			  
 			//Collect results from the shapefile
-		    FeatureIterator<?> rs = collectData(inputFile);    // FeatureCollection<?, ?> rs = collectData(inputFile);
+		    rs = collectData(inputFile);    // FeatureCollection<?, ?> rs = collectData(inputFile);
 			
 			if (currentConfig.mode.contains("GRAPH"))
 			{
@@ -165,7 +190,10 @@ public class ShpToRdf {
   			ExceptionHandler.abort(e, "");
   		}
 	  	finally {
-	  		dataStore.dispose();	  
+	  		if ((rs != null) && (numChunks > 1))     //Also release the reader of a chunk that failed before reaching its last record
+	  			rs.close();
+	  		if (dataStore != null)
+	  			dataStore.dispose();	  
 	  	}
    }
 	
@@ -208,6 +236,15 @@ public class ShpToRdf {
 		    		}
 		    	} 
 		    	
+		    	//In case of splitting into chunks, only iterate over the range of records in this chunk
+		    	if (numChunks > 1)
+		    	{
+		    		long numRecords = countRecords(file, dataStore.getTypeNames()[0]);
+		    		long offset = (numRecords / numChunks) * chunkIndex;
+		    		long count = (chunkIndex == numChunks - 1) ? numRecords - offset : numRecords / numChunks;
+		    		return limitRange(featureSource.getFeatures().features(), offset, count);
+		    	}
+		    	
 		    	return featureSource.getFeatures().features();               //Actually returning an iterator over the feature collection
 		    }
 	    } catch (Exception e) {
@@ -238,4 +275,62 @@ public class ShpToRdf {
        return true;
    }
    
+   /**
+    * Counts the records of a shapefile from the size of its index (.shx) file, without reading any features.
+    * The .shx file consists of a 100-byte header followed by a fixed-length 8-byte entry for each record.
+    * @param shpPath  Path to the shapefile on disk.
+    * @param shpName  Name of the shapefile (without extensions)
+    * @return  The number of records in the shapefile.
+    */
+   private long countRecords(File shpPath, String shpName)
+   {
+	   File f = new File(shpPath.getParent() + "/" + shpName + ".shx");
+	   return Math.max((f.length() - 100) / 8, 0);
+   }
+   
+   /**
+    * Restricts a FeatureIterator to a given range of records, so that each chunk always gets the same contiguous records of the shapefile.
+    * @param iterator  FeatureIterator over all features of the shapefile.
+    * @param offset  The number of records to be skipped from the beginning of the shapefile.
+    * @param count  The maximum number of records to be returned after the skipped ones.
+    * @return  FeatureIterator over the records in the specified range; closing it more than once has no effect.
+    */
+   private <F extends Feature> FeatureIterator<F> limitRange(final FeatureIterator<F> iterator, final long offset, final long count)
+   {
+	   //Skip records belonging to preceding chunks
+	   try {
+		   for (long i = 0; (i < offset) && iterator.hasNext(); i++)
+			   iterator.next();
+	   } catch (RuntimeException e) {
+		   iterator.close();
+		   throw e;
+	   }
+	   
+	   return new FeatureIterator<F>() {
+		   long remaining = count;
+		   boolean closed = false;
+		   
+		   @Override
+		   public boolean hasNext() {
+			   return (!closed) && (remaining > 0) && iterator.hasNext();
+		   }
+		   
+		   @Override
+		   public F next() throws NoSuchElementException {
+			   if (!hasNext())
+				   throw new NoSuchElementException();
+			   remaining--;
+			   return iterator.next();
+		   }
+		   
+		   @Override
+		   public void close() {
+			   if (closed)
+				   return;
+			   closed = true;
+			   iterator.close();
+		   }
+	   };
+   }
+   
 }
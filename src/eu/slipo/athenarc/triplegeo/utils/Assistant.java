@@ -58,10 +58,8 @@ import javax.xml.transform.stream.StreamSource;
 
 import org.apache.commons.io.FilenameUtils;
 import org.geotools.geometry.jts.JTS;
-import org.geotools.referencing.CRS;
 import org.opengis.geometry.MismatchedDimensionException;
 import org.opengis.referencing.FactoryException;
-import org.opengis.referencing.crs.CoordinateReferenceSystem;
 import org.opengis.referencing.operation.MathTransform;
 import org.opengis.referencing.operation.TransformException;
 
@@ -74,6 +72,7 @@ import com.vividsolutions.jts.geom.LinearRing;
 import com.vividsolutions.jts.geom.MultiPolygon;
 import com.vividsolutions.jts.geom.Point;
 import com.vividsolutions.jts.geom.Polygon;
+import com.vividsolutions.jts.io.WKBReader;
 import com.vividsolutions.jts.io.WKTReader;
 import com.vividsolutions.jts.io.WKTWriter;
 import com.vividsolutions.jts.operation.polygonize.Polygonizer;
@@ -94,13 +93,21 @@ import com.vividsolutions.jts.operation.polygonize.Polygonizer;
  * Modified: 27/7/2018; auto-generation of intermediate identifiers if missing in the original data
  * Modified: 27/7/2018; added function to validate ISO 639-1 language codes
  * Modified: 9/10/2018; added built-in function to generate URIs based either on UUIDs or original feature IDs
- * Last modified by: Kostas Patroumpas, 24/10/2018
+ * Modified: 18/10/2026; synchronized updates of the MBR, as geometries may be handled concurrently
+ * Modified: 18/10/2026; deprecated invocation of built-in functions through reflection in favor of FunctionRegistry
+ * Modified: 18/10/2026; derived values (e.g., lon/lat coordinates) calculated from geometries already parsed in a GeometryContext
+ * Modified: 18/10/2026; CRS transformations obtained from TransformCache instead of decoding reference systems for each geometry
+ * Modified: 18/10/2026; added built-in functions for area and length calculated on the ellipsoid from lon/lat coordinates
+ * Modified: 18/10/2026; UUIDs issued by a UUIDGenerator according to the user-specified hashing scheme
+ * Modified: 18/10/2026; added support for decoding geometries from their Well-Known Binary representation
+ * Last modified by: agent, 18/10/2026
  */
 
 public class Assistant {
 
 	public PGDBDecoder pgdbDecoder = null;         //Decoder of geometries read from a personal ESRI geodatabase (.mdb)
 	public WKTReader wktReader = null;             //Parses a geometry in Well-Known Text format to a Geometry representation.
+	public WKBReader wkbReader = null;             //Decodes a geometry in Well-Known Binary format to a Geometry representation.
 	
 	private static Envelope mbr = null;            //Minimum Bounding Rectangle (in WGS84) of all geometries handled during a given transformation process
 	private static Configuration currentConfig;
@@ -108,12 +115,14 @@ public class Assistant {
 	private static Set<String> ISO_LANGUAGES = new HashSet<String> (Arrays.asList(Locale.getISOLanguages()));   //List of ISO 639-1 language codes
 	
 	private AtomicLong numberGenerator = new AtomicLong(1L);    //Used to generate serial numbers, i.e., consecutive positive integers starting from 1
+	private UUIDGenerator uuidGenerator;                       //Issues UUIDs according to the specified hashing scheme
 	 
 	/**
 	 * Constructor of the class without explicit declaration of configuration settings.
 	 */
 	public Assistant() {
 		
+		uuidGenerator = new UUIDGenerator(UUIDGenerator.MD5);
 	}
 	
 	/**
@@ -122,6 +131,7 @@ public class Assistant {
 	public Assistant(Configuration config) {
 		
 		currentConfig = config;
+		uuidGenerator = new UUIDGenerator((config != null) ? config.uuidScheme : UUIDGenerator.MD5);
 	}
 	
 	/**
@@ -321,6 +331,9 @@ public class Assistant {
 		 if (mbr != null)
 			 System.out.println("MBR of transformed geometries: X_min=" + mbr.getMinX() + ", Y_min=" + mbr.getMinY() + ", X_max=" + mbr.getMaxX() + ", Y_max=" + mbr.getMaxY());
 		 
+		 if (TransformCache.getHits() + TransformCache.getMisses() > 0)
+			 System.out.println("CRS transformations: " + TransformCache.getHits() + " cache hits, " + TransformCache.getMisses() + " cache misses.");
+		 
 		 //Metadata regarding execution of this process
 		 Map<String, Object> execStatistics = new HashMap<String, Object>();
 		 execStatistics.put("Execution time (ms)", dt);
@@ -377,6 +390,9 @@ public class Assistant {
 		if (mbr != null)
 			System.out.println("MBR of transformed geometries: X_min=" + mbr.getMinX() + ", Y_min=" + mbr.getMinY() + ", X_max=" + mbr.getMaxX() + ", Y_max=" + mbr.getMaxY());
 
+		if (TransformCache.getHits() + TransformCache.getMisses() > 0)
+			System.out.println("CRS transformations: " + TransformCache.getHits() + " cache hits, " + TransformCache.getMisses() + " cache misses.");
+
 		//Metadata regarding execution of this process
 		Map<String, Object> execStatistics = new HashMap<String, Object>();
 		execStatistics.put("Execution time (ms)", dt);
@@ -527,7 +543,7 @@ public class Assistant {
 	 * Updates the MBR of the geographic dataset as this is being transformed. 	
 	 * @param g  Geometry that will be checked for possible expansion of the MBR of all features processed thus far
 	 */
-	private static void updateMBR(Geometry g) {
+	private static synchronized void updateMBR(Geometry g) {
 			
 		Envelope env = g.getEnvelopeInternal();          //MBR of the given geometry
 		if (mbr == null)
@@ -586,16 +602,21 @@ public class Assistant {
 	 */
 	public Geometry geomTransformWGS84(String wkt, int srid) {
 		
-	    WKTReader wktReader = new WKTReader();
-	    Geometry g = null;
+		return geomTransformWGS84(WKT2Geometry(wkt), srid);
+	}
+	
+	/**
+	 * Reprojects a given geometry into the WGS84 (lon/lat) coordinate reference system
+	 * @param g  The input geometry
+	 * @param srid  EPSG code of the coordinate reference system (CRS) of the geometry
+	 * @return  Geometry reprojected into WG84 system
+	 */
+	public Geometry geomTransformWGS84(Geometry g, int srid) {
+		
         try {
-        	g = wktReader.read(wkt);
         	if (srid != 4326)                   //In case that geometry is NOT georeferenced in WGS84, ...
         	{                                   //... it should be transformed in order to calculate its lon/lat coordinates
-        		CoordinateReferenceSystem origCRS = CRS.decode("EPSG:" + srid);    //The CRS system of the original geometry
-        		CoordinateReferenceSystem finalCRS = CRS.decode("EPSG:4326");      //CRS for WGS84
-        		//Define a MathTransform object and apply it
-        		MathTransform transform = CRS.findMathTransform(origCRS, finalCRS);
+        		MathTransform transform = TransformCache.getTransform(srid, 4326);    //Transformation created once per CRS and reused
         		g = JTS.transform(g, transform); 	        		
         	}
         }
@@ -617,12 +638,8 @@ public class Assistant {
 		Point centroid = g.getCentroid();
 	    try {	    	
 	      //Convert geometry to a flat Cartesian plane using GeoTools auto projection (assuming the shape is small enough to minimize error)
-	      String code = "AUTO:42001," + centroid.getX() + "," + centroid.getY();
-	      CoordinateReferenceSystem auto = CRS.decode(code);
-//	      System.out.println("Coordinate system units: " + auto.getCoordinateSystem().getAxis(0).getUnit().toString());
-	  	
-	      CoordinateReferenceSystem targetCRS = CRS.decode("EPSG:" + srid);  
-	      MathTransform transform = CRS.findMathTransform(targetCRS, auto);
+	      //The auto projection depends only on the UTM zone of the centroid, so its transformation is obtained from the cache
+	      MathTransform transform = TransformCache.getAutoTransform(srid, centroid.getX(), centroid.getY());
 	      Geometry gProjected = JTS.transform(g, transform);      
       
 	      return gProjected;		                    //Projected geometry
@@ -679,6 +696,35 @@ public class Assistant {
 		return wkt;   //Return (transformed) geometry in WKT representation
 	}
 
+	/**
+	 * Instantiates a new WKBReader, which will be reused for decoding all geometries retrieved in Well-Known Binary format.
+	 */
+	public void initWKBReader() {
+		
+		wkbReader = new WKBReader();
+	}
+	
+	/** 
+	 * Returns the internal geometry representation according to its Well-Known Binary serialization (as retrieved from a DBMS).
+	 * CAUTION! The WKBReader must have been initialized, and it should not be used concurrently by several threads.
+	 * @param wkb  WKB of the geometry
+	 * @return  A geometry object; null, if no WKB is given or it cannot be decoded
+	 */
+	public Geometry WKB2Geometry(byte[] wkb) {  
+		
+		if (wkb == null)
+			return null;
+		
+		Geometry g = null;
+		try {
+			g = wkbReader.read(wkb);
+		} catch (Exception e) {
+			e.printStackTrace();
+		}
+		
+		return g;     //Return geometry
+	}
+
 	/**
 	 * Get / create a valid version of the geometry given. If the geometry is a polygon or multi polygon, self intersections /
 	 * inconsistencies are fixed. Otherwise the geometry is returned.
@@ -866,6 +912,28 @@ public class Assistant {
 		return 0.0;   //This is not a line or polygon geometry, so it has no length or perimeter
 	}
 	
+	/** 
+	 * Built-in function that returns the area of a polygon geometry calculated on the WGS84 ellipsoid directly from its lon/lat coordinates, i.e., without projecting it to a flat Cartesian plane.
+	 * @param polygonWKT  WKT of the polygon
+	 * @param targetSRID  EPSG code of the coordinate reference system (CRS) of the geometry
+	 * @return  calculated area in square meters
+	 */
+	public double getGeodesicArea(String polygonWKT, int targetSRID) {
+		
+		return GeodesicCalculator.getArea(geomTransformWGS84(polygonWKT, targetSRID));
+	}
+	
+	/** 
+	 * Built-in function that returns the length of a linestring or the perimeter of a polygon geometry calculated on the WGS84 ellipsoid directly from its lon/lat coordinates, i.e., without projecting it to a flat Cartesian plane.
+	 * @param wkt  WKT of the linestring or polygon
+	 * @param targetSRID  EPSG code of the coordinate reference system (CRS) of the geometry
+	 * @return  calculated length/perimeter in meters
+	 */
+	public double getGeodesicLength(String wkt, int targetSRID) {
+		
+		return GeodesicCalculator.getLength(geomTransformWGS84(wkt, targetSRID));
+	}
+	
 	/** 
 	 * Built-in function that returns a pair of lon/lat coordinates (in WGS84) of a geometry as calculated from its the Well-Known Text representation.
 	 * @param wkt   WKT of the geometry
@@ -887,6 +955,24 @@ public class Assistant {
 	    return null;
 	}
 
+	/** 
+	 * Returns a pair of lon/lat coordinates (in WGS84) of a geometry, reusing its reprojection and centroid if already calculated.
+	 * @param geom  The context of the geometry
+	 * @return  An array with the pair of lon/lat coordinates
+	 */
+	public double[] getLonLatCoords(GeometryContext geom) {
+
+	    Point centroid = geom.getCentroid();
+	    if (centroid != null)
+	    {	
+        	//Update the MBR of all geometries processed so far
+  	        updateMBR(geom.getWGS84Geometry());
+        	
+        	return new double[] {centroid.getX(), centroid.getY()};	
+		}
+        
+	    return null;
+	}
 	
 	/**
 	 * Calculate the longitude at the centroid of the geometry
@@ -970,8 +1056,6 @@ public class Assistant {
 	 * @return The auto-generated UUID based on the concatenation of the feature source and the identifier..
 	 */
 	public String getUUID(String featureSource, String id) {
-			
-		UUID uuid = null;
 
 		//Auto-generate a serial number in case that no unique identifier is available for the original feature
 		//CAUTION! This serial number is neither retained not emitted in the resulting triples
@@ -979,14 +1063,7 @@ public class Assistant {
 			id = Long.toString(getNextSerial());
 
 		//UUIDs generated by hashing over the concatenation of feature source name and the identifier
-		try {
-		    byte[] bytes = (featureSource + id).getBytes("UTF-8");
-			uuid = UUID.nameUUIDFromBytes(bytes);
-		} catch (Exception e) {
-			e.printStackTrace();
-		}
-
-		return uuid.toString();	
+		return uuidGenerator.getUUID(featureSource, id);
 	}
 		
 	/**
@@ -996,17 +1073,8 @@ public class Assistant {
 	 * @return The auto-generated UUID.
 	 */
 	public String getUUID(String id) {
-			
-		UUID uuid = null;
 
-		try {
-		    byte[] bytes = id.getBytes("UTF-8");     //UUIDs generated by hashing over the original identifier
-			uuid = UUID.nameUUIDFromBytes(bytes);
-		} catch (Exception e) {
-			e.printStackTrace();
-		}
-		 
-		return uuid.toString();	
+		return uuidGenerator.getUUID(id);       //UUIDs generated by hashing over the original identifier
 	}
 
 	/**
@@ -1108,7 +1176,9 @@ public class Assistant {
 	 * @param methodName  The name of the method to invoke (e.g., getLanguage).
 	 * @param args  The necessary arguments for the method to run (may be multiple).
 	 * @return A string value resulting from the invocation (e.g., language tag extracted from the attribute name).
+	 * @deprecated  Built-in functions should be resolved once through FunctionRegistry and then invoked via their method handles.
 	 */
+	@Deprecated
 	public Object applyRuntimeMethod(String methodName, Object[] args) {
 		 Method method;
 		 Object res = null;
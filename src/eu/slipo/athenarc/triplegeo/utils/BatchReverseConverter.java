@@ -18,9 +18,14 @@
  */
 package eu.slipo.athenarc.triplegeo.utils;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
+import org.apache.jena.graph.Triple;
 import org.apache.jena.query.Dataset;
 import org.apache.jena.query.Query;
 import org.apache.jena.query.QueryExecution;
@@ -31,6 +36,7 @@ import org.apache.jena.query.ResultSet;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.RDFNode;
 import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.system.StreamRDFBase;
 import org.apache.jena.tdb.TDBFactory;
 
 import eu.slipo.athenarc.triplegeo.utils.ReverseConverter;
@@ -49,7 +55,8 @@ import eu.slipo.athenarc.triplegeo.utils.ReverseConfiguration;
 /* DEVELOPMENT HISTORY
  * Created by: Kostas Patroumpas, 27/9/2017
  * Modified: 10/1/2018; exporting resulting records in batches
- * Last modified: 28/2/2018
+ * Modified: 18/10/2026; multiple input files are read concurrently by a bounded scheduler (largest file first) under a heap budget
+ * Last modified: 18/10/2026
  */
 public class BatchReverseConverter {  
 
@@ -101,18 +108,86 @@ public class BatchReverseConverter {
 //		  Model model = ModelFactory.createDefaultModel() ;
 			
 	      //From each output file, read triples into the model according to the given serialization
-		  for (final String inFile: inputFiles) {
-			//Identify the path to the RDF file
-			System.out.print(myAssistant.getGMTime() + " Reading triples from file " + inFile + "...");
-			RDFDataMgr.read(model, inFile, myAssistant.getRDFLang(currentConfig.serialization));	
-//			TDBLoader.load( ((DatasetGraphTransaction)dataset.asDatasetGraph()).getBaseDatasetGraph() , outFile, true);
-			System.out.println(" Done!");
+		  if (inputFiles.length == 1) {
+			  //Identify the path to the RDF file
+			  System.out.print(myAssistant.getGMTime() + " Reading triples from file " + inputFiles[0] + "...");
+			  RDFDataMgr.read(model, inputFiles[0], myAssistant.getRDFLang(currentConfig.serialization));	
+//			  TDBLoader.load( ((DatasetGraphTransaction)dataset.asDatasetGraph()).getBaseDatasetGraph() , outFile, true);
+			  System.out.println(" Done!");
 		  }
+		  else 
+			  readConcurrently();
 		  
 		  System.out.println(myAssistant.getGMTime() + " RDF graph loaded successfully and contains " + model.getGraph().size() + " statements in total.");		  
 	}
 	
 	
+	/**
+	 * Reads triples from multiple input files concurrently into the graph model.
+	 * Each file is parsed by a separate task, but triples are added into the model in batches by one task at a time.
+	 */
+	private void readConcurrently() {
+		
+		TaskScheduler<String> scheduler = new TaskScheduler<String>(currentConfig.scheduling);
+		for (final String inFile: inputFiles) {
+			scheduler.submit(new Callable<String>() {
+				@Override
+				public String call() throws Exception {
+					System.out.println(myAssistant.getGMTime() + " Reading triples from file " + inFile + "...");
+					RDFDataMgr.parse(new GraphLoader(), inFile, myAssistant.getRDFLang(currentConfig.serialization));
+					System.out.println(myAssistant.getGMTime() + " Finished reading triples from file " + inFile + ".");
+					return inFile;
+				}
+			}, new File(inFile).length(), currentConfig.scheduling.taskMemory * 1024L * 1024L);
+		}
+		
+		try {
+			for (Future<String> f: scheduler.invokeAll())
+				f.get();
+		} catch (ExecutionException e) {
+			ExceptionHandler.abort(e, "Failed to read triples from an input file.");
+		} catch (InterruptedException e) {
+			ExceptionHandler.abort(e, "Reading of triples from input files was interrupted.");
+		}
+	}
+	
+	
+	/**
+	 * Collects triples parsed from an input file and adds them in batches into the graph model.
+	 */
+	private class GraphLoader extends StreamRDFBase {
+		
+		List<Triple> batch = new ArrayList<Triple>();
+		
+		@Override
+		public void triple(Triple triple) {
+			batch.add(triple);
+			if (batch.size() >= currentConfig.batch_size)
+				flush();
+		}
+		
+		@Override
+		public void prefix(String prefix, String iri) {
+			synchronized(model) {
+				model.setNsPrefix(prefix, iri);
+			}
+		}
+		
+		@Override
+		public void finish() {
+			flush();
+		}
+		
+		private void flush() {
+			synchronized(model) {                   //Only one task at a time may update the graph model
+				for (Triple t: batch)
+					model.getGraph().add(t);
+			}
+			batch.clear();
+		}
+	}
+	
+	
 	/**
 	 * Closes the graph model and releases all system resources.
 	 */
@@ -36,7 +36,23 @@ import java.util.logging.Level;
 /* DEVELOPMENT HISTORY
  * Initially implemented for geometry2rdf utility (source: https://github.com/boricles/geometry2rdf/tree/master/Geometry2RDF)
  * Modified by: Kostas Patroumpas, 8/2/2013; adjusted to TripleGeo functionality
- * Last modified: 2/3/2018
+ * Modified: 18/10/2026; added options for splitting a single input into chunks transformed concurrently
+ * Modified: 18/10/2026; added options for the number of concurrent tasks and their memory budget
+ * Modified: 18/10/2026; added option for the number of worker threads in each transformation
+ * Modified: 18/10/2026; added option for direct encoding of N-Triples
+ * Modified: 18/10/2026; added option for the hashing scheme of UUIDs
+ * Modified: 18/10/2026; added options for the index of OSM node coordinates and the flat node file
+ * Modified: 18/10/2026; added option for single-pass parsing of sorted OSM files
+ * Modified: 18/10/2026; added option for the number of threads decoding OSM PBF blocks
+ * Modified: 18/10/2026; added option for the memory budget of indices on OSM ways and relations
+ * Modified: 18/10/2026; added option for the fetch size of DBMS cursors
+ * Modified: 18/10/2026; added option for the partitioning method of DBMS chunks
+ * Modified: 18/10/2026; added option for the encoding of geometries retrieved from a DBMS
+ * Modified: 18/10/2026; documented the format of WKT literals for geometries retrieved as WKB
+ * Modified: 18/10/2026; added options for incremental extraction from DBMS tables
+ * Modified: 18/10/2026; added option for binary COPY ingestion from PostGIS
+ * Modified: 18/10/2026; settings for scheduling concurrent tasks read by TaskScheduler.Settings, as in ReverseConfiguration
+ * Last modified: 18/10/2026
  */
 public final class Configuration {
 
@@ -78,6 +94,79 @@ public final class Configuration {
    */
   public int batch_size = 10;
 
+  /**
+   * Number of chunks that a single input (CSV file, shapefile, or DBMS table) will be split into, so that each chunk is transformed by a separate concurrent thread.
+   * By default, each input is handled by a single thread (i.e., no splitting).
+   */
+  public int numChunks = 1;
+
+  /**
+   * Specifies whether output files created for the chunks of a single input will be merged into one output file (true) or kept as separate files (false).
+   * Merging is only applicable with N-TRIPLES serialization. This parameter has no effect if input is not split into chunks.
+   */
+  public boolean mergeChunks = false;
+
+  /**
+   * Method for splitting a DBMS table into chunks. Possible values: RANGE (equi-width ranges of values of the key attribute); HASH (values of the key attribute modulo the number of chunks).
+   * Ranges only retrieve the records of each chunk, but chunks may be unbalanced if key values are skewed; hashing yields balanced chunks, but each chunk scans the entire table. In either case, the key attribute must be numeric.
+   */
+  public String dbChunkMethod = "RANGE";
+
+  /**
+   * Scheduling of concurrent transformation tasks (i.e., input files or chunks): maximum number of threads, heap budget (in MB) for all tasks, and estimated memory (in MB) consumed by each task.
+   */
+  public TaskScheduler.Settings scheduling = new TaskScheduler.Settings();
+
+  /**
+   * Number of worker threads that transform records concurrently within a single task in STREAM mode. 
+   * Records are read by one thread, transformed into triples by the workers, and serialized into the output file by another thread.
+   * By default (value 0), each record is read, transformed, and serialized by the same thread.
+   */
+  public int numWorkers = 0;
+
+  /**
+   * Specifies whether triples will be directly encoded into N-TRIPLES in STREAM mode, without creating intermediate Jena triples. 
+   * The resulting output is identical, but with less garbage collection overhead. Default: false.
+   */
+  public boolean directEncoding = false;
+
+  /**
+   * Hashing scheme for generating the UUIDs of features in their URIs: MD5 (default) or MURMUR3.
+   * MURMUR3 is much faster and equally stable across runs, but issues different UUIDs than MD5, so it should not be used when URIs must match those of earlier transformations.
+   */
+  public String uuidScheme = UUIDGenerator.MD5;
+
+  /**
+   * Index for the coordinates of OSM nodes when transforming OSM PBF or XML files: MEMORY (hash table outside the JVM heap), FLAT (memory-mapped file addressed by node identifier, for very large files), or AUTO (default).
+   * With AUTO, the flat file is used for input files larger than osmFlatNodeThreshold.
+   * CAUTION! With MEMORY, the hash table is doubled whenever it fills up, and the previous table is kept until it has been rehashed; so, direct memory (-XX:MaxDirectMemorySize) must allow for 1.5 times the size of the largest table.
+   */
+  public String osmNodeIndex = "AUTO";
+
+  /**
+   * Size (in MB) of an input OSM PBF or (uncompressed) XML file above which coordinates of nodes are indexed in a memory-mapped flat file, if osmNodeIndex is AUTO. Default: 1024.
+   */
+  public long osmFlatNodeThreshold = 1024;
+
+  /**
+   * Specifies whether OSM PBF files declared as sorted by type and identifier (nodes, then ways, then relations) will be parsed in a single pass. Default: false.
+   * CAUTION! Geometries of all ways are then indexed, as they may be referenced by subsequent relations, so memory consumption is much higher than in multiple passes. Unsorted PBF files are always parsed in multiple passes.
+   * OSM XML files carry no such declaration, so they are assumed sorted (as are all extracts and dumps published by OSM) if this is true.
+   */
+  public boolean osmSinglePass = false;
+
+  /**
+   * Number of threads that inflate and decode blocks of an OSM PBF file (or decompress blocks of an OSM XML file compressed with bzip2) concurrently; decoded elements are still processed in their original order.
+   * With value 1, blocks are decoded in the thread of the transformation. By default (value 0), this equals the number of available processors.
+   */
+  public int osmDecoders = 0;
+
+  /**
+   * Heap memory (in MB) available to the indices over OSM ways and relations when transforming OSM PBF or XML files. 
+   * Indices are held in memory; once this budget is exceeded, their least recently accessed parts are moved to disk (in tmpDir). By default (value 0), a quarter of the maximum JVM heap size.
+   */
+  public int osmIndexMemory = 0;
+
   /**
    * Path to a file containing mappings of attributes from input schema to RDF properties.
    */
@@ -184,6 +273,24 @@ public final class Configuration {
    * Name of the attribute specifying the category of a feature according to a classification scheme.
    */
   public String attrCategory;
+
+  /**
+   * Name of the attribute with modification timestamps or monotonically increasing values (e.g., a serial key) of the records in a database table, used for incremental extraction.
+   * If specified, only records with values beyond the watermark persisted by the previous successful run are extracted.
+   */
+  public String attrWatermark;
+
+  /**
+   * Name of a boolean attribute marking records deleted from a database table (i.e., tombstones) during incremental extraction. 
+   * Instead of their attribute values, only a deletion marker is issued for such records.
+   */
+  public String attrDeleted;
+
+  /**
+   * Path to the file that keeps the watermark of incremental extraction from a database table.
+   * By default, it is stored in the output directory, named after the table with extension .watermark.
+   */
+  public String watermarkFile;
   
   /**
    * Name of the attribute containing the X-ordinate (or longitude) of a feature.
@@ -263,6 +370,26 @@ public final class Configuration {
    */
   public int dbPort;
 
+  /**
+   * Number of rows fetched from the database in each round trip, so that results are retrieved with a forward-only, read-only cursor instead of being held in memory all at once.
+   * For MySQL, any positive value enables its streaming mode (one row at a time). If 0, results are fetched as determined by the JDBC driver of each DBMS.
+   */
+  public int dbFetchSize = 1000;
+
+  /**
+   * Encoding of geometries retrieved from the database. Possible values: WKT (Well-Known Text, default); WKB (Well-Known Binary, which is more compact and gets decoded without any parsing of text).
+   * Not applicable to MSAccess databases, where geometries are always decoded from their custom binary representation.
+   * CAUTION! With WKB, any WKT literals in the output are written by JTS (e.g., "POINT (23.7275 37.9838)", with up to 16 decimal digits per ordinate),
+   * so they may differ textually from those formatted by the DBMS with WKT (e.g., "POINT(23.7275 37.9838)" by PostGIS ST_AsText, which may also round ordinates to fewer digits).
+   */
+  public String dbGeometryEncoding = "WKT";
+
+  /**
+   * Specifies whether records will be copied from a PostGIS database in the binary format of the COPY command and decoded directly, bypassing the JDBC ResultSet. Applicable to PostGIS databases only.
+   * Values of all thematic attributes are converted to text by the server, whereas geometries are copied as EWKB. By default, records are retrieved through a cursor.
+   */
+  public boolean dbBinaryCopy = false;
+
 
   /**
    * Spark parameter for the number of partitions.
@@ -346,6 +473,103 @@ public final class Configuration {
 		 }		 
 	 }
 		
+	 //Number of chunks to split a single input into, so that each chunk gets transformed by a separate thread
+	 if (!myAssistant.isNullOrEmpty(properties.getProperty("numChunks"))) {
+		 try {
+		 numChunks = Integer.parseInt(properties.getProperty("numChunks").trim());
+		 //Apply the default value in case of invalid settings
+		 if (numChunks < 1)
+			 numChunks = 1;
+		 }
+		 catch(Exception e) {
+			 ExceptionHandler.abort(e, "Incorrect value set for the number of chunks. Please specify a positive integer value in your configuration file.");
+		 }
+	 }
+
+	 //Specifies whether output files created for the chunks of an input will be merged into a single file
+	 if (!myAssistant.isNullOrEmpty(properties.getProperty("mergeChunks"))) {
+		 mergeChunks = Boolean.parseBoolean(properties.getProperty("mergeChunks").trim());
+	 }
+
+	 //Method for splitting a DBMS table into chunks
+	 if (!myAssistant.isNullOrEmpty(properties.getProperty("dbChunkMethod"))) {
+		 dbChunkMethod = properties.getProperty("dbChunkMethod").trim().toUpperCase();
+		 //Apply the default value in case of invalid settings
+		 if (!dbChunkMethod.equals("HASH"))
+			 dbChunkMethod = "RANGE";
+	 }
+
+	 //Scheduling of concurrent transformation tasks: maximum number of threads, heap budget (in MB), and estimated memory per task (in MB)
+	 scheduling.load(properties);
+
+	 //Number of worker threads transforming records within each task
+	 if (!myAssistant.isNullOrEmpty(properties.getProperty("numWorkers"))) {
+		 try {
+			 numWorkers = Integer.parseInt(properties.getProperty("numWorkers").trim());
+		 }
+		 catch(Exception e) {
+			 ExceptionHandler.abort(e, "Incorrect value set for the number of worker threads. Please specify a positive integer value in your configuration file.");
+		 }
+	 }
+
+	 //Specifies whether triples will be directly encoded into N-TRIPLES in STREAM mode
+	 if (!myAssistant.isNullOrEmpty(properties.getProperty("directEncoding"))) {
+		 directEncoding = Boolean.parseBoolean(properties.getProperty("directEncoding").trim());
+	 }
+
+	 //Hashing scheme for generating UUIDs of features
+	 if (!myAssistant.isNullOrEmpty(properties.getProperty("uuidScheme"))) {
+		 uuidScheme = properties.getProperty("uuidScheme").trim().toUpperCase();
+		 if (!uuidScheme.equals(UUIDGenerator.MD5) && !uuidScheme.equals(UUIDGenerator.MURMUR3))
+			 ExceptionHandler.abort(new IllegalArgumentException(uuidScheme), "Incorrect value set for the UUID scheme. Please specify either MD5 or MURMUR3 in your configuration file.");
+	 }
+
+	 //Index for the coordinates of OSM nodes
+	 if (!myAssistant.isNullOrEmpty(properties.getProperty("osmNodeIndex"))) {
+		 osmNodeIndex = properties.getProperty("osmNodeIndex").trim().toUpperCase();
+		 if (!osmNodeIndex.equals("AUTO") && !osmNodeIndex.equals("MEMORY") && !osmNodeIndex.equals("FLAT"))
+			 ExceptionHandler.abort(new IllegalArgumentException(osmNodeIndex), "Incorrect value set for the index of OSM nodes. Please specify either AUTO, MEMORY, or FLAT in your configuration file.");
+	 }
+	 try {
+		 if (!myAssistant.isNullOrEmpty(properties.getProperty("osmFlatNodeThreshold"))) {
+			 osmFlatNodeThreshold = Long.parseLong(properties.getProperty("osmFlatNodeThreshold").trim());
+		 }
+	 }
+	 catch(Exception e) {
+		 ExceptionHandler.abort(e, "Incorrect value set for the size threshold of OSM files. Please specify a positive integer value (in MB) in your configuration file.");
+	 }
+
+	 //Specifies whether sorted OSM PBF files will be parsed in a single pass
+	 if (!myAssistant.isNullOrEmpty(properties.getProperty("osmSinglePass"))) {
+		 osmSinglePass = Boolean.parseBoolean(properties.getProperty("osmSinglePass").trim());
+	 }
+
+	 //Number of threads decoding blocks of OSM PBF files
+	 if (!myAssistant.isNullOrEmpty(properties.getProperty("osmDecoders"))) {
+		 try {
+		 osmDecoders = Integer.parseInt(properties.getProperty("osmDecoders").trim());
+		 //Apply the default value in case of invalid settings
+		 if (osmDecoders < 0)
+			 osmDecoders = 0;
+		 }
+		 catch(Exception e) {
+			 ExceptionHandler.abort(e, "Incorrect value set for the number of threads decoding OSM PBF files. Please specify a positive integer value in your configuration file.");
+		 }
+	 }
+
+	 //Heap memory available to indices over OSM ways and relations
+	 if (!myAssistant.isNullOrEmpty(properties.getProperty("osmIndexMemory"))) {
+		 try {
+		 osmIndexMemory = Integer.parseInt(properties.getProperty("osmIndexMemory").trim());
+		 //Apply the default value in case of invalid settings
+		 if (osmIndexMemory < 0)
+			 osmIndexMemory = 0;
+		 }
+		 catch(Exception e) {
+			 ExceptionHandler.abort(e, "Incorrect value set for the memory available to indices over OSM elements. Please specify a positive integer value (in MB) in your configuration file.");
+		 }
+	 }
+
 	 //Path to a file containing attribute mappings from input schema to RDF properties
 	 if (!myAssistant.isNullOrEmpty(properties.getProperty("mappingSpec"))) {
 		 mappingSpec = properties.getProperty("mappingSpec").trim();
@@ -424,6 +648,15 @@ public final class Configuration {
     if (!myAssistant.isNullOrEmpty(properties.getProperty("attrCategory"))) {
     	attrCategory = properties.getProperty("attrCategory").trim();
       }
+    if (!myAssistant.isNullOrEmpty(properties.getProperty("attrWatermark"))) {
+    	attrWatermark = properties.getProperty("attrWatermark").trim();
+      }
+    if (!myAssistant.isNullOrEmpty(properties.getProperty("attrDeleted"))) {
+    	attrDeleted = properties.getProperty("attrDeleted").trim();
+      }
+    if (!myAssistant.isNullOrEmpty(properties.getProperty("watermarkFile"))) {
+    	watermarkFile = properties.getProperty("watermarkFile").trim();
+      }
     if (!myAssistant.isNullOrEmpty(properties.getProperty("attrName"))) {
     	attrName = properties.getProperty("attrName").trim();
       }
@@ -487,6 +720,26 @@ public final class Configuration {
     if (!myAssistant.isNullOrEmpty(properties.getProperty("dbPort"))) {
     	dbPort = Integer.parseInt(properties.getProperty("dbPort"));
       }
+    if (!myAssistant.isNullOrEmpty(properties.getProperty("dbFetchSize"))) {
+    	try {
+    	dbFetchSize = Integer.parseInt(properties.getProperty("dbFetchSize").trim());
+    	//Apply the default value in case of invalid settings
+    	if (dbFetchSize < 0)
+    		dbFetchSize = 1000;
+    	}
+    	catch(Exception e) {
+    		ExceptionHandler.abort(e, "Incorrect value set for the fetch size of database results. Please specify a non-negative integer value in your configuration file.");
+    	}
+      }
+    if (!myAssistant.isNullOrEmpty(properties.getProperty("dbGeometryEncoding"))) {
+    	dbGeometryEncoding = properties.getProperty("dbGeometryEncoding").trim().toUpperCase();
+    	//Apply the default value in case of invalid settings
+    	if (!dbGeometryEncoding.equals("WKB"))
+    		dbGeometryEncoding = "WKT";
+      }
+    if (!myAssistant.isNullOrEmpty(properties.getProperty("dbBinaryCopy"))) {
+    	dbBinaryCopy = Boolean.parseBoolean(properties.getProperty("dbBinaryCopy").trim());
+      }
    
     //Default language specification tag for string literals
     if (!myAssistant.isNullOrEmpty(properties.getProperty("defaultLang"))) {
@@ -21,7 +21,6 @@ package eu.slipo.athenarc.triplegeo.utils;
 import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.sql.ResultSet;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -34,6 +33,7 @@ import org.geotools.feature.FeatureIterator;
 import org.opengis.referencing.operation.MathTransform;
 
 import be.ugent.mmlab.rml.model.dataset.RMLDataset;
+import eu.slipo.athenarc.triplegeo.db.RowSource;
 import eu.slipo.athenarc.triplegeo.osm.OSMRecord;
 
 /**
@@ -44,7 +44,9 @@ import eu.slipo.athenarc.triplegeo.osm.OSMRecord;
 
 /* DEVELOPMENT HISTORY
  * Created by: Kostas Patroumpas, 16/2/2013
- * Last modified: 25/10/2018
+ * Modified: 18/10/2026; parsing of records copied in binary format from a PostGIS database
+ * Modified: 18/10/2026; records from a DBMS parsed from a RowSource, either over a ResultSet or copied in binary format
+ * Last modified: 18/10/2026
  */
 public interface Converter {  
     
@@ -61,15 +63,15 @@ public interface Converter {
 
 	
 	/**
-	 * Parses each record from a ResultSet and creates the resulting triples (including geometric and non-spatial attributes).
+	 * Parses each record retrieved from a DBMS and creates the resulting triples (including geometric and non-spatial attributes).
 	 * @param myAssistant  Instantiation of Assistant class to perform auxiliary operations (geometry transformations, auto-generation of UUIDs, etc.)
-	 * @param rs  ResultSet containing spatial features retrieved from a DBMS.
+	 * @param rows  Source of spatial features retrieved from a DBMS, either via a ResultSet or copied in binary format from PostGIS; closed once all records are parsed.
 	 * @param classific  Instantiation of the classification scheme that assigns categories to input features.
 	 * @param reproject  CRS transformation parameters to be used in reprojecting a geometry to a target SRID (EPSG code).
 	 * @param targetSRID  Spatial reference system (EPSG code) of geometries in the output RDF triples.
 	 * @param outputFile  Path to the output file that collects RDF triples.
 	 */
-	public void parse(Assistant myAssistant, ResultSet rs, Classification classific, MathTransform reproject, int targetSRID, String outputFile);
+	public void parse(Assistant myAssistant, RowSource rows, Classification classific, MathTransform reproject, int targetSRID, String outputFile);
 
 
 	/**
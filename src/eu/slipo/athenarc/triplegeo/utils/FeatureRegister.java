@@ -33,7 +33,8 @@ import java.util.Map;
  * Modified: 24/1/2018, added export of basic attributes for SLIPO Registry
  * Modified: 12/2/2018, added on-the-fly calculation of lon/lat coordinates for SLIPO Registry
  * Modified: 3/7/2018; replaced any appearance of the delimiter character in string values
- * Last modified: 27/7/2018
+ * Modified: 18/10/2026; lon/lat coordinates obtained from the geometry context of the feature, without parsing its WKT again
+ * Last modified: 18/10/2026
  */
 
 public class FeatureRegister {
@@ -102,6 +103,18 @@ public class FeatureRegister {
 	   */
 	  public void createTuple(String uri, Map<String,String> row, String wkt, int targetSRID) {
 
+		  createTuple(uri, row, (wkt != null) ? new GeometryContext(myAssistant, null, wkt, targetSRID) : null);
+	  }
+	  
+	  
+	  /**
+	   * Creates a record of attributes (as a .CSV record) for a feature to be registered in the SLIPO Registry.
+	   * @param uri  The URI assigned to the feature
+	   * @param row  Attribute values for each thematic (non-spatial) attribute
+	   * @param geom  The geometry of the feature, possibly with values already derived from it; null, if the feature has no geometry
+	   */
+	  public void createTuple(String uri, Map<String,String> row, GeometryContext geom) {
+
 		try {
 			rTuple = null;
 			double coords[] = null;
@@ -114,9 +127,9 @@ public class FeatureRegister {
   	        }
 
   	        //Include lon/lat coordinates at WGS84 even if a geometry WKT is georeferenced in another SRID
-  	        if (wkt != null) 
+  	        if (geom != null) 
   	        { 
-  	        	coords = myAssistant.getLonLatCoords(wkt, targetSRID);
+  	        	coords = myAssistant.getLonLatCoords(geom);
 	  	        if (coords != null)
 	  	        	rTuple += Constants.REGISTRY_CSV_DELIMITER + coords[0] + Constants.REGISTRY_CSV_DELIMITER + coords[1];
 	  	        else
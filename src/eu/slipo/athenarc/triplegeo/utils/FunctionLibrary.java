@@ -0,0 +1,36 @@
+/*
+ * @(#) FunctionLibrary.java 	 version 1.6   18/10/2026
+ *
+ * Copyright (C) 2013-2018 Information Systems Management Institute, Athena R.C., Greece.
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.slipo.athenarc.triplegeo.utils;
+
+/**
+ * Marker interface for user-supplied libraries of built-in functions that may be invoked in mappings (e.g., for generating URIs or values of extra attributes).
+ * Implementations are discovered through the standard ServiceLoader mechanism, i.e., they must be listed in a file
+ * META-INF/services/eu.slipo.athenarc.triplegeo.utils.FunctionLibrary included in the classpath and provide a public no-argument constructor.
+ * All public methods of such a class become available by name to the mappings, unless a built-in function with the same name and arguments already exists.
+ * @author agent
+ * @version 1.6
+ */
+
+/* DEVELOPMENT HISTORY
+ * Created by: agent, 18/10/2026
+ * Last modified: 18/10/2026
+ */
+public interface FunctionLibrary {
+
+}
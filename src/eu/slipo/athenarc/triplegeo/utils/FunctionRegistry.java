@@ -0,0 +1,196 @@
+/*
+ * @(#) FunctionRegistry.java 	 version 1.6   18/10/2026
+ *
+ * Copyright (C) 2013-2018 Information Systems Management Institute, Athena R.C., Greece.
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.slipo.athenarc.triplegeo.utils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.ServiceLoader;
+
+/**
+ * Registry of built-in functions that may be invoked in mappings (e.g., for generating URIs, language tags, or values of extra attributes).
+ * Each function is resolved once by its name and the types of its arguments, typically when the mapping is loaded, and is bound to a method handle.
+ * Functions are looked up among the public methods of the Assistant class, and then among those of any user-supplied FunctionLibrary registered through ServiceLoader.
+ * @author agent
+ * @version 1.6
+ */
+
+/* DEVELOPMENT HISTORY
+ * Created by: agent, 18/10/2026
+ * Last modified: 18/10/2026
+ */
+public final class FunctionRegistry {
+
+	private static final MethodType INVOKER = MethodType.methodType(Object.class, Assistant.class, Object[].class);   //Uniform signature of all resolved functions
+	private static List<FunctionLibrary> libraries = null;         //User-supplied libraries of functions, loaded upon first resolution
+
+	/**
+	 * A built-in function bound to the method that implements it.
+	 */
+	public static final class BuiltInFunction {
+
+		private final String name;              //Name of the function
+		private final MethodHandle handle;      //Invokes the method with an Assistant (ignored, if not needed) and an array of arguments
+
+		private BuiltInFunction(String name, MethodHandle handle) {
+			this.name = name;
+			this.handle = handle;
+		}
+
+		/**
+		 * Provides the name of this function.
+		 * @return  The function name.
+		 */
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * Invokes this function.
+		 * @param myAssistant  Instance of Assistant on which built-in functions of that class are invoked.
+		 * @param args  The arguments of the function, of the types declared when it was resolved.
+		 * @return  The result of the function; null, if its invocation failed.
+		 */
+		public Object apply(Assistant myAssistant, Object... args) {
+
+			try {
+				return (Object) handle.invokeExact(myAssistant, args);
+			} catch (Error e) {
+				throw e;
+			} catch (Throwable e) {
+				ExceptionHandler.warn((e instanceof Exception) ? (Exception) e : new Exception(e), "Invocation of built-in function " + name + " failed.");
+			}
+			return null;
+		}
+	}
+
+
+	private FunctionRegistry() {
+
+	}
+
+
+	/**
+	 * Resolves a built-in function by its name and the types of its arguments. Execution is terminated if no such function is available.
+	 * @param name  The name of the function (e.g., getUUID).
+	 * @param argTypes  The classes of the arguments that will be given to this function on invocation.
+	 * @return  The resolved function.
+	 */
+	public static BuiltInFunction resolve(String name, Class<?>... argTypes) {
+
+		try {
+			//Built-in functions provided by TripleGeo take precedence
+			MethodHandle handle = bind(Assistant.class, null, name, argTypes);
+
+			//Otherwise, look for this function in user-supplied libraries
+			if (handle == null)
+			{
+				for (FunctionLibrary lib: getLibraries())
+				{
+					handle = bind(lib.getClass(), lib, name, argTypes);
+					if (handle != null)
+						break;
+				}
+			}
+
+			if (handle == null)
+				throw new NoSuchMethodException(name + Arrays.toString(argTypes));
+
+			return new BuiltInFunction(name, handle);
+		} catch (Exception e) {
+			ExceptionHandler.abort(e, "Built-in function " + name + " with " + argTypes.length + " argument(s) specified in the mapping is not available.");
+		}
+		return null;
+	}
+
+
+	/**
+	 * Loads all user-supplied libraries of functions registered through ServiceLoader.
+	 * @return  A list of libraries, possibly empty.
+	 */
+	private static synchronized List<FunctionLibrary> getLibraries() {
+
+		if (libraries == null)
+		{
+			libraries = new ArrayList<FunctionLibrary>();
+			for (FunctionLibrary lib: ServiceLoader.load(FunctionLibrary.class))
+				libraries.add(lib);
+		}
+		return libraries;
+	}
+
+
+	/**
+	 * Binds a public method of a class with the given name and compatible parameters to a method handle of uniform signature.
+	 * @param cls  The class declaring the method.
+	 * @param target  The instance on which the method will be invoked; null, if this is an Assistant, which is given on each invocation instead.
+	 * @param name  The name of the method.
+	 * @param argTypes  The classes of the arguments that will be given to this method on invocation.
+	 * @return  A method handle accepting an Assistant and an array with the arguments; null, if no such method exists.
+	 * @throws Exception
+	 */
+	private static MethodHandle bind(Class<?> cls, Object target, String name, Class<?>[] argTypes) throws Exception {
+
+		Method found = null;
+		for (Method m: cls.getMethods())
+		{
+			if ((m.getDeclaringClass() == Object.class) || !m.getName().equals(name) || !accepts(m.getParameterTypes(), argTypes))
+				continue;
+			if (found != null)
+				throw new IllegalArgumentException("Ambiguous built-in function " + name + Arrays.toString(argTypes) + " in " + cls.getName());
+			found = m;
+		}
+		if (found == null)
+			return null;
+
+		MethodHandle handle = MethodHandles.publicLookup().unreflect(found);
+		if (!Modifier.isStatic(found.getModifiers()))
+		{
+			if (target == null)            //Invoked on the given Assistant
+				return handle.asSpreader(Object[].class, argTypes.length).asType(INVOKER);
+			handle = handle.bindTo(target);
+		}
+		return MethodHandles.dropArguments(handle, 0, Assistant.class).asSpreader(Object[].class, argTypes.length).asType(INVOKER);
+	}
+
+
+	/**
+	 * Checks whether arguments of the given types can be passed to a method with the given parameters (including unboxing of primitive types).
+	 * @param params  The classes of method parameters.
+	 * @param argTypes  The classes of the arguments.
+	 * @return  True, if the method accepts such arguments; otherwise, false.
+	 */
+	private static boolean accepts(Class<?>[] params, Class<?>[] argTypes) {
+
+		if (params.length != argTypes.length)
+			return false;
+		for (int i = 0; i < params.length; i++)
+		{
+			if (!MethodType.methodType(params[i]).wrap().returnType().isAssignableFrom(argTypes[i]))
+				return false;
+		}
+		return true;
+	}
+
+}
@@ -0,0 +1,268 @@
+/*
+ * @(#) GeodesicCalculator.java 	 version 1.6   18/10/2026
+ *
+ * Copyright (C) 2013-2018 Information Systems Management Institute, Athena R.C., Greece.
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.slipo.athenarc.triplegeo.utils;
+
+import com.vividsolutions.jts.geom.CoordinateSequence;
+import com.vividsolutions.jts.geom.Geometry;
+import com.vividsolutions.jts.geom.GeometryCollection;
+import com.vividsolutions.jts.geom.LineString;
+import com.vividsolutions.jts.geom.Polygon;
+
+/**
+ * Calculates area and length of geometries directly from their lon/lat coordinates on the WGS84 ellipsoid, in a single pass over their coordinates.
+ * This avoids projecting each geometry to a flat Cartesian plane (auto UTM projection around its centroid), as done by Assistant.getArea() and Assistant.getLength().
+ * <p>
+ * Area: Vertices are mapped to the authalic (equal-area) sphere through their authalic latitude, and the area is obtained from the spherical excess of each edge.
+ * Since this mapping preserves areas exactly, the only difference from the ellipsoidal area is that edges are taken as great circles on that sphere instead of geodesics;
+ * the relative error is about 0.02% for features spanning 100 km and decreases quadratically with their extent (i.e., below 0.0002% for 10 km).
+ * Rings enclosing a pole are not supported.
+ * </p>
+ * <p>
+ * Length: Each segment is measured as a geodesic on the ellipsoid with Vincenty's inverse formula (accuracy of 0.5 mm per segment).
+ * For nearly antipodal points where this formula fails to converge, the great circle distance on the mean sphere is used instead.
+ * </p>
+ * <p>
+ * Compared to the auto UTM projection (scale factor 0.9996 on its central meridian, increasing up to 1.001 at the edges of a zone near the equator),
+ * lengths calculated here differ by -0.04% up to +0.1% and areas by -0.08% up to +0.2% for features lying within a single UTM zone;
+ * for larger features, the error of the projection (and thus the difference) grows further.
+ * </p>
+ * @author agent
+ * @version 1.6
+ */
+
+/* DEVELOPMENT HISTORY
+ * Created by: agent, 18/10/2026
+ * Last modified: 18/10/2026
+ */
+public final class GeodesicCalculator {
+
+	private static final double A = 6378137.0;                      //Semi-major axis of WGS84 ellipsoid (meters)
+	private static final double F = 1 / 298.257223563;              //Flattening of WGS84 ellipsoid
+	private static final double B = A * (1 - F);                    //Semi-minor axis of WGS84 ellipsoid (meters)
+	private static final double E2 = F * (2 - F);                   //First eccentricity squared
+	private static final double E = Math.sqrt(E2);                  //First eccentricity
+	private static final double QP = q(1.0);                        //Value of q at the pole
+	private static final double RQ2 = A * A * QP / 2;               //Squared radius of the authalic sphere
+	private static final double MEAN_RADIUS = (2 * A + B) / 3;      //Mean radius of the ellipsoid (meters)
+	private static final int MAX_ITERATIONS = 20;                   //Iterations before Vincenty's formula is deemed not to converge
+
+
+	private GeodesicCalculator() {
+
+	}
+
+
+	/**
+	 * Calculates the area of a (multi)polygon with lon/lat coordinates in WGS84.
+	 * @param g  The geometry in WGS84.
+	 * @return  The area in square meters; zero, if this is not a polygon geometry.
+	 */
+	public static double getArea(Geometry g) {
+
+		if (g instanceof Polygon)
+		{
+			Polygon p = (Polygon) g;
+			double area = ringArea(p.getExteriorRing().getCoordinateSequence());
+			for (int i = 0; i < p.getNumInteriorRing(); i++)
+				area -= ringArea(p.getInteriorRingN(i).getCoordinateSequence());
+			return area;
+		}
+
+		double area = 0.0;
+		if (g instanceof GeometryCollection)        //Multi-geometries and geometry collections
+		{
+			for (int i = 0; i < g.getNumGeometries(); i++)
+				area += getArea(g.getGeometryN(i));
+		}
+		return area;
+	}
+
+
+	/**
+	 * Calculates the length of a (multi)linestring or the perimeter of a (multi)polygon with lon/lat coordinates in WGS84.
+	 * @param g  The geometry in WGS84.
+	 * @return  The length in meters; zero, if this is a point geometry.
+	 */
+	public static double getLength(Geometry g) {
+
+		if (g instanceof LineString)                //Including linear rings
+			return lineLength(((LineString) g).getCoordinateSequence());
+
+		if (g instanceof Polygon)
+		{
+			Polygon p = (Polygon) g;
+			double length = lineLength(p.getExteriorRing().getCoordinateSequence());
+			for (int i = 0; i < p.getNumInteriorRing(); i++)
+				length += lineLength(p.getInteriorRingN(i).getCoordinateSequence());
+			return length;
+		}
+
+		double length = 0.0;
+		if (g instanceof GeometryCollection)        //Multi-geometries and geometry collections
+		{
+			for (int i = 0; i < g.getNumGeometries(); i++)
+				length += getLength(g.getGeometryN(i));
+		}
+		return length;
+	}
+
+
+	/**
+	 * Calculates the area enclosed by a ring from the spherical excess of its edges on the authalic sphere.
+	 * @param seq  The coordinates of a closed ring in WGS84.
+	 * @return  The area in square meters (always positive, regardless of ring orientation).
+	 */
+	private static double ringArea(CoordinateSequence seq) {
+
+		int n = seq.size();
+		if (n < 4)
+			return 0.0;
+
+		double excess = 0.0;
+		double lon1 = Math.toRadians(seq.getX(0));
+		double t1 = halfAngleTan(seq.getY(0));
+		for (int i = 1; i < n; i++)
+		{
+			double lon2 = Math.toRadians(seq.getX(i));
+			double t2 = halfAngleTan(seq.getY(i));
+			double dLon = lon2 - lon1;
+			if (dLon > Math.PI)                     //Edges crossing the antimeridian
+				dLon -= 2 * Math.PI;
+			else if (dLon < -Math.PI)
+				dLon += 2 * Math.PI;
+			//Signed spherical excess of the quadrilateral between this edge and the equator
+			excess += 2 * Math.atan(Math.tan(dLon / 2) * (t1 + t2) / (1 + t1 * t2));
+			lon1 = lon2;
+			t1 = t2;
+		}
+		return Math.abs(excess) * RQ2;
+	}
+
+
+	/**
+	 * Provides the tangent of half the authalic latitude corresponding to a geodetic latitude.
+	 * @param lat  Geodetic latitude in degrees.
+	 * @return  The tangent of half the authalic latitude.
+	 */
+	private static double halfAngleTan(double lat) {
+
+		double sinBeta = q(Math.sin(Math.toRadians(lat))) / QP;
+		if (sinBeta > 1.0)
+			sinBeta = 1.0;
+		else if (sinBeta < -1.0)
+			sinBeta = -1.0;
+		return sinBeta / (1 + Math.sqrt(1 - sinBeta * sinBeta));        //Equivalent to tan(asin(sinBeta)/2)
+	}
+
+
+	/**
+	 * Auxiliary function for the authalic latitude.
+	 * @param sinLat  The sine of the geodetic latitude.
+	 * @return  The value of q for that latitude.
+	 */
+	private static double q(double sinLat) {
+
+		double esin = E * sinLat;
+		return (1 - E2) * (sinLat / (1 - esin * esin) + Math.log((1 + esin) / (1 - esin)) / (2 * E));
+	}
+
+
+	/**
+	 * Calculates the length of a sequence of geodesic segments.
+	 * @param seq  The coordinates of a linestring in WGS84.
+	 * @return  The length in meters.
+	 */
+	private static double lineLength(CoordinateSequence seq) {
+
+		double length = 0.0;
+		for (int i = 1; i < seq.size(); i++)
+			length += distance(seq.getX(i - 1), seq.getY(i - 1), seq.getX(i), seq.getY(i));
+		return length;
+	}
+
+
+	/**
+	 * Calculates the geodesic distance between two points on the WGS84 ellipsoid using Vincenty's inverse formula.
+	 * @param lon1  Longitude of the first point in degrees.
+	 * @param lat1  Latitude of the first point in degrees.
+	 * @param lon2  Longitude of the second point in degrees.
+	 * @param lat2  Latitude of the second point in degrees.
+	 * @return  The distance in meters.
+	 */
+	public static double distance(double lon1, double lat1, double lon2, double lat2) {
+
+		if ((lon1 == lon2) && (lat1 == lat2))
+			return 0.0;
+
+		double L = Math.toRadians(lon2 - lon1);
+		double U1 = Math.atan((1 - F) * Math.tan(Math.toRadians(lat1)));
+		double U2 = Math.atan((1 - F) * Math.tan(Math.toRadians(lat2)));
+		double sinU1 = Math.sin(U1), cosU1 = Math.cos(U1);
+		double sinU2 = Math.sin(U2), cosU2 = Math.cos(U2);
+
+		double lambda = L, lambdaPrev;
+		double sinSigma, cosSigma, sigma, cosSqAlpha, cos2SigmaM;
+		int iter = 0;
+		do {
+			double sinLambda = Math.sin(lambda), cosLambda = Math.cos(lambda);
+			double x = cosU2 * sinLambda;
+			double y = cosU1 * sinU2 - sinU1 * cosU2 * cosLambda;
+			sinSigma = Math.sqrt(x * x + y * y);
+			if (sinSigma == 0.0)                    //Coincident points
+				return 0.0;
+			cosSigma = sinU1 * sinU2 + cosU1 * cosU2 * cosLambda;
+			sigma = Math.atan2(sinSigma, cosSigma);
+			double sinAlpha = cosU1 * cosU2 * sinLambda / sinSigma;
+			cosSqAlpha = 1 - sinAlpha * sinAlpha;
+			cos2SigmaM = (cosSqAlpha != 0.0) ? cosSigma - 2 * sinU1 * sinU2 / cosSqAlpha : 0.0;     //Equatorial line
+			double C = F / 16 * cosSqAlpha * (4 + F * (4 - 3 * cosSqAlpha));
+			lambdaPrev = lambda;
+			lambda = L + (1 - C) * F * sinAlpha * (sigma + C * sinSigma * (cos2SigmaM + C * cosSigma * (-1 + 2 * cos2SigmaM * cos2SigmaM)));
+		} while ((Math.abs(lambda - lambdaPrev) > 1e-12) && (++iter < MAX_ITERATIONS));
+
+		if (iter >= MAX_ITERATIONS)                 //Nearly antipodal points
+			return sphericalDistance(lon1, lat1, lon2, lat2);
+
+		double uSq = cosSqAlpha * (A * A - B * B) / (B * B);
+		double coefA = 1 + uSq / 16384 * (4096 + uSq * (-768 + uSq * (320 - 175 * uSq)));
+		double coefB = uSq / 1024 * (256 + uSq * (-128 + uSq * (74 - 47 * uSq)));
+		double deltaSigma = coefB * sinSigma * (cos2SigmaM + coefB / 4 * (cosSigma * (-1 + 2 * cos2SigmaM * cos2SigmaM)
+				- coefB / 6 * cos2SigmaM * (-3 + 4 * sinSigma * sinSigma) * (-3 + 4 * cos2SigmaM * cos2SigmaM)));
+
+		return B * coefA * (sigma - deltaSigma);
+	}
+
+
+	/**
+	 * Calculates the great circle distance between two points on the mean sphere (haversine formula).
+	 * @param lon1  Longitude of the first point in degrees.
+	 * @param lat1  Latitude of the first point in degrees.
+	 * @param lon2  Longitude of the second point in degrees.
+	 * @param lat2  Latitude of the second point in degrees.
+	 * @return  The distance in meters.
+	 */
+	private static double sphericalDistance(double lon1, double lat1, double lon2, double lat2) {
+
+		double sinDLat = Math.sin(Math.toRadians(lat2 - lat1) / 2);
+		double sinDLon = Math.sin(Math.toRadians(lon2 - lon1) / 2);
+		double h = sinDLat * sinDLat + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * sinDLon * sinDLon;
+		return 2 * MEAN_RADIUS * Math.asin(Math.min(1.0, Math.sqrt(h)));
+	}
+
+}
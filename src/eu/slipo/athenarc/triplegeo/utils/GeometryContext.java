@@ -0,0 +1,196 @@
+/*
+ * @(#) GeometryContext.java 	 version 1.6   18/10/2026
+ *
+ * Copyright (C) 2013-2018 Information Systems Management Institute, Athena R.C., Greece.
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.slipo.athenarc.triplegeo.utils;
+
+import org.opengis.referencing.operation.MathTransform;
+
+import com.vividsolutions.jts.geom.Geometry;
+import com.vividsolutions.jts.geom.Point;
+
+/**
+ * Carries the geometry of a single feature throughout its transformation, so that its Well-Known Text is parsed at most once.
+ * Values derived from the geometry (reprojection into WGS84, centroid, area, length) are calculated upon first request and then reused.
+ * Not thread-safe; each instance concerns a single record handled by a single thread.
+ * @author agent
+ * @version 1.6
+ */
+
+/* DEVELOPMENT HISTORY
+ * Created by: agent, 18/10/2026
+ * Last modified: 18/10/2026
+ */
+public class GeometryContext {
+
+	private final Assistant myAssistant;        //Performs geometry transformations
+	private final int srid;                     //EPSG code of the CRS of the geometry
+
+	private Geometry geometry;                  //Geometry of the feature; parsed from its WKT upon request, if not given
+	private String wkt;                         //Well-Known Text of the geometry; obtained from the geometry upon request, if not given
+	private Geometry geomWGS84 = null;          //Geometry reprojected into WGS84
+	private Point centroid = null;              //Centroid of the geometry in WGS84
+	private Geometry geomFlat = null;           //Geometry projected to a flat Cartesian plane
+	private boolean flattened = false;          //Whether projection to a flat Cartesian plane has been attempted
+
+	/**
+	 * Constructor of the context of a geometry given either as an object or as Well-Known Text (or both).
+	 * @param myAssistant  Instantiation of Assistant class to perform geometry transformations.
+	 * @param geometry  Geometry of the feature; may be null, if its WKT is given.
+	 * @param wkt  Well-Known Text of the geometry; may be null, if the geometry is given.
+	 * @param srid  EPSG code of the coordinate reference system (CRS) of the geometry.
+	 */
+	public GeometryContext(Assistant myAssistant, Geometry geometry, String wkt, int srid) {
+
+		this.myAssistant = myAssistant;
+		this.geometry = geometry;
+		this.wkt = wkt;
+		this.srid = srid;
+	}
+
+
+	/**
+	 * Reprojects the geometry into another CRS. Any values derived from the original geometry are discarded.
+	 * @param transform  Parameters for the transformation, including source and target CRS.
+	 */
+	public void transform(MathTransform transform) {
+
+		geometry = myAssistant.geomTransform(getGeometry(), transform);
+		wkt = null;
+		geomWGS84 = null;
+		centroid = null;
+		geomFlat = null;
+		flattened = false;
+	}
+
+
+	/**
+	 * Provides the EPSG code of the CRS of the geometry.
+	 * @return  The EPSG code.
+	 */
+	public int getSRID() {
+		return srid;
+	}
+
+
+	/**
+	 * Provides the geometry, parsing its Well-Known Text if necessary.
+	 * @return  The geometry.
+	 */
+	public Geometry getGeometry() {
+
+		if ((geometry == null) && (wkt != null))
+			geometry = Assistant.WKT2Geometry(wkt);
+		return geometry;
+	}
+
+
+	/**
+	 * Provides the Well-Known Text of the geometry.
+	 * @return  The WKT representation.
+	 */
+	public String getWKT() {
+
+		if ((wkt == null) && (geometry != null))
+			wkt = geometry.toText();
+		return wkt;
+	}
+
+
+	/**
+	 * Provides the geometry reprojected into the WGS84 (lon/lat) coordinate reference system.
+	 * @return  The geometry in WGS84.
+	 */
+	public Geometry getWGS84Geometry() {
+
+		if (geomWGS84 == null)
+			geomWGS84 = myAssistant.geomTransformWGS84(getGeometry(), srid);
+		return geomWGS84;
+	}
+
+
+	/**
+	 * Provides the centroid of the geometry in WGS84.
+	 * @return  The centroid in WGS84; null, if the geometry is not available.
+	 */
+	public Point getCentroid() {
+
+		if ((centroid == null) && (getWGS84Geometry() != null))
+			centroid = geomWGS84.getCentroid();
+		return centroid;
+	}
+
+
+	/**
+	 * Provides the area of a polygon geometry, calculated after projecting it to a flat Cartesian plane.
+	 * @return  The area in square meters; zero, if the geometry cannot be projected.
+	 */
+	public double getArea() {
+
+		Geometry g = getFlatGeometry();
+		return (g != null) ? g.getArea() : 0.0;
+	}
+
+
+	/**
+	 * Provides the length of a linestring or the perimeter of a polygon geometry, calculated after projecting it to a flat Cartesian plane.
+	 * @return  The length in meters; zero, if the geometry cannot be projected.
+	 */
+	public double getLength() {
+
+		Geometry g = getFlatGeometry();
+		return (g != null) ? g.getLength() : 0.0;
+	}
+
+
+	/**
+	 * Provides the area of a polygon geometry, calculated on the WGS84 ellipsoid directly from its lon/lat coordinates.
+	 * @return  The area in square meters; zero, if the geometry is not available.
+	 */
+	public double getGeodesicArea() {
+
+		Geometry g = getWGS84Geometry();
+		return (g != null) ? GeodesicCalculator.getArea(g) : 0.0;
+	}
+
+
+	/**
+	 * Provides the length of a linestring or the perimeter of a polygon geometry, calculated on the WGS84 ellipsoid directly from its lon/lat coordinates.
+	 * @return  The length in meters; zero, if the geometry is not available.
+	 */
+	public double getGeodesicLength() {
+
+		Geometry g = getWGS84Geometry();
+		return (g != null) ? GeodesicCalculator.getLength(g) : 0.0;
+	}
+
+
+	/**
+	 * Provides the geometry projected to a flat Cartesian plane.
+	 * @return  The projected geometry; null, if projection failed.
+	 */
+	private Geometry getFlatGeometry() {
+
+		if (!flattened)
+		{
+			geomFlat = myAssistant.geomFlatTransform(getGeometry(), srid);
+			flattened = true;
+		}
+		return geomFlat;
+	}
+
+}
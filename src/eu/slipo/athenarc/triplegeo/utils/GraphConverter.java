@@ -24,7 +24,6 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.nio.charset.StandardCharsets;
-import java.sql.ResultSet;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -48,6 +47,7 @@ import org.openrdf.rio.RDFFormat;
 import com.vividsolutions.jts.geom.Geometry;
 
 import be.ugent.mmlab.rml.model.dataset.RMLDataset;
+import eu.slipo.athenarc.triplegeo.db.RowSource;
 import eu.slipo.athenarc.triplegeo.osm.OSMRecord;
 
 
@@ -67,7 +67,11 @@ import eu.slipo.athenarc.triplegeo.osm.OSMRecord;
  * Modified: 14/2/2018; integrated handling of OSM records
  * Modified: 9/5/2018; integrated handling of GPX data 
  * Modified: 31/5/2018; integrated handling of classifications for OSM data
- * Last modified: 25/10/2018
+ * Modified: 18/10/2026; geometries handed over to the generator of triples in a GeometryContext, avoiding repeated parsing of their WKT
+ * Modified: 18/10/2026; geometries retrieved from a DBMS in Well-Known Binary are decoded directly into geometry objects
+ * Modified: 18/10/2026; parsing of records copied in binary format from a PostGIS database, without any ResultSet
+ * Modified: 18/10/2026; records from a DBMS parsed in a single loop over a RowSource, either over a ResultSet or copied in binary format
+ * Last modified: 18/10/2026
  */
 public class GraphConverter implements Converter {
 
@@ -200,13 +204,14 @@ public class GraphConverter implements Converter {
 	        
 	        //Get WKT representation of the transformed geometry
 	      	wkt = myAssistant.geometry2WKT(geometry, currentConfig.targetGeoOntology.trim());
+	      	GeometryContext geom = new GeometryContext(myAssistant, geometry, wkt, targetSRID);     //Geometry is handed over, so its WKT is never parsed
 	        
 	      	//Pass this tuple for conversion to RDF triples  
-	      	String uri = myGenerator.transform(row, wkt, targetSRID, classific);
+	      	String uri = myGenerator.transform(row, geom, classific);
 
 	        //Get a record with basic attribute that will be used for the SLIPO Registry
 			if (myRegister != null)
-				myRegister.createTuple(uri, row, wkt, targetSRID);
+				myRegister.createTuple(uri, row, geom);
 			
 	      	//Collect RDF triples resulting from this tuple into the graph
 	      	collectTriples();
@@ -227,64 +232,52 @@ public class GraphConverter implements Converter {
 			
 
 	/**
-	 * Parses each record from a ResultSet and creates the resulting triples on a disk-based model (including geometric and non-spatial attributes).
+	 * Parses each record retrieved from a DBMS and creates the resulting triples on a disk-based model (including geometric and non-spatial attributes).
 	 * Applicable in GRAPH transformation mode.
-	 * Input provided via a ResultSet. This method is used for input from a DMBS.
+	 * Input provided via a RowSource, either over a ResultSet or over records copied in binary format from PostGIS (if so specified in the configuration). This method is used for input from a DMBS.
 	 * @param myAssistant  Instantiation of Assistant class to perform auxiliary operations (geometry transformations, auto-generation of UUIDs, etc.)
-	 * @param rs  ResultSet containing spatial features retrieved from a DBMS.
+	 * @param rows  Source of spatial features retrieved from a DBMS; closed once all records are parsed.
 	 * @param classific  Instantiation of the classification scheme that assigns categories to input features.
 	 * @param reproject  CRS transformation parameters to be used in reprojecting a geometry to a target SRID (EPSG code).
 	 * @param targetSRID  Spatial reference system (EPSG code) of geometries in the output RDF triples.
 	 * @param outputFile  Path to the output file that collects RDF triples.
 	 */	 
-	public void parse(Assistant myAssistant, ResultSet rs, Classification classific, MathTransform reproject, int targetSRID, String outputFile)
+	public void parse(Assistant myAssistant, RowSource rows, Classification classific, MathTransform reproject, int targetSRID, String outputFile)
 	{ 
 		  try 
 		  {
-			  //Identify the names of all columns
-			  List<String> columns = new ArrayList<String>(rs.getMetaData().getColumnCount());
-			  for (int i = 1; i <= rs.getMetaData().getColumnCount(); i++)
-				  if (!(rs.getMetaData().getColumnName(i).equalsIgnoreCase(currentConfig.attrGeometry)) && (!rs.getMetaData().getColumnName(i).equalsIgnoreCase("WktGeometry")))
-					  columns.add(rs.getMetaData().getColumnName(i));
-			  
 			  //Iterate through all records
-		      while (rs.next()) 
+		      while (rows.next()) 
 		      {					  
-				  //Convert resultset into a temporary map for conversion of all non-spatial attributes
-				  Map<String,String> row = new HashMap<String, String>(columns.size());
-				  for (String col : columns) {  
-					  row.put(col, rs.getString(col));
-				  }
+				  //Collect all non-spatial attributes into a temporary map for conversion
+				  Map<String,String> row = rows.getRow();
 				  
 				  //CAUTION! On-the-fly generation of a UUID for this feature, giving as seed the data source and the identifier of that feature
 				  //String uuid = myAssistant.getUUID(currentConfig.featureSource, row.get(currentConfig.attrKey)).toString();
 					
 		          String wkt = null;
+		          Geometry geometry = null;
 		          //Handle geometry attribute, if specified
 		          if ((currentConfig.attrGeometry == null) && (currentConfig.attrX != null) && (currentConfig.attrY != null))       
 		          {    //In case no single geometry attribute with WKT values is specified, compose WKT from a pair of coordinates
-		        	  String x = rs.getString(currentConfig.attrX);    //X-ordinate or longitude
-		        	  String y = rs.getString(currentConfig.attrY);    //Y-ordinate or latitude
+		        	  String x = rows.getString(currentConfig.attrX);    //X-ordinate or longitude
+		        	  String y = rows.getString(currentConfig.attrY);    //Y-ordinate or latitude
 		        	  if ((x != null) && (y != null))
 		        		  wkt = "POINT (" + x + " " + y + ")";
 		          }
-		          else if (currentConfig.attrGeometry != null)
-		          {
-			          if (myAssistant.pgdbDecoder != null)                //Geometry blob is read from a personal geodatabase, so its WKT must be created    	      	
-			  			wkt = myAssistant.blob2WKT(rs.getBlob(currentConfig.attrGeometry), reproject);    //Also reprojected, if necessary
-			          else
-			          {
-			          	wkt = rs.getString("WktGeometry");
-	//			        myAssistant.WKT2Geometry(wkt);                  //This is done only for updating the MBR of all geometries
-			          }
+		          else
+		          {    //Geometry either decoded without any WKT (and already reprojected, if necessary) or retrieved as WKT
+		        	  geometry = rows.getGeometry();
+		        	  wkt = rows.getWKT();
 		          }
 		          
-		          //Pass this tuple for conversion to RDF triples 
-		          String uri = myGenerator.transform(row, wkt, targetSRID, classific);
+		          //Pass this tuple for conversion to RDF triples; its geometry will be parsed at most once
+		          GeometryContext geom = ((geometry != null) || (wkt != null)) ? new GeometryContext(myAssistant, geometry, wkt, targetSRID) : null;
+		          String uri = myGenerator.transform(row, geom, classific);
 		        
 		          //Get a record with basic attribute that will be used for the SLIPO Registry
 		          if (myRegister != null)
-		        	  myRegister.createTuple(uri, row, wkt, targetSRID);
+		        	  myRegister.createTuple(uri, row, geom);
 		          
 		          //Collect RDF triples resulting from this tuple into the graph	
 		          collectTriples();
@@ -295,13 +288,15 @@ public class GraphConverter implements Converter {
 		  catch(Exception e) { 
 				ExceptionHandler.warn(e, "An error occurred during transformation of an input record.");
 		  }
+		  finally {
+			  rows.close();
+		  }
 	
 		  //Finally, store results collected in the disk-based RDF graph
 		  this.store(myAssistant, outputFile);  
 	}
 		  
 
-	
 	/**
 	 * Parses each record from a collection of CSV records and creates the resulting triples on a disk-based model (including geometric and non-spatial attributes).
 	 * Applicable in GRAPH transformation mode.
@@ -336,21 +331,21 @@ public class GraphConverter implements Converter {
 				else if (currentConfig.attrGeometry != null)
 					wkt = rs.get(currentConfig.attrGeometry);  //ASSUMPTION: Geometry values are given as WKT
 				
+				GeometryContext geom = null;
 		      	if (wkt != null)
 		      	{							
+		      		geom = new GeometryContext(myAssistant, null, wkt, targetSRID);
 					//CRS transformation
 			      	if (reproject != null)
-			      		wkt = myAssistant.wktTransform(wkt, reproject);     //Get transformed WKT representation
-//					else	
-//					    myAssistant.WKT2Geometry(wkt);                      //This is done only for updating the MBR of all geometries
+			      		geom.transform(reproject);          //The transformed geometry is retained, so its WKT will not be parsed again
 		      	}
 
 		      	//Pass this tuple for conversion to RDF triples 
-		      	String uri = myGenerator.transform(rs.toMap(), wkt, targetSRID, classific);
+		      	String uri = myGenerator.transform(rs.toMap(), geom, classific);
 		      
 		        //Get a record with basic attribute that will be used for the SLIPO Registry
 				if (myRegister != null)
-					myRegister.createTuple(uri, rs.toMap(), wkt, targetSRID);
+					myRegister.createTuple(uri, rs.toMap(), geom);
 				
 		      	//Collect RDF triples resulting from this tuple into the graph
 		      	collectTriples();
@@ -383,18 +378,13 @@ public class GraphConverter implements Converter {
 			//String uuid = myAssistant.getUUID(currentConfig.featureSource + rs.getID()).toString();
 			
   	        //Parse geometric representation
-			String wkt = null;
+			GeometryContext geom = null;
 			if ((rs.getGeometry() != null) && (!rs.getGeometry().isEmpty()))
 			{
-				wkt = rs.getGeometry().toText();       //Get WKT representation	
-				if (wkt != null)
-				{							
-					//CRS transformation
-			      	if (reproject != null)
-			      		wkt = myAssistant.wktTransform(wkt, reproject);     //Get transformed WKT representation
-//					else	
-//					    myAssistant.WKT2Geometry(wkt);                      //This is done only for updating the MBR of all geometries
-				}
+				geom = new GeometryContext(myAssistant, rs.getGeometry(), null, targetSRID);     //Geometry is handed over, so its WKT is never parsed
+				//CRS transformation
+				if (reproject != null)
+					geom.transform(reproject);
 			}
 			
 			//Tags to be processed as attribute values
@@ -418,11 +408,11 @@ public class GraphConverter implements Converter {
 	      	
 	      	//Process all available non-spatial attributes as specified in the collected (tag,value) pairs	
 	        //... including a classification hierarchy from the OSM tags used in filtering
-			String uri = myGenerator.transform(attrValues, wkt, targetSRID, classific);
+			String uri = myGenerator.transform(attrValues, geom, classific);
 
 			//Get a record with basic attribute that will be used for the SLIPO Registry
 			if (myRegister != null)
-				myRegister.createTuple(uri, attrValues, wkt, targetSRID);
+				myRegister.createTuple(uri, attrValues, geom);
 			
 	      	//Collect RDF triples resulting from this tuple into the graph
 	      	collectTriples();
@@ -453,14 +443,15 @@ public class GraphConverter implements Converter {
 			String uri;
 			
 			//Pass this tuple for conversion to RDF triples 
+			GeometryContext geom = (wkt != null) ? new GeometryContext(myAssistant, null, wkt, targetSRID) : null;
 			if (currentConfig.attrCategory == null)
-				uri = myGenerator.transform(attrValues, wkt, targetSRID, null);         //There no category specified for this feature,...
+				uri = myGenerator.transform(attrValues, geom, null);         //There no category specified for this feature,...
 			else
-				uri = myGenerator.transform(attrValues, wkt, targetSRID, classific);	//..., otherwise utilize the user-specified classification hierarchy		
+				uri = myGenerator.transform(attrValues, geom, classific);	//..., otherwise utilize the user-specified classification hierarchy		
  
 			//Get a record with basic attribute that will be used for the SLIPO Registry
 			if (myRegister != null)
-				myRegister.createTuple(uri, attrValues, wkt, targetSRID);
+				myRegister.createTuple(uri, attrValues, geom);
 			
 			//Collect RDF triples resulting from this tuple into the graph
 	      	collectTriples();
@@ -44,7 +44,8 @@ import org.yaml.snakeyaml.Yaml;
  * Modified: 30/4/2018; included specification for geometry-based, built-in functions
  * Modified: 11/5/2018; included specification for literals with language tags; built-in functions with arguments 
  * Modified: 9/10/2018; included specification for custom URIs
- * Last modified: 10/10/2018
+ * Modified: 18/10/2026; provided the list of multi-faceted attributes for resolving their built-in functions in advance
+ * Last modified: 18/10/2026
  */
 
 public class Mapping {
@@ -559,6 +560,15 @@ public class Mapping {
 		return this.extraThematicAttrs;
 	}
 	
+	/**
+	 * Provides a list with the names of all multi-faceted attributes, i.e., without the suffix following the wild char '%' in the specification.
+	 * @return  List of multi-faceted attributes.
+	 */
+	public List<String> getMultiFacetedAttributes() {
+		
+		return this.multiFacetedAttrs;
+	}
+	
 	/**
 	 * Provides a list with the names of all geometric attributes that will be generated on-the-fly during transformation.
 	 * @return  List of geometric attributes to be dynamically added to those originally defined in the dataset.
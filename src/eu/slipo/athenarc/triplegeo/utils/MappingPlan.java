@@ -0,0 +1,548 @@
+/*
+ * @(#) MappingPlan.java 	 version 1.6   18/10/2026
+ *
+ * Copyright (C) 2013-2018 Information Systems Management Institute, Athena R.C., Greece.
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.slipo.athenarc.triplegeo.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.jena.datatypes.RDFDatatype;
+import org.apache.jena.vocabulary.RDF;
+
+import eu.slipo.athenarc.triplegeo.utils.FunctionRegistry.BuiltInFunction;
+import eu.slipo.athenarc.triplegeo.utils.Mapping.mapProperties;
+
+/**
+ * Execution plan compiled from the user-specified mapping of thematic attributes (in a .YML file) to RDF properties.
+ * Each attribute is assigned an emitter with its predicates already expanded into full URIs and all constant suffixes precomputed,
+ * so that no mapping lookups or string building for constants take place per transformed record.
+ * A plan is compiled once per mapping file and is shared read-only among all generators of triples (i.e., across all threads).
+ * @author agent
+ * @version 1.6
+ */
+
+/* DEVELOPMENT HISTORY
+ * Created by: agent, 18/10/2026
+ * Last modified: 18/10/2026
+ */
+public class MappingPlan {
+
+	private static final Map<String, MappingPlan> plans = new HashMap<String, MappingPlan>();    //Plans already compiled per mapping file
+
+	private final Mapping mapping;                      //The user-specified mapping
+	private final Map<String, String> prefixes;         //Prefixes for namespaces employed in predicates
+	private final Configuration config;
+	private final Assistant myAssistant;                //Used in resolving languages of multi-faceted attributes
+	private final Map<String, Emitter> emitters;        //Emitters already resolved per attribute name
+	private final Map<String, Integer> parts;           //Index of each composite entity (e.g., address) that attributes may be part of
+	private final Map<String, BuiltInFunction> languageFunctions;    //Built-in functions inferring language tags per multi-faceted attribute
+	private final Emitter SKIP;                         //Denotes attributes that should not be transformed
+
+	private final BuiltIn uriFunction;                  //Built-in function that generates the URIs of features; null, if not specified
+	private final BuiltIn[] extraThematicAttrs;         //Built-in functions that generate values for extra thematic attributes
+	private final String areaAttr, lengthAttr, lonAttr, latAttr;     //Extra attributes calculated from geometries, if specified
+	private final String geodesicAreaAttr, geodesicLengthAttr;       //Extra attributes calculated from lon/lat coordinates of geometries, if specified
+
+
+	/**
+	 * A built-in function, along with its arguments, that generates values for an attribute.
+	 */
+	static final class BuiltIn {
+
+		final String attr;             //Name of the attribute to be generated
+		final String name;             //Name of the built-in function
+		final String[] args;           //Names of attributes whose values will be used as arguments of the built-in function
+		final BuiltInFunction function;    //The resolved built-in function, accepting string values for all its arguments
+
+		BuiltIn(String attr, mapProperties props) {
+			this.attr = attr;
+			this.name = props.getGeneratorFunction();
+			this.args = props.getFunctionArguments().toArray(new String[props.getFunctionArguments().size()]);
+			Class<?>[] argTypes = new Class<?>[args.length];
+			Arrays.fill(argTypes, String.class);
+			this.function = FunctionRegistry.resolve(name, argTypes);
+		}
+	}
+
+
+	/**
+	 * Issues the triples for a value of a particular attribute according to its mapping profile.
+	 */
+	abstract static class Emitter {
+
+		/**
+		 * Creates the triples for the given value of this attribute.
+		 * @param gen  The generator that collects the resulting triples.
+		 * @param uri  The URI assigned to the feature.
+		 * @param val  The (NOT NULL, non-empty) value of this attribute.
+		 */
+		abstract void emit(TripleGenerator gen, String uri, String val);
+	}
+
+
+	/**
+	 * Properties that are instances of classes in the ontology, possibly with language tags in literals (e.g., name, contact).
+	 */
+	private static final class InstanceEmitter extends Emitter {
+
+		final String predicate, suffix, valuePredicate, typePredicate, languagePredicate, classURI, lang, resType;
+		final boolean tagged;          //Whether a valid language tag is included in literals
+		final boolean typed;           //Whether a triple for the resource type will be issued
+
+		InstanceEmitter(String predicate, String suffix, String valuePredicate, String typePredicate, String languagePredicate, String classURI, String lang, boolean tagged, String resType, boolean typed) {
+			this.predicate = predicate;
+			this.suffix = suffix;
+			this.valuePredicate = valuePredicate;
+			this.typePredicate = typePredicate;
+			this.languagePredicate = languagePredicate;
+			this.classURI = classURI;
+			this.lang = lang;
+			this.tagged = tagged;
+			this.resType = resType;
+			this.typed = typed;
+		}
+
+		@Override
+		void emit(TripleGenerator gen, String uri, String val) {
+
+			String sub = uri + suffix;
+			gen.emitResource(uri, predicate, sub);
+			if (tagged) {
+				gen.emitLanguageLiteral(sub, valuePredicate, val, lang);
+				gen.emitPlainLiteral(sub, languagePredicate, lang);
+			}
+			else
+				gen.emitPlainLiteral(sub, valuePredicate, val);
+			if (typed)
+				gen.emitPlainLiteral(sub, typePredicate, resType);
+			//Also insert a triple for the RDF class of this entity
+			gen.emitResource(sub, RDF.type.getURI(), classURI);
+		}
+	}
+
+
+	/**
+	 * Properties that are part of composite classes in the ontology (e.g., street name is part of address), possibly with language tags in literals.
+	 */
+	private static final class PartEmitter extends Emitter {
+
+		final int part;                //Index of the composite entity
+		final String partPredicate, suffix, classURI, predicate, lang;
+
+		PartEmitter(int part, String partPredicate, String suffix, String classURI, String predicate, String lang) {
+			this.part = part;
+			this.partPredicate = partPredicate;
+			this.suffix = suffix;
+			this.classURI = classURI;
+			this.predicate = predicate;
+			this.lang = lang;
+		}
+
+		@Override
+		void emit(TripleGenerator gen, String uri, String val) {
+
+			String sub = uri + suffix;
+			if (gen.firstPart(part))        //Link to the composite entity is issued only once per feature
+			{
+				gen.emitResource(uri, partPredicate, sub);
+				//Also insert a triple for the RDF class of this entity
+				gen.emitResource(sub, RDF.type.getURI(), classURI);
+			}
+			if (lang != null)
+				gen.emitLanguageLiteral(sub, predicate, val, lang);
+			else
+				gen.emitPlainLiteral(sub, predicate, val);
+		}
+	}
+
+
+	/**
+	 * Properties with a literal (plain, language-tagged, or typed) or a URL as their object.
+	 */
+	private static final class LiteralEmitter extends Emitter {
+
+		final Mapping.MappingProfile profile;
+		final String predicate, lang;
+		final RDFDatatype dataType;
+
+		LiteralEmitter(Mapping.MappingProfile profile, String predicate, String lang, RDFDatatype dataType) {
+			this.profile = profile;
+			this.predicate = predicate;
+			this.lang = lang;
+			this.dataType = dataType;
+		}
+
+		@Override
+		void emit(TripleGenerator gen, String uri, String val) {
+
+			switch (profile) {
+			case HAS_DATA_TYPE_URL :        //URLs must be valid, otherwise they may be corrected by the checker
+				gen.emitResource(uri, predicate, gen.myChecker.cleanupURL(val));
+				break;
+			case HAS_DATA_TYPE :
+				gen.emitTypedLiteral(uri, predicate, val, dataType);
+				break;
+			case IS_LITERAL_TAG_LANGUAGE :
+				gen.emitLanguageLiteral(uri, predicate, val, lang);
+				break;
+			default :
+				gen.emitPlainLiteral(uri, predicate, val);
+			}
+		}
+	}
+
+
+	/**
+	 * Attributes not specifically mapped to the ontology, which are transformed into (key, value) pairs thanks to the wild-card '_' mapping.
+	 */
+	private static final class PairEmitter extends Emitter {
+
+		final String predicate, suffix, keyPredicate, valuePredicate, key;
+
+		PairEmitter(String predicate, String suffix, String keyPredicate, String valuePredicate, String key) {
+			this.predicate = predicate;
+			this.suffix = suffix;
+			this.keyPredicate = keyPredicate;
+			this.valuePredicate = valuePredicate;
+			this.key = key;
+		}
+
+		@Override
+		void emit(TripleGenerator gen, String uri, String val) {
+
+			String sub = uri + suffix;
+			gen.emitResource(uri, predicate, sub);
+			gen.emitPlainLiteral(sub, keyPredicate, key);
+			gen.emitPlainLiteral(sub, valuePredicate, val);
+		}
+	}
+
+
+	/**
+	 * Attributes that are mapped without issuing any triples (e.g., URIs); only their statistics are collected.
+	 */
+	private static final class NoEmitter extends Emitter {
+
+		@Override
+		void emit(TripleGenerator gen, String uri, String val) {
+		}
+	}
+
+
+	/**
+	 * Provides the plan compiled for the mapping file specified in the given configuration. This plan is compiled only once and then shared.
+	 * @param config  User-specified configuration for the transformation process.
+	 * @param prefixes  Prefixes for namespaces employed during transformation and serialization of RDF triples.
+	 * @return  The compiled plan.
+	 */
+	public static synchronized MappingPlan getInstance(Configuration config, Map<String, String> prefixes) {
+
+		MappingPlan plan = plans.get(config.mappingSpec);
+		if (plan == null)
+		{
+			plan = new MappingPlan(config, prefixes);
+			plans.put(config.mappingSpec, plan);
+		}
+		return plan;
+	}
+
+
+	/**
+	 * Compiles a plan from the mapping file specified in the given configuration.
+	 * @param config  User-specified configuration for the transformation process.
+	 * @param prefixes  Prefixes for namespaces employed during transformation and serialization of RDF triples.
+	 */
+	private MappingPlan(Configuration config, Map<String, String> prefixes) {
+
+		this.config = config;
+		this.prefixes = new HashMap<String, String>(prefixes);
+		myAssistant = new Assistant();
+		emitters = new ConcurrentHashMap<String, Emitter>();
+		parts = new ConcurrentHashMap<String, Integer>();
+		SKIP = new NoEmitter();
+
+		//Read mapping file from the path specified in configuration settings
+		mapping = new Mapping();
+		mapping.createFromFile(config.mappingSpec);
+
+		//Built-in functions for language tags of multi-faceted attributes, given the attribute name and the length of its common prefix
+		languageFunctions = new HashMap<String, BuiltInFunction>();
+		for (String attrBase: mapping.getMultiFacetedAttributes())
+			languageFunctions.put(attrBase, FunctionRegistry.resolve(mapping.find(attrBase).getLanguage(), String.class, Integer.class));
+
+		//Built-in function for URIs, if any
+		String attrURI = "URI";                       //Default name of this attribute
+		for (String key: mapping.getKeys())
+		{
+			if ((mapping.find(key).entityType != null) && (mapping.find(key).entityType.equalsIgnoreCase("uri")))
+				attrURI = key;
+		}
+		uriFunction = (mapping.find(attrURI) != null) ? new BuiltIn(attrURI, mapping.find(attrURI)) : null;
+
+		//Built-in functions for extra thematic attributes
+		List<BuiltIn> extra = new ArrayList<BuiltIn>();
+		for (String extraAttr: mapping.getExtraThematicAttributes())
+			extra.add(new BuiltIn(extraAttr, mapping.find(extraAttr)));
+		extraThematicAttrs = extra.toArray(new BuiltIn[extra.size()]);
+
+		//Extra attributes calculated from geometries
+		areaAttr = findExtraGeometricAttr("getArea");
+		lengthAttr = findExtraGeometricAttr("getLength");
+		lonAttr = findExtraGeometricAttr("getLongitude");
+		latAttr = findExtraGeometricAttr("getLatitude");
+		geodesicAreaAttr = findExtraGeometricAttr("getGeodesicArea");
+		geodesicLengthAttr = findExtraGeometricAttr("getGeodesicLength");
+	}
+
+
+	/**
+	 * Provides the mapping that this plan has been compiled from.
+	 * @return  The user-specified mapping.
+	 */
+	public Mapping getMapping() {
+		return mapping;
+	}
+
+
+	/**
+	 * Provides the built-in function that generates the URIs of features.
+	 * @return  The built-in function; null, if not specified in the mapping.
+	 */
+	BuiltIn getURIFunction() {
+		return uriFunction;
+	}
+
+
+	/**
+	 * Provides the built-in functions that generate values for extra thematic attributes.
+	 * @return  An array of built-in functions.
+	 */
+	BuiltIn[] getExtraThematicAttributes() {
+		return extraThematicAttrs;
+	}
+
+
+	/**
+	 * Provides the name of the extra attribute with the calculated area of polygons.
+	 * @return  The attribute name; null, if not specified in the mapping.
+	 */
+	String getAreaAttribute() {
+		return areaAttr;
+	}
+
+
+	/**
+	 * Provides the name of the extra attribute with the calculated length of linestrings (or the perimeter of polygons).
+	 * @return  The attribute name; null, if not specified in the mapping.
+	 */
+	String getLengthAttribute() {
+		return lengthAttr;
+	}
+
+
+	/**
+	 * Provides the name of the extra attribute with the longitude of the centroid of geometries.
+	 * @return  The attribute name; null, if not specified in the mapping.
+	 */
+	String getLongitudeAttribute() {
+		return lonAttr;
+	}
+
+
+	/**
+	 * Provides the name of the extra attribute with the latitude of the centroid of geometries.
+	 * @return  The attribute name; null, if not specified in the mapping.
+	 */
+	String getLatitudeAttribute() {
+		return latAttr;
+	}
+
+
+	/**
+	 * Provides the name of the extra attribute with the area of polygons calculated on the ellipsoid from their lon/lat coordinates.
+	 * @return  The attribute name; null, if not specified in the mapping.
+	 */
+	String getGeodesicAreaAttribute() {
+		return geodesicAreaAttr;
+	}
+
+
+	/**
+	 * Provides the name of the extra attribute with the length of linestrings (or the perimeter of polygons) calculated on the ellipsoid from their lon/lat coordinates.
+	 * @return  The attribute name; null, if not specified in the mapping.
+	 */
+	String getGeodesicLengthAttribute() {
+		return geodesicLengthAttr;
+	}
+
+
+	/**
+	 * Provides the number of composite entities (e.g., address) that attributes may be part of.
+	 * @return  The number of composite entities identified thus far.
+	 */
+	int getNumParts() {
+		return parts.size();
+	}
+
+
+	/**
+	 * Provides the emitter of triples for a given attribute. Emitters are compiled upon the first occurrence of each attribute name and then reused.
+	 * @param key  The name of the attribute.
+	 * @return  The emitter for this attribute; null, if no triples should be issued for this attribute.
+	 */
+	Emitter getEmitter(String key) {
+
+		Emitter emitter = emitters.get(key);
+		if (emitter == null)
+		{
+			emitter = compile(key);
+			emitters.putIfAbsent(key, emitter);
+		}
+		return (emitter == SKIP) ? null : emitter;
+	}
+
+
+	/**
+	 * Compiles the emitter of triples for a given attribute according to its mapping profile.
+	 * @param key  The name of the attribute.
+	 * @return  The emitter for this attribute.
+	 */
+	private Emitter compile(String key) {
+
+		if (key.equals(config.attrGeometry))
+			return SKIP;
+
+		mapProperties props = mapping.find(key);              //Mapping associated with this attribute
+		String lang;                                          //Language used in string literals
+		String entityType;                                    //Entity type used as a suffix to the URI
+
+		if (props == null)                                    //Cannot find a mapping that exactly matches this attribute
+		{
+			//Check whether this is a multi-faceted attribute (e.g., a name in various languages)
+			String attrBase = mapping.findMultiFaceted(key);
+			if (attrBase != null)
+				props = mapping.find(attrBase);
+
+			if (props == null)
+			{
+				//Trivial handling of any attribute not specifically mapped to the ontology by emitting triples for (key, value) pairs
+				if (mapping.find("_") != null)
+					return new PairEmitter(expandNamespace(mapping.find("_").getPredicate()), "/" + key, expandNamespace(config.ontologyNS + "key"), expandNamespace(config.ontologyNS + "value"), key);
+				return SKIP;
+			}
+
+			//Language tag is dynamically inferred from the last part of the attribute name using a built-in function
+			lang = (String) languageFunctions.get(attrBase).apply(myAssistant, key, attrBase.length());
+			if (lang == null)
+				return SKIP;
+			entityType = props.getEntityType() + "_" + lang;   //URIs will also include a language suffix in order to be distinguishable
+		}
+		else
+		{
+			lang = props.getLanguage();
+			entityType = props.getEntityType();
+		}
+
+		String resPart = props.getPart();
+		String resClass = props.getInstance();
+		String predicate = props.getPredicate();
+
+		switch (props.getMappingProfile()) {
+		case IS_INSTANCE_TAG_LANGUAGE :
+			return new InstanceEmitter(expandNamespace(predicate), "/" + entityType, expandNamespace(config.ontologyNS + resClass + "Value"), expandNamespace(config.ontologyNS + resClass + "Type"),
+					expandNamespace(config.ontologyNS + "language"), config.ontologyNS + resClass, lang, myAssistant.isValidISOLanguage(lang),
+					props.getResourceType(), !props.getResourceType().trim().toUpperCase().equals("NONE"));
+		case IS_INSTANCE :
+			return new InstanceEmitter(expandNamespace(predicate), "/" + entityType, expandNamespace(config.ontologyNS + resClass + "Value"), expandNamespace(config.ontologyNS + resClass + "Type"),
+					null, config.ontologyNS + resClass, null, false, props.getResourceType(), true);
+		case IS_PART_TAG_LANGUAGE :
+			return new PartEmitter(getPartIndex(resPart), expandNamespace(config.ontologyNS + entityType), "/" + resPart, config.ontologyNS + resPart, expandNamespace(predicate), lang);
+		case IS_PART :
+			return new PartEmitter(getPartIndex(resPart), expandNamespace(config.ontologyNS + entityType), "/" + resPart, config.ontologyNS + resPart, expandNamespace(predicate), null);
+		case HAS_DATA_TYPE_URL :
+		case HAS_DATA_TYPE :
+		case IS_LITERAL_TAG_LANGUAGE :
+		case IS_LITERAL :
+			return new LiteralEmitter(props.getMappingProfile(), expandNamespace(predicate), lang, props.getDataType());
+		default :                                             //No triples, but statistics are still collected
+			return new NoEmitter();
+		}
+	}
+
+
+	/**
+	 * Provides the index of a composite entity (e.g., address), so that its link to a feature is issued once.
+	 * @param resPart  The name of the composite entity.
+	 * @return  The index of this entity.
+	 */
+	private synchronized int getPartIndex(String resPart) {
+
+		Integer idx = parts.get(resPart);
+		if (idx == null)
+		{
+			idx = parts.size();
+			parts.put(resPart, idx);
+		}
+		return idx;
+	}
+
+
+	/**
+	 * Identifies the first auto-generated attribute based on the given geometric built-in function.
+	 * @param f  The name of the built-in function (e.g., getArea).
+	 * @return  The name of the attribute; null, if no such attribute has been specified in the mapping.
+	 */
+	private String findExtraGeometricAttr(String f) {
+
+		List<String> g = mapping.findExtraGeometricAttr(f);
+		return g.isEmpty() ? null : g.get(0);
+	}
+
+
+	/**
+	 * Expands the prefix into the full namespace of a given RDF node (usually, a predicate)
+	 * @param s  A prefixed name with a prefix label and a local part, separated by a colon ":"
+	 * @return  A URI by concatenating the expanded namespace associated with the prefix and the local part
+	 */
+	String expandNamespace(String s) {
+
+		return expandNamespace(prefixes, s);
+	}
+
+
+	/**
+	 * Expands the prefix into the full namespace of a given RDF node (usually, a predicate)
+	 * @param prefixes  Prefixes for namespaces and their respective full namespaces.
+	 * @param s  A prefixed name with a prefix label and a local part, separated by a colon ":"
+	 * @return  A URI by concatenating the expanded namespace associated with the prefix and the local part
+	 */
+	static String expandNamespace(Map<String, String> prefixes, String s) {
+
+		String prefix = s.substring(0, s.indexOf(':'));  //Get the prefix
+		String namespace = prefixes.get(prefix);         //Identify its respective full namespace
+		if (namespace != null)
+			return s.replace(prefix + ":", namespace);   //... and replace it
+
+		return s;	 //No replacement took place
+	}
+
+}
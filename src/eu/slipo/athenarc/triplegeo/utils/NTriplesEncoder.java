@@ -0,0 +1,283 @@
+/*
+ * @(#) NTriplesEncoder.java 	 version 1.6   18/10/2026
+ *
+ * Copyright (C) 2013-2018 Information Systems Management Institute, Athena R.C., Greece.
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.slipo.athenarc.triplegeo.utils;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Encodes RDF triples directly into N-TRIPLES (UTF-8) bytes, without creating any intermediate Jena Node or Triple objects.
+ * Bytes are collected in a reusable direct buffer, which is written to a channel (e.g., an output file) whenever it gets full.
+ * The resulting output is identical to that of the Jena riot stream writer for N-TRIPLES:
+ * IRIs and language tags are written verbatim, whereas only quotes, backslashes, and the \n, \r, \t, \f characters are escaped in literals.
+ * @author agent
+ * @version 1.6
+ */
+
+/* DEVELOPMENT HISTORY
+ * Created by: agent, 18/10/2026
+ * Last modified: 18/10/2026
+ */
+public class NTriplesEncoder {
+
+	private static final int BUFFER_SIZE = 1024 * 1024;    //Default capacity (in bytes) of the buffer
+	private static final String XSD_STRING = "http://www.w3.org/2001/XMLSchema#string";    //Literals of this data type are written as plain ones
+
+	private final ByteBuffer buffer;           //Reusable buffer holding encoded triples not yet written to the channel
+	private WritableByteChannel channel;       //Destination of encoded triples
+	private int numTriples = 0;                //Number of triples encoded thus far
+
+	/**
+	 * Constructs an encoder of N-TRIPLES writing to the given channel.
+	 * @param channel  Channel where the encoded triples will be written (e.g., that of the output file).
+	 */
+	public NTriplesEncoder(WritableByteChannel channel) {
+
+		this.channel = channel;
+		buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+	}
+
+
+	/**
+	 * Redirects all subsequently encoded triples to another channel. Any pending bytes must have been flushed beforehand.
+	 * @param channel  Channel where the encoded triples will be written.
+	 */
+	public void setChannel(WritableByteChannel channel) {
+
+		this.channel = channel;
+	}
+
+
+	/**
+	 * Provides the number of triples encoded thus far.
+	 * @return  The number of triples.
+	 */
+	public int getNumTriples() {
+
+		return numTriples;
+	}
+
+
+	/**
+	 * Encodes a triple with a resource as its object (i.e., non literal values).
+	 * @param s  Triple subject
+	 * @param p  Triple predicate
+	 * @param o  Triple object resource
+	 */
+	public void writeResource(String s, String p, String o) {
+
+		writeSubjectPredicate(s, p);
+		writeIRI(o);
+		endTriple();
+	}
+
+
+	/**
+	 * Encodes a triple with a plain literal (without language tag or data type specification) as its object.
+	 * @param s  Triple subject
+	 * @param p  Triple predicate
+	 * @param o  Triple object literal
+	 */
+	public void writePlainLiteral(String s, String p, String o) {
+
+		writeSubjectPredicate(s, p);
+		writeLiteral(o);
+		endTriple();
+	}
+
+
+	/**
+	 * Encodes a triple with a literal having a language tag as its object.
+	 * @param s  Triple subject
+	 * @param p  Triple predicate
+	 * @param o  Triple object literal
+	 * @param lang  Language specification of the literal value; if empty, a plain literal is written.
+	 */
+	public void writeLanguageLiteral(String s, String p, String o, String lang) {
+
+		writeSubjectPredicate(s, p);
+		writeLiteral(o);
+		if ((lang != null) && (!lang.isEmpty()))
+		{
+			put('@');
+			writeChars(lang, false);
+		}
+		endTriple();
+	}
+
+
+	/**
+	 * Encodes a triple with a literal having a data type specification as its object.
+	 * @param s  Triple subject
+	 * @param p  Triple predicate
+	 * @param o  Triple object literal
+	 * @param datatype  IRI of the data type of the literal value; literals of type xsd:string are written as plain ones.
+	 */
+	public void writeTypedLiteral(String s, String p, String o, String datatype) {
+
+		writeSubjectPredicate(s, p);
+		writeLiteral(o);
+		if (!XSD_STRING.equals(datatype))
+		{
+			put('^');
+			put('^');
+			put('<');
+			writeChars(datatype, false);
+			put('>');
+		}
+		endTriple();
+	}
+
+
+	/**
+	 * Writes all pending bytes to the channel.
+	 */
+	public void flush() {
+
+		//CAUTION! Calls through Buffer, since ByteBuffer overrides these methods as of Java 9 and classes compiled against them fail on Java 8
+		((Buffer) buffer).flip();
+		try {
+			while (buffer.hasRemaining())
+				channel.write(buffer);
+		} catch (IOException e) {
+			ExceptionHandler.abort(e, "An error occurred while writing triples to the output file.");
+		}
+		((Buffer) buffer).clear();
+	}
+
+
+	/**
+	 * Encodes the subject and the predicate of a triple, each followed by a space.
+	 * @param s  Triple subject
+	 * @param p  Triple predicate
+	 */
+	private void writeSubjectPredicate(String s, String p) {
+
+		writeIRI(s);
+		put(' ');
+		writeIRI(p);
+		put(' ');
+	}
+
+
+	/**
+	 * Encodes an IRI enclosed in angle brackets.
+	 * @param iri  The IRI to be encoded.
+	 */
+	private void writeIRI(String iri) {
+
+		put('<');
+		writeChars(iri, false);
+		put('>');
+	}
+
+
+	/**
+	 * Encodes the lexical form of a literal enclosed in double quotes.
+	 * @param lex  The lexical form of the literal.
+	 */
+	private void writeLiteral(String lex) {
+
+		put('"');
+		writeChars(lex, true);
+		put('"');
+	}
+
+
+	/**
+	 * Terminates the current triple.
+	 */
+	private void endTriple() {
+
+		put(' ');
+		put('.');
+		put('\n');
+		numTriples++;
+	}
+
+
+	/**
+	 * Encodes a single ASCII character.
+	 * @param c  The character to be encoded.
+	 */
+	private void put(char c) {
+
+		if (!buffer.hasRemaining())
+			flush();
+		buffer.put((byte) c);
+	}
+
+
+	/**
+	 * Encodes the characters of a string into UTF-8 bytes. Unpaired surrogate characters are replaced by '?'.
+	 * @param str  The string to be encoded.
+	 * @param escape  True, if special characters must be escaped (i.e., in literals); otherwise, false.
+	 */
+	private void writeChars(String str, boolean escape) {
+
+		int len = str.length();
+		for (int i = 0; i < len; i++)
+		{
+			if (buffer.remaining() < 4)              //Enough space for the longest UTF-8 sequence or escaped character
+				flush();
+
+			char c = str.charAt(i);
+			if (c < 0x80)
+			{
+				if (escape)
+				{
+					switch (c) {
+					case '"':  buffer.put((byte) '\\').put((byte) '"');  continue;
+					case '\\': buffer.put((byte) '\\').put((byte) '\\'); continue;
+					case '\n': buffer.put((byte) '\\').put((byte) 'n');  continue;
+					case '\r': buffer.put((byte) '\\').put((byte) 'r');  continue;
+					case '\t': buffer.put((byte) '\\').put((byte) 't');  continue;
+					case '\f': buffer.put((byte) '\\').put((byte) 'f');  continue;
+					default: break;
+					}
+				}
+				buffer.put((byte) c);
+			}
+			else if (c < 0x800)
+			{
+				buffer.put((byte) (0xC0 | (c >> 6)));
+				buffer.put((byte) (0x80 | (c & 0x3F)));
+			}
+			else if (Character.isHighSurrogate(c) && (i + 1 < len) && Character.isLowSurrogate(str.charAt(i + 1)))
+			{
+				int cp = Character.toCodePoint(c, str.charAt(++i));
+				buffer.put((byte) (0xF0 | (cp >> 18)));
+				buffer.put((byte) (0x80 | ((cp >> 12) & 0x3F)));
+				buffer.put((byte) (0x80 | ((cp >> 6) & 0x3F)));
+				buffer.put((byte) (0x80 | (cp & 0x3F)));
+			}
+			else if (Character.isSurrogate(c))
+				buffer.put((byte) '?');
+			else
+			{
+				buffer.put((byte) (0xE0 | (c >> 12)));
+				buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+				buffer.put((byte) (0x80 | (c & 0x3F)));
+			}
+		}
+	}
+
+}
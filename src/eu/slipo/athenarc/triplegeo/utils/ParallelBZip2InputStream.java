@@ -0,0 +1,449 @@
+/*
+ * @(#) ParallelBZip2InputStream.java 	 version 1.6   18/10/2026
+ *
+ * Copyright (C) 2013-2018 Information Systems Management Institute, Athena R.C., Greece.
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.slipo.athenarc.triplegeo.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
+
+/**
+ * Decompresses a bzip2 file by several concurrent threads, exploiting that bzip2 compresses its input in independent blocks (of up to 900KB each).
+ * The compressed input is scanned sequentially for the (bit-aligned) signatures that start each block. Every block is then wrapped into a standalone bzip2 stream and decompressed by a worker thread.
+ * Decompressed blocks are returned in their original order, so this stream can replace a sequential bzip2 decompressor. Concatenated bzip2 streams (e.g., created by pbzip2) are also supported.
+ * Since a block signature may also occur by chance within compressed data, a block that fails to decompress is retried together with its subsequent block(s), taking the bits of their signatures as data of the first block.
+ * @author agent
+ * @version 1.6
+ */
+
+/* DEVELOPMENT HISTORY
+ * Created by: agent, 18/10/2026
+ * Modified: 18/10/2026; merged blocks verified against the CRC of their first block only, since the signatures of the others are data
+ * Last modified: 18/10/2026
+ */
+
+public class ParallelBZip2InputStream extends InputStream {
+
+	private static final long BLOCK_MAGIC = 0x314159265359L;     //48-bit signature at the start of each block (BCD of pi)
+	private static final long EOS_MAGIC = 0x177245385090L;       //48-bit signature at the end of each stream (BCD of sqrt(pi))
+	private static final long MAGIC_MASK = (1L << 48) - 1;
+	private static final int MAX_MERGED = 4;                     //Maximum number of consecutive blocks merged when retrying a block that failed
+
+	/**
+	 * Compressed contents of a block, from its signature up to the signature of the next block (or the end of its stream).
+	 */
+	static final class Segment {
+		byte[] data;         //Bytes that contain all bits of the block
+		int bitOffset;       //Position of the first bit of the block in the first byte
+		long numBits;        //Number of bits of the block
+		long startBit;       //Position of the first bit of the block in the input
+
+		long endBit() {
+			return startBit + numBits;
+		}
+	}
+
+	/**
+	 * A block submitted for decompression.
+	 */
+	private static final class Block {
+		final Segment segment;
+		final Future<byte[]> result;
+
+		Block(Segment segment, Future<byte[]> result) {
+			this.segment = segment;
+			this.result = result;
+		}
+	}
+
+	private final InputStream in;
+	private final ExecutorService workers;
+	private final int maxPending;
+	private final Deque<Block> pending = new ArrayDeque<Block>();
+
+	//State of the sequential scan over compressed input
+	private final byte[] inBuf = new byte[1 << 16];
+	private int inPos = 0;
+	private int inLen = 0;
+	private boolean eof = false;
+	private boolean headerChecked = false;
+	private int curByte;                       //Byte currently scanned...
+	private int bitsLeft = 0;                  //... and the number of its bits not yet scanned
+	private long bitPos = 0;                   //Number of bits scanned so far
+	private long register = 0;                 //Last 64 bits scanned
+	private byte[] segBuf = new byte[1 << 20]; //Bytes scanned since the start of the current block
+	private int segLen = 0;
+	private long segStartByte = 0;             //Position in the input of the first byte in segBuf
+	private long segStartBit = -1;             //Position in the input of the first bit of the current block; negative, if not within a block
+
+	//Decompressed contents of the current block
+	private byte[] out = new byte[0];
+	private int outPos = 0;
+	private int outLen = 0;
+
+	/**
+	 * Constructor of this class.
+	 * @param in  Input stream over a bzip2 compressed file.
+	 * @param numThreads  Number of worker threads that will decompress blocks concurrently.
+	 */
+	public ParallelBZip2InputStream(InputStream in, int numThreads) {
+
+		this.in = in;
+		this.workers = Executors.newFixedThreadPool(Math.max(1, numThreads));
+		//CAUTION! Bounded number of pending blocks, so memory consumption remains bounded
+		this.maxPending = 2 * Math.max(1, numThreads);
+	}
+
+	@Override
+	public int read() throws IOException {
+
+		if ((outPos >= outLen) && !nextBlock())
+			return -1;
+		return out[outPos++] & 0xff;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+
+		if (len == 0)
+			return 0;
+		if ((outPos >= outLen) && !nextBlock())
+			return -1;
+		int n = Math.min(len, outLen - outPos);
+		System.arraycopy(out, outPos, b, off, n);
+		outPos += n;
+		return n;
+	}
+
+	@Override
+	public int available() {
+		return outLen - outPos;
+	}
+
+	@Override
+	public void close() throws IOException {
+
+		workers.shutdownNow();
+		pending.clear();
+		in.close();
+	}
+
+	/**
+	 * Provides the decompressed contents of the next block in order.
+	 * @return  True, if another block was available; False, if the input is exhausted.
+	 * @throws IOException
+	 */
+	private boolean nextBlock() throws IOException {
+
+		do {
+			fill();
+			if (pending.isEmpty())
+				return false;
+
+			Block head = pending.removeFirst();
+			try {
+				out = head.result.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IOException("Interrupted while decompressing bzip2 stream", e);
+			} catch (ExecutionException e) {
+				out = retry(head.segment, e.getCause());
+			}
+			outPos = 0;
+			outLen = out.length;
+		} while (outLen == 0);
+
+		return true;
+	}
+
+	/**
+	 * Decompresses a block that failed together with its subsequent block(s), in case its signature or the signature of the next block occurred by chance within compressed data.
+	 * @param segment  The compressed contents of the block that failed.
+	 * @param cause  The reason of failure.
+	 * @return  The decompressed contents of the merged blocks.
+	 * @throws IOException  If the blocks cannot be decompressed even when merged.
+	 */
+	private byte[] retry(Segment segment, Throwable cause) throws IOException {
+
+		Segment[] parts = new Segment[] {segment};
+		while (parts.length < MAX_MERGED)
+		{
+			fill();
+			Block next = pending.peekFirst();
+			if ((next == null) || (next.segment.startBit != parts[parts.length - 1].endBit()))
+				break;
+			pending.removeFirst();
+			next.result.cancel(true);
+			parts = Arrays.copyOf(parts, parts.length + 1);
+			parts[parts.length - 1] = next.segment;
+			try {
+				return decompress(parts);
+			} catch (IOException e) {
+				//Try merging with another block
+			}
+		}
+		throw new IOException("Corrupted bzip2 block at bit " + segment.startBit + " of the input. If the file is valid, please set osmDecoders = 1 to decompress it sequentially.", cause);
+	}
+
+	/**
+	 * Scans the input and submits blocks for decompression, until enough blocks are pending or the input is exhausted.
+	 * @throws IOException
+	 */
+	private void fill() throws IOException {
+
+		Segment segment;
+		while ((pending.size() < maxPending) && ((segment = scan()) != null))
+		{
+			final Segment[] parts = new Segment[] {segment};
+			pending.addLast(new Block(segment, workers.submit(new Callable<byte[]>() {
+				@Override
+				public byte[] call() throws IOException {
+					return decompress(parts);
+				}
+			})));
+		}
+	}
+
+	/**
+	 * Reads the next byte from the input into the scanner.
+	 * @return  False, if the input is exhausted.
+	 * @throws IOException
+	 */
+	private boolean nextByte() throws IOException {
+
+		if (inPos >= inLen)
+		{
+			inLen = in.read(inBuf, 0, inBuf.length);
+			inPos = 0;
+			if (inLen <= 0)
+				return false;
+		}
+		curByte = inBuf[inPos++] & 0xff;
+		bitsLeft = 8;
+
+		//Keep the bytes of the current block, or just a few bytes in case a signature is about to be found
+		if ((segStartBit < 0) && (segLen >= 16))
+		{
+			System.arraycopy(segBuf, segLen - 8, segBuf, 0, 8);
+			segStartByte += segLen - 8;
+			segLen = 8;
+		}
+		if (segLen == segBuf.length)
+			segBuf = Arrays.copyOf(segBuf, 2 * segBuf.length);
+		segBuf[segLen++] = (byte) curByte;
+		return true;
+	}
+
+	/**
+	 * Scans the input bit by bit until the end of the current block.
+	 * @return  The compressed contents of the next block; null, if the input is exhausted.
+	 * @throws IOException
+	 */
+	Segment scan() throws IOException {
+
+		if (eof)
+			return null;
+
+		if (!headerChecked)
+		{
+			headerChecked = true;
+			byte[] header = new byte[4];
+			for (int i = 0; i < 4; i++)
+			{
+				if (!nextByte())
+					throw new IOException("Input is not in bzip2 format.");
+				header[i] = (byte) curByte;
+				bitPos += 8;
+				bitsLeft = 0;
+			}
+			if ((header[0] != 'B') || (header[1] != 'Z') || (header[2] != 'h') || (header[3] < '1') || (header[3] > '9'))
+				throw new IOException("Input is not in bzip2 format.");
+		}
+
+		while (true)
+		{
+			if ((bitsLeft == 0) && !nextByte())
+			{
+				eof = true;
+				if (segStartBit >= 0)
+					throw new IOException("Unexpected end of bzip2 stream.");
+				return null;
+			}
+
+			bitsLeft--;
+			register = (register << 1) | ((curByte >>> bitsLeft) & 1);
+			bitPos++;
+
+			long signature = register & MAGIC_MASK;
+			if ((signature != BLOCK_MAGIC) && (signature != EOS_MAGIC))
+				continue;
+
+			long magicStart = bitPos - 48;
+			Segment segment = null;
+			if (segStartBit >= 0)
+				segment = cut(magicStart);
+
+			if (signature == BLOCK_MAGIC)
+			{
+				//Keep only the bytes from the start of the new block
+				int from = (int) ((magicStart >>> 3) - segStartByte);
+				System.arraycopy(segBuf, from, segBuf, 0, segLen - from);
+				segLen -= from;
+				segStartByte += from;
+				segStartBit = magicStart;
+			}
+			else
+				segStartBit = -1;          //End of stream; another stream may follow
+
+			if (segment != null)
+				return segment;
+		}
+	}
+
+	/**
+	 * Copies the bits of the current block up to the given position.
+	 * @param endBit  Position in the input after the last bit of the block.
+	 * @return  The compressed contents of the block.
+	 */
+	private Segment cut(long endBit) {
+
+		Segment s = new Segment();
+		int from = (int) ((segStartBit >>> 3) - segStartByte);
+		int to = (int) (((endBit + 7) >>> 3) - segStartByte);
+		s.data = Arrays.copyOfRange(segBuf, from, to);
+		s.bitOffset = (int) (segStartBit & 7);
+		s.numBits = endBit - segStartBit;
+		s.startBit = segStartBit;
+		return s;
+	}
+
+	/**
+	 * Decompresses consecutive segments by wrapping them into a standalone bzip2 stream. Executed by a worker thread.
+	 * More than one segment is given only when retrying a block that failed, i.e., a single block split by signatures that occurred by chance within its data.
+	 * Then, the bits of these signatures and of the CRCs that seem to follow them are just data of the block, so only the CRC of the first segment applies to the stream.
+	 * @param parts  The compressed contents of the segments.
+	 * @return  The decompressed contents.
+	 * @throws IOException  If the blocks are corrupted.
+	 */
+	static byte[] decompress(Segment[] parts) throws IOException {
+
+		long numBits = 0;
+		for (Segment s: parts)
+			numBits += s.numBits;
+
+		//Stream header (with the largest block size), blocks, end of stream signature, and CRC
+		BitWriter w = new BitWriter((int) ((numBits + 7) >>> 3) + 16);
+		w.write(('B' << 24) | ('Z' << 16) | ('h' << 8) | '9', 32);
+		for (Segment s: parts)
+			w.copy(s.data, s.bitOffset, s.numBits);
+		//The combined CRC of a stream with a single block is the CRC of this block
+		long blockCRC = getBits(parts[0].data, parts[0].bitOffset + 48, 32);
+		w.write(EOS_MAGIC, 48);
+		w.write(blockCRC, 32);
+
+		try (InputStream bz = new BZip2CompressorInputStream(new ByteArrayInputStream(w.buf, 0, w.length()), false)) {
+			byte[] buf = new byte[1 << 20];
+			int len = 0;
+			int n;
+			while ((n = bz.read(buf, len, buf.length - len)) > 0)
+			{
+				len += n;
+				if (len == buf.length)
+					buf = Arrays.copyOf(buf, 2 * buf.length);
+			}
+			return Arrays.copyOf(buf, len);
+		}
+	}
+
+	/**
+	 * Reads up to 32 bits from a buffer of bytes, most significant bit first.
+	 * @param b  The buffer of bytes.
+	 * @param pos  Position of the first bit in the buffer.
+	 * @param n  Number of bits to read.
+	 * @return  The value of the bits.
+	 */
+	private static long getBits(byte[] b, long pos, int n) {
+
+		int i = (int) (pos >>> 3);
+		int skip = (int) (pos & 7);
+		int numBytes = (skip + n + 7) >>> 3;
+		long v = 0;
+		for (int k = 0; k < numBytes; k++)
+			v = (v << 8) | ((i + k < b.length) ? (b[i + k] & 0xff) : 0);
+		return (v >>> ((numBytes << 3) - skip - n)) & ((1L << n) - 1);
+	}
+
+	/**
+	 * Writes a sequence of bits into a buffer of bytes, most significant bit first.
+	 */
+	private static final class BitWriter {
+		byte[] buf;
+		long numBits = 0;
+
+		BitWriter(int capacity) {
+			buf = new byte[capacity];
+		}
+
+		int length() {
+			return (int) ((numBits + 7) >>> 3);
+		}
+
+		/**
+		 * Appends the given number (up to 56) of low-order bits of a value.
+		 */
+		void write(long v, int n) {
+			while (n > 0)
+			{
+				int i = (int) (numBits >>> 3);
+				if (i >= buf.length)
+					buf = Arrays.copyOf(buf, 2 * buf.length);
+				int free = 8 - (int) (numBits & 7);
+				int k = Math.min(free, n);
+				int bits = (int) ((v >>> (n - k)) & ((1 << k) - 1));
+				buf[i] |= (byte) (bits << (free - k));
+				n -= k;
+				numBits += k;
+			}
+		}
+
+		/**
+		 * Appends bits copied from a buffer of bytes.
+		 */
+		void copy(byte[] src, int srcBitOffset, long n) {
+			long pos = srcBitOffset;
+			while (n >= 32)
+			{
+				write(getBits(src, pos, 32), 32);
+				pos += 32;
+				n -= 32;
+			}
+			if (n > 0)
+				write(getBits(src, pos, (int) n), (int) n);
+		}
+	}
+}
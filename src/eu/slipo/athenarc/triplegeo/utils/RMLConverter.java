@@ -25,7 +25,6 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
-import java.sql.ResultSet;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -55,6 +54,7 @@ import be.ugent.mmlab.rml.performer.RMLPerformer;
 import be.ugent.mmlab.rml.processor.RMLProcessor;
 import be.ugent.mmlab.rml.processor.RMLProcessorFactory;
 import be.ugent.mmlab.rml.processor.concrete.ConcreteRMLProcessorFactory;
+import eu.slipo.athenarc.triplegeo.db.RowSource;
 import eu.slipo.athenarc.triplegeo.osm.OSMRecord;
 
 import org.apache.commons.csv.CSVRecord;
@@ -71,7 +71,10 @@ import org.apache.commons.lang.StringEscapeUtils;
  * Modified: 3/11/2017, added support for system exit codes on abnormal termination
  * Modified: 18/2/2018; Included attribute statistics calculated during transformation
  * TODO: This mode does NOT currently include support for the SLIPO Registry.
- * Last modified by: Kostas Patroumpas, 25/10/2018
+ * Modified: 18/10/2026; geometries retrieved from a DBMS in Well-Known Binary are decoded directly into geometry objects
+ * Modified: 18/10/2026; parsing of records copied in binary format from a PostGIS database, without any ResultSet
+ * Modified: 18/10/2026; records from a DBMS parsed in a single loop over a RowSource, either over a ResultSet or copied in binary format
+ * Last modified by: agent, 18/10/2026
  */
 public class RMLConverter implements Converter {
 
@@ -298,17 +301,17 @@ public class RMLConverter implements Converter {
 
 
 	/**
-	 * Parses each record from a ResultSet and streamlines the resulting triples (including geometric and non-spatial attributes) according to the given RML mapping. 
+	 * Parses each record retrieved from a DBMS and streamlines the resulting triples (including geometric and non-spatial attributes) according to the given RML mapping. 
 	 * Applicable in RML transformation mode.
-	 * Input provided via a ResultSet (used with input from a DMBS).
+	 * Input provided via a RowSource, either over a ResultSet or over records copied in binary format from PostGIS (used with input from a DMBS).
 	 * @param myAssistant  Instantiation of Assistant class to perform auxiliary operations (geometry transformations, auto-generation of UUIDs, etc.)
-	 * @param rs  ResultSet containing spatial features retrieved from a DBMS.
+	 * @param rows  Source of spatial features retrieved from a DBMS; closed once all records are parsed.
 	 * @param classific  Instantiation of the classification scheme that assigns categories to input features.
 	 * @param reproject  CRS transformation parameters to be used in reprojecting a geometry to a target SRID (EPSG code).
 	 * @param targetSRID  Spatial reference system (EPSG code) of geometries in the output RDF triples.
 	 * @param outputFile  Path to the output file that collects RDF triples.
 	 */	  
-	public void parse(Assistant myAssistant, ResultSet rs, Classification classific, MathTransform reproject, int targetSRID, String outputFile) 
+	public void parse(Assistant myAssistant, RowSource rows, Classification classific, MathTransform reproject, int targetSRID, String outputFile) 
 	{
 //      RMLDataset dataset = new StdRMLDataset();
 	    RMLDataset dataset = new SimpleRMLDataset();
@@ -328,49 +331,44 @@ public class RMLConverter implements Converter {
 			BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(outFile, "UTF-8"));
 
 			//Iterate through all records
-		    while (rs.next()) 
+		    while (rows.next()) 
 		    {
 		      	//Pass all NOT NULL attribute values into a hash map in order to apply RML mapping(s) directly
 		      	HashMap<String, String> row = new HashMap<>();	
-		      	for (int i=1; i<=rs.getMetaData().getColumnCount(); i++)
+		      	for (Map.Entry<String, String> attr: rows.getRow().entrySet())
 		      	{
-		      		if ((!rs.getMetaData().getColumnLabel(i).equalsIgnoreCase(currentConfig.attrGeometry)) && (!rs.getMetaData().getColumnName(i).equalsIgnoreCase("WktGeometry")) && (rs.getString(i) != null))
+		      		if (attr.getValue() != null)
 		      		{
 		      		    //Names of attributes in upper case; case-sensitive in RML mappings!
-		      			row.put(rs.getMetaData().getColumnLabel(i).toUpperCase(), rs.getString(i));
-		      			updateStatistics(rs.getMetaData().getColumnLabel(i).toUpperCase());          //Update count of NOT NULL values transformed for this attribute
+		      			row.put(attr.getKey().toUpperCase(), attr.getValue());
+		      			updateStatistics(attr.getKey().toUpperCase());          //Update count of NOT NULL values transformed for this attribute
 		      		}
 		      	}
 		      	
 		      	//Include a category identifier, as found in the classification scheme
 		      	if (classific != null)
-		      		row.put("CATEGORY_URI", classific.getUUID(rs.getString(currentConfig.attrCategory)));
-		      	//System.out.println(classification.getURI(rs.getString(currentConfig.attrCategory)));
+		      		row.put("CATEGORY_URI", classific.getUUID(rows.getString(currentConfig.attrCategory)));
 		      	
 		      	String wkt = null;
 		      	//Handle geometry attribute, if specified
 				if ((currentConfig.attrGeometry == null) && (currentConfig.attrX != null) && (currentConfig.attrY != null))       
 				{    //In case no single geometry attribute with WKT values is specified, compose WKT from a pair of coordinates
-				    String x = rs.getString(currentConfig.attrX);    //X-ordinate or longitude
-				    String y = rs.getString(currentConfig.attrY);    //Y-ordinate or latitude
+				    String x = rows.getString(currentConfig.attrX);    //X-ordinate or longitude
+				    String y = rows.getString(currentConfig.attrY);    //Y-ordinate or latitude
 					wkt = "POINT (" + x + " " + y + ")";
 				}
-				else if (currentConfig.attrGeometry != null)
-		      	{	        
-			        if (myAssistant.pgdbDecoder != null)                //Geometry blob is read from a personal geodatabase, so its WKT must be created    	      	
-			  			wkt = myAssistant.blob2WKT(rs.getBlob(currentConfig.attrGeometry), reproject);    //Also reprojected, if necessary
-			        else
-			        {
-			          	wkt = rs.getString("WktGeometry");
-//					    myAssistant.WKT2Geometry(wkt);                  //This is done only for updating the MBR of all geometries
-			        }	
-		      	}
+				else
+				{
+					wkt = rows.getWKT();
+					if ((wkt == null) && (rows.getGeometry() != null))     //Geometry has been decoded without any WKT (and reprojected, if necessary)
+						wkt = rows.getGeometry().toText();
+				}
 		      	
 				if (wkt != null)
 					row.put("WKT", "<http://www.opengis.net/def/crs/EPSG/0/" + targetSRID + "> " + wkt);   //Update attribute for the geometry as WKT along with the CRS
 			     
 		      	//CAUTION! Also include a UUID as a 128-bit string that will become the basis for the URI assigned to the resulting triples
-		      	row.put("UUID", myAssistant.getUUID(rs.getString(currentConfig.attrKey)).toString());
+		      	row.put("UUID", myAssistant.getUUID(rows.getString(currentConfig.attrKey)).toString());
 		      	
 		        //Apply the transformation according to the given RML mapping		      
 		        this.parseWithRML(row, dataset);
@@ -395,6 +393,9 @@ public class RMLConverter implements Converter {
 		catch(Exception e) { 
 			ExceptionHandler.abort(e, "Please check RML mappings.");
 		}
+		finally {
+			rows.close();
+		}
 
 	    //Measure execution time
 	    dt = System.currentTimeMillis() - t_start;
@@ -34,7 +34,9 @@ import java.util.logging.Level;
 
 /* DEVELOPMENT HISTORY
  * Created by: Kostas Patroumpas, 8/12/2017
- * Last modified: 2/3/2018
+ * Modified: 18/10/2026; added options for the number of concurrent tasks and their memory budget
+ * Modified: 18/10/2026; settings for scheduling concurrent tasks read by TaskScheduler.Settings, as in Configuration
+ * Last modified: 18/10/2026
  */
 public final class ReverseConfiguration {
 
@@ -117,6 +119,11 @@ public final class ReverseConfiguration {
    */
   public int batch_size = 1000;
 
+  /**
+   * Scheduling of input RDF files to be read concurrently into the graph model: maximum number of threads, heap budget (in MB) for all files being read, and estimated memory (in MB) consumed while reading each file.
+   */
+  public TaskScheduler.Settings scheduling = new TaskScheduler.Settings();
+
 
   /**
    * Constructor of a ReverseConfiguration object.
@@ -195,6 +202,9 @@ public final class ReverseConfiguration {
 		 }		 
 	 }
 	 
+	 //Scheduling of concurrent reading of input files: maximum number of threads, heap budget (in MB), and estimated memory per file (in MB)
+	 scheduling.load(properties);
+	 
 	//Encoding of data values
 	encoding = StandardCharsets.UTF_8.name();                   //Default encoding
 	if (!myAssistant.isNullOrEmpty(properties.getProperty("encoding"))) {
@@ -19,19 +19,28 @@
 package eu.slipo.athenarc.triplegeo.utils;
 
 import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.nio.channels.Channels;
 import java.nio.charset.StandardCharsets;
-import java.sql.ResultSet;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.commons.csv.CSVRecord;
 import org.apache.commons.io.FilenameUtils;
@@ -48,8 +57,10 @@ import org.opengis.referencing.operation.MathTransform;
 import org.openrdf.rio.RDFFormat;
 
 import com.vividsolutions.jts.geom.Geometry;
+import com.vividsolutions.jts.io.WKTReader;
 
 import be.ugent.mmlab.rml.model.dataset.RMLDataset;
+import eu.slipo.athenarc.triplegeo.db.RowSource;
 import eu.slipo.athenarc.triplegeo.osm.OSMRecord;
 
 
@@ -69,8 +80,14 @@ import eu.slipo.athenarc.triplegeo.osm.OSMRecord;
  * Modified: 14/2/2018; integrated handling of OSM records
  * Modified: 9/5/2018; integrated handling of GPX data 
  * Modified: 31/5/2018; integrated handling of classifications for OSM data
+ * Modified: 18/10/2026; optional pipeline with a reader, several transformation workers, and a serializer thread communicating through bounded queues
+ * Modified: 18/10/2026; optional direct encoding of triples into N-TRIPLES bytes, bypassing Jena triples and the riot stream writer
+ * Modified: 18/10/2026; geometries handed over to the generator of triples in a GeometryContext, avoiding repeated parsing of their WKT
  * TODO: Determine data types for attributes in the resultset retrieved from DBMS and utilize them in transformation.
- * Last modified: 10/10/2018
+ * Modified: 18/10/2026; geometries retrieved from a DBMS in Well-Known Binary are decoded directly into geometry objects
+ * Modified: 18/10/2026; parsing of records copied in binary format from a PostGIS database, without any ResultSet
+ * Modified: 18/10/2026; records from a DBMS parsed in a single loop over a RowSource, either over a ResultSet or copied in binary format
+ * Last modified: 18/10/2026
  */
 
 public class StreamConverter implements Converter {
@@ -91,6 +108,17 @@ public class StreamConverter implements Converter {
 	private BufferedWriter registryWriter = null;
 	private OutputStream outFile = null;
 	private StreamRDF stream;
+	private NTriplesEncoder encoder = null;                 //Used instead of the stream in case of direct encoding of triples into N-TRIPLES
+	
+	//Used in the pipeline of concurrent transformation (only if multiple workers have been specified)
+	private ExecutorService workers = null;                 //Worker threads that transform batches of records into triples
+	private ThreadLocal<Worker> worker;                     //Each worker thread employs its own generator of triples
+	private List<TripleGenerator> workerGenerators;         //Generators employed by all workers; used in reporting statistics
+	private BlockingQueue<Future<Batch>> pending;           //Bounded queue of batches submitted for transformation, in their original order
+	private Thread serializer = null;                       //Thread that streamlines transformed batches to the output file
+	private List<Record> batch;                             //Records read from the input, not yet submitted for transformation
+	private Assistant progress;                             //Used in notifying the user about progress in the pipeline
+	private final Future<Batch> END = CompletableFuture.completedFuture(null);     //Marks the end of input in the queue of pending batches
 	  
 
 	/**
@@ -139,6 +167,14 @@ public class StreamConverter implements Converter {
 	    }
 	    //******************************************************************
 	    
+		//Triples may be directly encoded into N-TRIPLES bytes written to the output file, without creating Jena triples
+		if (currentConfig.directEncoding)
+		{
+			encoder = new NTriplesEncoder(((FileOutputStream) outFile).getChannel());
+			myGenerator.setEncoder(encoder);
+			return;
+		}
+		
 		//CAUTION! Hard constraint: serialization into N-TRIPLES is only supported by Jena riot (stream) interface  
 		stream = StreamRDFWriter.getWriterStream(outFile, Lang.NT);
 		stream.start();             //Start issuing streaming triples
@@ -199,6 +235,13 @@ public class StreamConverter implements Converter {
 		        	if (feature.getAttribute(col) != null)         //Exclude NULL values
 		        		row.put(col, feature.getAttribute(col).toString());
 		        }
+		        
+		        //Hand over this record to the pipeline, which will take care of its reprojection and transformation
+		        if (currentConfig.numWorkers > 0)
+		        {
+		        	submit(myAssistant, new Record(row, geometry, null, true, reproject, classific, targetSRID));
+		        	continue;
+		        }
 				
 				//CRS transformation
 		      	if (reproject != null)
@@ -206,13 +249,14 @@ public class StreamConverter implements Converter {
 		        
 		        //Get WKT representation of the transformed geometry
 		      	wkt = myAssistant.geometry2WKT(geometry, currentConfig.targetGeoOntology.trim());
+		      	GeometryContext geom = new GeometryContext(myAssistant, geometry, wkt, targetSRID);     //Geometry is handed over, so its WKT is never parsed
 		      	
 		      	//Pass this tuple for conversion to RDF triples 
-		      	String uri = myGenerator.transform(row, wkt, targetSRID, classific);
+		      	String uri = myGenerator.transform(row, geom, classific);
 				
 				//Get a record with basic attribute that will be used for the SLIPO Registry
 				if (myRegister != null)
-					myRegister.createTuple(uri, row, wkt, targetSRID);
+					myRegister.createTuple(uri, row, geom);
 				
 				++numRec;
 			  
@@ -239,61 +283,56 @@ public class StreamConverter implements Converter {
 	
 
 	/**
-	 * Parses each record from a ResultSet and streamlines the resulting triples (including geometric and non-spatial attributes).
+	 * Parses each record retrieved from a DBMS and streamlines the resulting triples (including geometric and non-spatial attributes).
 	 * Applicable in STREAM transformation mode.
-	 * Input provided via a ResultSet. This method is used for input from a DMBS.
+	 * Input provided via a RowSource, either over a ResultSet or over records copied in binary format from PostGIS (if so specified in the configuration). This method is used for input from a DMBS.
 	 * @param myAssistant  Instantiation of Assistant class to perform auxiliary operations (geometry transformations, auto-generation of UUIDs, etc.)
-	 * @param rs  ResultSet containing spatial features retrieved from a DBMS.
+	 * @param rows  Source of spatial features retrieved from a DBMS; closed once all records are parsed.
 	 * @param classific  Instantiation of the classification scheme that assigns categories to input features.
 	 * @param reproject  CRS transformation parameters to be used in reprojecting a geometry to a target SRID (EPSG code).
 	 * @param targetSRID  Spatial reference system (EPSG code) of geometries in the output RDF triples.
 	 * @param outputFile  Path to the output file that collects RDF triples.
 	 */			
-	public void parse(Assistant myAssistant, ResultSet rs, Classification classific, MathTransform reproject, int targetSRID, String outputFile)
+	public void parse(Assistant myAssistant, RowSource rows, Classification classific, MathTransform reproject, int targetSRID, String outputFile)
 	{   
 		  try
 		  {
-			  //Identify the names of all columns, excluding those containing spatial information
-			  List<String> columns = new ArrayList<String>(rs.getMetaData().getColumnCount());
-			  for (int i = 1; i <= rs.getMetaData().getColumnCount(); i++)
-				  if (!(rs.getMetaData().getColumnName(i).equalsIgnoreCase(currentConfig.attrGeometry)) && (!rs.getMetaData().getColumnName(i).equalsIgnoreCase("WktGeometry")))
-					  columns.add(rs.getMetaData().getColumnName(i));
-			  
 			  //Iterate through all records
-			  while (rs.next()) 
+			  while (rows.next()) 
 			  {
-		        //Convert resultset into a temporary tuple for conversion of all non-spatial attributes
-		        Map<String,String> row = new HashMap<String, String>();
-		        for (String col : columns) {
-		        	row.put(col, rs.getString(col));
-		        }
+		        //Collect all non-spatial attributes into a temporary tuple for conversion
+		        Map<String,String> row = rows.getRow();
 				
 		        String wkt = null;
+		        Geometry geometry = null;
 		      	//Handle geometry attribute, if specified
 				if ((currentConfig.attrGeometry == null) && (currentConfig.attrX != null) && (currentConfig.attrY != null))       
 				{    //In case no single geometry attribute with WKT values is specified, compose WKT from a pair of coordinates
-				    String x = rs.getString(currentConfig.attrX);    //X-ordinate or longitude
-				    String y = rs.getString(currentConfig.attrY);    //Y-ordinate or latitude
+				    String x = rows.getString(currentConfig.attrX);    //X-ordinate or longitude
+				    String y = rows.getString(currentConfig.attrY);    //Y-ordinate or latitude
 				    if ((x != null) && (y != null))
 				    	wkt = "POINT (" + x + " " + y + ")";
 				}
-				else if (currentConfig.attrGeometry != null)
-				{
-			        if (myAssistant.pgdbDecoder != null)                //Geometry blob is read from a personal geodatabase, so its WKT must be created    	      	
-			  			wkt = myAssistant.blob2WKT(rs.getBlob(currentConfig.attrGeometry), reproject);    //Also reprojected, if necessary
-			        else
-			        {
-			          	wkt = rs.getString("WktGeometry");
-	//			        myAssistant.WKT2Geometry(wkt);                  //This is done only for updating the MBR of all geometries
-			        }
+				else
+				{    //Geometry either decoded without any WKT (and already reprojected, if necessary) or retrieved as WKT
+					geometry = rows.getGeometry();
+					wkt = rows.getWKT();
 				}
+				
+		        //Hand over this record to the pipeline; geometries have already been reprojected, if necessary
+		        if (currentConfig.numWorkers > 0)
+		        {
+		        	submit(myAssistant, new Record(row, geometry, wkt, false, null, classific, targetSRID));
+		        	continue;
+		        }
 	
 		        //Pass this tuple for conversion to RDF triples 
-		      	String uri = myGenerator.transform(row, wkt, targetSRID, classific);
+				GeometryContext geom = ((geometry != null) || (wkt != null)) ? new GeometryContext(myAssistant, geometry, wkt, targetSRID) : null;     //Its WKT will be parsed at most once
+		      	String uri = myGenerator.transform(row, geom, classific);
 		      		
 				//Get a record with basic attribute that will be used for the SLIPO Registry
 				if (myRegister != null)
-					myRegister.createTuple(uri, row, wkt, targetSRID);
+					myRegister.createTuple(uri, row, geom);
 				
 				++numRec;
 				  
@@ -309,6 +348,7 @@ public class StreamConverter implements Converter {
 				ExceptionHandler.warn(e, "An error occurred during transformation of an input record.");
 		  }
 		  finally {
+			  rows.close();
 			  collectTriples();     //Dump any pending results into output file
 		  }
 		  
@@ -351,21 +391,28 @@ public class StreamConverter implements Converter {
 				else if (currentConfig.attrGeometry != null)
 					wkt = rs.get(currentConfig.attrGeometry);  //ASSUMPTION: Geometry values are given as WKT
 				
+		        //Hand over this record to the pipeline, which will take care of its reprojection and transformation
+		        if (currentConfig.numWorkers > 0)
+		        {
+		        	submit(myAssistant, new Record(rs.toMap(), null, wkt, false, reproject, classific, targetSRID));
+		        	continue;
+		        }
+				
+				GeometryContext geom = null;
 		      	if (wkt != null)
-		      	{							
+		      	{
+			      	geom = new GeometryContext(myAssistant, null, wkt, targetSRID);
 					//CRS transformation
 			      	if (reproject != null)
-			      		wkt = myAssistant.wktTransform(wkt, reproject);     //Get transformed WKT representation
-//				    else	
-//				        myAssistant.WKT2Geometry(wkt);                      //This is done only for updating the MBR of all geometries
+			      		geom.transform(reproject);          //The transformed geometry is retained, so its WKT will not be parsed again
 		      	}
 		      	
 		      	//Pass this tuple for conversion to RDF triples 
-		      	String uri = myGenerator.transform(rs.toMap(), wkt, targetSRID, classific);
+		      	String uri = myGenerator.transform(rs.toMap(), geom, classific);
 			
 				//Get a record with basic attribute that will be used for the SLIPO Registry
 				if (myRegister != null)
-					myRegister.createTuple(uri, rs.toMap(), wkt, targetSRID);
+					myRegister.createTuple(uri, rs.toMap(), geom);
 				
 				++numRec;
 				  
@@ -401,51 +448,50 @@ public class StreamConverter implements Converter {
 	 */	
 	public void parse(Assistant myAssistant, OSMRecord rs, Classification classific, MathTransform reproject, int targetSRID) 
 	{	
+		//Hand over this record to the pipeline, which will take care of its reprojection and transformation
+		if (currentConfig.numWorkers > 0)
+		{
+			try {
+				Map<String, String> attrValues = getOSMAttributes(rs);
+				if (attrValues != null)          //CAUTION! Do not proceed to transform unless this feature complies with the filtering tags specified by the user
+				{
+					Geometry geometry = ((rs.getGeometry() != null) && (!rs.getGeometry().isEmpty())) ? rs.getGeometry() : null;
+					Record rec = new Record(attrValues, geometry, null, false, reproject, classific, targetSRID);
+					rec.osmID = rs.getID();
+					submit(myAssistant, rec);
+				}
+			} catch (Exception e) {
+				System.out.println("Problem at element with OSM id: " + rs.getID() + ". Excluded from transformation.");
+			}
+			return;
+		}
+		
 		try {
 			//CAUTION! On-the-fly generation of a UUID for this feature, giving as seed the data source and the identifier of that feature
 			//String uuid = myAssistant.getUUID(currentConfig.featureSource, rs.getID()).toString();
 			
   	        //Parse geometric representation
-			String wkt = null;
+			GeometryContext geom = null;
 			if ((rs.getGeometry() != null) && (!rs.getGeometry().isEmpty()))
 			{
-				wkt = rs.getGeometry().toText();       //Get WKT representation	
-				if (wkt != null)
-				{							
-					//CRS transformation
-			      	if (reproject != null)
-			      		wkt = myAssistant.wktTransform(wkt, reproject);     //Get transformed WKT representation
-//				    else	
-//				      	myAssistant.WKT2Geometry(wkt);                      //This is done only for updating the MBR of all geometries
-				}
+				geom = new GeometryContext(myAssistant, rs.getGeometry(), null, targetSRID);     //Geometry is handed over, so its WKT is never parsed
+				//CRS transformation
+				if (reproject != null)
+					geom.transform(reproject);
 			}
 
 			//Tags to be processed as attribute values
-			Map <String, String> attrValues = new HashMap<String, String>(rs.getTagKeyValue());
-			
-	      	//Include standard attributes for OSM identifier, name, and type
-	      	attrValues.put("osm_id", rs.getID());
-	      	attrValues.put("name", rs.getName());
-	      	attrValues.put("type", rs.getType());
-	      	
-		  	//Include identified category in these tags as an extra attribute
-	      	if (rs.getCategory() != null)
-	      	{
-	      		if (currentConfig.attrCategory != null)                //Attribute to be used in the Registry as well
-	      			attrValues.put(currentConfig.attrCategory, rs.getCategory());      
-	      		else
-	      			attrValues.put("OSM_Category", rs.getCategory());  //Ad-hoc name for this extra attribute
-	      	}
-	      	else
+			Map <String, String> attrValues = getOSMAttributes(rs);
+	      	if (attrValues == null)
 	      		return;          //CAUTION! Do not proceed to transform unless this feature complies with the filtering tags specified by the user
 	      	
 	      	//Process all available non-spatial attributes as specified in the collected (tag,value) pairs	
 	        //... including a classification hierarchy from the OSM tags used in filtering
-			String uri = myGenerator.transform(attrValues, wkt, targetSRID, classific);
+			String uri = myGenerator.transform(attrValues, geom, classific);
 
 			//Get a record with basic attribute that will be used for the SLIPO Registry
 			if (myRegister != null)
-				myRegister.createTuple(uri, attrValues, wkt, targetSRID);
+				myRegister.createTuple(uri, attrValues, geom);
 			
 			++numRec;
 			  
@@ -463,6 +509,36 @@ public class StreamConverter implements Converter {
 			collectTriples();     //Dump any pending results into output file
 		}
 	}
+	
+	
+	/**
+	 * Collects attribute values from the tags of an OSM record, including standard attributes for its identifier, name, type, and category.
+	 * @param rs  Representation of an OSM record with attributes extracted from an OSM element (node, way, or relation).
+	 * @return  Attribute values for each thematic (non-spatial) attribute; null, if no category has been identified for this OSM record.
+	 */
+	private Map<String, String> getOSMAttributes(OSMRecord rs) {
+		
+		//Tags to be processed as attribute values
+		Map <String, String> attrValues = new HashMap<String, String>(rs.getTagKeyValue());
+		
+      	//Include standard attributes for OSM identifier, name, and type
+      	attrValues.put("osm_id", rs.getID());
+      	attrValues.put("name", rs.getName());
+      	attrValues.put("type", rs.getType());
+      	
+	  	//Include identified category in these tags as an extra attribute
+      	if (rs.getCategory() != null)
+      	{
+      		if (currentConfig.attrCategory != null)                //Attribute to be used in the Registry as well
+      			attrValues.put(currentConfig.attrCategory, rs.getCategory());      
+      		else
+      			attrValues.put("OSM_Category", rs.getCategory());  //Ad-hoc name for this extra attribute
+      	}
+      	else
+      		return null;
+      	
+      	return attrValues;
+	}
 
 	/**
 	 * Parses a single GPX waypoint/track or a single JSON node and streamlines the resulting triples (including geometric and non-spatial attributes).
@@ -480,16 +556,24 @@ public class StreamConverter implements Converter {
 		try {
 			String uri;
 			
+			//Hand over this record to the pipeline for its transformation
+			if (currentConfig.numWorkers > 0)
+			{
+				submit(myAssistant, new Record(attrValues, null, wkt, false, null, (currentConfig.attrCategory == null) ? null : classific, targetSRID));
+				return;
+			}
+			
 			//Pass this tuple for conversion to RDF triples 
+			GeometryContext geom = (wkt != null) ? new GeometryContext(myAssistant, null, wkt, targetSRID) : null;
 			if (currentConfig.attrCategory == null)
-				uri = myGenerator.transform(attrValues, wkt, targetSRID, null);         //There no category specified for this feature,...
+				uri = myGenerator.transform(attrValues, geom, null);         //There no category specified for this feature,...
 			else
-				uri = myGenerator.transform(attrValues, wkt, targetSRID, classific);	//..., otherwise utilize the user-specified classification hierarchy		
+				uri = myGenerator.transform(attrValues, geom, classific);	//..., otherwise utilize the user-specified classification hierarchy		
 
 			
 			//Get a record with basic attribute that will be used for the SLIPO Registry
 			if (myRegister != null)
-				myRegister.createTuple(uri, attrValues, wkt, targetSRID);
+				myRegister.createTuple(uri, attrValues, geom);
 			
 			++numRec;
 			  
@@ -538,26 +622,26 @@ public class StreamConverter implements Converter {
 					wkt = attrValues.get(currentConfig.attrGeometry);  //ASSUMPTION: Geometry values are given as WKT
 			}
 
+			GeometryContext geom = null;
 			if (wkt != null)
 			{
+				geom = new GeometryContext(myAssistant, null, wkt, targetSRID);
 				//CRS transformation
 				if (reproject != null)
-					wkt = myAssistant.wktTransform(wkt, reproject);     //Get transformed WKT representation
-//				    else
-//				        myAssistant.WKT2Geometry(wkt);                      //This is done only for updating the MBR of all geometries
+					geom.transform(reproject);          //The transformed geometry is retained, so its WKT will not be parsed again
 			}
 
 			String uri;
 			//Pass this tuple for conversion to RDF triples
 			if (currentConfig.attrCategory == null)
-				uri = myGenerator.transform(attrValues, wkt, targetSRID, null);         //There no category specified for this feature,...
+				uri = myGenerator.transform(attrValues, geom, null);         //There no category specified for this feature,...
 			else
-				uri = myGenerator.transform(attrValues, wkt, targetSRID, classific);	//..., otherwise utilize the user-specified classification hierarchy
+				uri = myGenerator.transform(attrValues, geom, classific);	//..., otherwise utilize the user-specified classification hierarchy
 
 
 			//Get a record with basic attribute that will be used for the SLIPO Registry
 			if (myRegister != null)
-				myRegister.createTuple(uri, attrValues, wkt, targetSRID);
+				myRegister.createTuple(uri, attrValues, geom);
 
 			++numRec;
 
@@ -577,12 +661,309 @@ public class StreamConverter implements Converter {
 	}
 
 
+	
+	/**
+	 * A record read from the input, pending its transformation by a worker of the pipeline.
+	 */
+	private static class Record {
+		
+		final Map<String, String> row;          //Attribute values for each thematic (non-spatial) attribute
+		final Geometry geometry;                //Original geometry; null, if this is already available as WKT
+		final String wkt;                       //Well-Known Text representation of the geometry, if already available
+		final boolean formatted;                //Whether the WKT must be formatted according to the target geometry ontology
+		final MathTransform reproject;          //CRS transformation parameters; null, if no reprojection is required
+		final Classification classific;         //Classification scheme that assigns a category to this record
+		final int targetSRID;                   //Spatial reference system (EPSG code) of geometries in the output RDF triples
+		String osmID = null;                    //Identifier of an OSM element; only used in reporting problems
+		
+		Record(Map<String, String> row, Geometry geometry, String wkt, boolean formatted, MathTransform reproject, Classification classific, int targetSRID) {
+			this.row = row;
+			this.geometry = geometry;
+			this.wkt = wkt;
+			this.formatted = formatted;
+			this.reproject = reproject;
+			this.classific = classific;
+			this.targetSRID = targetSRID;
+		}
+	}
+	
+	
+	/**
+	 * A batch of records transformed by a worker of the pipeline, i.e., the resulting triples and tuples for the SLIPO Registry.
+	 */
+	private static class Batch {
+		
+		final List<Triple> triples = new ArrayList<Triple>();
+		final List<String> tuples = new ArrayList<String>();
+		ByteArrayOutputStream bytes = null;     //Triples already encoded into N-TRIPLES, in case of direct encoding
+		int numTriples = 0;                     //Number of triples resulting from this batch
+		int numRec = 0;                         //Number of records successfully transformed in this batch
+	}
+	
+	
+	/**
+	 * Utilities employed by a single worker of the pipeline, since generators of triples and WKT parsers are not thread-safe.
+	 */
+	private class Worker {
+		
+		final TripleGenerator generator;
+		final FeatureRegister register;
+		final Assistant assistant;
+		final NTriplesEncoder encoder;
+		
+		Worker() {
+			generator = new TripleGenerator(currentConfig);
+			generator.myAssistant = myGenerator.myAssistant;    //CAUTION! Serial numbers used in URIs must be shared among all workers
+			workerGenerators.add(generator);
+			if (StreamConverter.this.encoder != null)
+			{
+				encoder = new NTriplesEncoder(null);      //Output channel is specified per batch
+				generator.setEncoder(encoder);
+			}
+			else
+				encoder = null;
+			if (myRegister != null)
+			{
+				register = new FeatureRegister(currentConfig);
+				register.includeAttribute(currentConfig.attrKey);
+				register.includeAttribute(currentConfig.attrName);
+				register.includeAttribute(currentConfig.attrCategory);
+			}
+			else
+				register = null;
+			assistant = new Assistant();
+			assistant.wktReader = new WKTReader();
+		}
+		
+		/**
+		 * Reprojects the geometries of the given records (if necessary) and converts them into RDF triples.
+		 * @param records  A batch of records read from the input.
+		 * @return  The resulting triples and tuples for the SLIPO Registry.
+		 */
+		Batch transform(List<Record> records) {
+			
+			Batch b = new Batch();
+			int numTriples = 0;
+			if (encoder != null)
+			{
+				b.bytes = new ByteArrayOutputStream();
+				encoder.setChannel(Channels.newChannel(b.bytes));
+				numTriples = encoder.getNumTriples();
+			}
+			
+			for (Record rec: records)
+			{
+				try {
+					GeometryContext geom = null;
+					if ((rec.geometry != null) || (rec.wkt != null))
+					{
+						geom = new GeometryContext(assistant, rec.geometry, rec.wkt, rec.targetSRID);
+						if (rec.reproject != null)
+							geom.transform(rec.reproject);
+						if (rec.formatted)             //WKT must be formatted according to the target geometry ontology
+							geom = new GeometryContext(assistant, geom.getGeometry(), assistant.geometry2WKT(geom.getGeometry(), currentConfig.targetGeoOntology.trim()), rec.targetSRID);
+					}
+					
+			      	//Pass this tuple for conversion to RDF triples 
+					String uri = generator.transform(rec.row, geom, rec.classific);
+					
+					//Get a record with basic attribute that will be used for the SLIPO Registry
+					if (register != null)
+						register.createTuple(uri, rec.row, geom);
+					
+					b.numRec++;
+				}
+				catch (Exception e) {
+					if (rec.osmID != null)
+						System.out.println("Problem at element with OSM id: " + rec.osmID + ". Excluded from transformation.");
+					else
+						ExceptionHandler.warn(e, "An error occurred during transformation of an input record.");
+				}
+			}
+			
+			//Hand over the results and clean up, in order to collect the new ones derived from the next batch
+			if (encoder != null)
+			{
+				encoder.flush();
+				b.numTriples = encoder.getNumTriples() - numTriples;
+			}
+			else
+			{
+				b.triples.addAll(generator.getTriples());
+				b.numTriples = b.triples.size();
+				generator.clearTriples();
+			}
+			if (register != null)
+			{
+				b.tuples.addAll(register.getTuples4Registry());
+				register.clearTuples4Registry();
+			}
+			
+			return b;
+		}
+	}
+	
+	
+	/**
+	 * Starts the pipeline of concurrent transformation: records read from the input are handed over in batches to several workers, 
+	 * whereas a single serializer thread streamlines the resulting triples into the output file in their original order.
+	 * @param myAssistant  Instantiation of Assistant class used in notifying the user about progress.
+	 */
+	private void startPipeline(Assistant myAssistant) {
+		
+		progress = myAssistant;
+		workerGenerators = Collections.synchronizedList(new ArrayList<TripleGenerator>());
+		worker = new ThreadLocal<Worker>() {
+			@Override
+			protected Worker initialValue() {
+				return new Worker();
+			}
+		};
+		workers = Executors.newFixedThreadPool(currentConfig.numWorkers);
+		//CAUTION! Bounded queue: reading blocks if workers or serializer fall behind, so memory consumption remains bounded
+		pending = new ArrayBlockingQueue<Future<Batch>>(2 * currentConfig.numWorkers);
+		batch = new ArrayList<Record>(currentConfig.batch_size);
+		
+		serializer = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				serialize();
+			}
+		}, Thread.currentThread().getName());
+		serializer.start();
+	}
+	
+	
+	/**
+	 * Hands over a record to the pipeline; the pipeline is started upon the first record.
+	 * @param myAssistant  Instantiation of Assistant class used in notifying the user about progress.
+	 * @param rec  A record read from the input.
+	 * @throws InterruptedException
+	 */
+	private void submit(Assistant myAssistant, Record rec) throws InterruptedException {
+		
+		if (workers == null)
+			startPipeline(myAssistant);
+		
+		batch.add(rec);
+		if (batch.size() >= currentConfig.batch_size)
+			flushBatch();
+	}
+	
+	
+	/**
+	 * Submits the records collected thus far as a batch to be transformed by a worker.
+	 * @throws InterruptedException
+	 */
+	private void flushBatch() throws InterruptedException {
+		
+		if (batch.isEmpty())
+			return;
+		
+		final List<Record> records = batch;
+		batch = new ArrayList<Record>(currentConfig.batch_size);
+		pending.put(workers.submit(new Callable<Batch>() {
+			@Override
+			public Batch call() {
+				return worker.get().transform(records);
+			}
+		}));
+	}
+	
+	
+	/**
+	 * Streamlines transformed batches into the output file in the same order they were submitted. Executed by the serializer thread of the pipeline.
+	 */
+	private void serialize() {
+		
+		try {
+			Future<Batch> f;
+			while ((f = pending.take()) != END)
+			{
+				Batch b = f.get();                  //Wait until the next batch in order has been transformed
+				
+				//Append each triple to the output stream 
+				if (b.bytes != null)
+					b.bytes.writeTo(outFile);
+				else
+				{
+					for (Triple t: b.triples)
+						stream.triple(t);
+				}
+				numTriples += b.numTriples;
+				
+				//Keep all attribute values required for registering in the SLIPO Registry
+				if (registryWriter != null)
+				{
+					for (String aTuple: b.tuples)
+					{
+						registryWriter.write(aTuple);
+						registryWriter.newLine();
+					}
+				}
+				
+				numRec += b.numRec;
+				progress.notifyProgress(numRec);
+			}
+		}
+		catch (Exception e) {
+			ExceptionHandler.abort(e, "An error occurred during serialization of transformed records.");
+		}
+	}
+	
+	
+	/**
+	 * Waits until all records handed over to the pipeline have been transformed and streamlined into the output file.
+	 */
+	private void finishPipeline() {
+		
+		if (workers == null)
+			return;             //Pipeline not in use
+		
+		try {
+			flushBatch();
+			pending.put(END);
+			serializer.join();
+		}
+		catch (InterruptedException e) {
+			ExceptionHandler.abort(e, "Transformation was interrupted.");
+		}
+		finally {
+			workers.shutdown();
+		}
+	}
+	
+	
+	/**
+	 * Provides statistics on the attributes of all transformed records, collected by the generator of triples and by those of the pipeline workers (if any).
+	 * @return  Number of NOT NULL values per attribute.
+	 */
+	private Map<String, Integer> getStatistics() {
+		
+		if (workerGenerators == null)
+			return myGenerator.getStatistics();
+		
+		Map<String, Integer> stats = new HashMap<String, Integer>(myGenerator.getStatistics());
+		for (TripleGenerator g: workerGenerators)
+		{
+			for (Map.Entry<String, Integer> e: g.getStatistics().entrySet())
+			{
+				Integer count = stats.get(e.getKey());
+				stats.put(e.getKey(), (count == null) ? e.getValue() : count + e.getValue());
+			}
+		}
+		return stats;
+	}
+	
 		
 	/**
 	 * Collects RDF triples generated from a batch of features (their thematic attributes and their geometries) and streamlines them to output file.
 	 */
 	private void collectTriples() 
 	{
+		if (workers != null)
+			return;               //Triples are streamlined to the output file by the serializer thread of the pipeline
+		
 		try {	        		
 			//Append each triple to the output stream 
 			for (int i = 0; i <= myGenerator.getTriples().size()-1; i++) {
@@ -593,6 +974,10 @@ public class StreamConverter implements Converter {
 			//Clean up RDF triples, in order to collect the new ones derived from the next batch of features
 			myGenerator.clearTriples();
 			
+			//In case of direct encoding, triples have already been written into the output file
+			if (encoder != null)
+				numTriples = encoder.getNumTriples();
+			
 			//******************************************************************
 			//Keep all attribute values required for registering in the SLIPO Registry
 			if ((registryWriter != null) && (!myRegister.getTuples4Registry().isEmpty()))
@@ -614,6 +999,27 @@ public class StreamConverter implements Converter {
 	}
 		
 
+	/**
+	 * Writes any pending triples into the output file.
+	 */
+	private void finishOutput()
+	{
+		if (encoder == null)
+		{
+			stream.finish();
+			return;
+		}
+		
+		//In case of direct encoding, flush the remaining bytes and close the output file
+		encoder.flush();
+		try {
+			outFile.close();
+		} catch (IOException e) {
+			ExceptionHandler.abort(e, "An error occurred while writing triples to the output file.");
+		}
+	}
+	
+	
 	/**
 	 * Finalizes storage of resulting tuples into a file.	
 	 * @param myAssistant  Instantiation of Assistant class to perform auxiliary operations (geometry transformations, auto-generation of UUIDs, etc.)
@@ -621,7 +1027,9 @@ public class StreamConverter implements Converter {
 	 */	
 	public void store(Assistant myAssistant, String outputFile)
 	{
-		stream.finish();               //Finished issuing triples
+		finishPipeline();              //Wait until all records have been transformed and streamlined to the output file
+		
+		finishOutput();                //Finished issuing triples
 		
 		//******************************************************************
 		//Close the file that will collect all tuples for the SLIPO Registry
@@ -634,7 +1042,7 @@ public class StreamConverter implements Converter {
 		//******************************************************************
 	    //Measure execution time and issue statistics on the entire process
 	    dt = System.currentTimeMillis() - t_start;
-	    myAssistant.reportStatistics(dt, numRec, numTriples, currentConfig.serialization, myGenerator.getStatistics(), currentConfig.mode, currentConfig.targetCRS, outputFile);
+	    myAssistant.reportStatistics(dt, numRec, numTriples, currentConfig.serialization, getStatistics(), currentConfig.mode, currentConfig.targetCRS, outputFile);
 	}
 
 
@@ -646,7 +1054,7 @@ public class StreamConverter implements Converter {
 	 */
 	public void store(Assistant myAssistant, String outputFile, int partition_index)
 	{
-		stream.finish();               //Finished issuing triples
+		finishOutput();                //Finished issuing triples
 
 		//******************************************************************
 		//Close the file that will collect all tuples for the SLIPO Registry
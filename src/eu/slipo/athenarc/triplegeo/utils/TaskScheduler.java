@@ -0,0 +1,228 @@
+/*
+ * @(#) TaskScheduler.java 	 version 1.6   18/10/2026
+ *
+ * Copyright (C) 2013-2018 Information Systems Management Institute, Athena R.C., Greece.
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.slipo.athenarc.triplegeo.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Bounded scheduler for concurrent transformation tasks (e.g., one per input file).
+ * Tasks are executed by a fixed number of threads in descending order of their input size (i.e., largest first) in order to minimize the overall completion time.
+ * Each task also declares its estimated memory footprint, so that tasks running concurrently never exceed a given heap budget.
+ * A task is handed over to a thread only once both an idle thread and enough memory are available, so threads never sit blocked waiting for memory.
+ * @author agent
+ * @version 1.6
+ */
+
+/* DEVELOPMENT HISTORY
+ * Created by: agent, 18/10/2026
+ * Modified: 18/10/2026; thread and memory permits acquired before a task is handed over to the executor, so that no thread waits for memory
+ * Last modified: 18/10/2026
+ */
+public class TaskScheduler<T> {
+
+	private static final long MB = 1024 * 1024;          //Memory is accounted in megabytes
+
+	private final int maxThreads;                        //Maximum number of tasks to be executed concurrently
+	private final int memoryBudget;                      //Heap budget (in MB) for all concurrently executed tasks
+	private final Semaphore memory;                      //Memory permits (in MB) held by the running tasks
+	private Semaphore threads;                           //Threads not occupied by any running task
+	private final List<ScheduledTask> pending;           //Tasks submitted, but not yet started
+
+	/**
+	 * Settings for scheduling concurrent tasks, as specified in a configuration file.
+	 */
+	public static class Settings {
+
+		/**
+		 * Maximum number of tasks (e.g., input files or chunks) to be executed concurrently.
+		 * By default, this equals the number of available processors.
+		 */
+		public int maxThreads = 0;
+
+		/**
+		 * Heap budget (in MB) for all concurrently executed tasks. Tasks are delayed until enough memory has been released by other tasks.
+		 * By default, this is set to 75% of the maximum JVM heap size.
+		 */
+		public int memoryBudget = 0;
+
+		/**
+		 * Estimated heap memory (in MB) consumed by each task, apart from any in-memory indices (e.g., over OSM elements) proportional to the input size.
+		 */
+		public int taskMemory = 64;
+
+		/**
+		 * Reads the maximum number of threads, the heap budget and the estimated memory per task from the given properties, if specified.
+		 * @param properties  Properties specified in a configuration file.
+		 */
+		public void load(Properties properties) {
+			try {
+				maxThreads = getInt(properties, "maxThreads", maxThreads);
+				memoryBudget = getInt(properties, "memoryBudget", memoryBudget);
+				taskMemory = getInt(properties, "taskMemory", taskMemory);
+			}
+			catch(Exception e) {
+				ExceptionHandler.abort(e, "Incorrect value set for scheduling of concurrent tasks. Please specify positive integer values in your configuration file.");
+			}
+		}
+
+		private static int getInt(Properties properties, String key, int defaultValue) {
+			String val = properties.getProperty(key);
+			return ((val == null) || val.trim().isEmpty()) ? defaultValue : Integer.parseInt(val.trim());
+		}
+	}
+
+
+	/**
+	 * A task along with its input size and its estimated memory footprint.
+	 * Its thread and memory permits are acquired before it is handed over to the executor and released as soon as it is done, even if it fails or gets cancelled before running.
+	 */
+	private class ScheduledTask extends FutureTask<T> {
+
+		final long inputSize;                            //Size (in bytes) of the input to be handled by this task
+		final int permits;                               //Memory (in MB) that this task is estimated to consume
+
+		ScheduledTask(Callable<T> task, long inputSize, long memoryEstimate) {
+			super(task);
+			this.inputSize = inputSize;
+			//CAUTION! A task may never reserve more than the entire budget; otherwise, it would never be executed
+			this.permits = (int) Math.max(1, Math.min(memoryBudget, (memoryEstimate + MB - 1) / MB));
+		}
+
+		@Override
+		protected void done() {
+			memory.release(permits);
+			threads.release();
+		}
+	}
+
+
+	/**
+	 * Constructor of a scheduler for concurrent tasks.
+	 * @param maxThreads  Maximum number of tasks to be executed concurrently. If not positive, the number of available processors is used.
+	 * @param memoryBudget  Heap budget (in MB) for all concurrently executed tasks. If not positive, 75% of the maximum JVM heap size is used.
+	 */
+	public TaskScheduler(int maxThreads, int memoryBudget) {
+
+		this.maxThreads = (maxThreads > 0) ? maxThreads : Runtime.getRuntime().availableProcessors();
+		this.memoryBudget = (memoryBudget > 0) ? memoryBudget : (int) (0.75 * Runtime.getRuntime().maxMemory() / MB);
+		memory = new Semaphore(this.memoryBudget, true);      //Fair ordering of permits, so that large tasks will not starve
+		pending = new ArrayList<ScheduledTask>();
+	}
+
+
+	/**
+	 * Constructor of a scheduler for concurrent tasks.
+	 * @param settings  Maximum number of threads and heap budget (in MB) as specified in the configuration.
+	 */
+	public TaskScheduler(Settings settings) {
+		this(settings.maxThreads, settings.memoryBudget);
+	}
+
+
+	/**
+	 * Submits a task for execution.
+	 * @param task  The task to be executed.
+	 * @param inputSize  Size (in bytes) of the input to be handled by the task; used for ordering the tasks.
+	 * @param memoryEstimate  Estimated memory footprint (in bytes) of the task.
+	 */
+	public void submit(Callable<T> task, long inputSize, long memoryEstimate) {
+		pending.add(new ScheduledTask(task, inputSize, memoryEstimate));
+	}
+
+
+	/**
+	 * Provides the number of threads that will be used in executing the submitted tasks.
+	 * @return  The number of threads.
+	 */
+	public int getNumThreads() {
+		return Math.max(1, Math.min(maxThreads, pending.size()));
+	}
+
+
+	/**
+	 * Executes all submitted tasks (largest input first) and waits until all of them are completed.
+	 * @return  A list of Futures representing the tasks, in the same order as they were submitted.
+	 * @throws InterruptedException
+	 */
+	public List<Future<T>> invokeAll() throws InterruptedException {
+
+		List<ScheduledTask> ordered = new ArrayList<ScheduledTask>(pending);
+		Collections.sort(ordered, new Comparator<ScheduledTask>() {
+			@Override
+			public int compare(ScheduledTask a, ScheduledTask b) {
+				return Long.compare(b.inputSize, a.inputSize);
+			}
+		});
+
+		int numThreads = getNumThreads();
+		ExecutorService exec = Executors.newFixedThreadPool(numThreads);
+		threads = new Semaphore(numThreads);
+		int started = 0;
+		try {
+			//Hand over each task once a thread is idle and enough memory has been released by other tasks
+			for (ScheduledTask t: ordered)
+			{
+				threads.acquire();
+				try {
+					memory.acquire(t.permits);
+				} catch (InterruptedException e) {
+					threads.release();
+					throw e;
+				}
+				exec.execute(t);
+				started++;
+			}
+
+			//Wait until all tasks are completed
+			for (ScheduledTask t: ordered)
+			{
+				try {
+					t.get();
+				} catch (ExecutionException | CancellationException e) {
+					//Reported by the Future of this task
+				}
+			}
+
+			//Report the results in the original order of submission
+			return new ArrayList<Future<T>>(pending);
+		}
+		catch (InterruptedException e) {
+			for (ScheduledTask t: ordered.subList(0, started))
+				t.cancel(true);
+			throw e;
+		}
+		finally {
+			exec.shutdown();
+			pending.clear();
+		}
+	}
+
+}
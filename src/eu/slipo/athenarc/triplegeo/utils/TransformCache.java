@@ -0,0 +1,167 @@
+/*
+ * @(#) TransformCache.java 	 version 1.6   18/10/2026
+ *
+ * Copyright (C) 2013-2018 Information Systems Management Institute, Athena R.C., Greece.
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.slipo.athenarc.triplegeo.utils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.geotools.referencing.CRS;
+import org.opengis.referencing.FactoryException;
+import org.opengis.referencing.operation.MathTransform;
+
+/**
+ * Thread-safe cache of CRS transformations used in calculating values derived from geometries (e.g., lon/lat coordinates, area, length).
+ * Transformations between EPSG reference systems are kept per (source, target) pair, so that the EPSG database is consulted once per pair.
+ * Transformations into an auto projection (AUTO:42001, i.e., Universal Transverse Mercator) are kept per UTM zone and hemisphere,
+ * as this projection is identical for all locations within a zone.
+ * @author agent
+ * @version 1.6
+ */
+
+/* DEVELOPMENT HISTORY
+ * Created by: agent, 18/10/2026
+ * Last modified: 18/10/2026
+ */
+public final class TransformCache {
+
+	private static final Map<Long, MathTransform> transforms = new ConcurrentHashMap<Long, MathTransform>();        //Transformations per pair of EPSG codes
+	private static final Map<Long, MathTransform> autoTransforms = new ConcurrentHashMap<Long, MathTransform>();    //Transformations into auto projections per EPSG code and UTM zone
+	private static final AtomicLong hits = new AtomicLong();            //Number of requests served from the cache
+	private static final AtomicLong misses = new AtomicLong();          //Number of requests that had to create a transformation
+
+
+	private TransformCache() {
+
+	}
+
+
+	/**
+	 * Provides the transformation between two reference systems, creating it upon its first request.
+	 * @param sourceSRID  EPSG code of the source reference system.
+	 * @param targetSRID  EPSG code of the target reference system.
+	 * @return  The transformation.
+	 * @throws FactoryException
+	 */
+	public static MathTransform getTransform(int sourceSRID, int targetSRID) throws FactoryException {
+
+		Long key = ((long) sourceSRID << 32) | (targetSRID & 0xFFFFFFFFL);
+		MathTransform transform = transforms.get(key);
+		if (transform != null)
+		{
+			hits.incrementAndGet();
+			return transform;
+		}
+		misses.incrementAndGet();
+		return load(key, sourceSRID, targetSRID);
+	}
+
+
+	/**
+	 * Provides the transformation from a reference system into the auto projection (AUTO:42001) around a given location.
+	 * @param srid  EPSG code of the source reference system.
+	 * @param x  Longitude of the location (typically, the centroid of a geometry).
+	 * @param y  Latitude of the location (typically, the centroid of a geometry).
+	 * @return  The transformation.
+	 * @throws FactoryException
+	 */
+	public static MathTransform getAutoTransform(int srid, double x, double y) throws FactoryException {
+
+		//Locations outside the valid range of lon/lat coordinates are not cached, but handled as specified
+		if (!((x >= -180.0) && (x <= 180.0) && (y >= -90.0) && (y <= 90.0)))
+		{
+			misses.incrementAndGet();
+			return CRS.findMathTransform(CRS.decode("EPSG:" + srid), CRS.decode("AUTO:42001," + x + "," + y));
+		}
+
+		//Same UTM zone and hemisphere as chosen for this auto projection
+		int zone = (int) Math.min(Math.floor((x + 180.0) / 6.0) + 1, 60);
+		Long key = ((long) srid << 8) | (zone << 1) | ((y >= 0.0) ? 0 : 1);
+		MathTransform transform = autoTransforms.get(key);
+		if (transform != null)
+		{
+			hits.incrementAndGet();
+			return transform;
+		}
+		misses.incrementAndGet();
+		transform = CRS.findMathTransform(CRS.decode("EPSG:" + srid), CRS.decode("AUTO:42001," + x + "," + y));
+		MathTransform existing = autoTransforms.putIfAbsent(key, transform);
+		return (existing != null) ? existing : transform;
+	}
+
+
+	/**
+	 * Creates in advance the transformations into WGS84 for the reference systems specified in the configuration.
+	 * @param config  User-specified configuration for the transformation process.
+	 */
+	public static void prewarm(Configuration config) {
+
+		for (String crs: new String[] {config.sourceCRS, config.targetCRS})
+		{
+			if (crs == null)
+				continue;
+			try {
+				int srid = Integer.parseInt(crs.substring(crs.indexOf(':') + 1).trim());
+				if (srid != 4326)
+				{
+					Long key = ((long) srid << 32) | 4326L;
+					if (!transforms.containsKey(key))
+						load(key, srid, 4326);
+				}
+			} catch (Exception e) {
+				ExceptionHandler.warn(e, "Cannot prepare transformation from " + crs + " to WGS84.");
+			}
+		}
+	}
+
+
+	/**
+	 * Creates a transformation between two reference systems and keeps it in the cache.
+	 * @param key  The key of the transformation in the cache.
+	 * @param sourceSRID  EPSG code of the source reference system.
+	 * @param targetSRID  EPSG code of the target reference system.
+	 * @return  The transformation.
+	 * @throws FactoryException
+	 */
+	private static MathTransform load(Long key, int sourceSRID, int targetSRID) throws FactoryException {
+
+		MathTransform transform = CRS.findMathTransform(CRS.decode("EPSG:" + sourceSRID), CRS.decode("EPSG:" + targetSRID));
+		MathTransform existing = transforms.putIfAbsent(key, transform);
+		return (existing != null) ? existing : transform;
+	}
+
+
+	/**
+	 * Provides the number of requests for transformations that were served from the cache.
+	 * @return  The number of cache hits.
+	 */
+	public static long getHits() {
+		return hits.get();
+	}
+
+
+	/**
+	 * Provides the number of requests for transformations that had to be created (including those not cached).
+	 * @return  The number of cache misses.
+	 */
+	public static long getMisses() {
+		return misses.get();
+	}
+
+}
@@ -21,21 +21,19 @@ package eu.slipo.athenarc.triplegeo.utils;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 import org.apache.jena.datatypes.RDFDatatype;
 import org.apache.jena.datatypes.TypeMapper;
+import org.apache.jena.graph.Node;
 import org.apache.jena.graph.NodeFactory;
 import org.apache.jena.graph.Triple;
 import org.apache.jena.vocabulary.RDF;
 
-import com.vividsolutions.jts.geom.Geometry;
-
-import eu.slipo.athenarc.triplegeo.utils.Mapping.mapProperties;
 
 /**
  * Generates a collection of RDF triples from the (spatial & thematic) attributes of a given feature.
@@ -57,7 +55,15 @@ import eu.slipo.athenarc.triplegeo.utils.Mapping.mapProperties;
  * Modified: 27/7/2018; values in thematic (non-spatial) attributes get cleaned from special characters (e.g., newline, quotes, etc.) that may be problematic in the resulting triples
  * Modified: 27/7/2018; improved handling of URLs and language tags
  * Modified: 9/10/2018; allowing generation of URIs either using built-in functions or by retaining original IDs
- * Last modified: 26/10/2018
+ * Modified: 18/10/2026; optionally encoding triples directly into N-TRIPLES without creating intermediate Jena objects
+ * Modified: 18/10/2026; thematic attributes transformed according to a plan compiled once from the mapping and shared among all generators
+ * Modified: 18/10/2026; built-in functions invoked through method handles resolved once when loading the mapping, instead of reflection per record
+ * Modified: 18/10/2026; geometries handed over in a GeometryContext, so that their WKT is parsed once and derived values are reused
+ * Modified: 18/10/2026; added support for area and length of geometries calculated on the ellipsoid from their lon/lat coordinates
+ * Modified: 18/10/2026; predicates and data types resolved once into Jena nodes and kept in a bounded cache, instead of being created for each triple
+ * Modified: 18/10/2026; UUIDs used in URIs as issued, since they never need URL encoding
+ * Modified: 18/10/2026; records marked as deleted during incremental extraction only issue a deletion marker
+ * Last modified: 18/10/2026
  */
 
 public class TripleGenerator {
@@ -67,14 +73,44 @@ public class TripleGenerator {
 	private static Configuration currentConfig;
 
 	private List<Triple> results;          //Container of resulting triples
+	private NTriplesEncoder encoder = null;   //If specified, resulting triples are directly encoded into N-TRIPLES instead of being collected
 
 	Mapping attrMappings = null;           //Mapping of thematic attributes (input) to RDF predicates (output)
+	MappingPlan plan = null;               //Execution plan compiled from the mapping of thematic attributes
+	private int[] partStamps = new int[0]; //Per composite entity (e.g., address), the last record where its link to the feature was issued
+	private int stamp = 0;                 //Serial number of the record currently being transformed
 	Map<String, String> prefixes;          //Prefixes for namespaces employed during transformation and serialization of RDF triples
 	String attrURI = null;                 //Attribute used for the URI of features, as specified in the mapping of thematic attributes
 	String attrCategoryURI = null;         //Attribute used for the URI of categories, as specified in the mapping of thematic attributes
 	String attrDataSource = null;          //Attribute used for the name of data source, as specified in the mapping of thematic attributes
 	
 	Map<String, Integer> attrStatistics;   //Statistics for each attribute
+
+	private static final int MAX_CACHED_NODES = 4096;          //Maximum number of predicates kept in each cache of nodes
+	private final Map<String, Node> predicateNodes = new NodeCache();   //Nodes for predicates as specified (possibly with a prefix)
+	private final Map<String, Node> uriNodes = new NodeCache();         //Nodes for predicates already expanded into full URIs
+	private final Map<String, Node> attrNodes = new NodeCache();        //Nodes for predicates named after attributes of the input schema
+	private final RDFDatatype wktLiteralType;             //Data type of WKT literals in GeoSPARQL
+	private final RDFDatatype virtGeometryType;           //Data type of point geometries in Virtuoso
+	private final RDFDatatype floatType;                  //Data type of lon/lat coordinates in WGS84 Geoposition RDF vocabulary
+	private final RDFDatatype booleanType;                //Data type of deletion markers
+
+	/**
+	 * Bounded cache of nodes, evicting the least recently used ones once full.
+	 */
+	private static final class NodeCache extends LinkedHashMap<String, Node> {
+
+		private static final long serialVersionUID = 1L;
+
+		NodeCache() {
+			super(64, 0.75f, true);
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Node> eldest) {
+			return size() > MAX_CACHED_NODES;
+		}
+	}
 	
     /**
      * Constructs a TripleGenerator for transforming a feature (as a record of attributes) into RDF triples
@@ -91,6 +127,12 @@ public class TripleGenerator {
   
 	    attrStatistics = new HashMap<String, Integer>();
 	    
+	    //Data types used in geometry literals are resolved once
+	    wktLiteralType = TypeMapper.getInstance().getSafeTypeByName(Constants.NS_GEO + Constants.WKTLiteral);
+	    virtGeometryType = TypeMapper.getInstance().getSafeTypeByName(Constants.NS_VIRT + Constants.GEOMETRY);
+	    floatType = TypeMapper.getInstance().getSafeTypeByName(Constants.NS_XSD + "float");
+	    booleanType = TypeMapper.getInstance().getSafeTypeByName(Constants.NS_XSD + "boolean");
+	    
 	    //Keep prefixes as specified in the configuration
 	    prefixes = new HashMap<String, String>();
 	    for (int i=0; i<currentConfig.prefixes.length; i++)
@@ -99,10 +141,9 @@ public class TripleGenerator {
 	    //Attribute mappings should have been properly configured in a .YML file
 	    if (currentConfig.mappingSpec != null)
 	    {
-		    attrMappings = new Mapping();
-
-		    //Read mapping file from the path specified in configuration settings
-		    attrMappings.createFromFile(currentConfig.mappingSpec); 
+		    //Mapping file is read from the path specified in configuration settings and compiled into a plan shared by all generators
+		    plan = MappingPlan.getInstance(currentConfig, prefixes);
+		    attrMappings = plan.getMapping(); 
 			
 		    //Identify the extra attributes for category URIs and name of data source as specified in the mapping file
 		    for (String key: attrMappings.getKeys())
@@ -142,6 +183,16 @@ public class TripleGenerator {
 		  
 		  results.clear();	  
 	  }
+	  
+	  
+	  /**
+	   * Specifies an encoder that will directly write all resulting triples into N-TRIPLES, so these will no longer be collected as Jena triples.
+	   * @param encoder  The encoder of N-TRIPLES.
+	   */
+	  public void setEncoder(NTriplesEncoder encoder) {
+		  
+		  this.encoder = encoder;
+	  }
 	    
 
 	  /**
@@ -177,16 +228,29 @@ public class TripleGenerator {
 	   */
 	  public String transform(Map<String,String> row, String wkt, int targetSRID, Classification classific) {
 
+		  return transform(row, (wkt != null) ? new GeometryContext(myAssistant, null, wkt, targetSRID) : null, classific);
+	  }
+	  
+	  
+	  /**
+	   * Converts the given feature (a tuple with thematic attributes and its geometry) into RDF triples.
+	   * Values derived from the geometry (e.g., area, centroid) are taken from its context, so its WKT is not parsed repeatedly.
+	   * @param row  Attribute values for each thematic (non-spatial) attribute
+	   * @param geom  The geometry of the feature along with its CRS; null, if the feature has no geometry
+	   * @param classific  The classification scheme used in the category assigned to the feature
+	   * @return  The URI assigned to this feature and used in its resulting RDF triples
+	   */
+	  public String transform(Map<String,String> row, GeometryContext geom, Classification classific) {
+
 		String uri = null;	
 		try {
 			String uuid = null;
   	        //First, assign a URI to this feature
 	        if (attrMappings != null) 
 	        {
-	        	if (attrMappings.find(attrURI) != null)
+	        	if (plan.getURIFunction() != null)
 	        	{	//Generate URI according to the specified mapping using a built-in function
-	        		List<String> argv = getArgValues(attrMappings.find(attrURI).getFunctionArguments(), row);
-	        		uuid = (String) myAssistant.applyRuntimeMethod(attrMappings.find(attrURI).getGeneratorFunction(), argv.toArray(new Object[argv.size()]));
+	        		uuid = (String) plan.getURIFunction().function.apply(myAssistant, getArgValues(plan.getURIFunction().args, row));
 	        	}
 	        	else   //No mapping specified for URIs, so generate a random UUID
 	        		uuid = myAssistant.getRandomUUID();   
@@ -198,14 +262,23 @@ public class TripleGenerator {
 	        else
 	        {
 				//CAUTION! On-the-fly generation of a UUID for this feature, giving as seed the data source and the identifier of that feature
-				uuid = myAssistant.getUUID(currentConfig.featureSource, row.get(currentConfig.attrKey)).toString();
-				String encodingResource = myChecker.replaceWhiteSpace(URLEncoder.encode(uuid, Constants.UTF_8));	  	      
-	  	        uri = currentConfig.featureNS + encodingResource;
+				//UUIDs consist of hexadecimal digits and hyphens only, so no URL encoding is required
+				uuid = myAssistant.getUUID(currentConfig.featureSource, row.get(currentConfig.attrKey));
+	  	        uri = currentConfig.featureNS + uuid;
+	        }
+	        
+	        //A record marked as deleted (in incremental extraction) only gets a deletion marker
+	        if ((currentConfig.attrDeleted != null) && (isDeleted(row.remove(currentConfig.attrDeleted))))
+	        {
+	        	createTriple4TypedLiteral(uri, currentConfig.ontologyNS + "deleted", "true", booleanType);
+	        	updateStatistics(currentConfig.attrDeleted);
+	        	return uri;
 	        }
 	        
 	        //Then, parse geometric representation (including encoding to the target CRS)
-	        if (wkt != null)
+	        if (geom != null)
 	        {
+	        	String wkt = geom.getWKT();
 		        //Detect geometry type from the WKT representation (i.e., getting the text before parentheses)
 		  	  	String geomType = " ";
 		  	  	int a = wkt.indexOf("(");
@@ -215,34 +288,46 @@ public class TripleGenerator {
 		  	  	//Insert extra attributes derived from geometries
 		  	  	if (attrMappings != null)
 		  	  	{
-			  	  	List<String> g;
+			  	  	String g;
 			  	  	//Insert extra attributes concerning the CALCULATED area OR perimeter for polygons
 			  	  	if (geomType.toUpperCase().contains("POLYGON"))
 			  	  	{
-			  	  		g = attrMappings.findExtraGeometricAttr("getArea");
-			  	  		if (!g.isEmpty())
-			  	  			row.put(g.get(0), (myAssistant.applyRuntimeMethod("getArea", new Object[]{wkt, targetSRID})).toString());
+			  	  		g = plan.getAreaAttribute();
+			  	  		if (g != null)
+			  	  			row.put(g, String.valueOf(geom.getArea()));
 	
-			  	  		g = attrMappings.findExtraGeometricAttr("getLength");
-			  	  		if (!g.isEmpty())
-			  	  			row.put(g.get(0), (myAssistant.applyRuntimeMethod("getLength", new Object[]{wkt, targetSRID})).toString());
+			  	  		g = plan.getLengthAttribute();
+			  	  		if (g != null)
+			  	  			row.put(g, String.valueOf(geom.getLength()));
+
+			  	  		//Alternatively, calculated on the ellipsoid from lon/lat coordinates without projection
+			  	  		g = plan.getGeodesicAreaAttribute();
+			  	  		if (g != null)
+			  	  			row.put(g, String.valueOf(geom.getGeodesicArea()));
+
+			  	  		g = plan.getGeodesicLengthAttribute();
+			  	  		if (g != null)
+			  	  			row.put(g, String.valueOf(geom.getGeodesicLength()));
 			  	  	}
 			  	  	//Insert an extra property concerning the CALCULATED length of linestrings
 			  	  	else if (geomType.toUpperCase().contains("LINE"))
 			  	  	{
-			  	  		g = attrMappings.findExtraGeometricAttr("getLength");
-			  	  		if (!g.isEmpty())
-			  	  			row.put(g.get(0), (myAssistant.applyRuntimeMethod("getLength", new Object[]{wkt, targetSRID})).toString());
+			  	  		g = plan.getLengthAttribute();
+			  	  		if (g != null)
+			  	  			row.put(g, String.valueOf(geom.getLength()));
+
+			  	  		g = plan.getGeodesicLengthAttribute();
+			  	  		if (g != null)
+			  	  			row.put(g, String.valueOf(geom.getGeodesicLength()));
 			  	  	}
 			  	  	
 			  	  	//Insert extra attributes concerning lon/lat coordinates for the centroid 
-			  	  	Geometry geomProjected = myAssistant.geomTransformWGS84(wkt, targetSRID);
-			  	  	g = attrMappings.findExtraGeometricAttr("getLongitude");
-			  	  	if (!g.isEmpty())  		
-			  	  	    row.put(g.get(0), myAssistant.applyRuntimeMethod("getLongitude", new Object[]{geomProjected}).toString());	  
-			  	  	g = attrMappings.findExtraGeometricAttr("getLatitude");
-			  	  	if (!g.isEmpty())
-			  	  	    row.put(g.get(0), myAssistant.applyRuntimeMethod("getLatitude", new Object[]{geomProjected}).toString());		  	  
+			  	  	g = plan.getLongitudeAttribute();
+			  	  	if (g != null)  		
+			  	  	    row.put(g, String.valueOf(geom.getCentroid().getX()));	  
+			  	  	g = plan.getLatitudeAttribute();
+			  	  	if (g != null)
+			  	  	    row.put(g, String.valueOf(geom.getCentroid().getY()));		  	  
 /*		  	  	
 			  	    //ALTERNATIVE (NOT USED): Insert extra attributes concerning lon/lat coordinates for the centroid 
 			  	  	g = attrMappings.findExtraGeometricAttr("getLonLatCoords");
@@ -259,7 +344,7 @@ public class TripleGenerator {
 */		  	  
 		  	  	}
 		  	  	//Apply transformation for the geometry
-	        	transformGeometry2RDF(uri, wkt, targetSRID, geomType);		        	
+	        	transformGeometry2RDF(uri, geom, geomType);		        	
 	        }
 	        
   	        //Finally, transform thematic (non-spatial) attributes
@@ -280,6 +365,20 @@ public class TripleGenerator {
 	  }
 	  
 
+	/**
+	 * Checks whether the value of the attribute marking deleted records (tombstones) denotes deletion.
+	 * @param val  The value of the attribute, as a string.
+	 * @return  True, if the value is true, t, yes, y, or 1 (case-insensitive); otherwise, False.
+	 */
+	private static boolean isDeleted(String val) {
+		
+		if (val == null)
+			return false;
+		val = val.trim();
+		return (val.equalsIgnoreCase("true") || val.equalsIgnoreCase("t") || val.equalsIgnoreCase("yes") || val.equalsIgnoreCase("y") || val.equals("1"));
+	}
+	  
+
    /**
     * Handles all thematic (i.e., non-spatial) attributes of a feature, by simply issuing a triple with the original attribute name as property
     * @param uri  The URI assigned to this feature
@@ -301,7 +400,7 @@ public class TripleGenerator {
   	        		String val = attrValues.get(key);
   	        		if ((val != null) && (!val.equals("")) && (!val.contains("Null")))       //Issue triples for NOT NULL/non-empty values only
   	        		{
-  	        			createTriple4PlainLiteral(uri, myChecker.replaceWhiteSpace(currentConfig.ontologyNS + URLEncoder.encode(key, Constants.UTF_8)), val);
+  	        			emitPlainLiteral(uri, attrNode(key), val);
   	        			updateStatistics(key);                        //Update count of NOT NULL values transformed for this attribute
   	        		}
   	        	}
@@ -322,15 +421,27 @@ public class TripleGenerator {
 	 */
 	public void transformGeometry2RDF(String uri, String wkt, int srid, String geomType) {	 
 		
+		transformGeometry2RDF(uri, new GeometryContext(myAssistant, null, wkt, srid), geomType);
+	}
+
+
+	/**
+	 * Converts a geometry into suitable RDF triple(s) depending on the specified spatial ontology	
+	 * @param uri  The URI assigned to this feature
+	 * @param geom  The geometry of the feature along with its CRS
+	 * @param geomType  The type of the geometry (e.g., POINT, POLYGON, etc.)
+	 */
+	public void transformGeometry2RDF(String uri, GeometryContext geom, String geomType) {	 
+		
       try {
 
         //Distinguish geometric representation according to the target store (e.g., Virtuoso, GeoSPARQL compliant etc.)
         if (currentConfig.targetGeoOntology.equalsIgnoreCase("wgs84_pos"))        //WGS84 Geoposition RDF vocabulary
-        	insertWGS84Point(uri, wkt);
+        	insertWGS84Point(uri, geom);
         else if (currentConfig.targetGeoOntology.equalsIgnoreCase("Virtuoso"))    //Legacy Virtuoso RDF point geometries
-        	insertVirtuosoPoint(uri, wkt);
+        	insertVirtuosoPoint(uri, geom.getWKT());
         else
-        	insertWKTGeometry(uri, wkt, srid, geomType);            //Encoding geometry with a specific CRS is allowed in GeoSPARQL only
+        	insertWKTGeometry(uri, geom.getWKT(), geom.getSRID(), geomType);            //Encoding geometry with a specific CRS is allowed in GeoSPARQL only
         
         //Type according to GeoSPARQL feature
         createTriple4Resource(uri, RDF.type.getURI(), currentConfig.geometryNS + Constants.FEATURE);
@@ -359,7 +470,7 @@ public class TripleGenerator {
 	  	  wkt = "<http://www.opengis.net/def/crs/EPSG/0/" + srid + "> " + wkt;
 
 	  	  //Triple with the WKT literal
-	  	  createTriple4TypedLiteral(uri + Constants.GEO_URI_SUFFIX, Constants.NS_GEO + Constants.WKT, wkt, TypeMapper.getInstance().getSafeTypeByName(Constants.NS_GEO + Constants.WKTLiteral));
+	  	  createTriple4TypedLiteral(uri + Constants.GEO_URI_SUFFIX, Constants.NS_GEO + Constants.WKT, wkt, wktLiteralType);
 	}
 
 
@@ -370,25 +481,25 @@ public class TripleGenerator {
 	 */
 	private void insertVirtuosoPoint(String uri, String pointWKT) {  
 
-		createTriple4TypedLiteral(uri, Constants.NS_POS + Constants.GEOMETRY, pointWKT, TypeMapper.getInstance().getSafeTypeByName(Constants.NS_VIRT + Constants.GEOMETRY));	    
+		createTriple4TypedLiteral(uri, Constants.NS_POS + Constants.GEOMETRY, pointWKT, virtGeometryType);	    
 	}
 		  
 
 	/**
 	 * Insert a Point geometry of a spatial feature into the Jena model according to legacy WGS84 Geoposition RDF vocabulary
 	 * @param uri  The URI assigned to this feature
-	 * @param pointWKT  Well-Known Text representation of the (point) geometry
+	 * @param geom  The (point) geometry
 	 */
-	private void insertWGS84Point(String uri, String pointWKT) {
+	private void insertWGS84Point(String uri, GeometryContext geom) {
 	    
-		//Get coordinates from the WKT representation
-		double coords[] = myAssistant.getLonLatCoords(pointWKT, 4326);     //Geoposition RDF vocabulary supports WGS84 coordinates only
+		//Get coordinates from the geometry; Geoposition RDF vocabulary supports WGS84 coordinates only
+		double coords[] = (geom.getSRID() == 4326) ? myAssistant.getLonLatCoords(geom) : myAssistant.getLonLatCoords(geom.getWKT(), 4326);
 		
 	  	//X-ordinate as a property
-	  	createTriple4TypedLiteral(uri, Constants.NS_POS + Constants.LONGITUDE, ""+coords[0], TypeMapper.getInstance().getSafeTypeByName(Constants.NS_XSD + "float"));
+	  	createTriple4TypedLiteral(uri, Constants.NS_POS + Constants.LONGITUDE, ""+coords[0], floatType);
 	  	 
 	  	//Y-ordinate as a property
-	  	createTriple4TypedLiteral(uri, Constants.NS_POS + Constants.LATITUDE, ""+coords[1], TypeMapper.getInstance().getSafeTypeByName(Constants.NS_XSD + "float"));
+	  	createTriple4TypedLiteral(uri, Constants.NS_POS + Constants.LATITUDE, ""+coords[1], floatType);
 	}
 
 	/**
@@ -397,19 +508,19 @@ public class TripleGenerator {
 	 * @param attrValues  List of pairs of attributes and their respective values for a given feature
 	 * @return  Argument values to be used in the function call.
 	 */
-	private List<String> getArgValues(List<String> args, Map<String, String> attrValues) {
+	private Object[] getArgValues(String[] args, Map<String, String> attrValues) {
 		
       		//Also include information about the data source provider as specified in the configuration
 			attrValues.put(attrDataSource, currentConfig.featureSource);
 		
-			List<String> argv = new ArrayList<String>();
-			for (String arg: args)
+			Object[] argv = new Object[args.length];
+			for (int i = 0; i < args.length; i++)
 			{
 			    //For each argument, get its actual value to be used by the built-in function
-				String val = attrValues.get(arg);
+				String val = attrValues.get(args[i]);
 				if (val == null)
 					val = "";	      				
-				argv.add(val);             			
+				argv[i] = val;             			
 			}
 			
 			return argv;
@@ -426,8 +537,7 @@ public class TripleGenerator {
 		
   	    try 
   	    {
-  	    	mapProperties mapping;
-  	    	Set<String> indexCompAttrs = new HashSet<String>();      //Retains an index for all composite entities consisting of multiple attributes (e.g., address)
+  	    	stamp++;          //Start a new record, so that links to composite entities (e.g., address) will be issued once for this feature 
   	        	    	
   	        //Include a category identifier, as found in the classification scheme and suffixed with the user-specified namespace
 	      	if ((classific != null) && (classific.getUUID(attrValues.get(currentConfig.attrCategory))) != null)
@@ -439,145 +549,28 @@ public class TripleGenerator {
 	      	//attrValues.put(attrDataSource, currentConfig.featureSource);
 	      	
 	      	//Dynamically generate values for extra attributes using built-in functions
-	      	for (String extraAttr: attrMappings.getExtraThematicAttributes())
+	      	for (MappingPlan.BuiltIn f: plan.getExtraThematicAttributes())
 	      	{
-//	      		if (extraAttr.equalsIgnoreCase(attrURI))                //This is a special case, already handled in the generation of URIs
-//	      			continue;
-	      		
-	      		mapping = attrMappings.find(extraAttr);                 //Mapping associated with this attribute
-	      		
-	      		List<String> args = mapping.getFunctionArguments();     //Identify any arguments that should be used by the generator function
-	      		 
-	      		//Call built-in function in order to assign a value to this extra attribute
-	      		if ((args != null) && (!args.isEmpty()))
-	      		{
-	      			List<String> argv = getArgValues(args, attrValues);
-	      			attrValues.put(extraAttr, (String) myAssistant.applyRuntimeMethod(mapping.getGeneratorFunction(), argv.toArray(new Object[argv.size()]))); 
-	      		}
+	      		//Call built-in function in order to assign a value to this extra attribute, using any arguments specified for it
+	      		if (f.args.length > 0)
+	      			attrValues.put(f.attr, (String) f.function.apply(myAssistant, getArgValues(f.args, attrValues))); 
 	      		else
-	      			attrValues.put(extraAttr, (String) myAssistant.applyRuntimeMethod(mapping.getGeneratorFunction(), new Object[]{}));
+	      			attrValues.put(f.attr, (String) f.function.apply(myAssistant));
 	      	}
 	      	
-  	        //Iterate over each attribute specified in the mapping and insert triple(s) according to its specifications
-  	        for (String key: attrValues.keySet())
+  	        //Iterate over each attribute and insert triple(s) according to the emitter compiled from its mapping
+  	        for (Map.Entry<String, String> attr: attrValues.entrySet())
   	        {
-  	        	if (!key.equals(currentConfig.attrGeometry))    // (!key.equals(currentConfig.attrKey))
+  	        	String val = attr.getValue();  	        		
+  	        	if ((val != null) && (!val.equals("")) && (!val.contains("Null")))       //Issue triples for NOT NULL/non-empty values only
   	        	{
-  	        		String val = attrValues.get(key);  	        		
-  	        		if ((val != null) && (!val.equals("")) && (!val.contains("Null")))       //Issue triples for NOT NULL/non-empty values only
+  	        		MappingPlan.Emitter emitter = plan.getEmitter(attr.getKey());
+  	        		if (emitter != null)                              //No emitter for the geometry or any other attribute not specified in the mapping
   	        		{
-  	        			val = myChecker.removeIllegalChars(val);          //Replace special characters not allowed in literals 	        			
-  	        			mapping = attrMappings.find(key);                 //Mapping associated with this attribute
-  	        			String lang;                                      //Language used in string literals 
-  	        			String entityType = null;                         //Entity type used as a suffix to the URI
-  	        			
-  	        			if (mapping == null)                              //Cannot find a mapping that exactly matches this attribute
-  	        			{
-  	        				//Check whether this is a multi-faceted attribute (e.g., a name in various languages)
-  	        				//FIXME: Wild char '%' is used in YML mappings in order to specify such attributes
-  	        				String attrBase = attrMappings.findMultiFaceted(key);
-  	        				if (attrBase != null)                        //Multi-faceted attribute is specified in the mappings
-  	        					mapping = attrMappings.find(attrBase);   //Mapping associated with this multi-faceted attribute
-
-  	        				if (mapping == null)   //If still no mapping is found, then ...
-  	        				{
-  	        					//Trivial handling of any attribute not specifically mapped to the ontology by emitting triples for (key, value) pairs
-  	        					if (attrMappings.find("_") != null)      //FIXME: Wild-card character used to denote any other attribute not specifically defined in the YML mapping 
-  	        					{
-  	        						mapping = attrMappings.find("_");
-		  	        				createTriple4Resource(uri, mapping.getPredicate(), uri + "/" + key);
-		  	        				createTriple4PlainLiteral(uri + "/" + key, currentConfig.ontologyNS + "key", key);
-		  	        				createTriple4PlainLiteral(uri + "/" + key, currentConfig.ontologyNS + "value", val);
-		  	        				updateStatistics(key);               //Update count of NOT NULL values transformed for this attribute
-  	        					}
-  	        					
-	  	        				continue;
-  	        				}
-  	        				else
-  	        				{
-  	        					//Apply a built-in function 
-  	        					lang = (String) myAssistant.applyRuntimeMethod(mapping.getLanguage(), new Object[]{key, attrBase.length()}); //Language tag is dynamically inferred from the last part of the attribute name
-  	        					if (lang != null)
-  	        						entityType = mapping.getEntityType() + "_" + lang;                 //URIs will also include a language suffix in order to be distinguishable
-  	        					else
-  	        						continue;
-  	        				}
-  	        			}
-  	        			else
-  	        			{
-  	        				lang = mapping.getLanguage();
-  	        				entityType = mapping.getEntityType();
-  	        			}
-    			
-  	        			updateStatistics(key);                          //Update count of NOT NULL values transformed for this attribute
-  	        			
-  	        			//User specifications for transforming this attribute
-  	        			String resPart = mapping.getPart();             //This resource is part of another entity (e.g., streetname is part of address)
-  	        			String resClass = mapping.getInstance();        //This resource instantiates a class (e.g., email instantiates a contact)	
-        				String predicate = mapping.getPredicate();      //Predicate according to the ontology
-        				String resType = mapping.getResourceType();     //Type of the resource                 
-        				RDFDatatype dataType = mapping.getDataType();   //Data type for literals
-        				
-        				//Handle value for this attribute according to its designated mapping profile
-        				switch (mapping.getMappingProfile()) {
-        					case IS_INSTANCE_TAG_LANGUAGE :       //Property is an instance of class in the ontology and also specifies language tag in literals 
-        						createTriple4Resource(uri, predicate, uri + "/" + entityType);
-        						if (myAssistant.isValidISOLanguage(lang)) {      //Check for valid ISO 693-1 language codes
-        							createTriple4LanguageLiteral(uri + "/" + entityType, currentConfig.ontologyNS + resClass + "Value", val, lang);
-        							createTriple4PlainLiteral(uri + "/" + entityType, currentConfig.ontologyNS + "language", lang);
-        						}
-        						else                                              //This is not actually a language code, so treat it like a literal
-        							createTriple4PlainLiteral(uri + "/" + entityType, currentConfig.ontologyNS + resClass + "Value", val);
-        							
-        						if (!resType.trim().toUpperCase().equals("NONE"))     //FIXME: Issue triple for resource type unless it is explicitly suppressed
-        							createTriple4PlainLiteral(uri + "/" + entityType, currentConfig.ontologyNS + resClass + "Type", resType); 
-        						//Also insert a triple for the RDF class of this entity
-        						createTriple4Resource(uri + "/" + entityType, RDF.type.getURI(), currentConfig.ontologyNS + resClass);
-        						break;
-        					case IS_INSTANCE :                    //Property is an instance of class in the ontology without language tags
-        						createTriple4Resource(uri, predicate, uri + "/" + entityType);
-            					createTriple4PlainLiteral(uri + "/" + entityType, currentConfig.ontologyNS + resClass + "Value", val);
-            					createTriple4PlainLiteral(uri + "/" + entityType, currentConfig.ontologyNS + resClass + "Type", resType); 
-            					//Also insert a triple for the RDF class of this entity
-            					createTriple4Resource(uri + "/" + entityType, RDF.type.getURI(), currentConfig.ontologyNS + resClass);
-            					break;
-        					case IS_PART_TAG_LANGUAGE :          //Property is part of a composite class in the ontology and also specifies language tag in literals 
-        						if (!indexCompAttrs.contains(resPart))
-            					{
-            						createTriple4Resource(uri, currentConfig.ontologyNS + entityType, uri + "/" + resPart);
-            						indexCompAttrs.add(resPart);
-            						//Also insert a triple for the RDF class of this entity
-            						createTriple4Resource(uri + "/" + resPart, RDF.type.getURI(), currentConfig.ontologyNS + resPart);
-            					}
-            					createTriple4LanguageLiteral(uri + "/" + resPart, predicate, val, lang);
-            					break;
-        					case IS_PART :                        //Property is part of a composite class in the ontology without language tags
-        						if (!indexCompAttrs.contains(resPart))
-            					{
-            						createTriple4Resource(uri, currentConfig.ontologyNS + entityType, uri + "/" + resPart);
-            						indexCompAttrs.add(resPart);
-            						//Also insert a triple for the RDF class of this entity
-            						createTriple4Resource(uri + "/" + resPart, RDF.type.getURI(), currentConfig.ontologyNS + resPart);
-            					}
-            					createTriple4PlainLiteral(uri + "/" + resPart, predicate, val);
-            					break;
-        					case HAS_DATA_TYPE_URL :             //Property with a URL object; URLs must be valid, otherwise they may be corrected by the checker
-        						createTriple4Resource(uri, predicate, myChecker.cleanupURL(val));
-        						break;
-        					case HAS_DATA_TYPE :                  //Property with a literal having data type specification
-        						createTriple4TypedLiteral(uri, expandNamespace(predicate), val, dataType);
-        						break;
-        					case IS_LITERAL_TAG_LANGUAGE :        //Property with a plain literal having a language tag
-        						createTriple4LanguageLiteral(uri, predicate, val, lang);
-        						break;
-        					case IS_LITERAL :                     //Property with a plain literal without further specifications
-        						createTriple4PlainLiteral(uri, predicate, val);
-        						break;
-        					default:                              //No action
-        							
-        				};			
+  	        			updateStatistics(attr.getKey());              //Update count of NOT NULL values transformed for this attribute
+  	        			emitter.emit(this, uri, myChecker.removeIllegalChars(val));    //Replace special characters not allowed in literals
   	        		}
-        		}
+  	        	}
         	}    
   	    }
   	    catch(Exception e) { 
@@ -624,12 +617,75 @@ public class TripleGenerator {
 	 */
 	private String expandNamespace(String s) {
 		
-		String prefix = s.substring(0, s.indexOf(':'));  //Get the prefix
-		String namespace = prefixes.get(prefix);         //Identify its respective full namespace
-		if (namespace != null)
-			return s.replace(prefix + ":", namespace);   //... and replace it
+		return MappingPlan.expandNamespace(prefixes, s);
+	}
+
+
+	/**
+	 * Provides the node for a predicate as specified (possibly with a prefix), expanding its namespace upon its first use only.
+	 * @param p  A predicate, either prefixed or as a full URI.
+	 * @return  The node for the predicate with its namespace expanded.
+	 */
+	private Node predicateNode(String p) {
+		
+		Node node = predicateNodes.get(p);
+		if (node == null)
+		{
+			node = NodeFactory.createURI(expandNamespace(p));
+			predicateNodes.put(p, node);
+		}
+		return node;
+	}
+
+
+	/**
+	 * Provides the node for a predicate already expanded into a full URI.
+	 * @param p  The full URI of the predicate.
+	 * @return  The node for the predicate.
+	 */
+	private Node uriNode(String p) {
+		
+		Node node = uriNodes.get(p);
+		if (node == null)
+		{
+			node = NodeFactory.createURI(p);
+			uriNodes.put(p, node);
+		}
+		return node;
+	}
+
+
+	/**
+	 * Provides the node for a predicate named after an attribute of the input schema, so that the attribute name is encoded once.
+	 * @param key  The name of the attribute.
+	 * @return  The node for the predicate in the ontology namespace.
+	 * @throws UnsupportedEncodingException
+	 */
+	private Node attrNode(String key) throws UnsupportedEncodingException {
+		
+		Node node = attrNodes.get(key);
+		if (node == null)
+		{
+			node = NodeFactory.createURI(expandNamespace(myChecker.replaceWhiteSpace(currentConfig.ontologyNS + URLEncoder.encode(key, Constants.UTF_8))));
+			attrNodes.put(key, node);
+		}
+		return node;
+	}
+
+	
+	/**
+	 * Checks whether the link to a composite entity (e.g., address) has not yet been issued for the feature currently being transformed.
+	 * @param part  The index of the composite entity in the compiled plan.
+	 * @return  True, if this is the first attribute of the feature that is part of this entity; otherwise, False.
+	 */
+	boolean firstPart(int part) {
 		
-		return s;	 //No replacement took place
+		if (part >= partStamps.length)
+			partStamps = Arrays.copyOf(partStamps, part + 8);
+		if (partStamps[part] == stamp)
+			return false;
+		partStamps[part] = stamp;
+		return true;
 	}
 
 
@@ -642,7 +698,7 @@ public class TripleGenerator {
 	 */
 	private void createTriple4LanguageLiteral(String s, String p, String o, String lang) { 
 		
-	    results.add(new Triple(NodeFactory.createURI(s), NodeFactory.createURI(expandNamespace(p)), NodeFactory.createLiteral(o, lang)));
+		emitLanguageLiteral(s, predicateNode(p), o, lang);
 	}
 
 	
@@ -654,7 +710,7 @@ public class TripleGenerator {
 	 */
 	private void createTriple4PlainLiteral(String s, String p, String o) { 
 		
-	    results.add(new Triple(NodeFactory.createURI(s), NodeFactory.createURI(expandNamespace(p)), NodeFactory.createLiteral(o)));
+		emitPlainLiteral(s, predicateNode(p), o);
 	}
 
 	/**
@@ -665,7 +721,7 @@ public class TripleGenerator {
 	 */
 	private void createTriple4Resource(String s, String p, String o) { 
 		
-	    results.add(new Triple(NodeFactory.createURI(s), NodeFactory.createURI(expandNamespace(p)), NodeFactory.createURI(o)));
+		emitResource(s, predicateNode(p), o);
 	}
 	
 
@@ -678,7 +734,131 @@ public class TripleGenerator {
 	 */
 	private void createTriple4TypedLiteral(String s, String p, String o, RDFDatatype d) { 
 
-	    results.add(new Triple(NodeFactory.createURI(s), NodeFactory.createURI(p), NodeFactory.createLiteral(o, d)));
+		emitTypedLiteral(s, uriNode(p), o, d);
+	}
+	
+	
+	/**
+	 * Issues an RDF triple with a literal having a language tag; its predicate must be already expanded into a full URI.
+	 * @param s  Triple subject
+	 * @param p  Triple predicate (full URI)
+	 * @param o  Triple object literal
+	 * @param lang  Language specification of the literal value
+	 */
+	void emitLanguageLiteral(String s, String p, String o, String lang) {
+		
+		if (encoder != null)
+			encoder.writeLanguageLiteral(s, p, o, lang);
+		else
+			results.add(new Triple(NodeFactory.createURI(s), uriNode(p), NodeFactory.createLiteral(o, lang)));
+	}
+
+
+	/**
+	 * Issues an RDF triple with a literal having a language tag, given the node of its predicate.
+	 * @param s  Triple subject
+	 * @param p  Node of the triple predicate
+	 * @param o  Triple object literal
+	 * @param lang  Language specification of the literal value
+	 */
+	private void emitLanguageLiteral(String s, Node p, String o, String lang) {
+		
+		if (encoder != null)
+			encoder.writeLanguageLiteral(s, p.getURI(), o, lang);
+		else
+			results.add(new Triple(NodeFactory.createURI(s), p, NodeFactory.createLiteral(o, lang)));
+	}
+	
+	
+	/**
+	 * Issues an RDF triple with a plain literal; its predicate must be already expanded into a full URI.
+	 * @param s  Triple subject
+	 * @param p  Triple predicate (full URI)
+	 * @param o  Triple object literal
+	 */
+	void emitPlainLiteral(String s, String p, String o) {
+		
+		if (encoder != null)
+			encoder.writePlainLiteral(s, p, o);
+		else
+			results.add(new Triple(NodeFactory.createURI(s), uriNode(p), NodeFactory.createLiteral(o)));
+	}
+
+
+	/**
+	 * Issues an RDF triple with a plain literal, given the node of its predicate.
+	 * @param s  Triple subject
+	 * @param p  Node of the triple predicate
+	 * @param o  Triple object literal
+	 */
+	private void emitPlainLiteral(String s, Node p, String o) {
+		
+		if (encoder != null)
+			encoder.writePlainLiteral(s, p.getURI(), o);
+		else
+			results.add(new Triple(NodeFactory.createURI(s), p, NodeFactory.createLiteral(o)));
+	}
+	
+	
+	/**
+	 * Issues an RDF triple with a resource as its object; its predicate must be already expanded into a full URI.
+	 * @param s  Triple subject
+	 * @param p  Triple predicate (full URI)
+	 * @param o  Triple object resource
+	 */
+	void emitResource(String s, String p, String o) {
+		
+		if (encoder != null)
+			encoder.writeResource(s, p, o);
+		else
+			results.add(new Triple(NodeFactory.createURI(s), uriNode(p), NodeFactory.createURI(o)));
+	}
+
+
+	/**
+	 * Issues an RDF triple with a resource as its object, given the node of its predicate.
+	 * @param s  Triple subject
+	 * @param p  Node of the triple predicate
+	 * @param o  Triple object resource
+	 */
+	private void emitResource(String s, Node p, String o) {
+		
+		if (encoder != null)
+			encoder.writeResource(s, p.getURI(), o);
+		else
+			results.add(new Triple(NodeFactory.createURI(s), p, NodeFactory.createURI(o)));
+	}
+	
+	
+	/**
+	 * Issues an RDF triple with a literal having a data type specification; its predicate must be already expanded into a full URI.
+	 * @param s  Triple subject
+	 * @param p  Triple predicate (full URI)
+	 * @param o  Triple object literal
+	 * @param d  Data type specification of the literal value
+	 */
+	void emitTypedLiteral(String s, String p, String o, RDFDatatype d) {
+		
+		if (encoder != null)
+			encoder.writeTypedLiteral(s, p, o, d.getURI());
+		else
+			results.add(new Triple(NodeFactory.createURI(s), uriNode(p), NodeFactory.createLiteral(o, d)));
+	}
+
+
+	/**
+	 * Issues an RDF triple with a literal having a data type specification, given the node of its predicate.
+	 * @param s  Triple subject
+	 * @param p  Node of the triple predicate
+	 * @param o  Triple object literal
+	 * @param d  Data type specification of the literal value
+	 */
+	private void emitTypedLiteral(String s, Node p, String o, RDFDatatype d) {
+		
+		if (encoder != null)
+			encoder.writeTypedLiteral(s, p.getURI(), o, d.getURI());
+		else
+			results.add(new Triple(NodeFactory.createURI(s), p, NodeFactory.createLiteral(o, d)));
 	}
 	
 }
@@ -0,0 +1,308 @@
+/*
+ * @(#) UUIDGenerator.java 	 version 1.6   18/10/2026
+ *
+ * Copyright (C) 2013-2018 Information Systems Management Institute, Athena R.C., Greece.
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.slipo.athenarc.triplegeo.utils;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Generates name-based UUIDs (Universally Unique Identifiers) to be used in the URIs of transformed features, so that the same name always yields the same UUID.
+ * Two hashing schemes are supported:
+ * MD5 (default), which issues version 3 UUIDs identical to those of java.util.UUID.nameUUIDFromBytes() over the UTF-8 bytes of the name;
+ * MURMUR3, which issues version 8 UUIDs from the 128-bit MurmurHash3 (x64 variant, seed 0) of the same bytes. This is not cryptographic, but much faster and equally stable across runs.
+ * Since the version number is part of every UUID, the two schemes can never issue the same UUID.
+ * Hash functions and buffers are kept per thread, so that no objects other than the resulting string are created per UUID.
+ * @author agent
+ * @version 1.6
+ */
+
+/* DEVELOPMENT HISTORY
+ * Created by: agent, 18/10/2026
+ * Last modified: 18/10/2026
+ */
+public final class UUIDGenerator {
+
+	/**
+	 * Name of the default scheme, issuing version 3 (MD5) UUIDs.
+	 */
+	public static final String MD5 = "MD5";
+
+	/**
+	 * Name of the fast scheme, issuing version 8 UUIDs based on MurmurHash3.
+	 */
+	public static final String MURMUR3 = "MURMUR3";
+
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+	private static final long C1 = 0x87c37b91114253d5L;     //Constants of MurmurHash3 (x64, 128-bit)
+	private static final long C2 = 0x4cf5ad432745937fL;
+
+	private static final ThreadLocal<MessageDigest> digests = new ThreadLocal<MessageDigest>() {
+		@Override
+		protected MessageDigest initialValue() {
+			try {
+				return MessageDigest.getInstance("MD5");
+			} catch (NoSuchAlgorithmException e) {
+				throw new InternalError("MD5 not supported", e);
+			}
+		}
+	};
+
+	private static final ThreadLocal<Buffers> buffers = new ThreadLocal<Buffers>() {
+		@Override
+		protected Buffers initialValue() {
+			return new Buffers();
+		}
+	};
+
+	/**
+	 * Reusable buffers of a thread for the UTF-8 bytes of names and the characters of UUIDs.
+	 */
+	private static final class Buffers {
+		byte[] bytes = new byte[256];
+		final char[] chars = new char[36];
+	}
+
+	private final boolean murmur;        //True, if MurmurHash3 is used; otherwise, MD5
+
+
+	/**
+	 * Constructor of a generator of UUIDs according to the given scheme.
+	 * @param scheme  The name of the hashing scheme (MD5 or MURMUR3); if null, MD5 is used.
+	 */
+	public UUIDGenerator(String scheme) {
+
+		if ((scheme == null) || scheme.equalsIgnoreCase(MD5))
+			murmur = false;
+		else if (scheme.equalsIgnoreCase(MURMUR3))
+			murmur = true;
+		else
+			throw new IllegalArgumentException("Unknown scheme for UUIDs: " + scheme);
+	}
+
+
+	/**
+	 * Provides the UUID for the given name.
+	 * @param name  The name (e.g., an identifier of a feature).
+	 * @return  The UUID in its canonical string form.
+	 */
+	public String getUUID(String name) {
+
+		return getUUID(name, "");
+	}
+
+
+	/**
+	 * Provides the UUID for the concatenation of a prefix and a name, without actually concatenating them.
+	 * @param prefix  A prefix (e.g., the name of the feature source).
+	 * @param name  The name (e.g., an identifier of a feature).
+	 * @return  The UUID in its canonical string form.
+	 */
+	public String getUUID(String prefix, String name) {
+
+		Buffers buf = buffers.get();
+		int len = encode(buf, String.valueOf(prefix), String.valueOf(name));
+		long msb, lsb;
+
+		if (murmur)
+		{
+			long[] h = murmur3(buf.bytes, len);
+			msb = (h[0] & ~0xF000L) | 0x8000L;                                  //Version 8
+			lsb = (h[1] & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;           //IETF variant
+		}
+		else
+		{
+			MessageDigest md = digests.get();
+			md.update(buf.bytes, 0, len);
+			byte[] d = md.digest();
+			msb = 0;
+			lsb = 0;
+			for (int i = 0; i < 8; i++)
+				msb = (msb << 8) | (d[i] & 0xff);
+			for (int i = 8; i < 16; i++)
+				lsb = (lsb << 8) | (d[i] & 0xff);
+			msb = (msb & ~0xF000L) | 0x3000L;                                   //Version 3
+			lsb = (lsb & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;            //IETF variant
+		}
+
+		//Canonical form: 8-4-4-4-12 hexadecimal digits
+		char[] c = buf.chars;
+		hex(c, 0, msb >>> 32, 8);
+		c[8] = '-';
+		hex(c, 9, msb >>> 16, 4);
+		c[13] = '-';
+		hex(c, 14, msb, 4);
+		c[18] = '-';
+		hex(c, 19, lsb >>> 48, 4);
+		c[23] = '-';
+		hex(c, 24, lsb, 12);
+		return new String(c);
+	}
+
+
+	/**
+	 * Writes the given number of low-order hexadecimal digits of a value into a character buffer.
+	 * @param c  The character buffer.
+	 * @param offset  The position of the first digit in the buffer.
+	 * @param val  The value.
+	 * @param digits  The number of digits.
+	 */
+	private static void hex(char[] c, int offset, long val, int digits) {
+
+		for (int i = offset + digits - 1; i >= offset; i--)
+		{
+			c[i] = HEX[(int) (val & 0xF)];
+			val >>>= 4;
+		}
+	}
+
+
+	/**
+	 * Encodes the concatenation of two strings into UTF-8 bytes in the buffer of the current thread, exactly as String.getBytes() would do for their concatenation.
+	 * @param buf  The buffers of the current thread.
+	 * @param a  The first string.
+	 * @param b  The second string.
+	 * @return  The number of bytes written in the buffer.
+	 */
+	private static int encode(Buffers buf, String a, String b) {
+
+		int la = a.length();
+		int n = la + b.length();
+		if (buf.bytes.length < 3 * n)
+			buf.bytes = new byte[Math.max(3 * n, 2 * buf.bytes.length)];
+		byte[] out = buf.bytes;
+
+		int pos = 0;
+		for (int i = 0; i < n; i++)
+		{
+			char ch = (i < la) ? a.charAt(i) : b.charAt(i - la);
+			if (ch < 0x80)
+				out[pos++] = (byte) ch;
+			else if (ch < 0x800)
+			{
+				out[pos++] = (byte) (0xC0 | (ch >> 6));
+				out[pos++] = (byte) (0x80 | (ch & 0x3F));
+			}
+			else if (Character.isSurrogate(ch))
+			{
+				char next = (i + 1 < n) ? ((i + 1 < la) ? a.charAt(i + 1) : b.charAt(i + 1 - la)) : 0;
+				if (Character.isHighSurrogate(ch) && Character.isLowSurrogate(next))
+				{
+					int cp = Character.toCodePoint(ch, next);
+					out[pos++] = (byte) (0xF0 | (cp >> 18));
+					out[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+					out[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+					out[pos++] = (byte) (0x80 | (cp & 0x3F));
+					i++;
+				}
+				else
+					out[pos++] = (byte) '?';             //Malformed surrogate, replaced as in String.getBytes()
+			}
+			else
+			{
+				out[pos++] = (byte) (0xE0 | (ch >> 12));
+				out[pos++] = (byte) (0x80 | ((ch >> 6) & 0x3F));
+				out[pos++] = (byte) (0x80 | (ch & 0x3F));
+			}
+		}
+		return pos;
+	}
+
+
+	/**
+	 * Calculates the 128-bit MurmurHash3 (x64 variant, seed 0) of a sequence of bytes.
+	 * @param data  The buffer of bytes.
+	 * @param len  The number of bytes to be hashed from the start of the buffer.
+	 * @return  The two 64-bit halves of the hash.
+	 */
+	static long[] murmur3(byte[] data, int len) {
+
+		long h1 = 0, h2 = 0;
+		int nblocks = len >>> 4;
+
+		for (int i = 0; i < nblocks; i++)
+		{
+			long k1 = getLong(data, i << 4);
+			long k2 = getLong(data, (i << 4) + 8);
+
+			k1 *= C1; k1 = Long.rotateLeft(k1, 31); k1 *= C2; h1 ^= k1;
+			h1 = Long.rotateLeft(h1, 27); h1 += h2; h1 = h1 * 5 + 0x52dce729;
+
+			k2 *= C2; k2 = Long.rotateLeft(k2, 33); k2 *= C1; h2 ^= k2;
+			h2 = Long.rotateLeft(h2, 31); h2 += h1; h2 = h2 * 5 + 0x38495ab5;
+		}
+
+		//Remaining bytes
+		long k1 = 0, k2 = 0;
+		int tail = nblocks << 4;
+		switch (len & 15)
+		{
+			case 15: k2 ^= (long) (data[tail + 14] & 0xff) << 48;
+			case 14: k2 ^= (long) (data[tail + 13] & 0xff) << 40;
+			case 13: k2 ^= (long) (data[tail + 12] & 0xff) << 32;
+			case 12: k2 ^= (long) (data[tail + 11] & 0xff) << 24;
+			case 11: k2 ^= (long) (data[tail + 10] & 0xff) << 16;
+			case 10: k2 ^= (long) (data[tail + 9] & 0xff) << 8;
+			case 9:  k2 ^= (long) (data[tail + 8] & 0xff);
+			         k2 *= C2; k2 = Long.rotateLeft(k2, 33); k2 *= C1; h2 ^= k2;
+			case 8:  k1 ^= (long) (data[tail + 7] & 0xff) << 56;
+			case 7:  k1 ^= (long) (data[tail + 6] & 0xff) << 48;
+			case 6:  k1 ^= (long) (data[tail + 5] & 0xff) << 40;
+			case 5:  k1 ^= (long) (data[tail + 4] & 0xff) << 32;
+			case 4:  k1 ^= (long) (data[tail + 3] & 0xff) << 24;
+			case 3:  k1 ^= (long) (data[tail + 2] & 0xff) << 16;
+			case 2:  k1 ^= (long) (data[tail + 1] & 0xff) << 8;
+			case 1:  k1 ^= (long) (data[tail] & 0xff);
+			         k1 *= C1; k1 = Long.rotateLeft(k1, 31); k1 *= C2; h1 ^= k1;
+			default:
+		}
+
+		//Finalization
+		h1 ^= len; h2 ^= len;
+		h1 += h2; h2 += h1;
+		h1 = fmix(h1); h2 = fmix(h2);
+		h1 += h2; h2 += h1;
+
+		return new long[] {h1, h2};
+	}
+
+
+	/**
+	 * Reads a 64-bit little-endian value from a buffer of bytes.
+	 */
+	private static long getLong(byte[] b, int i) {
+
+		return (b[i] & 0xffL) | ((b[i + 1] & 0xffL) << 8) | ((b[i + 2] & 0xffL) << 16) | ((b[i + 3] & 0xffL) << 24)
+				| ((b[i + 4] & 0xffL) << 32) | ((b[i + 5] & 0xffL) << 40) | ((b[i + 6] & 0xffL) << 48) | ((b[i + 7] & 0xffL) << 56);
+	}
+
+
+	/**
+	 * Final mixing of a 64-bit value in MurmurHash3.
+	 */
+	private static long fmix(long k) {
+
+		k ^= k >>> 33;
+		k *= 0xff51afd7ed558ccdL;
+		k ^= k >>> 33;
+		k *= 0xc4ceb9fe1a85ec53L;
+		k ^= k >>> 33;
+		return k;
+	}
+
+}
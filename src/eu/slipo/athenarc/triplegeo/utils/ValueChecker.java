@@ -19,9 +19,11 @@
 package eu.slipo.athenarc.triplegeo.utils;
 
 import java.io.InputStream;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.xml.bind.JAXB;
 import javax.xml.bind.annotation.XmlElement;
@@ -31,7 +33,9 @@ import javax.xml.bind.annotation.XmlElement;
  * Created by: Kostas Patroumpas, 27/7/2018
  * Modified: 27/7/2018; replaced any appearance of the delimiter character in string values
  * Modified: 25/10/2018; supporting a resource XML file that lists user-specified search and replacement strings for literals.
- * Last modified: 25/10/2018
+ * Modified: 18/10/2026; regular expressions compiled once; patterns of single characters applied with a scan that leaves clean values untouched
+ * Modified: 18/10/2026; substrings replaced in a single scan, without searching first for their presence
+ * Last modified: 18/10/2026
  */
 
 
@@ -50,6 +54,9 @@ class Pattern {
 	public String key;
     public String search;
     public String replace;   
+
+    java.util.regex.Pattern regex;      //The search string compiled as a regular expression
+    BitSet chars;                       //Characters matched by the regular expression, if it always matches a single character; otherwise, null
 }
  
 /**
@@ -61,6 +68,9 @@ class Pattern {
 public class ValueChecker {
 
 	private Map<String, Pattern> replacements;     //Dictionary of string values to check (keys) for presence in a given literal and their respective replacements (values)
+	
+	private static final Map<String, BitSet> charClasses = new ConcurrentHashMap<String, BitSet>();   //Characters matched by each regular expression for single characters, shared by all instances
+	private static final java.util.regex.Pattern URL_PROTOCOL = java.util.regex.Pattern.compile("^\\w+://.*");     //A URL with its protocol specified
 	           
     /**
      * Constructs a ValueChecker object that will be used for checking (and possibly correcting) literals for specific anomalies before issuing RDF triples
@@ -84,6 +94,7 @@ public class ValueChecker {
 			Patterns f = JAXB.unmarshal(in, Patterns.class);
 			for (Pattern p : f.patterns)
 			{
+				compile(p);
 				replacements.put(p.key, p);       //Store patterns in the dictionary
 //				System.out.println("Adding pattern " + p.key + ": " + p.search + " --> " + p.replace);
 			}
@@ -93,6 +104,47 @@ public class ValueChecker {
         }
 	 }
 
+	/**
+	 * Compiles the search string of a pattern into a regular expression. If this expression matches single characters only (e.g., a character class),
+	 * the set of matching characters is also identified, so that replacements can be applied in a single scan without regular expressions.
+	 * @param p  A pattern specifying a search regular expression and a replacement string (specified in the external resource XML file).
+	 */
+	private static void compile(Pattern p) {
+		
+		p.regex = java.util.regex.Pattern.compile(p.search);
+		if (isSingleChar(p.search) && (p.replace != null) && (p.replace.indexOf('$') < 0) && (p.replace.indexOf('\\') < 0))
+		{
+			BitSet chars = charClasses.get(p.search);
+			if (chars == null)
+			{
+				chars = new BitSet(Character.MAX_VALUE + 1);
+				java.util.regex.Matcher m = p.regex.matcher("");
+				for (int c = Character.MIN_VALUE; c <= Character.MAX_VALUE; c++)
+				{
+					if (!Character.isSurrogate((char) c) && m.reset(String.valueOf((char) c)).matches())
+						chars.set(c);
+				}
+				charClasses.put(p.search, chars);
+			}
+			p.chars = chars;
+		}
+	}
+	
+	/**
+	 * Checks whether a regular expression is a single (possibly escaped) character or a simple character class, i.e., it always matches exactly one character.
+	 * @param regex  A regular expression.
+	 * @return  True, if the expression matches a single character; otherwise, False.
+	 */
+	private static boolean isSingleChar(String regex) {
+		
+		if ((regex.length() == 1) && ("\\[](){}.*+?^$|".indexOf(regex.charAt(0)) < 0))
+			return true;
+		if ((regex.length() == 2) && (regex.charAt(0) == '\\') && !Character.isLetterOrDigit(regex.charAt(1)))
+			return true;
+		return (regex.length() > 2) && (regex.charAt(0) == '[') && (regex.charAt(regex.length() - 1) == ']') 
+				&& (regex.indexOf('[', 1) < 0) && (regex.indexOf(']') == regex.length() - 1) && (!regex.contains("&&"));
+	}
+
 	/**
 	 * Eliminates illegal characters from the given string value (literal)
 	 * @param val  A string value.
@@ -136,7 +188,7 @@ public class ValueChecker {
 			  //val = val.replaceAll("\\s+","");                                //Eliminate white spaces and invalid characters             
 			  //val = val.replace("\\","/");                                    //Backslash characters '\' are not allowed in URLs	  
 			  //val = val.replaceAll("[^a-zA-Z0-9-._~:/?#@!$&'()*+,;=]", "");   //Any invalid characters like <, >, |, " are eliminated from this URL
-			  if (!val.toLowerCase().matches("^\\w+://.*"))     //This value should be a URL, so put HTTP as its prefix
+			  if (!URL_PROTOCOL.matcher(val.toLowerCase()).matches())     //This value should be a URL, so put HTTP as its prefix
 				  val = "http://" + val;                        //In case that no protocol has been specified, assume that this is HTTP
 		  }
 		  return val;
@@ -163,7 +215,23 @@ public class ValueChecker {
 	   */
 	  public String findReplaceSubstring(String val, Pattern p) {
 		  
-		  return val.replace(p.search, p.replace);
+		  if ((p.search.length() == 1) && (p.replace != null) && (p.replace.length() == 1))      //Single character replaced in one scan; the original literal is returned if not found
+			  return val.replace(p.search.charAt(0), p.replace.charAt(0));
+		  
+		  int i = val.indexOf(p.search);
+		  if ((i < 0) || (p.search.length() == 0) || (p.replace == null))          //Nothing to replace, or left to String.replace()
+			  return (i < 0) ? val : val.replace(p.search, p.replace);
+		  
+		  //Continue from the first occurrence found, so that the literal is scanned only once
+		  StringBuilder sb = new StringBuilder(val.length() + 16);
+		  int from = 0;
+		  do {
+			  sb.append(val, from, i).append(p.replace);
+			  from = i + p.search.length();
+			  i = val.indexOf(p.search, from);
+		  } while (i >= 0);
+		  sb.append(val, from, val.length());
+		  return sb.toString();
 	  }
 	  
 	  /**
@@ -174,6 +242,48 @@ public class ValueChecker {
 	   */
 	  public String findReplacePattern(String val, Pattern p) {
 			  
-		  return val.replaceAll(p.search, p.replace);
+		  if (p.regex == null)                    //Pattern not loaded from the resource file
+			  compile(p);
+		  if (p.chars != null)
+			  return findReplaceChars(val, p);
+		  return p.regex.matcher(val).replaceAll(p.replace);
+	  }
+	  
+	  /**
+	   * Replaces any characters matching a pattern of single characters with its replacement string in a single scan over the literal.
+	   * @param val  A literal value to be searched for the characters.
+	   * @param p  A pattern specifying the characters to be replaced and their replacement string.
+	   * @return  The modified literal after replacement; the original literal, if no such characters were found.
+	   */
+	  private String findReplaceChars(String val, Pattern p) {
+		  
+		  int n = val.length();
+		  int i = 0;
+		  char c;
+		  //Skip the prefix that needs no replacement
+		  for (; i < n; i++)
+		  {
+			  c = val.charAt(i);
+			  if (Character.isSurrogate(c))       //Supplementary characters are left to the regular expression
+				  return p.regex.matcher(val).replaceAll(p.replace);
+			  if (p.chars.get(c))
+				  break;
+		  }
+		  if (i == n)
+			  return val;
+		  
+		  StringBuilder sb = new StringBuilder(n + 16);
+		  sb.append(val, 0, i);
+		  for (; i < n; i++)
+		  {
+			  c = val.charAt(i);
+			  if (Character.isSurrogate(c))
+				  return p.regex.matcher(val).replaceAll(p.replace);
+			  if (p.chars.get(c))
+				  sb.append(p.replace);
+			  else
+				  sb.append(c);
+		  }
+		  return sb.toString();
 	  }
 }
@@ -0,0 +1,228 @@
+/*
+ * @(#) GeodesicBenchmark.java 	 version 1.6   18/10/2026
+ *
+ * Copyright (C) 2013-2018 Information Systems Management Institute, Athena R.C., Greece.
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.slipo.athenarc.triplegeo.utils;
+
+import java.io.File;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.geotools.data.DataStore;
+import org.geotools.data.DataStoreFinder;
+import org.geotools.data.FeatureSource;
+import org.geotools.feature.FeatureIterator;
+import org.geotools.referencing.GeodeticCalculator;
+import org.opengis.feature.simple.SimpleFeature;
+
+import com.vividsolutions.jts.geom.CoordinateSequence;
+import com.vividsolutions.jts.geom.Geometry;
+import com.vividsolutions.jts.geom.LineString;
+import com.vividsolutions.jts.geom.Polygon;
+
+/**
+ * Compares the area and length of geometries calculated by GeodesicCalculator against those of the GeoTools path (auto UTM projection around the centroid) used by Assistant.getArea() and Assistant.getLength().
+ * Lengths are also checked against GeoTools GeodeticCalculator, which measures each segment as a geodesic on the WGS84 ellipsoid; no such reference exists for areas.
+ * Reports the relative differences per feature and the time spent per feature by each path (best of several rounds, after a warm-up).
+ * Usage (from the root directory of TripleGeo; the benchmark profile compiles it along with the tests):
+ * <pre>
+ * mvn -P benchmark test-compile dependency:build-classpath -Dmdep.outputFile=./target/classpath.txt
+ * java -cp ./target/classes:./target/test-classes:$(cat ./target/classpath.txt) eu.slipo.athenarc.triplegeo.utils.GeodesicBenchmark [rounds] [shapefile in WGS84] ...
+ * </pre>
+ * By default, 20 rounds over the sample shapefiles test/data/natural.shp (polygons) and test/data/roads.shp (linestrings).
+ * @author agent
+ * @version 1.6
+ */
+
+/* DEVELOPMENT HISTORY
+ * Created by: agent, 18/10/2026
+ * Modified: 18/10/2026; axis order of coordinates forced to x,y (lon/lat) as in Extractor; compiled through the benchmark profile
+ * Last modified: 18/10/2026
+ */
+public class GeodesicBenchmark {
+
+	private static final Assistant myAssistant = new Assistant();
+	private static volatile double sink;          //Keeps results alive, so that the JIT cannot skip any calculation
+
+	public static void main(String[] args) throws Exception {
+
+		//Same axis order as in Extractor, so that coordinates are interpreted as lon/lat by the GeoTools path
+		System.setProperty("org.geotools.referencing.forceXY", "true");
+
+		int rounds = (args.length > 0) ? Integer.parseInt(args[0]) : 20;
+		String[] files = (args.length > 1) ? Arrays.copyOfRange(args, 1, args.length) : new String[] {"./test/data/natural.shp", "./test/data/roads.shp"};
+
+		List<Geometry> polygons = new ArrayList<Geometry>();
+		List<Geometry> lines = new ArrayList<Geometry>();
+		for (String f: files)
+			readGeometries(f, polygons, lines);
+		System.out.println("Read " + polygons.size() + " polygons and " + lines.size() + " linestrings from " + files.length + " shapefiles.");
+
+		//ACCURACY: relative differences per feature
+		Stats areaVsUTM = new Stats();
+		for (Geometry g: polygons)
+			areaVsUTM.add(GeodesicCalculator.getArea(g), myAssistant.geomFlatTransform(g, 4326).getArea());
+
+		List<Geometry> measured = new ArrayList<Geometry>(lines);
+		measured.addAll(polygons);                    //Perimeters of polygons are also measured
+		Stats lengthVsUTM = new Stats();
+		Stats lengthVsGeodetic = new Stats();
+		Stats utmVsGeodetic = new Stats();
+		for (Geometry g: measured)
+		{
+			double reference = geodeticLength(g);
+			double utm = myAssistant.geomFlatTransform(g, 4326).getLength();
+			double geodesic = GeodesicCalculator.getLength(g);
+			lengthVsUTM.add(geodesic, utm);
+			lengthVsGeodetic.add(geodesic, reference);
+			utmVsGeodetic.add(utm, reference);
+		}
+
+		System.out.println("ACCURACY (relative difference per feature: mean of absolute values / maximum absolute value)");
+		System.out.println("  Area,   GeodesicCalculator vs. GeoTools UTM:           " + areaVsUTM);
+		System.out.println("  Length, GeodesicCalculator vs. GeoTools UTM:           " + lengthVsUTM);
+		System.out.println("  Length, GeodesicCalculator vs. GeoTools geodesics:     " + lengthVsGeodetic);
+		System.out.println("  Length, GeoTools UTM vs. GeoTools geodesics:           " + utmVsGeodetic);
+
+		//RUNTIME: time per feature, best of all rounds after a warm-up round
+		System.out.println("RUNTIME (microseconds per feature, best of " + rounds + " rounds)");
+		System.out.println(String.format("  Area,   GeoTools UTM: %8.2f   GeodesicCalculator: %8.2f", time(polygons, rounds, false, true), time(polygons, rounds, false, false)));
+		System.out.println(String.format("  Length, GeoTools UTM: %8.2f   GeodesicCalculator: %8.2f", time(measured, rounds, true, true), time(measured, rounds, true, false)));
+	}
+
+
+	/**
+	 * Reads all (multi)polygon and (multi)linestring geometries from a shapefile georeferenced in WGS84.
+	 */
+	private static void readGeometries(String path, List<Geometry> polygons, List<Geometry> lines) throws Exception {
+
+		Map<String, Serializable> map = new HashMap<String, Serializable>();
+		map.put("url", new File(path).toURI().toURL());
+		DataStore dataStore = DataStoreFinder.getDataStore(map);
+		FeatureSource<?, ?> featureSource = dataStore.getFeatureSource(dataStore.getTypeNames()[0]);
+		FeatureIterator<?> iterator = featureSource.getFeatures().features();
+		try {
+			while (iterator.hasNext())
+			{
+				Geometry g = (Geometry) ((SimpleFeature) iterator.next()).getDefaultGeometry();
+				if ((g == null) || (g.isEmpty()))
+					continue;
+				if (g.getDimension() == 2)
+					polygons.add(g);
+				else if (g.getDimension() == 1)
+					lines.add(g);
+			}
+		} finally {
+			iterator.close();
+			dataStore.dispose();
+		}
+	}
+
+
+	/**
+	 * Measures the length of a geometry as the sum of geodesics on the WGS84 ellipsoid between consecutive vertices, as calculated by GeoTools.
+	 */
+	private static double geodeticLength(Geometry g) {
+
+		double length = 0.0;
+		for (int i = 0; i < g.getNumGeometries(); i++)
+		{
+			Geometry part = g.getGeometryN(i);
+			if (part instanceof LineString)
+				length += geodeticLength(((LineString) part).getCoordinateSequence());
+			else if (part instanceof Polygon)
+			{
+				Polygon p = (Polygon) part;
+				length += geodeticLength(p.getExteriorRing().getCoordinateSequence());
+				for (int j = 0; j < p.getNumInteriorRing(); j++)
+					length += geodeticLength(p.getInteriorRingN(j).getCoordinateSequence());
+			}
+		}
+		return length;
+	}
+
+	private static double geodeticLength(CoordinateSequence seq) {
+
+		GeodeticCalculator calc = new GeodeticCalculator();
+		double length = 0.0;
+		for (int i = 1; i < seq.size(); i++)
+		{
+			calc.setStartingGeographicPoint(seq.getX(i - 1), seq.getY(i - 1));
+			calc.setDestinationGeographicPoint(seq.getX(i), seq.getY(i));
+			length += calc.getOrthodromicDistance();
+		}
+		return length;
+	}
+
+
+	/**
+	 * Measures the time needed to calculate the area or length of all geometries with either path.
+	 * @return  The best time per feature (in microseconds) among all rounds.
+	 */
+	private static double time(List<Geometry> geometries, int rounds, boolean length, boolean utm) {
+
+		long best = Long.MAX_VALUE;
+		for (int r = 0; r <= rounds; r++)             //Round 0 is a warm-up
+		{
+			double sum = 0.0;
+			long start = System.nanoTime();
+			for (Geometry g: geometries)
+			{
+				if (utm)
+				{
+					Geometry projected = myAssistant.geomFlatTransform(g, 4326);
+					sum += length ? projected.getLength() : projected.getArea();
+				}
+				else
+					sum += length ? GeodesicCalculator.getLength(g) : GeodesicCalculator.getArea(g);
+			}
+			long elapsed = System.nanoTime() - start;
+			sink = sum;
+			if (r > 0)
+				best = Math.min(best, elapsed);
+		}
+		return best / 1000.0 / Math.max(1, geometries.size());
+	}
+
+
+	/**
+	 * Collects relative differences of values against their reference.
+	 */
+	private static class Stats {
+		private int count = 0;
+		private double sum = 0.0;
+		private double max = 0.0;
+
+		void add(double value, double reference) {
+			if (reference == 0.0)
+				return;
+			double diff = Math.abs(value - reference) / Math.abs(reference);
+			count++;
+			sum += diff;
+			max = Math.max(max, diff);
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%.5f%% / %.5f%% (%d features)", (count > 0) ? 100 * sum / count : 0.0, 100 * max, count);
+		}
+	}
+}
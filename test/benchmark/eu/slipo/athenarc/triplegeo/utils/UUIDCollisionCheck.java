@@ -0,0 +1,136 @@
+/*
+ * @(#) UUIDCollisionCheck.java 	 version 1.6   18/10/2026
+ *
+ * Copyright (C) 2013-2018 Information Systems Management Institute, Athena R.C., Greece.
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.slipo.athenarc.triplegeo.utils;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Migration check for the UUIDs of feature URIs: hashes names taken from sample datasets under both schemes of UUIDGenerator and verifies that
+ * MD5 UUIDs are identical to those of UUID.nameUUIDFromBytes() (as issued before UUIDGenerator), and that no two distinct names get the same UUID, neither within a scheme nor across schemes.
+ * Names are all tokens of the text files (e.g., OSM XML, CSV, GeoJSON, GML, KML, GPX) in the given directories, each one alone and prefixed with every feature source used in the sample configurations.
+ * Usage (from the root directory of TripleGeo; the benchmark profile compiles it along with the tests):
+ * <pre>
+ * mvn -P benchmark test-compile
+ * java -cp ./target/classes:./target/test-classes eu.slipo.athenarc.triplegeo.utils.UUIDCollisionCheck [directory] ...
+ * </pre>
+ * By default, the sample datasets in test/data. An IllegalStateException is thrown on the first violation.
+ * @author agent
+ * @version 1.6
+ */
+
+/* DEVELOPMENT HISTORY
+ * Created by: agent, 18/10/2026
+ * Last modified: 18/10/2026
+ */
+public class UUIDCollisionCheck {
+
+	//Feature sources specified in the sample configurations; the empty prefix stands for UUIDs over identifiers alone (e.g., categories)
+	private static final String[] PREFIXES = {"", "OSM_sample_points", "OpenStreetMap", "OSM_GeoDB_samples", "GeoJSON_OSM_samples", "GPX_POI_samples", "OpenChargeMap"};
+
+	private static final Set<String> TEXT_EXTENSIONS = new LinkedHashSet<String>(Arrays.asList("osm", "csv", "geojson", "json", "gml", "kml", "gpx", "xml", "txt"));
+
+	public static void main(String[] args) throws Exception {
+
+		String[] dirs = (args.length > 0) ? args : new String[] {"./test/data"};
+
+		Set<String> tokens = new LinkedHashSet<String>();
+		int numFiles = 0;
+		for (String d: dirs)
+			numFiles += readTokens(new File(d), tokens);
+		System.out.println("Read " + tokens.size() + " distinct tokens from " + numFiles + " files.");
+
+		UUIDGenerator md5 = new UUIDGenerator(UUIDGenerator.MD5);
+		UUIDGenerator murmur = new UUIDGenerator(UUIDGenerator.MURMUR3);
+		Map<String, String> issued = new HashMap<String, String>();     //UUIDs issued under either scheme and the names they were issued for
+		Set<String> names = new HashSet<String>();
+
+		for (String prefix: PREFIXES)
+			for (String token: tokens)
+			{
+				String name = prefix + token;
+				if (!names.add(name))                //Same name from another prefix and token, hence the same UUIDs
+					continue;
+
+				String expected = UUID.nameUUIDFromBytes(name.getBytes(StandardCharsets.UTF_8)).toString();
+				String uuid = md5.getUUID(prefix, token);
+				if (!uuid.equals(expected))
+					throw new IllegalStateException("MD5 UUID " + uuid + " of [" + name + "] differs from " + expected + ".");
+				register(issued, uuid, "MD5", name);
+
+				uuid = murmur.getUUID(prefix, token);
+				if (uuid.charAt(14) != '8')
+					throw new IllegalStateException("MURMUR3 UUID " + uuid + " of [" + name + "] is not of version 8.");
+				register(issued, uuid, "MURMUR3", name);
+			}
+
+		System.out.println("Hashed " + names.size() + " names (" + tokens.size() + " tokens with " + PREFIXES.length + " prefixes) under both schemes: "
+				+ "MD5 UUIDs identical to UUID.nameUUIDFromBytes(), no collisions within or across schemes among " + issued.size() + " UUIDs.");
+	}
+
+
+	/**
+	 * Records a UUID, unless it has already been issued for another name.
+	 */
+	private static void register(Map<String, String> issued, String uuid, String scheme, String name) {
+
+		String previous = issued.put(uuid, scheme + " [" + name + "]");
+		if (previous != null)
+			throw new IllegalStateException("Collision: " + scheme + " UUID " + uuid + " of [" + name + "] already issued by " + previous + ".");
+	}
+
+
+	/**
+	 * Collects the tokens of all text files in a directory and its subdirectories, i.e., maximal sequences of letters, digits and characters often found in identifiers (_ - . :).
+	 * @return  The number of files read.
+	 */
+	private static int readTokens(File dir, Set<String> tokens) throws Exception {
+
+		File[] files = dir.listFiles();
+		if (files == null)
+			return 0;
+		Arrays.sort(files);
+
+		int numFiles = 0;
+		for (File f: files)
+		{
+			if (f.isDirectory())
+			{
+				numFiles += readTokens(f, tokens);
+				continue;
+			}
+			String ext = f.getName().substring(f.getName().lastIndexOf('.') + 1).toLowerCase();
+			if (!TEXT_EXTENSIONS.contains(ext))
+				continue;
+			for (String t: new String(Files.readAllBytes(f.toPath()), StandardCharsets.UTF_8).split("[^\\p{L}\\p{N}_.:\\-]+"))
+				if (!t.isEmpty())
+					tokens.add(t);
+			numFiles++;
+		}
+		return numFiles;
+	}
+}
@@ -0,0 +1,231 @@
+/*
+ * @(#) ValueCheckerBenchmark.java 	 version 1.6   18/10/2026
+ *
+ * Copyright (C) 2013-2018 Information Systems Management Institute, Athena R.C., Greece.
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.slipo.athenarc.triplegeo.utils;
+
+import java.io.File;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.bind.JAXB;
+import javax.xml.parsers.SAXParserFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.xml.sax.Attributes;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * JMH benchmark that compares the time needed to clean up literals with ValueChecker against the baseline path that applies each pattern of the resource file with String.replaceAll() on every call.
+ * Input values are the tag values of an OSM XML file (property benchmark.osm, by default the sample file test/data/latest.osm), either as they are ("clean")
+ * or with a double quote, a newline and a delimiter injected in each of them ("dirty"). Each benchmark invocation cleans up the next value in turn, so scores are per value.
+ * Before measuring, the results of both paths are checked to be identical for every value.
+ * Usage (from the root directory of TripleGeo; the benchmark profile compiles it along with the tests and generates the JMH harness):
+ * <pre>
+ * mvn -P benchmark test-compile dependency:build-classpath -Dmdep.outputFile=./target/classpath.txt
+ * java -cp ./target/classes:./target/test-classes:$(cat ./target/classpath.txt) org.openjdk.jmh.Main ValueCheckerBenchmark
+ * </pre>
+ * @author agent
+ * @version 1.6
+ */
+
+/* DEVELOPMENT HISTORY
+ * Created by: agent, 18/10/2026
+ * Modified: 18/10/2026; converted into a JMH benchmark
+ * Last modified: 18/10/2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-XX:+IgnoreUnrecognizedVMOptions", "--add-opens=java.base/java.lang=ALL-UNNAMED"})      //JAXB (used to read the resource file) needs reflective access on JDK 9+; ignored by JDK 8
+public class ValueCheckerBenchmark {
+
+	private static final List<String> OPERATIONS = Arrays.asList("removeIllegalChars", "removeDelimiter", "cleanupURL", "replaceWhiteSpace");
+
+	@Param({"removeIllegalChars", "removeDelimiter", "cleanupURL", "replaceWhiteSpace"})
+	public String operation;
+
+	@Param({"clean", "dirty"})
+	public String values;
+
+	private String[] input;
+	private int next = 0;
+	private int op;
+	private ValueChecker checker;
+	private BaselineChecker baseline;
+
+	@Setup
+	public void setup() throws Exception {
+
+		List<String> tags = readTagValues(System.getProperty("benchmark.osm", "./test/data/latest.osm"));
+		input = new String[tags.size()];
+		for (int i = 0; i < input.length; i++)
+		{
+			String v = tags.get(i);
+			int mid = v.length() / 2;
+			input[i] = values.equals("dirty") ? v.substring(0, mid) + "\"\n|" + v.substring(mid) : v;
+		}
+
+		op = OPERATIONS.indexOf(operation);
+
+		checker = new ValueChecker();
+		baseline = new BaselineChecker();
+
+		//Both paths must produce identical results
+		for (String v: input)
+		{
+			String expected = apply(baseline, v);
+			String actual = apply(checker, v);
+			if (!expected.equals(actual))
+				throw new IllegalStateException(operation + " differs for value [" + v + "]: [" + actual + "] instead of [" + expected + "].");
+		}
+	}
+
+	@Benchmark
+	public String baseline() {
+		return apply(baseline, nextValue());
+	}
+
+	@Benchmark
+	public String checker() {
+		return apply(checker, nextValue());
+	}
+
+	private String nextValue() {
+		String v = input[next];
+		if (++next == input.length)
+			next = 0;
+		return v;
+	}
+
+
+	/**
+	 * Reads the values of all tags in an OSM XML file.
+	 */
+	private static List<String> readTagValues(String path) throws Exception {
+
+		final List<String> values = new ArrayList<String>();
+		SAXParserFactory.newInstance().newSAXParser().parse(new File(path), new DefaultHandler() {
+			@Override
+			public void startElement(String uri, String localName, String qName, Attributes attributes) {
+				if (qName.equals("tag") && (attributes.getValue("v") != null))
+					values.add(attributes.getValue("v"));
+			}
+		});
+		return values;
+	}
+
+
+	/**
+	 * Applies the benchmarked operation on a value with ValueChecker.
+	 */
+	private String apply(ValueChecker c, String val) {
+
+		switch (op) {
+		case 0: return c.removeIllegalChars(val);
+		case 1: return c.removeDelimiter(val);
+		case 2: return c.cleanupURL(val);
+		default: return c.replaceWhiteSpace(val);
+		}
+	}
+
+	/**
+	 * Applies the benchmarked operation on a value with the baseline path.
+	 */
+	private String apply(BaselineChecker c, String val) {
+
+		switch (op) {
+		case 0: return c.removeIllegalChars(val);
+		case 1: return c.removeDelimiter(val);
+		case 2: return c.cleanupURL(val);
+		default: return c.replaceWhiteSpace(val);
+		}
+	}
+
+
+	/**
+	 * The baseline path, as in ValueChecker before its patterns were precompiled: each regular expression is compiled again by String.replaceAll() on every call.
+	 */
+	private static class BaselineChecker {
+
+		private Map<String, Pattern> replacements = new HashMap<String, Pattern>();
+
+		BaselineChecker() {
+			InputStream in = getClass().getResourceAsStream("/replacements.xml");
+			for (Pattern p : JAXB.unmarshal(in, Patterns.class).patterns)
+				replacements.put(p.key, p);
+		}
+
+		String removeIllegalChars(String val) {
+			if (val != null)
+			{
+				val = findReplacePattern(val, replacements.get("DOUBLE_QUOTE"));
+				return findReplacePattern(val, replacements.get("TAB_NEWLINE"));
+			}
+			return "";
+		}
+
+		String removeDelimiter(String val) {
+			if (val != null)
+				return findReplaceSubstring(val, replacements.get("CSV_DEFAULT_DELIMITER"));
+			return "";
+		}
+
+		String cleanupURL(String val) {
+			if (val != null)
+			{
+				val = findReplacePattern(val, replacements.get("WHITE_SPACE"));
+				val = findReplaceSubstring(val, replacements.get("URL_BACKSLASH"));
+				val = findReplacePattern(val, replacements.get("VALIDATE_URL"));
+				if (!val.toLowerCase().matches("^\\w+://.*"))
+					val = "http://" + val;
+			}
+			return val;
+		}
+
+		String replaceWhiteSpace(String val) {
+			if (val != null)
+				return findReplaceSubstring(val, replacements.get("WHITE_SPACE"));
+			return val;
+		}
+
+		String findReplaceSubstring(String val, Pattern p) {
+			return val.replace(p.search, p.replace);
+		}
+
+		String findReplacePattern(String val, Pattern p) {
+			return val.replaceAll(p.search, p.replace);
+		}
+	}
+}
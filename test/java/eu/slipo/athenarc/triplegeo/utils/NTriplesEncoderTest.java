@@ -0,0 +1,175 @@
+/*
+ * @(#) NTriplesEncoderTest.java 	 version 1.6   18/10/2026
+ *
+ * Copyright (C) 2013-2018 Information Systems Management Institute, Athena R.C., Greece.
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.slipo.athenarc.triplegeo.utils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.jena.datatypes.TypeMapper;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFWriter;
+import org.junit.Test;
+
+/**
+ * Checks that NTriplesEncoder produces exactly the same bytes as the Jena riot stream writer for N-TRIPLES, which it replaces in STREAM mode with direct encoding.
+ * @author agent
+ * @version 1.6
+ */
+
+/* DEVELOPMENT HISTORY
+ * Created by: agent, 18/10/2026
+ * Last modified: 18/10/2026
+ */
+public class NTriplesEncoderTest {
+
+	private static final String NS = "http://slipo.eu/id/poi/";
+	private static final String XSD = "http://www.w3.org/2001/XMLSchema#";
+
+	//Lexical forms covering escaped characters, other control characters, and multi-byte UTF-8 sequences (incl. supplementary characters)
+	private static final String[] VALUES = {
+		"",
+		"Municipal Garden",
+		"say \"hello\"",
+		"C:\\temp\\file",
+		"line1\nline2\r\nline3",
+		"tab\there",
+		"form\ffeed",
+		"bell\u0007 backspace\b del\u007F nul\u0000",
+		"<tag> & 'quote'",
+		"Δημοτικός Κήπος",
+		"Ελλάδα — Αθήνα € ©",
+		"東京都",
+		"pin \uD83D\uDCCD emoji",
+		"POINT (23.7275 37.9838)",
+	};
+
+	//IRIs, as written verbatim by both writers (e.g., IRIs of features with encoded characters, or of other namespaces)
+	private static final String[] IRIS = {
+		NS + "a1b2c3d4-0000-1111-2222-333344445555",
+		"http://slipo.eu/def#name",
+		"http://www.opengis.net/ont/geosparql#asWKT",
+		NS + "Caf%C3%A9_%22Ermou%22",
+		"http://el.dbpedia.org/resource/Αθήνα",
+		"urn:uuid:123e4567-e89b-12d3-a456-426655440000",
+	};
+
+	private static final String[] LANGS = {"en", "el", "en-GB", "zh-Hant"};
+
+	private static final String[] DATATYPES = {
+		XSD + "string",
+		XSD + "integer",
+		XSD + "double",
+		XSD + "dateTime",
+		"http://www.opengis.net/ont/geosparql#wktLiteral",
+	};
+
+
+	/**
+	 * Encodes the same triples with both writers.
+	 * @param rounds  Number of times the fixture is encoded; many rounds make the encoder flush its buffer in the middle of triples.
+	 */
+	private static void assertSameBytes(int rounds) {
+
+		ByteArrayOutputStream expected = new ByteArrayOutputStream();
+		StreamRDF stream = StreamRDFWriter.getWriterStream(expected, Lang.NT);
+		stream.start();
+
+		ByteArrayOutputStream actual = new ByteArrayOutputStream();
+		NTriplesEncoder encoder = new NTriplesEncoder(Channels.newChannel(actual));
+
+		int numTriples = 0;
+		for (int r = 0; r < rounds; r++)
+		{
+			for (int i = 0; i < IRIS.length; i++)
+			{
+				String s = IRIS[i] + ((rounds > 1) ? "/" + r : "");
+				String p = IRIS[(i + 1) % IRIS.length];
+				String o = IRIS[(i + 2) % IRIS.length];
+				stream.triple(new Triple(uri(s), uri(p), uri(o)));
+				encoder.writeResource(s, p, o);
+				numTriples++;
+			}
+
+			for (int i = 0; i < VALUES.length; i++)
+			{
+				String s = IRIS[i % IRIS.length];
+				String p = IRIS[(i + 1) % IRIS.length];
+
+				stream.triple(new Triple(uri(s), uri(p), NodeFactory.createLiteral(VALUES[i])));
+				encoder.writePlainLiteral(s, p, VALUES[i]);
+
+				String lang = LANGS[i % LANGS.length];
+				stream.triple(new Triple(uri(s), uri(p), NodeFactory.createLiteral(VALUES[i], lang)));
+				encoder.writeLanguageLiteral(s, p, VALUES[i], lang);
+
+				stream.triple(new Triple(uri(s), uri(p), NodeFactory.createLiteral(VALUES[i], "")));
+				encoder.writeLanguageLiteral(s, p, VALUES[i], "");
+
+				String datatype = DATATYPES[i % DATATYPES.length];
+				stream.triple(new Triple(uri(s), uri(p), NodeFactory.createLiteral(VALUES[i], TypeMapper.getInstance().getSafeTypeByName(datatype))));
+				encoder.writeTypedLiteral(s, p, VALUES[i], datatype);
+
+				numTriples += 4;
+			}
+		}
+
+		stream.finish();
+		encoder.flush();
+
+		assertEquals(numTriples, encoder.getNumTriples());
+		byte[] jena = expected.toByteArray();
+		byte[] direct = actual.toByteArray();
+		assertEquals(new String(jena, StandardCharsets.UTF_8), new String(direct, StandardCharsets.UTF_8));
+		assertArrayEquals(jena, direct);
+	}
+
+	private static Node uri(String iri) {
+		return NodeFactory.createURI(iri);
+	}
+
+
+	@Test
+	public void encodesFixtureLikeJena() {
+		assertSameBytes(1);
+	}
+
+	@Test
+	public void encodesLikeJenaAcrossBufferFlushes() {
+		assertSameBytes(5000);           //About 3 MB of output, i.e., several flushes of the 1 MB buffer
+	}
+
+	@Test
+	public void replacesUnpairedSurrogates() {
+		//Jena fails on such values with a MalformedInputException, so they are only checked against the documented replacement
+		ByteArrayOutputStream actual = new ByteArrayOutputStream();
+		NTriplesEncoder encoder = new NTriplesEncoder(Channels.newChannel(actual));
+		encoder.writePlainLiteral(IRIS[0], IRIS[1], "lone \uD800 high, lone \uDC00 low, \uDC00\uD800 reversed");
+		encoder.flush();
+		assertEquals("<" + IRIS[0] + "> <" + IRIS[1] + "> \"lone ? high, lone ? low, ?? reversed\" .\n", new String(actual.toByteArray(), StandardCharsets.UTF_8));
+	}
+
+}
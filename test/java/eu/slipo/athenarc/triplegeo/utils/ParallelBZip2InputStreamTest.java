@@ -0,0 +1,153 @@
+/*
+ * @(#) ParallelBZip2InputStreamTest.java 	 version 1.6   18/10/2026
+ *
+ * Copyright (C) 2013-2018 Information Systems Management Institute, Athena R.C., Greece.
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.slipo.athenarc.triplegeo.utils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorOutputStream;
+import org.junit.Test;
+
+/**
+ * Checks that ParallelBZip2InputStream restores the original contents of bzip2 files with several blocks and streams,
+ * and that a block split by a block signature occurring by chance within its compressed data is decompressed correctly once its parts are merged.
+ * @author agent
+ * @version 1.6
+ */
+
+/* DEVELOPMENT HISTORY
+ * Created by: agent, 18/10/2026
+ * Last modified: 18/10/2026
+ */
+public class ParallelBZip2InputStreamTest {
+
+	private static final String[] WORDS = {"node", "way", "relation", "tag", "amenity", "restaurant", "highway", "residential", "name", "Αθήνα", "<nd ref=\"", "\"/>\n"};
+
+	/**
+	 * Generates text resembling an OSM XML file, so that it is compressed into blocks of realistic sizes.
+	 */
+	private static byte[] text(int size, long seed) {
+
+		Random random = new Random(seed);
+		StringBuilder sb = new StringBuilder(size + 32);
+		while (sb.length() < size)
+			sb.append(WORDS[random.nextInt(WORDS.length)]).append(random.nextInt(100000)).append(' ');
+		return sb.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Compresses data into a bzip2 stream with blocks of 100KB.
+	 */
+	private static byte[] compress(byte[] data) throws IOException {
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (BZip2CompressorOutputStream bz = new BZip2CompressorOutputStream(out, 1)) {
+			bz.write(data);
+		}
+		return out.toByteArray();
+	}
+
+	private static byte[] readAll(InputStream in) throws IOException {
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buf = new byte[8192];
+		int n;
+		while ((n = in.read(buf, 0, buf.length)) > 0)
+			out.write(buf, 0, n);
+		return out.toByteArray();
+	}
+
+	/**
+	 * Splits a segment at the given bit, as if a block signature had been found there.
+	 */
+	private static ParallelBZip2InputStream.Segment[] split(ParallelBZip2InputStream.Segment s, long bit) {
+
+		ParallelBZip2InputStream.Segment head = new ParallelBZip2InputStream.Segment();
+		head.data = s.data;
+		head.bitOffset = s.bitOffset;
+		head.numBits = bit;
+		head.startBit = s.startBit;
+
+		ParallelBZip2InputStream.Segment tail = new ParallelBZip2InputStream.Segment();
+		long pos = s.bitOffset + bit;
+		tail.data = Arrays.copyOfRange(s.data, (int) (pos >>> 3), s.data.length);
+		tail.bitOffset = (int) (pos & 7);
+		tail.numBits = s.numBits - bit;
+		tail.startBit = s.startBit + bit;
+
+		return new ParallelBZip2InputStream.Segment[] {head, tail};
+	}
+
+
+	@Test
+	public void restoresBlocksOfConcatenatedStreamsInOrder() throws IOException {
+
+		byte[] first = text(450000, 1);
+		byte[] second = text(250000, 2);
+		ByteArrayOutputStream input = new ByteArrayOutputStream();
+		input.write(compress(first));
+		input.write(compress(second));          //As created by pbzip2
+
+		ByteArrayOutputStream expected = new ByteArrayOutputStream();
+		expected.write(first);
+		expected.write(second);
+
+		try (ParallelBZip2InputStream in = new ParallelBZip2InputStream(new ByteArrayInputStream(input.toByteArray()), 4)) {
+			assertArrayEquals(expected.toByteArray(), readAll(in));
+		}
+	}
+
+	@Test
+	public void decompressesBlockSplitByFalseSignature() throws IOException {
+
+		byte[] data = text(250000, 3);
+		List<ParallelBZip2InputStream.Segment> segments = new ArrayList<ParallelBZip2InputStream.Segment>();
+		try (ParallelBZip2InputStream in = new ParallelBZip2InputStream(new ByteArrayInputStream(compress(data)), 1)) {
+			ParallelBZip2InputStream.Segment s;
+			while ((s = in.scan()) != null)
+				segments.add(s);
+		}
+		assertTrue("Expected several blocks, found " + segments.size(), segments.size() > 1);
+
+		for (ParallelBZip2InputStream.Segment s: segments)
+		{
+			byte[] expected = ParallelBZip2InputStream.decompress(new ParallelBZip2InputStream.Segment[] {s});
+
+			//Signatures found right after the CRC of the block, within its data, and just before its end
+			for (long bit: new long[] {80, 81, 1000, s.numBits / 2 + 3, s.numBits - 49})
+				assertArrayEquals("Block at bit " + s.startBit + " split at bit " + bit, expected, ParallelBZip2InputStream.decompress(split(s, bit)));
+
+			//Block split twice
+			ParallelBZip2InputStream.Segment[] halves = split(s, s.numBits / 3);
+			ParallelBZip2InputStream.Segment[] quarters = split(halves[1], halves[1].numBits / 2);
+			assertArrayEquals(expected, ParallelBZip2InputStream.decompress(new ParallelBZip2InputStream.Segment[] {halves[0], quarters[0], quarters[1]}));
+		}
+	}
+
+}